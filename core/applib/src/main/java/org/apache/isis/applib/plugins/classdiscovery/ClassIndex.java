@@ -0,0 +1,125 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.applib.plugins.classdiscovery;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A build-time index of the classes of a jar (or classes directory), stored as the resource {@link #RESOURCE_NAME}
+ * and read by {@link ClassDiscoveryPlugin}s in place of scanning that jar.
+ * <p>
+ * Each line of the index describes one class: its name, the names of the annotations present on it or on any of its
+ * supertypes, and the names of all of its supertypes (other than {@link Object}), separated by tabs; the names
+ * within each of the latter are separated by commas. Lines starting with <tt>#</tt> are comments.
+ * </p>
+ * 
+ * @since 2.0.0
+ */
+public final class ClassIndex {
+
+	public static final String RESOURCE_NAME = "META-INF/isis/class-index";
+
+	public static final class Entry {
+
+		private final String className;
+		private final Set<String> annotationNames;
+		private final Set<String> supertypeNames;
+
+		public Entry(String className, Collection<String> annotationNames, Collection<String> supertypeNames) {
+			this.className = className;
+			this.annotationNames = Collections.unmodifiableSet(new LinkedHashSet<>(annotationNames));
+			this.supertypeNames = Collections.unmodifiableSet(new LinkedHashSet<>(supertypeNames));
+		}
+
+		public String getClassName() {
+			return className;
+		}
+
+		/**
+		 * The annotations present on this class or inherited from any of its supertypes.
+		 */
+		public Set<String> getAnnotationNames() {
+			return annotationNames;
+		}
+
+		/**
+		 * All superclasses and interfaces (transitively), excluding {@link Object}.
+		 */
+		public Set<String> getSupertypeNames() {
+			return supertypeNames;
+		}
+	}
+
+	private ClassIndex(){}
+
+	// -- READ
+
+	public static List<Entry> read(InputStream in) throws IOException {
+		final List<Entry> entries = new ArrayList<>();
+		final BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+		String line;
+		while((line = reader.readLine()) != null) {
+			if(line.isEmpty() || line.startsWith("#")) {
+				continue;
+			}
+			final String[] columns = line.split("\t", -1);
+			entries.add(new Entry(
+					columns[0], 
+					namesIn(columns, 1), 
+					namesIn(columns, 2)));
+		}
+		return entries;
+	}
+
+	private static List<String> namesIn(String[] columns, int column) {
+		if(columns.length <= column || columns[column].isEmpty()) {
+			return Collections.emptyList();
+		}
+		return Arrays.asList(columns[column].split(","));
+	}
+
+	// -- WRITE
+
+	public static void write(Collection<Entry> entries, Writer writer) throws IOException {
+		writer.write("# class index; generated at build time, do not edit\n");
+		for (Entry entry : entries) {
+			writer.write(entry.getClassName());
+			writer.write('\t');
+			writer.write(String.join(",", entry.getAnnotationNames()));
+			writer.write('\t');
+			writer.write(String.join(",", entry.getSupertypeNames()));
+			writer.write('\n');
+		}
+		writer.flush();
+	}
+
+}
@@ -0,0 +1,52 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.applib.query;
+
+/**
+ * As {@link QueryFindAllInstances}, but restricted to the instances matching a {@link QueryPredicate}.
+ *
+ * <p>
+ * The predicate (and any range) is evaluated by the datastore where possible.
+ * </p>
+ */
+public class QueryFindAllInstancesMatching<T> extends QueryFindAllInstances<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final QueryPredicate<? super T> predicate;
+
+    public QueryFindAllInstancesMatching(
+            final Class<T> type,
+            final QueryPredicate<? super T> predicate,
+            final long ... range) {
+        super(type, range);
+        this.predicate = predicate;
+    }
+
+    public QueryPredicate<? super T> getPredicate() {
+        return predicate;
+    }
+
+    @Override
+    public String getDescription() {
+        return getResultTypeName() + " (all instances matching " + predicate + ")";
+    }
+
+}
@@ -0,0 +1,336 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.applib.query;
+
+import java.io.Serializable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+import org.apache.isis.applib.internal.base._Strings;
+
+/**
+ * A {@link Predicate} over the (persisted) properties of a domain object, built up using the static factory methods
+ * of this class, for example:
+ *
+ * <pre>
+ * repositoryService.allMatches(Customer.class,
+ *         QueryPredicate.allOf(
+ *             QueryPredicate.startsWith("lastName", "Sm"),
+ *             QueryPredicate.gt("creditLimit", BigDecimal.ZERO)));
+ * </pre>
+ *
+ * <p>
+ * Because the structure of the predicate is known, the framework can translate it into the query language of the
+ * datastore (eg a JDOQL filter), rather than loading every instance and evaluating the predicate in memory.  It can
+ * also be evaluated in memory though, using the property's getter.
+ * </p>
+ *
+ * <p>
+ * When evaluated in memory, <tt>null</tt>s are treated as a database would: comparing a property that is not set
+ * (other than using {@link #isNull(String)} or {@link #isNotNull(String)}) is neither true nor false but unknown,
+ * as is the {@link #not(QueryPredicate) negation} of an unknown.  An object only satisfies the predicate if it
+ * evaluates to true; so for example an object whose <tt>creditLimit</tt> is not set satisfies neither
+ * <tt>gt("creditLimit", 5)</tt> nor <tt>not(gt("creditLimit", 5))</tt>.
+ * </p>
+ *
+ * @see QueryFindAllInstancesMatching
+ */
+public abstract class QueryPredicate<T> implements Predicate<T>, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // -- factory methods
+
+    public static <T> QueryPredicate<T> eq(final String property, final Object value) {
+        return new Comparison<>(property, Operator.EQ, value);
+    }
+
+    public static <T> QueryPredicate<T> ne(final String property, final Object value) {
+        return new Comparison<>(property, Operator.NE, value);
+    }
+
+    public static <T> QueryPredicate<T> lt(final String property, final Comparable<?> value) {
+        return new Comparison<>(property, Operator.LT, value);
+    }
+
+    public static <T> QueryPredicate<T> le(final String property, final Comparable<?> value) {
+        return new Comparison<>(property, Operator.LE, value);
+    }
+
+    public static <T> QueryPredicate<T> gt(final String property, final Comparable<?> value) {
+        return new Comparison<>(property, Operator.GT, value);
+    }
+
+    public static <T> QueryPredicate<T> ge(final String property, final Comparable<?> value) {
+        return new Comparison<>(property, Operator.GE, value);
+    }
+
+    public static <T> QueryPredicate<T> startsWith(final String property, final String prefix) {
+        return new Comparison<>(property, Operator.STARTS_WITH, prefix);
+    }
+
+    public static <T> QueryPredicate<T> isNull(final String property) {
+        return new Comparison<>(property, Operator.EQ, null);
+    }
+
+    public static <T> QueryPredicate<T> isNotNull(final String property) {
+        return new Comparison<>(property, Operator.NE, null);
+    }
+
+    @SafeVarargs
+    public static <T> QueryPredicate<T> allOf(final QueryPredicate<T>... predicates) {
+        return new Junction<>(Junction.Kind.AND, Arrays.asList(predicates));
+    }
+
+    @SafeVarargs
+    public static <T> QueryPredicate<T> anyOf(final QueryPredicate<T>... predicates) {
+        return new Junction<>(Junction.Kind.OR, Arrays.asList(predicates));
+    }
+
+    public static <T> QueryPredicate<T> not(final QueryPredicate<T> predicate) {
+        return new Negation<>(predicate);
+    }
+
+    QueryPredicate() {
+    }
+
+    /**
+     * Whether the domain object {@link #evaluate(Object) evaluates} to true.
+     */
+    @Override
+    public final boolean test(final T domainObject) {
+        return Boolean.TRUE.equals(evaluate(domainObject));
+    }
+
+    /**
+     * The (three-valued) result for the domain object, <tt>null</tt> meaning unknown.
+     */
+    abstract Boolean evaluate(T domainObject);
+
+    // -- Comparison
+
+    public enum Operator {
+        EQ,
+        NE,
+        LT,
+        LE,
+        GT,
+        GE,
+        STARTS_WITH
+    }
+
+    /**
+     * Compares the value of a property with the specified value; a <tt>null</tt> value (for {@link Operator#EQ} or
+     * {@link Operator#NE}) tests whether the property is (or is not) set.
+     */
+    public static final class Comparison<T> extends QueryPredicate<T> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String property;
+        private final Operator operator;
+        private final Object value;
+
+        /**
+         * The getter most recently used, along with the class it was looked up for.
+         */
+        private transient volatile Object[] classAndGetter;
+
+        Comparison(final String property, final Operator operator, final Object value) {
+            this.property = Objects.requireNonNull(property);
+            this.operator = Objects.requireNonNull(operator);
+            this.value = value;
+            if(value == null && operator != Operator.EQ && operator != Operator.NE) {
+                throw new IllegalArgumentException("Cannot compare '" + property + "' using " + operator + " with null");
+            }
+        }
+
+        public String getProperty() {
+            return property;
+        }
+
+        public Operator getOperator() {
+            return operator;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+
+        @Override
+        Boolean evaluate(final T domainObject) {
+            final Object propertyValue = valueOf(domainObject);
+            if(value == null) {
+                // isNull or isNotNull
+                return (propertyValue == null) == (operator == Operator.EQ);
+            }
+            if(propertyValue == null) {
+                return null;
+            }
+            switch (operator) {
+            case EQ:
+                return propertyValue.equals(value);
+            case NE:
+                return !propertyValue.equals(value);
+            case STARTS_WITH:
+                return propertyValue.toString().startsWith((String) value);
+            default:
+                final int comparison = compare(propertyValue, value);
+                switch (operator) {
+                case LT:
+                    return comparison < 0;
+                case LE:
+                    return comparison <= 0;
+                case GT:
+                    return comparison > 0;
+                default:
+                    return comparison >= 0;
+                }
+            }
+        }
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        private static int compare(final Object propertyValue, final Object value) {
+            return ((Comparable) propertyValue).compareTo(value);
+        }
+
+        private Object valueOf(final T domainObject) {
+            if(domainObject == null) {
+                return null;
+            }
+            try {
+                return getterFor(domainObject.getClass()).invoke(domainObject);
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                throw new IllegalArgumentException("Unable to read '" + property + "' of " + domainObject, e);
+            }
+        }
+
+        private Method getterFor(final Class<?> cls) {
+            Object[] classAndGetter = this.classAndGetter;
+            if(classAndGetter == null || classAndGetter[0] != cls) {
+                classAndGetter = new Object[] { cls, lookupGetter(cls) };
+                this.classAndGetter = classAndGetter;
+            }
+            return (Method) classAndGetter[1];
+        }
+
+        private Method lookupGetter(final Class<?> cls) {
+            final String capitalized = _Strings.capitalize(property);
+            for (final String prefix : new String[] { "get", "is" }) {
+                try {
+                    return cls.getMethod(prefix + capitalized);
+                } catch (NoSuchMethodException e) {
+                    // try next
+                }
+            }
+            throw new IllegalArgumentException("No getter for '" + property + "' in " + cls.getName());
+        }
+
+        @Override
+        public String toString() {
+            return property + " " + operator + " " + value;
+        }
+    }
+
+    // -- Junction
+
+    /**
+     * Combines predicates, all of which ({@link Kind#AND}) or any of which ({@link Kind#OR}) must be satisfied.
+     */
+    public static final class Junction<T> extends QueryPredicate<T> {
+
+        private static final long serialVersionUID = 1L;
+
+        public enum Kind {
+            AND,
+            OR
+        }
+
+        private final Kind kind;
+        private final List<QueryPredicate<T>> predicates;
+
+        Junction(final Kind kind, final List<QueryPredicate<T>> predicates) {
+            this.kind = kind;
+            this.predicates = Collections.unmodifiableList(predicates);
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public List<QueryPredicate<T>> getPredicates() {
+            return predicates;
+        }
+
+        @Override
+        Boolean evaluate(final T domainObject) {
+            final Boolean decisive = kind == Kind.OR;
+            boolean unknown = false;
+            for (final QueryPredicate<T> predicate : predicates) {
+                final Boolean result = predicate.evaluate(domainObject);
+                if(result == null) {
+                    unknown = true;
+                } else if(result.equals(decisive)) {
+                    return decisive;
+                }
+            }
+            return unknown ? null : !decisive;
+        }
+
+        @Override
+        public String toString() {
+            return kind + predicates.toString();
+        }
+    }
+
+    // -- Negation
+
+    public static final class Negation<T> extends QueryPredicate<T> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final QueryPredicate<T> predicate;
+
+        Negation(final QueryPredicate<T> predicate) {
+            this.predicate = Objects.requireNonNull(predicate);
+        }
+
+        public QueryPredicate<T> getPredicate() {
+            return predicate;
+        }
+
+        @Override
+        Boolean evaluate(final T domainObject) {
+            final Boolean result = predicate.evaluate(domainObject);
+            return result != null ? !result : null;
+        }
+
+        @Override
+        public String toString() {
+            return "NOT " + predicate;
+        }
+    }
+
+}
@@ -56,6 +56,8 @@ public void unregister(Object domainService) {}
         @Override
         public void post(Object event) {}
         @Override
+        public boolean hasSubscriberFor(Class<?> eventType) { return false; }
+        @Override
         protected EventBusImplementation getEventBusImplementation() {
             return null;
         }
@@ -207,6 +209,21 @@ public void post(Object event) {
         getEventBusImplementation().post(event);
     }
 
+    /**
+     * Whether any subscriber might receive an event of the specified type, that is, subscribes to that type or to
+     * any of its supertypes.
+     *
+     * <p>
+     *     Allows the framework to avoid even instantiating events (eg the domain events for the hide, disable and
+     *     validate phases of every member rendered) that no subscriber would receive.  This implementation
+     *     conservatively returns <tt>true</tt>.
+     * </p>
+     */
+    @Programmatic
+    public boolean hasSubscriberFor(final Class<?> eventType) {
+        return true;
+    }
+
 
     protected boolean hasPosted() {
         return this.eventBusImplementation != null;
@@ -61,6 +61,103 @@ public interface MetricsService {
     @Programmatic
     int numberObjectsDirtied();
 
+    /**
+     * The number of times (since the application started) that a result was found in the
+     * {@link org.apache.isis.applib.services.queryresultscache.QueryResultsCacheShared shared tier} of the
+     * query results cache.
+     *
+     * <p>
+     *     Always zero if there is no shared tier.
+     * </p>
+     */
+    @Programmatic
+    default long numberSharedQueryResultsCacheHits() {
+        return 0L;
+    }
+
+    /**
+     * The number of times (since the application started) that a result with a sharing policy was not found in the
+     * {@link org.apache.isis.applib.services.queryresultscache.QueryResultsCacheShared shared tier} of the
+     * query results cache.
+     *
+     * <p>
+     *     Always zero if there is no shared tier.
+     * </p>
+     */
+    @Programmatic
+    default long numberSharedQueryResultsCacheMisses() {
+        return 0L;
+    }
+
+    /**
+     * The number of results (since the application started) that have been evicted from the
+     * {@link org.apache.isis.applib.services.queryresultscache.QueryResultsCacheShared shared tier} of the
+     * query results cache, either because they expired or because the cache was full.
+     *
+     * <p>
+     *     Always zero if there is no shared tier.
+     * </p>
+     */
+    @Programmatic
+    default long numberSharedQueryResultsCacheEvictions() {
+        return 0L;
+    }
+
+    /**
+     * The number of published events waiting to be delivered to the
+     * {@link org.apache.isis.applib.services.publish.PublisherService}s.
+     *
+     * <p>
+     *     Always zero if publishing is synchronous (the default, see <tt>isis.services.publish.async</tt>).
+     * </p>
+     */
+    @Programmatic
+    default int publishingQueueDepth() {
+        return 0;
+    }
+
+    /**
+     * The number of published events (since the application started) that were dropped because the publishing queue
+     * was full.
+     *
+     * <p>
+     *     Always zero unless publishing is asynchronous and its overflow policy is <tt>discard</tt>.
+     * </p>
+     */
+    @Programmatic
+    default long numberPublishedEventsDiscarded() {
+        return 0L;
+    }
+
+    /**
+     * The average time (since the application started), in milliseconds, between a transaction committing and its
+     * published events being delivered to the {@link org.apache.isis.applib.services.publish.PublisherService}s.
+     *
+     * <p>
+     *     Always zero if publishing is synchronous.
+     * </p>
+     */
+    @Programmatic
+    default long publishingDeliveryLagMillis() {
+        return 0L;
+    }
+
+    /**
+     * The number of times, so far in this request, that the flush which normally precedes a query was skipped,
+     * because none of the changes pending in the transaction could affect the query's results.
+     *
+     * <p>
+     *     Only queries for all instances of a type (optionally matching a
+     *     {@link org.apache.isis.applib.query.QueryPredicate}) are considered; a flush always precedes any other query.
+     *     Always zero if auto-flushing (<tt>isis.services.container.disableAutoFlush</tt>) or smart auto-flushing
+     *     (<tt>isis.services.container.disableSmartAutoFlush</tt>) is disabled.
+     * </p>
+     */
+    @Programmatic
+    default int numberQueryFlushesAvoided() {
+        return 0;
+    }
+
 
 }
 
@@ -0,0 +1,60 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.applib.services.publish;
+
+import java.util.List;
+
+import org.apache.isis.applib.annotation.Programmatic;
+import org.apache.isis.applib.services.iactn.Interaction;
+import org.apache.isis.schema.chg.v1.ChangesDto;
+import org.apache.isis.schema.ixn.v1.InteractionDto;
+
+/**
+ * Optional extension of {@link PublisherService} for implementations that can deliver several events at once (eg
+ * a single round trip to a message broker, or a single batch insert into an outbox table).
+ *
+ * <p>
+ *     Only used if publishing is configured to be asynchronous (<tt>isis.services.publish.async=true</tt>); the
+ *     events are then delivered by a background thread, after the transaction that produced them has committed, in
+ *     batches of up to <tt>isis.services.publish.async.batchSize</tt>.  Plain {@link PublisherService}s continue
+ *     to be called synchronously.  If publishing is synchronous then the methods inherited from
+ *     {@link PublisherService} are used as normal.
+ * </p>
+ *
+ * <p>
+ *     The events are delivered as DTOs, created from the {@link Interaction.Execution} (using
+ *     {@link org.apache.isis.schema.utils.InteractionDtoUtils#newInteractionDto(Interaction.Execution)}) and
+ *     {@link PublishedObjects#getDto() changed objects} before the transaction committed; no live domain objects are
+ *     held on to once the request has completed.
+ * </p>
+ */
+public interface PublisherServiceBatched extends PublisherService {
+
+    /**
+     * The executions, in the order that they were completed.
+     */
+    @Programmatic
+    void publishInteractions(final List<InteractionDto> interactionDtos);
+
+    /**
+     * The changed objects of each committed transaction, in commit order.
+     */
+    @Programmatic
+    void publishChanges(final List<ChangesDto> changesDtos);
+}
@@ -73,8 +73,10 @@ private <T> T executeWithCaching(final Callable<T> callable, final Key cacheKey)
                 return _Casts.uncheckedCast(cacheValue.getResult());
             }
 
-            // cache miss, so get the result...
-            T result = callable.call();
+            // cache miss, so get the result (from the shared tier, if any)...
+            T result = sharedTier != null
+                    ? sharedTier.execute(callable, cacheKey)
+                    : callable.call();
 
             // ... and cache
             //
@@ -134,4 +136,10 @@ public void resetForNextTransaction() {
     @Inject
     protected QueryResultCacheControl control;
 
+    /**
+     * Optional; if not available then results are only ever cached for the duration of the interaction.
+     */
+    @Inject
+    protected QueryResultsCacheShared sharedTier;
+
 }
\ No newline at end of file
@@ -0,0 +1,67 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.apache.isis.applib.services.queryresultscache;
+
+import java.util.concurrent.Callable;
+
+import org.apache.isis.applib.annotation.Programmatic;
+
+/**
+ * Optional, application-scoped second tier for the (request-scoped) {@link QueryResultsCache}.
+ *
+ * <p>
+ * Only those calls whose {@link QueryResultsCache.Key#getCallingClass() calling class} and
+ * {@link QueryResultsCache.Key#getMethodName() method name} have a sharing policy - either declared using
+ * {@link SharedQueryResults} or through configuration - are cached by this tier; all other calls are simply
+ * passed through to the callable.
+ * </p>
+ *
+ * <p>
+ * Because the results are shared across interactions, this tier is intended only for reference data queries
+ * (eg a lookup of countries).  Domain objects are held only by bookmark and are re-resolved within each caller's
+ * own session; immutable values (strings, numbers, dates and so on) are held as is.  Results containing anything
+ * else (eg transient objects or mutable values) are not shared.  Collections are always returned as unmodifiable
+ * copies.  Entries are invalidated
+ * automatically whenever an object of a type that the query {@link SharedQueryResults#dependsOn() depends on}
+ * is created, updated or deleted.
+ * </p>
+ */
+public interface QueryResultsCacheShared {
+
+    /**
+     * Returns the cached result for the key, if any, else invokes the callable and (if the key has a sharing policy)
+     * caches its result.
+     */
+    @Programmatic
+    <T> T execute(Callable<T> callable, QueryResultsCache.Key cacheKey) throws Exception;
+
+    /**
+     * Invalidates all cached results of those queries that depend on the changed type (or any of its supertypes).
+     */
+    @Programmatic
+    void invalidate(Class<?> changedType);
+
+    @Programmatic
+    long numberOfHits();
+
+    @Programmatic
+    long numberOfMisses();
+
+    @Programmatic
+    long numberOfEvictions();
+
+}
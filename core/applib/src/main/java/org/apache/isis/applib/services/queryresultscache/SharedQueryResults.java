@@ -0,0 +1,59 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.apache.isis.applib.services.queryresultscache;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Indicates that the results of a method that uses the {@link QueryResultsCache} may also be cached in the
+ * (application-scoped) {@link QueryResultsCacheShared shared tier}, across interactions.
+ *
+ * <p>
+ * The annotation is read from the method named by {@link QueryResultsCache.Key#getMethodName()} on the
+ * {@link QueryResultsCache.Key#getCallingClass() calling class}.  Any of its attributes can be overridden using
+ * configuration properties, eg:
+ * </p>
+ * <pre>
+ * isis.services.queryResultsCache.shared.com.mycompany.dom.Countries.findByCode.timeToLiveSeconds=3600
+ * isis.services.queryResultsCache.shared.com.mycompany.dom.Countries.findByCode.maxSize=500
+ * isis.services.queryResultsCache.shared.com.mycompany.dom.Countries.findByCode.dependsOn=com.mycompany.dom.Country
+ * </pre>
+ */
+@Target({ ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SharedQueryResults {
+
+    /**
+     * How long a cached result remains valid (measured from when it was cached).
+     */
+    int timeToLiveSeconds() default 300;
+
+    /**
+     * The maximum number of results (ie distinct sets of arguments) to cache for this method; least recently used
+     * results are evicted first.
+     */
+    int maxSize() default 1000;
+
+    /**
+     * The (entity) types that this query reads; a change to an instance of any of these types (or their subtypes)
+     * invalidates all cached results for this method.
+     */
+    Class<?>[] dependsOn() default {};
+}
@@ -0,0 +1,91 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.applib.services.repository;
+
+import java.util.AbstractList;
+import java.util.List;
+
+import org.apache.isis.applib.query.Query;
+
+/**
+ * A lazily-evaluated {@link List} of the instances matching a {@link Query}, as returned by
+ * {@link RepositoryService#allMatchesPageable(Query)}.
+ *
+ * <p>
+ *     Viewers that recognise this type (eg the Wicket viewer) page and sort through the results by resubmitting the
+ *     {@link #getQuery() underlying query}, pushing the offset, limit and ordering down to the datastore rather than
+ *     loading every matching instance.  Any other use of the list simply loads the results on first access.
+ * </p>
+ *
+ * <p>
+ *     The query should not itself specify a range.
+ * </p>
+ */
+public class PageableQueryResults<T> extends AbstractList<T> {
+
+    private final Query<T> query;
+    private final RepositoryService repositoryService;
+
+    /**
+     * Populated lazily, only if the list is accessed as a regular {@link List}.
+     */
+    private List<T> results;
+
+    public PageableQueryResults(final Query<T> query, final RepositoryService repositoryService) {
+        this.query = query;
+        this.repositoryService = repositoryService;
+    }
+
+    public Query<T> getQuery() {
+        return query;
+    }
+
+    /**
+     * The matching instances, ordered by the specified property and (if <tt>count</tt> is non-zero) restricted to
+     * the specified range, as evaluated by the datastore.
+     *
+     * @see RepositoryService#allMatches(Query, String, boolean, long, long)
+     */
+    public List<T> page(final String orderBy, final boolean ascending, final long start, final long count) {
+        return repositoryService.allMatches(query, orderBy, ascending, start, count);
+    }
+
+    @Override
+    public T get(final int index) {
+        return results().get(index);
+    }
+
+    /**
+     * If the results have not yet been loaded then counted by the datastore, without loading them.
+     */
+    @Override
+    public int size() {
+        return results != null
+                ? results.size()
+                : (int) repositoryService.count(query);
+    }
+
+    private List<T> results() {
+        if(results == null) {
+            results = repositoryService.allMatches(query);
+        }
+        return results;
+    }
+
+}
@@ -19,8 +19,10 @@
 
 package org.apache.isis.applib.services.repository;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 import org.apache.isis.applib.annotation.Programmatic;
 import org.apache.isis.applib.query.Query;
@@ -45,6 +47,26 @@ public interface RepositoryService {
      */
     String KEY_DISABLE_AUTOFLUSH = "isis.services.container.disableAutoFlush";
 
+    /**
+     * Normally (unless {@link #KEY_DISABLE_AUTOFLUSH disabled}) queries for all instances of a type (optionally
+     * matching a {@link org.apache.isis.applib.query.QueryPredicate}) are only preceded by a flush if objects have
+     * been created, updated or deleted in the current transaction whose type could affect the query's results (the
+     * queried type, its subclasses, or types related to it by a property or collection).  Any other query is always
+     * preceded by a flush.
+     *
+     * <p>
+     * This key allows this behaviour to be disabled, so that every query is preceded by a flush.
+     * </p>
+     */
+    String KEY_DISABLE_SMART_AUTOFLUSH = "isis.services.container.disableSmartAutoFlush";
+
+    /**
+     * The number of instances read from the datastore per round-trip when
+     * {@link #allMatches(Class, Predicate, long...) filtering} by an arbitrary (client-side) {@link Predicate}
+     * or when {@link #stream(Query) streaming} the results of a query.  Defaults to 100.
+     */
+    String KEY_FETCH_SIZE = "isis.services.repository.fetchSize";
+
     /**
      * Same as {@link org.apache.isis.applib.services.factory.FactoryService#instantiate(Class)}; provided as a
      * convenience because instantiating and {@link #persist(Object) persisting} are often done together.
@@ -134,9 +156,16 @@ public interface RepositoryService {
      * </p>
      *
      * <p>
-     * This method is useful during exploration/prototyping, but - because the filtering is performed client-side -
-     * this method is only really suitable for initial development/prototyping, or for classes with very few
-     * instances.  Use {@link #allMatches(Query)} for production code.
+     * If the predicate is a {@link org.apache.isis.applib.query.QueryPredicate}, then both the filter and the
+     * range are evaluated by the datastore.  Otherwise the instances are streamed from the datastore in chunks
+     * (see {@link #KEY_FETCH_SIZE}) and filtered client-side, with the range applying to the matching instances;
+     * reading stops as soon as the range is filled.
+     * </p>
+     *
+     * <p>
+     * With an arbitrary predicate every instance may still need to be read, so this is only really suitable for
+     * initial development/prototyping, or for classes with few instances.  Use a
+     * {@link org.apache.isis.applib.query.QueryPredicate} or {@link #allMatches(Query)} for production code.
      * </p>
      *
      * @see #allMatches(Class, Predicate, long...)
@@ -163,6 +192,93 @@ public interface RepositoryService {
     @Programmatic
     <T> List<T> allMatches(Query<T> query);
 
+    /**
+     * As {@link #allMatches(Query)}, but with the results ordered by the specified property and (if <tt>count</tt>
+     * is non-zero) restricted to the specified range, both evaluated by the datastore.
+     *
+     * <p>
+     *     The property must be a persisted property of the query's result type; any ordering defined by the query
+     *     itself is replaced.  Similarly any range defined by the query itself is replaced if a <tt>count</tt> is
+     *     specified.
+     * </p>
+     *
+     * <p>
+     *     The default implementation orders and restricts the results of {@link #allMatches(Query)} in memory.
+     * </p>
+     *
+     * @param orderBy - the id of the property to order by, or <tt>null</tt> to retain the query's own ordering.
+     */
+    @Programmatic
+    default <T> List<T> allMatches(
+            final Query<T> query, final String orderBy, final boolean ascending, final long start, final long count) {
+        final List<T> instances = new ArrayList<>(allMatches(query));
+        if(orderBy != null) {
+            instances.sort(Util.<T>comparatorFor(query.getResultType(), orderBy, ascending));
+        }
+        return Util.range(instances, start, count);
+    }
+
+    /**
+     * Returns the number of instances that match the given {@link Query}, ignoring any range that the query
+     * specifies.
+     *
+     * <p>
+     *     The count is evaluated by the datastore (eg as a JDOQL <tt>count(this)</tt>), without loading the
+     *     matching instances.  The default implementation counts the results of {@link #allMatches(Query)}.
+     * </p>
+     */
+    @Programmatic
+    default <T> long count(final Query<T> query) {
+        return allMatches(query).size();
+    }
+
+    /**
+     * Returns a {@link PageableQueryResults lazily-evaluated list} of the instances that match the given
+     * {@link Query}.
+     *
+     * <p>
+     *     Returning this list from an action allows viewers to page and sort through the results by way of the
+     *     datastore, rather than loading every matching instance.
+     * </p>
+     */
+    @Programmatic
+    default <T> PageableQueryResults<T> allMatchesPageable(final Query<T> query) {
+        return new PageableQueryResults<>(query, this);
+    }
+
+    /**
+     * Returns a lazily-evaluated {@link Stream} of the instances that match the given {@link Query}, intended for
+     * batch processing (exports and the like) of arbitrarily many instances.
+     *
+     * <p>
+     *     The instances are read from a datastore cursor in chunks (see {@link #KEY_FETCH_SIZE}) as the stream is
+     *     consumed, and are not cached by the query.  Instances loaded by the stream are released from the
+     *     framework (and the persistence manager) once the stream has moved past them, unless they have been
+     *     modified in the meantime; memory use therefore stays constant regardless of the number of results.
+     *     Any references retained by the caller should be re-obtained (eg using
+     *     {@link org.apache.isis.applib.services.bookmark.BookmarkService}) rather than used directly.
+     * </p>
+     *
+     * <p>
+     *     The stream holds an open cursor, so must be consumed within the current transaction and should be closed,
+     *     eg using try-with-resources:
+     * </p>
+     * <pre>
+     * try (Stream&lt;Customer&gt; customers = repositoryService.stream(new QueryDefault&lt;&gt;(Customer.class, "findActive"))) {
+     *     customers.forEach(exporter::export);
+     * }
+     * </pre>
+     *
+     * <p>
+     *     The default implementation simply streams the results of {@link #allMatches(Query)}, so (unlike the
+     *     framework's own implementation) holds every matching instance in memory.
+     * </p>
+     */
+    @Programmatic
+    default <T> Stream<T> stream(final Query<T> query) {
+        return allMatches(query).stream();
+    }
+
     /**
      * Find the only instance of the specified type (including subtypes) that
      * has the specified title.
@@ -0,0 +1,84 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.applib.services.repository;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Supports the default (in-memory) implementations of the paging methods of {@link RepositoryService}.
+ */
+class Util {
+
+    private Util(){}
+
+    /**
+     * Orders by the value of the specified property (which must be {@link Comparable}), nulls first.
+     */
+    static <T> Comparator<T> comparatorFor(final Class<?> type, final String propertyId, final boolean ascending) {
+        final Method getter = getterFor(type, propertyId);
+        final Comparator<T> comparator = (p, q) -> compare(valueOf(getter, p), valueOf(getter, q));
+        return ascending ? comparator : comparator.reversed();
+    }
+
+    /**
+     * A copy of the specified range of the list; the whole list if <tt>count</tt> is not positive.
+     */
+    static <T> List<T> range(final List<T> list, final long start, final long count) {
+        if(count <= 0) {
+            return new ArrayList<>(list);
+        }
+        final int from = (int) Math.min(Math.max(start, 0), list.size());
+        final int to = (int) Math.min(from + count, list.size());
+        return new ArrayList<>(list.subList(from, to));
+    }
+
+    private static Method getterFor(final Class<?> type, final String propertyId) {
+        final String capitalized = Character.toUpperCase(propertyId.charAt(0)) + propertyId.substring(1);
+        for (final String prefix : new String[] { "get", "is" }) {
+            try {
+                return type.getMethod(prefix + capitalized);
+            } catch (final NoSuchMethodException ignore) {
+                // try the next prefix
+            }
+        }
+        throw new IllegalArgumentException(String.format(
+                "Cannot order by '%s', not a property of %s", propertyId, type.getName()));
+    }
+
+    private static Object valueOf(final Method getter, final Object pojo) {
+        try {
+            return getter.invoke(pojo);
+        } catch (final IllegalAccessException | InvocationTargetException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static int compare(final Object value, final Object other) {
+        if(value == null || other == null) {
+            return value == null ? (other == null ? 0 : -1) : 1;
+        }
+        return ((Comparable) value).compareTo(other);
+    }
+
+}
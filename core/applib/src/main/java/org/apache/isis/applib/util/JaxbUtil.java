@@ -16,18 +16,26 @@
  */
 package org.apache.isis.applib.util;
 
+import java.io.CharArrayReader;
 import java.io.CharArrayWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.Writer;
 import java.nio.charset.Charset;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBElement;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
 import javax.xml.bind.Unmarshaller;
+import javax.xml.namespace.QName;
+import javax.xml.transform.stream.StreamSource;
 
 import org.apache.isis.applib.internal.base._Casts;
 import org.apache.isis.applib.internal.collections._Maps;
@@ -36,7 +44,12 @@
 
 /**
  * Helper methods for converting {@link javax.xml.bind.annotation.XmlRootElement}-annotated class to-and-from XML.  
- * Intended primarily for test use only (the {@link JAXBContext} is not cached).
+ *
+ * <p>
+ * The {@link JAXBContext} for each class is cached, and the {@link Marshaller}s and {@link Unmarshaller}s
+ * created from them are pooled (a bounded number per class, each used by one thread at a time because they are
+ * not thread-safe).
+ * </p>
  *
  * <p>
  * For example usage, see <a href="https://github.com/isisaddons/isis-module-publishmq">Isis addons' publishmq module</a> 
@@ -50,13 +63,13 @@ private JaxbUtil(){}
     public static <T> T fromXml(
             final Reader reader,
             final Class<T> dtoClass) {
-        Unmarshaller un = null;
-        try {
-            un = jaxbContextFor(dtoClass).createUnmarshaller();
-            return _Casts.uncheckedCast(un.unmarshal(reader));
-        } catch (JAXBException e) {
-            throw new RuntimeException(e);
-        }
+        return withUnmarshaller(dtoClass, un -> _Casts.uncheckedCast(un.unmarshal(reader)));
+    }
+
+    public static <T> T fromXml(
+            final InputStream inputStream,
+            final Class<T> dtoClass) {
+        return withUnmarshaller(dtoClass, un -> _Casts.uncheckedCast(un.unmarshal(inputStream)));
     }
 
     public static <T> T fromXml(
@@ -76,14 +89,36 @@ public static <T> String toXml(final T dto) {
     }
 
     public static <T> void toXml(final T dto, final Writer writer) {
-        try {
-            final Class<?> aClass = dto.getClass();
-            final Marshaller m = jaxbContextFor(aClass).createMarshaller();
-            m.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
+        withMarshaller(dto.getClass(), true, m -> {
             m.marshal(dto, writer);
-        } catch (JAXBException e) {
-            throw new RuntimeException(e);
-        }
+            return null;
+        });
+    }
+
+    /**
+     * Writes the dto as unformatted (compact) XML, encoded as UTF-8.
+     */
+    public static <T> void toCompactXml(final T dto, final OutputStream outputStream) {
+        withMarshaller(dto.getClass(), false, m -> {
+            m.marshal(dto, outputStream);
+            return null;
+        });
+    }
+
+    /**
+     * Deep copy of the dto by marshalling it to XML and back, also for classes that are not
+     * {@link javax.xml.bind.annotation.XmlRootElement root element}s.
+     */
+    public static <T> T clone(final T dto, final Class<T> dtoClass) {
+        final QName name = new QName("", dtoClass.getSimpleName());
+        final JAXBElement<T> jaxbElement = new JAXBElement<>(name, dtoClass, null, dto);
+        final CharArrayWriter caw = new CharArrayWriter();
+        withMarshaller(dtoClass, false, m -> {
+            m.marshal(jaxbElement, caw);
+            return null;
+        });
+        final StreamSource source = new StreamSource(new CharArrayReader(caw.toCharArray()));
+        return withUnmarshaller(dtoClass, un -> un.unmarshal(source, dtoClass).getValue());
     }
 
     private static Map<Class<?>, JAXBContext> jaxbContextByClass = _Maps.newConcurrentHashMap();
@@ -92,6 +127,78 @@ public static <T> JAXBContext jaxbContextFor(final Class<T> dtoClass)  {
     	return jaxbContextByClass.computeIfAbsent(dtoClass, JaxbUtil::contextOf );
     }
 
+    // -- marshallers (pooled)
+
+    /**
+     * Maximum number of idle {@link Marshaller}s (or {@link Unmarshaller}s) retained for each class.
+     */
+    static final int POOL_SIZE = 16;
+
+    static final Pool<Marshaller> formattedMarshallers = new Pool<>(dtoClass -> marshallerOf(dtoClass, true));
+    static final Pool<Marshaller> compactMarshallers = new Pool<>(dtoClass -> marshallerOf(dtoClass, false));
+    static final Pool<Unmarshaller> unmarshallers = new Pool<>(dtoClass -> jaxbContextFor(dtoClass).createUnmarshaller());
+
+    @FunctionalInterface
+    interface JaxbFunction<A, R> {
+        R apply(A a) throws JAXBException;
+    }
+
+    private static <R> R withMarshaller(
+            final Class<?> dtoClass,
+            final boolean formatted,
+            final JaxbFunction<Marshaller, R> function) {
+        return (formatted ? formattedMarshallers : compactMarshallers).with(dtoClass, function);
+    }
+
+    private static <R> R withUnmarshaller(
+            final Class<?> dtoClass,
+            final JaxbFunction<Unmarshaller, R> function) {
+        return unmarshallers.with(dtoClass, function);
+    }
+
+    private static Marshaller marshallerOf(final Class<?> dtoClass, final boolean formatted) throws JAXBException {
+        final Marshaller marshaller = jaxbContextFor(dtoClass).createMarshaller();
+        marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, formatted);
+        return marshaller;
+    }
+
+    /**
+     * Idle (un)marshallers, per class.  These are borrowed by one thread at a time (because they are not
+     * thread-safe) and then returned, unless there are already {@link #POOL_SIZE} idle; unlike thread locals,
+     * nothing is left behind on the (container-managed) threads that used them.
+     */
+    static final class Pool<M> {
+
+        private final JaxbFunction<Class<?>, M> factory;
+        private final Map<Class<?>, BlockingQueue<M>> idleByClass = _Maps.newConcurrentHashMap();
+
+        Pool(final JaxbFunction<Class<?>, M> factory) {
+            this.factory = factory;
+        }
+
+        <R> R with(final Class<?> dtoClass, final JaxbFunction<M, R> function) {
+            final BlockingQueue<M> idle =
+                    idleByClass.computeIfAbsent(dtoClass, k -> new ArrayBlockingQueue<>(POOL_SIZE));
+            try {
+                M m = idle.poll();
+                if(m == null) {
+                    m = factory.apply(dtoClass);
+                }
+                final R result = function.apply(m);
+                // only returned to the pool if used successfully, as could be left in an inconsistent state
+                idle.offer(m);
+                return result;
+            } catch (JAXBException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        int idleCount(final Class<?> dtoClass) {
+            final BlockingQueue<M> idle = idleByClass.get(dtoClass);
+            return idle != null ? idle.size() : 0;
+        }
+    }
+
     private static <T> JAXBContext contextOf(final Class<T> dtoClass) {
     	try {
             return JAXBContext.newInstance(dtoClass);
@@ -19,15 +19,52 @@
 
 package org.apache.isis.applib.value;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Serializable;
 
 import javax.activation.MimeType;
 import javax.activation.MimeTypeParseException;
 
+/**
+ * A binary large object, along with its name and mime type.
+ *
+ * <p>
+ * Usually the content is held in memory, as a <tt>byte[]</tt>.  Alternatively, a blob can be
+ * {@link #Blob(String, MimeType, Source) backed by} a {@link Source}, in which case the content is only read when
+ * {@link #openStream() requested} (for example, by the object store reading the column lazily).  Such a blob is
+ * {@link #isStreaming() streaming}; {@link #writeBytesTo(OutputStream)} copies its content in chunks, whereas
+ * {@link #getBytes()} reads it all into memory (each time it is called).
+ * </p>
+ */
 public final class Blob implements NamedWithMimeType, Serializable {
 
+    /**
+     * Provides the content of a {@link Blob#isStreaming() streaming} blob.
+     *
+     * <p>
+     * Must be serializable, so that the (small) source rather than the content is retained when the blob is held
+     * in a UI's page state.
+     * </p>
+     */
+    public interface Source extends Serializable {
+
+        /**
+         * The number of bytes, or <tt>-1</tt> if not known.
+         */
+        long getLength();
+
+        /**
+         * A new stream over the content; the caller is responsible for closing it.
+         */
+        InputStream openStream() throws IOException;
+    }
+
+    private static final int CHUNK_SIZE = 8192;
+
     /**
      * Computed for state:
      * <pre>
@@ -41,6 +78,7 @@ public final class Blob implements NamedWithMimeType, Serializable {
     private final MimeType mimeType;
     private final byte[] bytes;
     private final String name;
+    private final Source source;
     
     public Blob(String name, String primaryType, String subtype, byte[] bytes) {
         this(name, newMimeType(primaryType, subtype), bytes);
@@ -57,6 +95,23 @@ public Blob(String name, MimeType mimeType, byte[] bytes) {
         this.name = name;
         this.mimeType = mimeType;
         this.bytes = bytes;
+        this.source = null;
+    }
+
+    /**
+     * A {@link #isStreaming() streaming} blob, whose content is provided by the {@link Source}.
+     */
+    public Blob(String name, MimeType mimeType, Source source) {
+        if(name.contains(":")) {
+            throw new IllegalArgumentException("Name cannot contain ':'");
+        }
+        if(source == null) {
+            throw new IllegalArgumentException("Source is required");
+        }
+        this.name = name;
+        this.mimeType = mimeType;
+        this.bytes = null;
+        this.source = source;
     }
 
     private static MimeType newMimeType(String primaryType, String subtype) {
@@ -83,27 +138,87 @@ public MimeType getMimeType() {
         return mimeType;
     }
     
+    /**
+     * If {@link #isStreaming() streaming}, then reads the entire content into memory.
+     */
     public byte[] getBytes() {
-        return bytes;
+        if(source == null) {
+            return bytes;
+        }
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try {
+            writeBytesTo(baos);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read content of blob '" + name + "'", e);
+        }
+        return baos.toByteArray();
+    }
+
+    /**
+     * Whether the content is provided by a {@link Source} (rather than being held in memory).
+     */
+    public boolean isStreaming() {
+        return source != null;
+    }
+
+    /**
+     * The source of the content if {@link #isStreaming() streaming}, else <tt>null</tt>.
+     */
+    public Source getSource() {
+        return source;
+    }
+
+    /**
+     * The number of bytes of content, or <tt>-1</tt> if not known (only possible if {@link #isStreaming()}).
+     */
+    public long getLength() {
+        if(source != null) {
+            return source.getLength();
+        }
+        return bytes != null ? bytes.length : 0;
+    }
+
+    /**
+     * A new stream over the content; the caller is responsible for closing it.
+     */
+    public InputStream openStream() throws IOException {
+        if(source != null) {
+            return source.openStream();
+        }
+        return new ByteArrayInputStream(bytes != null ? bytes : new byte[0]);
     }
 
     /**
      * Does not close the OutputStream.
+     *
+     * <p>
+     * If {@link #isStreaming() streaming}, then the content is copied in chunks.
+     * </p>
      * @param os
      * @throws IOException
      */
     public void writeBytesTo(final OutputStream os) throws IOException {
-    	if(os==null) {
-    		return;
-    	}
-    	if(bytes!=null) {
-    		os.write(bytes);
-    	}
+        if(os==null) {
+            return;
+        }
+        if(source!=null) {
+            try (final InputStream is = source.openStream()) {
+                final byte[] buffer = new byte[CHUNK_SIZE];
+                int numRead;
+                while((numRead = is.read(buffer)) != -1) {
+                    os.write(buffer, 0, numRead);
+                }
+            }
+            return;
+        }
+        if(bytes!=null) {
+            os.write(bytes);
+        }
     }
 
     @Override
     public String toString() {
-        return getName() + " [" + getMimeType().getBaseType() + "]: " + getBytes().length + " bytes";
+        return getName() + " [" + getMimeType().getBaseType() + "]: " + getLength() + " bytes";
     }
     
 }
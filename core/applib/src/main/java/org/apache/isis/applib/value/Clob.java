@@ -20,17 +20,49 @@
 package org.apache.isis.applib.value;
 
 import java.io.IOException;
+import java.io.Reader;
 import java.io.Serializable;
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.io.Writer;
 
 import javax.activation.MimeType;
 import javax.activation.MimeTypeParseException;
 
+/**
+ * A character large object, along with its name and mime type.
+ *
+ * <p>
+ * As for {@link Blob}, the content is usually held in memory but can instead be
+ * {@link #Clob(String, MimeType, Source) provided by} a {@link Source}, only being read when
+ * {@link #openReader() requested}.
+ * </p>
+ */
 public final class Clob implements NamedWithMimeType, Serializable {
 
+    /**
+     * Provides the content of a {@link Clob#isStreaming() streaming} clob.
+     */
+    public interface Source extends Serializable {
+
+        /**
+         * The number of chars, or <tt>-1</tt> if not known.
+         */
+        long getLength();
+
+        /**
+         * A new reader over the content; the caller is responsible for closing it.
+         */
+        Reader openReader() throws IOException;
+    }
+
+    private static final int CHUNK_SIZE = 8192;
+
+
     private final String name;
     private final MimeType mimeType;
     private final CharSequence chars;
+    private final Source source;
     
     public Clob(String name, String primaryType, String subType, char[] chars) {
         this(name, primaryType, subType, new String(chars));
@@ -59,6 +91,23 @@ public Clob(String name, MimeType mimeType, CharSequence chars) {
         this.name = name;
         this.mimeType = mimeType;
         this.chars = chars;
+        this.source = null;
+    }
+
+    /**
+     * A {@link #isStreaming() streaming} clob, whose content is provided by the {@link Source}.
+     */
+    public Clob(String name, MimeType mimeType, Source source) {
+        if(name.contains(":")) {
+            throw new IllegalArgumentException("Name cannot contain ':'");
+        }
+        if(source == null) {
+            throw new IllegalArgumentException("Source is required");
+        }
+        this.name = name;
+        this.mimeType = mimeType;
+        this.chars = null;
+        this.source = source;
     }
 
     private static MimeType newMimeType(String baseType) {
@@ -85,19 +134,85 @@ public MimeType getMimeType() {
         return mimeType;
     }
 
+    /**
+     * If {@link #isStreaming() streaming}, then reads the entire content into memory.
+     */
     public CharSequence getChars() {
-        return chars;
+        if(source == null) {
+            return chars;
+        }
+        final StringWriter sw = new StringWriter();
+        try {
+            writeCharsTo(sw);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read content of clob '" + name + "'", e);
+        }
+        return sw.toString();
     }
-    
+
+    /**
+     * Whether the content is provided by a {@link Source} (rather than being held in memory).
+     */
+    public boolean isStreaming() {
+        return source != null;
+    }
+
+    /**
+     * The source of the content if {@link #isStreaming() streaming}, else <tt>null</tt>.
+     */
+    public Source getSource() {
+        return source;
+    }
+
+    /**
+     * The number of chars of content, or <tt>-1</tt> if not known (only possible if {@link #isStreaming()}).
+     */
+    public long getLength() {
+        if(source != null) {
+            return source.getLength();
+        }
+        return chars != null ? chars.length() : 0;
+    }
+
+    /**
+     * A new reader over the content; the caller is responsible for closing it.
+     */
+    public Reader openReader() throws IOException {
+        if(source != null) {
+            return source.openReader();
+        }
+        return new StringReader(chars != null ? chars.toString() : "");
+    }
+
+    /**
+     * Does not close the Writer.
+     *
+     * <p>
+     * If {@link #isStreaming() streaming}, then the content is copied in chunks.
+     * </p>
+     */
     public void writeCharsTo(final Writer wr) throws IOException {
-    	if(wr!=null && chars!=null){
-    		wr.append(chars);
-    	}
+        if(wr==null) {
+            return;
+        }
+        if(source!=null) {
+            try (final Reader reader = source.openReader()) {
+                final char[] buffer = new char[CHUNK_SIZE];
+                int numRead;
+                while((numRead = reader.read(buffer)) != -1) {
+                    wr.write(buffer, 0, numRead);
+                }
+            }
+            return;
+        }
+        if(chars!=null){
+            wr.append(chars);
+        }
     }
 
     @Override
     public String toString() {
-        return getName() + " [" + getMimeType().getBaseType() + "]: " + getChars().length() + " chars";
+        return getName() + " [" + getMimeType().getBaseType() + "]: " + getLength() + " chars";
     }
 
 }
@@ -28,8 +28,6 @@
 
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
-import javax.xml.bind.Marshaller;
-import javax.xml.bind.Unmarshaller;
 
 import org.apache.isis.applib.internal.resources._Resource;
 
@@ -52,12 +50,7 @@ static JAXBContext getJaxbContext() {
     }
 
     public static ChangesDto fromXml(final Reader reader) {
-        try {
-            final Unmarshaller un = getJaxbContext().createUnmarshaller();
-            return (ChangesDto) un.unmarshal(reader);
-        } catch (JAXBException e) {
-            throw new RuntimeException(e);
-        }
+        return JaxbUtil.fromXml(reader, ChangesDto.class);
     }
 
     public static ChangesDto fromXml(final String xml) {
@@ -80,13 +73,21 @@ public static String toXml(final ChangesDto changesDto) {
     }
 
     public static void toXml(final ChangesDto changesDto, final Writer writer) {
-        try {
-            final Marshaller m = getJaxbContext().createMarshaller();
-            m.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-            m.marshal(changesDto, writer);
-        } catch (JAXBException e) {
-            throw new RuntimeException(e);
-        }
+        JaxbUtil.toXml(changesDto, writer);
+    }
+
+    /**
+     * Encodes the DTO using the compact binary {@link DtoCodec}; a lossless alternative to {@link #toXml(ChangesDto)}.
+     */
+    public static byte[] toBytes(final ChangesDto changesDto) {
+        return DtoCodec.encode(changesDto);
+    }
+
+    /**
+     * Decodes a DTO encoded using {@link #toBytes(ChangesDto)} (or as plain XML).
+     */
+    public static ChangesDto fromBytes(final byte[] bytes) {
+        return DtoCodec.decode(bytes, ChangesDto.class);
     }
     
 
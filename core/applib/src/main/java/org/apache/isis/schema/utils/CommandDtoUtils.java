@@ -26,9 +26,6 @@
 import java.nio.charset.Charset;
 
 import javax.xml.bind.JAXBContext;
-import javax.xml.bind.JAXBException;
-import javax.xml.bind.Marshaller;
-import javax.xml.bind.Unmarshaller;
 
 import org.apache.isis.applib.internal.resources._Resource;
 import org.apache.isis.applib.util.JaxbUtil;
@@ -55,12 +52,7 @@ static JAXBContext getJaxbContext() {
     }
 
     public static CommandDto fromXml(final Reader reader) {
-        try {
-            final Unmarshaller un = getJaxbContext().createUnmarshaller();
-            return (CommandDto) un.unmarshal(reader);
-        } catch (JAXBException e) {
-            throw new RuntimeException(e);
-        }
+        return JaxbUtil.fromXml(reader, CommandDto.class);
     }
 
     public static CommandDto fromXml(final String xml) {
@@ -83,13 +75,21 @@ public static String toXml(final CommandDto commandDto) {
     }
 
     public static void toXml(final CommandDto commandDto, final Writer writer) {
-        try {
-            final Marshaller m = getJaxbContext().createMarshaller();
-            m.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-            m.marshal(commandDto, writer);
-        } catch (JAXBException e) {
-            throw new RuntimeException(e);
-        }
+        JaxbUtil.toXml(commandDto, writer);
+    }
+
+    /**
+     * Encodes the DTO using the compact binary {@link DtoCodec}; a lossless alternative to {@link #toXml(CommandDto)}.
+     */
+    public static byte[] toBytes(final CommandDto commandDto) {
+        return DtoCodec.encode(commandDto);
+    }
+
+    /**
+     * Decodes a DTO encoded using {@link #toBytes(CommandDto)} (or as plain XML).
+     */
+    public static CommandDto fromBytes(final byte[] bytes) {
+        return DtoCodec.decode(bytes, CommandDto.class);
     }
 
     
@@ -0,0 +1,86 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.schema.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import org.apache.isis.applib.util.JaxbUtil;
+import org.apache.isis.schema.chg.v1.ChangesDto;
+import org.apache.isis.schema.cmd.v1.CommandDto;
+import org.apache.isis.schema.ixn.v1.InteractionDto;
+
+/**
+ * A compact binary encoding of the {@link CommandDto}, {@link InteractionDto} and {@link ChangesDto}s (or any other
+ * {@link javax.xml.bind.annotation.XmlRootElement}-annotated class), intended for persisting or transmitting large
+ * volumes of them.
+ *
+ * <p>
+ * The encoding is a single format byte followed by the (unformatted) XML, deflated.  Because the payload is the
+ * XML itself, the round-trip is lossless with respect to the schema, and {@link #decode(byte[], Class) decoding}
+ * also accepts plain (UTF-8) XML, so that stores can be migrated incrementally.
+ * </p>
+ */
+public final class DtoCodec {
+
+    private DtoCodec(){}
+
+    static final byte FORMAT_DEFLATED_XML = 1;
+
+    public static byte[] encode(final Object dto) {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream(1024);
+        baos.write(FORMAT_DEFLATED_XML);
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            final DeflaterOutputStream dos = new DeflaterOutputStream(baos, deflater, 4096);
+            JaxbUtil.toCompactXml(dto, dos);
+            dos.finish();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            deflater.end();
+        }
+        return baos.toByteArray();
+    }
+
+    public static <T> T decode(final byte[] bytes, final Class<T> dtoClass) {
+        if(bytes.length == 0) {
+            throw new IllegalArgumentException("No bytes to decode");
+        }
+        if(bytes[0] != FORMAT_DEFLATED_XML) {
+            // assume plain XML
+            return JaxbUtil.fromXml(new ByteArrayInputStream(bytes), dtoClass);
+        }
+        final Inflater inflater = new Inflater();
+        try {
+            final InputStream is = new InflaterInputStream(
+                    new ByteArrayInputStream(bytes, 1, bytes.length - 1), inflater, 4096);
+            return JaxbUtil.fromXml(is, dtoClass);
+        } finally {
+            inflater.end();
+        }
+    }
+
+}
@@ -31,8 +31,6 @@
 
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
-import javax.xml.bind.Marshaller;
-import javax.xml.bind.Unmarshaller;
 
 import org.apache.isis.applib.internal.base._NullSafe;
 import org.apache.isis.applib.internal.collections._Lists;
@@ -71,12 +69,7 @@ static JAXBContext getJaxbContext() {
 	}
 
 	public static InteractionDto fromXml(final Reader reader) {
-		try {
-			final Unmarshaller un = getJaxbContext().createUnmarshaller();
-			return (InteractionDto) un.unmarshal(reader);
-		} catch (JAXBException e) {
-			throw new RuntimeException(e);
-		}
+		return JaxbUtil.fromXml(reader, InteractionDto.class);
 	}
 
 	public static InteractionDto fromXml(final String xml) {
@@ -99,13 +92,21 @@ public static String toXml(final InteractionDto interactionDto) {
 	}
 
 	public static void toXml(final InteractionDto interactionDto, final Writer writer) {
-		try {
-			final Marshaller m = getJaxbContext().createMarshaller();
-			m.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
-			m.marshal(interactionDto, writer);
-		} catch (JAXBException e) {
-			throw new RuntimeException(e);
-		}
+		JaxbUtil.toXml(interactionDto, writer);
+	}
+
+	/**
+	 * Encodes the DTO using the compact binary {@link DtoCodec}; a lossless alternative to {@link #toXml(InteractionDto)}.
+	 */
+	public static byte[] toBytes(final InteractionDto interactionDto) {
+		return DtoCodec.encode(interactionDto);
+	}
+
+	/**
+	 * Decodes a DTO encoded using {@link #toBytes(InteractionDto)} (or as plain XML).
+	 */
+	public static InteractionDto fromBytes(final byte[] bytes) {
+		return DtoCodec.decode(bytes, InteractionDto.class);
 	}
 	
 
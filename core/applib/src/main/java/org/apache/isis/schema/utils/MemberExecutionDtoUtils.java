@@ -18,17 +18,6 @@
  */
 package org.apache.isis.schema.utils;
 
-import java.io.StringReader;
-import java.io.StringWriter;
-
-import javax.xml.bind.JAXBContext;
-import javax.xml.bind.JAXBElement;
-import javax.xml.bind.JAXBException;
-import javax.xml.bind.Marshaller;
-import javax.xml.bind.Unmarshaller;
-import javax.xml.namespace.QName;
-import javax.xml.transform.stream.StreamSource;
-
 import org.apache.isis.applib.internal.base._Casts;
 import org.apache.isis.applib.util.JaxbUtil;
 import org.apache.isis.schema.common.v1.DifferenceDto;
@@ -41,36 +30,7 @@ public final class MemberExecutionDtoUtils {
 
     public static <T extends MemberExecutionDto> T clone(final T dto) {
         final Class<T> aClass = _Casts.uncheckedCast(dto.getClass());
-        return clone(dto, aClass);
-    }
-
-    private static <T> T clone(final T dto, final Class<T> dtoClass) {
-        try {
-            JAXBContext jaxbContext = jaxbContextFor(dtoClass);
-
-            final Marshaller marshaller = jaxbContext.createMarshaller();
-
-            final QName name = new QName("", dtoClass.getSimpleName());
-            final JAXBElement<T> jaxbElement = new JAXBElement<>(name, dtoClass, null, dto);
-            final StringWriter stringWriter = new StringWriter();
-
-            marshaller.marshal(jaxbElement, stringWriter);
-
-            final StringReader reader = new StringReader(stringWriter.toString());
-
-            final Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
-
-            final JAXBElement<T> root = unmarshaller.unmarshal(new StreamSource(reader), dtoClass);
-
-            return root.getValue();
-
-        } catch (JAXBException e) {
-            throw new RuntimeException(e);
-        }
-    }
-
-    private static <T> JAXBContext jaxbContextFor(final Class<T> dtoClass)  {
-        return JaxbUtil.jaxbContextFor(dtoClass);
+        return JaxbUtil.clone(dto, aClass);
     }
 
     public static MetricsDto metricsFor(final MemberExecutionDto executionDto) {
@@ -0,0 +1,73 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.applib.plugins.classdiscovery;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+public class ClassIndexTest {
+
+	@Test
+	public void roundTrip() throws Exception {
+		final List<ClassIndex.Entry> entries = Arrays.asList(
+				new ClassIndex.Entry("a.Customer", 
+						Arrays.asList("a.Entity", "a.Audited"), 
+						Arrays.asList("a.AbstractParty", "a.Party")),
+				new ClassIndex.Entry("a.Util", 
+						Collections.emptyList(), 
+						Collections.emptyList()));
+		
+		final StringWriter writer = new StringWriter();
+		ClassIndex.write(entries, writer);
+		
+		final List<ClassIndex.Entry> read = ClassIndex.read(
+				new ByteArrayInputStream(writer.toString().getBytes(StandardCharsets.UTF_8)));
+		
+		assertThat(read.size(), is(2));
+		assertThat(read.get(0).getClassName(), is("a.Customer"));
+		assertThat(read.get(0).getAnnotationNames().contains("a.Audited"), is(true));
+		assertThat(read.get(0).getSupertypeNames().contains("a.Party"), is(true));
+		assertThat(read.get(1).getClassName(), is("a.Util"));
+		assertThat(read.get(1).getAnnotationNames().isEmpty(), is(true));
+		assertThat(read.get(1).getSupertypeNames().isEmpty(), is(true));
+	}
+	
+	@Test
+	public void ignoresCommentsAndBlankLines() throws Exception {
+		final String index = "# comment\n\na.Customer\ta.Entity\t\n";
+		
+		final List<ClassIndex.Entry> read = ClassIndex.read(
+				new ByteArrayInputStream(index.getBytes(StandardCharsets.UTF_8)));
+		
+		assertThat(read.size(), is(1));
+		assertThat(read.get(0).getAnnotationNames().contains("a.Entity"), is(true));
+		assertThat(read.get(0).getSupertypeNames().isEmpty(), is(true));
+	}
+
+}
@@ -0,0 +1,108 @@
+/**
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.apache.isis.applib.query;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class QueryPredicateTest {
+
+    public static class Customer {
+        private final String lastName;
+        private final Integer creditLimit;
+        private final boolean active;
+
+        Customer(final String lastName, final Integer creditLimit, final boolean active) {
+            this.lastName = lastName;
+            this.creditLimit = creditLimit;
+            this.active = active;
+        }
+
+        public String getLastName() {
+            return lastName;
+        }
+
+        public Integer getCreditLimit() {
+            return creditLimit;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+    }
+
+    private final Customer smith = new Customer("Smith", 100, true);
+    private final Customer jones = new Customer("Jones", null, false);
+
+    @Test
+    public void comparisons() throws Exception {
+        assertThat(QueryPredicate.<Customer>eq("lastName", "Smith").test(smith), is(true));
+        assertThat(QueryPredicate.<Customer>ne("lastName", "Smith").test(smith), is(false));
+        assertThat(QueryPredicate.<Customer>gt("creditLimit", 50).test(smith), is(true));
+        assertThat(QueryPredicate.<Customer>le("creditLimit", 50).test(smith), is(false));
+        assertThat(QueryPredicate.<Customer>startsWith("lastName", "Sm").test(smith), is(true));
+        assertThat(QueryPredicate.<Customer>eq("active", true).test(smith), is(true));
+    }
+
+    @Test
+    public void comparison_with_unset_property() throws Exception {
+        assertThat(QueryPredicate.<Customer>gt("creditLimit", 50).test(jones), is(false));
+        assertThat(QueryPredicate.<Customer>isNull("creditLimit").test(jones), is(true));
+        assertThat(QueryPredicate.<Customer>isNotNull("creditLimit").test(jones), is(false));
+    }
+
+    @Test
+    public void comparison_with_unset_property_is_unknown_as_in_database() throws Exception {
+        final QueryPredicate<Customer> generous = QueryPredicate.gt("creditLimit", 50);
+
+        assertThat(QueryPredicate.not(generous).test(jones), is(false));
+        assertThat(QueryPredicate.<Customer>ne("creditLimit", 50).test(jones), is(false));
+        assertThat(QueryPredicate.not(QueryPredicate.<Customer>isNull("creditLimit")).test(jones), is(false));
+        // unknown OR true is true, unknown AND false is false, so negating these is definite
+        assertThat(QueryPredicate.anyOf(generous, QueryPredicate.<Customer>eq("lastName", "Jones")).test(jones), is(true));
+        assertThat(QueryPredicate.not(QueryPredicate.allOf(
+                generous, QueryPredicate.<Customer>eq("lastName", "Smith"))).test(jones), is(true));
+        // unknown AND true is unknown, and so is its negation
+        assertThat(QueryPredicate.not(QueryPredicate.allOf(
+                generous, QueryPredicate.<Customer>eq("lastName", "Jones"))).test(jones), is(false));
+    }
+
+    @Test
+    public void junctions_and_negation() throws Exception {
+        final QueryPredicate<Customer> activeSmith = QueryPredicate.allOf(
+                QueryPredicate.<Customer>eq("active", true),
+                QueryPredicate.<Customer>startsWith("lastName", "Sm"));
+
+        assertThat(activeSmith.test(smith), is(true));
+        assertThat(activeSmith.test(jones), is(false));
+        assertThat(QueryPredicate.not(activeSmith).test(jones), is(true));
+        assertThat(QueryPredicate.anyOf(activeSmith, QueryPredicate.<Customer>eq("lastName", "Jones")).test(jones), is(true));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ordering_by_null_is_rejected() throws Exception {
+        QueryPredicate.gt("creditLimit", null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknown_property() throws Exception {
+        QueryPredicate.<Customer>eq("firstName", "Fred").test(smith);
+    }
+
+}
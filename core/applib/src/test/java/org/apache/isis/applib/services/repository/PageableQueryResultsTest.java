@@ -0,0 +1,92 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.applib.services.repository;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.applib.query.Query;
+import org.apache.isis.applib.query.QueryFindAllInstances;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class PageableQueryResultsTest {
+
+    static class Customer {}
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(JUnitRuleMockery2.Mode.INTERFACES_ONLY);
+
+    @Mock
+    private RepositoryService mockRepositoryService;
+
+    private Query<Customer> query;
+    private PageableQueryResults<Customer> results;
+
+    @Before
+    public void setUp() throws Exception {
+        query = new QueryFindAllInstances<>(Customer.class);
+        results = new PageableQueryResults<>(query, mockRepositoryService);
+    }
+
+    @Test
+    public void size_is_counted_without_loading() throws Exception {
+        context.checking(new Expectations() {{
+            oneOf(mockRepositoryService).count(query);
+            will(returnValue(42L));
+
+            never(mockRepositoryService).allMatches(query);
+        }});
+
+        assertThat(results.size(), is(42));
+    }
+
+    @Test
+    public void page_is_delegated() throws Exception {
+        final List<Customer> page = Arrays.asList(new Customer(), new Customer());
+        context.checking(new Expectations() {{
+            oneOf(mockRepositoryService).allMatches(query, "name", false, 10L, 2L);
+            will(returnValue(page));
+        }});
+
+        assertThat(results.page("name", false, 10L, 2L), is(page));
+    }
+
+    @Test
+    public void results_are_loaded_once_when_accessed_as_list() throws Exception {
+        final Customer customer = new Customer();
+        context.checking(new Expectations() {{
+            oneOf(mockRepositoryService).allMatches(query);
+            will(returnValue(Arrays.asList(customer)));
+        }});
+
+        assertThat(results.get(0), is(customer));
+        assertThat(results.size(), is(1));
+        assertThat(results.iterator().next(), is(customer));
+    }
+
+}
@@ -0,0 +1,70 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.applib.services.repository;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class UtilTest {
+
+    public static class Customer {
+        private final String name;
+        Customer(final String name) {
+            this.name = name;
+        }
+        public String getName() {
+            return name;
+        }
+    }
+
+    private final Customer bill = new Customer("bill");
+    private final Customer joe = new Customer("joe");
+    private final Customer nameless = new Customer(null);
+
+    @Test
+    public void orders_by_property_nulls_first() throws Exception {
+        final List<Customer> customers = Arrays.asList(joe, nameless, bill);
+
+        customers.sort(Util.<Customer>comparatorFor(Customer.class, "name", true));
+        assertThat(customers, is(Arrays.asList(nameless, bill, joe)));
+
+        customers.sort(Util.<Customer>comparatorFor(Customer.class, "name", false));
+        assertThat(customers, is(Arrays.asList(joe, bill, nameless)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void cannot_order_by_unknown_property() throws Exception {
+        Util.comparatorFor(Customer.class, "address", true);
+    }
+
+    @Test
+    public void range() throws Exception {
+        final List<Customer> customers = Arrays.asList(joe, nameless, bill);
+
+        assertThat(Util.range(customers, 1, 5), is(Arrays.asList(nameless, bill)));
+        assertThat(Util.range(customers, 5, 5), is(Arrays.<Customer>asList()));
+        assertThat(Util.range(customers, 1, 0), is(customers));
+    }
+
+}
@@ -0,0 +1,96 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.applib.util;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.isis.applib.internal.collections._Lists;
+import org.apache.isis.schema.cmd.v1.CommandDto;
+import org.apache.isis.schema.ixn.v1.ActionInvocationDto;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class JaxbUtilTest {
+
+    CommandDto dto;
+
+    @Before
+    public void setUp() throws Exception {
+        dto = new CommandDto();
+        dto.setMajorVersion("1");
+        dto.setMinorVersion("4");
+        dto.setTransactionId("1234-5678");
+        dto.setUser("sven");
+    }
+
+    @Test
+    public void roundtrip() throws Exception {
+        final String xml = JaxbUtil.toXml(dto);
+
+        final CommandDto parsed = JaxbUtil.fromXml(new StringReader(xml), CommandDto.class);
+
+        assertThat(parsed.getTransactionId(), is("1234-5678"));
+        assertThat(JaxbUtil.toXml(parsed), is(xml));
+    }
+
+    @Test
+    public void clone_ofNonRootElement() throws Exception {
+        final ActionInvocationDto invocationDto = new ActionInvocationDto();
+        invocationDto.setUser("sven");
+        invocationDto.setSequence(3);
+
+        final ActionInvocationDto clone = JaxbUtil.clone(invocationDto, ActionInvocationDto.class);
+
+        assertThat(clone, is(not(sameInstance(invocationDto))));
+        assertThat(clone.getUser(), is("sven"));
+        assertThat(clone.getSequence(), is(3));
+    }
+
+    @Test
+    public void pool_isBounded_whenUsedByManyThreads() throws Exception {
+        final int numberOfThreads = JaxbUtil.POOL_SIZE * 2;
+        final ExecutorService executorService = Executors.newFixedThreadPool(numberOfThreads);
+        try {
+            final List<Callable<String>> tasks = _Lists.newArrayList();
+            for (int i = 0; i < numberOfThreads * 10; i++) {
+                tasks.add(() -> JaxbUtil.toXml(dto));
+            }
+            for (final Future<String> future : executorService.invokeAll(tasks)) {
+                assertThat(future.get(), is(JaxbUtil.toXml(dto)));
+            }
+        } finally {
+            executorService.shutdown();
+        }
+
+        assertThat(JaxbUtil.formattedMarshallers.idleCount(CommandDto.class) <= JaxbUtil.POOL_SIZE, is(true));
+        assertThat(JaxbUtil.formattedMarshallers.idleCount(CommandDto.class) > 0, is(true));
+    }
+
+}
@@ -0,0 +1,64 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.schema.utils;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.isis.schema.cmd.v1.CommandDto;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class DtoCodecTest {
+
+    CommandDto dto;
+
+    @Before
+    public void setUp() throws Exception {
+        dto = new CommandDto();
+        dto.setMajorVersion("1");
+        dto.setMinorVersion("4");
+        dto.setTransactionId("1234-5678");
+        dto.setUser("sven");
+        CommandDtoUtils.setUserData(dto, "someKey", "someValue");
+    }
+
+    @Test
+    public void roundtrip() throws Exception {
+
+        final byte[] bytes = CommandDtoUtils.toBytes(dto);
+
+        assertThat(bytes[0], is(DtoCodec.FORMAT_DEFLATED_XML));
+
+        final CommandDto decoded = CommandDtoUtils.fromBytes(bytes);
+        assertThat(CommandDtoUtils.toXml(decoded), is(CommandDtoUtils.toXml(dto)));
+    }
+
+    @Test
+    public void decodes_plain_xml() throws Exception {
+
+        final byte[] bytes = CommandDtoUtils.toXml(dto).getBytes(StandardCharsets.UTF_8);
+
+        final CommandDto decoded = CommandDtoUtils.fromBytes(bytes);
+        assertThat(CommandDtoUtils.toXml(decoded), is(CommandDtoUtils.toXml(dto)));
+    }
+}
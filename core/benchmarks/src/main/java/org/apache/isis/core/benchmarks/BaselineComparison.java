@@ -0,0 +1,151 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Compares the results of a JMH run (in JMH's JSON result format) against a previously recorded baseline.
+ *
+ * <p>
+ * All benchmarks in this module measure average time, so a score that is higher than the baseline's by more
+ * than the threshold (and by more than the combined score errors) is reported as a regression.
+ * </p>
+ */
+public class BaselineComparison {
+
+    public static class Score {
+        private final String benchmark;
+        private final double score;
+        private final double scoreError;
+        private final String scoreUnit;
+
+        public Score(final String benchmark, final double score, final double scoreError, final String scoreUnit) {
+            this.benchmark = benchmark;
+            this.score = score;
+            this.scoreError = Double.isNaN(scoreError) ? 0.0 : scoreError;
+            this.scoreUnit = scoreUnit;
+        }
+
+        public String getBenchmark() {
+            return benchmark;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        public double getScoreError() {
+            return scoreError;
+        }
+
+        public String getScoreUnit() {
+            return scoreUnit;
+        }
+    }
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    public static Map<String, Score> read(final File jsonFile) throws IOException {
+        return parse(OBJECT_MAPPER.readTree(jsonFile));
+    }
+
+    public static Map<String, Score> parse(final String json) throws IOException {
+        return parse(OBJECT_MAPPER.readTree(json));
+    }
+
+    private static Map<String, Score> parse(final JsonNode results) {
+        final Map<String, Score> scoreByBenchmark = Maps.newLinkedHashMap();
+        for (final JsonNode result : results) {
+            final String benchmark = result.path("benchmark").asText();
+            final JsonNode primaryMetric = result.path("primaryMetric");
+            final Score score = new Score(
+                    benchmark,
+                    primaryMetric.path("score").asDouble(),
+                    primaryMetric.path("scoreError").asDouble(0.0),
+                    primaryMetric.path("scoreUnit").asText());
+            scoreByBenchmark.put(benchmark, score);
+        }
+        return scoreByBenchmark;
+    }
+
+    private final Map<String, Score> baseline;
+    private final double thresholdPercent;
+
+    public BaselineComparison(final Map<String, Score> baseline, final double thresholdPercent) {
+        this.baseline = baseline;
+        this.thresholdPercent = thresholdPercent;
+    }
+
+    /**
+     * @return a description of each benchmark that has regressed relative to the baseline (empty if none).
+     */
+    public List<String> regressions(final Map<String, Score> current) {
+        final List<String> regressions = Lists.newArrayList();
+        for (final Score score : current.values()) {
+            final Score baselineScore = baseline.get(score.getBenchmark());
+            if(baselineScore == null || baselineScore.getScore() <= 0.0) {
+                continue;
+            }
+            if(!baselineScore.getScoreUnit().equals(score.getScoreUnit())) {
+                regressions.add(String.format("%s: unit changed from %s to %s",
+                        score.getBenchmark(), baselineScore.getScoreUnit(), score.getScoreUnit()));
+                continue;
+            }
+            final double delta = score.getScore() - baselineScore.getScore();
+            final double deltaPercent = 100.0 * delta / baselineScore.getScore();
+            final double noise = score.getScoreError() + baselineScore.getScoreError();
+            if(deltaPercent > thresholdPercent && delta > noise) {
+                regressions.add(String.format("%s: %.3f %s (baseline %.3f %s, +%.1f%%)",
+                        score.getBenchmark(),
+                        score.getScore(), score.getScoreUnit(),
+                        baselineScore.getScore(), baselineScore.getScoreUnit(),
+                        deltaPercent));
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * @return one line per benchmark in the current run, showing its change relative to the baseline (if any).
+     */
+    public String report(final Map<String, Score> current) {
+        final StringBuilder buf = new StringBuilder();
+        for (final Score score : current.values()) {
+            final Score baselineScore = baseline.get(score.getBenchmark());
+            buf.append(String.format("%-80s %12.3f %-6s", score.getBenchmark(), score.getScore(), score.getScoreUnit()));
+            if(baselineScore != null && baselineScore.getScore() > 0.0) {
+                final double deltaPercent = 100.0 * (score.getScore() - baselineScore.getScore()) / baselineScore.getScore();
+                buf.append(String.format(" (baseline %.3f, %+.1f%%)", baselineScore.getScore(), deltaPercent));
+            } else {
+                buf.append(" (no baseline)");
+            }
+            buf.append('\n');
+        }
+        return buf.toString();
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.io.Files;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks and compares the results against a recorded baseline.
+ *
+ * <p>
+ * Recognised system properties:
+ * </p>
+ * <ul>
+ *     <li><tt>benchmarks.include</tt> - regex of benchmarks to run (default: all)</li>
+ *     <li><tt>benchmarks.baseline</tt> - name of the baseline, in the <tt>baselines</tt> directory (default: <tt>default</tt>)</li>
+ *     <li><tt>benchmarks.record</tt> - if <tt>true</tt>, then the results are recorded as the new baseline rather than compared</li>
+ *     <li><tt>benchmarks.threshold</tt> - percentage slow-down tolerated before a benchmark counts as regressed (default: 10)</li>
+ * </ul>
+ *
+ * <p>
+ * Exits with a non-zero status if any benchmark has regressed.
+ * </p>
+ */
+public class BenchmarkRunner {
+
+    private static final File RESULT_FILE = new File("target/jmh-result.json");
+    private static final File BASELINES_DIR = new File("baselines");
+
+    public static void main(final String[] args) throws RunnerException, IOException {
+
+        final String include = System.getProperty("benchmarks.include", BenchmarkRunner.class.getPackage().getName() + ".*Benchmark");
+        final String baselineName = System.getProperty("benchmarks.baseline", "default");
+        final boolean record = Boolean.parseBoolean(System.getProperty("benchmarks.record", "false"));
+        final double threshold = Double.parseDouble(System.getProperty("benchmarks.threshold", "10"));
+
+        RESULT_FILE.getParentFile().mkdirs();
+
+        final Options options = new OptionsBuilder()
+                .include(include)
+                .resultFormat(ResultFormatType.JSON)
+                .result(RESULT_FILE.getPath())
+                .build();
+        new Runner(options).run();
+
+        final File baselineFile = new File(BASELINES_DIR, baselineName + ".json");
+        if(record) {
+            BASELINES_DIR.mkdirs();
+            Files.copy(RESULT_FILE, baselineFile);
+            System.out.println("Recorded baseline: " + baselineFile.getPath());
+            return;
+        }
+
+        final Map<String, BaselineComparison.Score> current = BaselineComparison.read(RESULT_FILE);
+        if(!baselineFile.exists()) {
+            System.out.println("No baseline at " + baselineFile.getPath() + "; rerun with -Dbenchmarks.record=true to record one.");
+            return;
+        }
+
+        final BaselineComparison comparison =
+                new BaselineComparison(BaselineComparison.read(baselineFile), threshold);
+        System.out.println(comparison.report(current));
+
+        final List<String> regressions = comparison.regressions(current);
+        if(!regressions.isEmpty()) {
+            System.err.println("Regressions (threshold " + threshold + "%):");
+            for (final String regression : regressions) {
+                System.err.println("  " + regression);
+            }
+            System.exit(1);
+        }
+    }
+}
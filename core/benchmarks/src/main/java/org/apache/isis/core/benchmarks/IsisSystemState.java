@@ -0,0 +1,120 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import com.google.common.collect.Lists;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.apache.isis.core.benchmarks.dom.BenchmarkCustomer;
+import org.apache.isis.core.benchmarks.dom.BenchmarkCustomers;
+import org.apache.isis.core.integtestsupport.IsisSystemForTest;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.adapter.oid.RootOid;
+import org.apache.isis.core.metamodel.specloader.SpecificationLoader;
+import org.apache.isis.core.runtime.system.persistence.PersistenceSession;
+import org.apache.isis.objectstore.jdo.datanucleus.IsisConfigurationForJdoIntegTests;
+
+/**
+ * Bootstraps the benchmark domain model against a fresh in-memory HSQLDB, populates it with
+ * {@link #NUMBER_OF_CUSTOMERS} customers, and leaves a session and transaction open for the benchmarks to use.
+ *
+ * <p>
+ * Thread-scoped, since an Isis session is bound to the thread that opened it.
+ * </p>
+ */
+@State(Scope.Thread)
+public class IsisSystemState {
+
+    public static final int NUMBER_OF_CUSTOMERS = 100;
+
+    private IsisSystemForTest isft;
+
+    private SpecificationLoader specificationLoader;
+    private PersistenceSession persistenceSession;
+    private final List<BenchmarkCustomer> customers = Lists.newArrayList();
+    private final List<RootOid> customerOids = Lists.newArrayList();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        final IsisConfigurationForJdoIntegTests configuration = new IsisConfigurationForJdoIntegTests();
+        configuration.putDataNucleusProperty(
+                "javax.jdo.option.ConnectionURL", "jdbc:hsqldb:mem:benchmarks-" + UUID.randomUUID().toString());
+
+        isft = IsisSystemForTest.builder()
+                .with(new BenchmarksAppManifest())
+                .with(configuration)
+                .withLoggingAt(org.apache.log4j.Level.WARN)
+                .build();
+        isft.setUpSystem();
+
+        isft.beginTran();
+        final BenchmarkCustomers repository = isft.getService(BenchmarkCustomers.class);
+        for (int i = 0; i < NUMBER_OF_CUSTOMERS; i++) {
+            repository.create("Customer " + i, "customer" + i + "@example.com", 20 + i % 50, BigDecimal.valueOf(i * 100L, 2));
+        }
+        isft.commitTran();
+
+        isft.beginTran();
+        specificationLoader = isft.getIsisSessionFactory().getSpecificationLoader();
+        persistenceSession = isft.getIsisSessionFactory().getCurrentSession().getPersistenceSession();
+        for (final BenchmarkCustomer customer : repository.listAll()) {
+            customers.add(customer);
+            final ObjectAdapter adapter = persistenceSession.adapterFor(customer);
+            customerOids.add((RootOid) adapter.getOid());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        isft.commitTran();
+        isft.closeSession();
+    }
+
+    public IsisSystemForTest getIsft() {
+        return isft;
+    }
+
+    public SpecificationLoader getSpecificationLoader() {
+        return specificationLoader;
+    }
+
+    public PersistenceSession getPersistenceSession() {
+        return persistenceSession;
+    }
+
+    /**
+     * All customers, loaded (and so mapped to adapters) within the open transaction.
+     */
+    public List<BenchmarkCustomer> getCustomers() {
+        return customers;
+    }
+
+    public List<RootOid> getCustomerOids() {
+        return customerOids;
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.runtime.system.persistence.PersistenceSession;
+import org.apache.isis.viewer.restfulobjects.applib.JsonRepresentation;
+import org.apache.isis.viewer.restfulobjects.rendering.domainobjects.JsonValueEncoder;
+
+/**
+ * Encoding of property values into their JSON representation, as done for every value rendered by the
+ * Restful Objects viewer.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonValueEncoderBenchmark {
+
+    private ObjectAdapter stringAdapter;
+    private ObjectAdapter intAdapter;
+    private ObjectAdapter bigDecimalAdapter;
+
+    @Setup(Level.Trial)
+    public void setUp(final IsisSystemState system) {
+        final PersistenceSession persistenceSession = system.getPersistenceSession();
+        stringAdapter = persistenceSession.adapterFor("Customer 42");
+        intAdapter = persistenceSession.adapterFor(42);
+        bigDecimalAdapter = persistenceSession.adapterFor(BigDecimal.valueOf(4200, 2));
+    }
+
+    private static JsonRepresentation encode(final ObjectAdapter adapter) {
+        final JsonRepresentation repr = JsonRepresentation.newMap();
+        JsonValueEncoder.appendValueAndFormat(adapter.getSpecification(), adapter, repr, null, false);
+        return repr;
+    }
+
+    @Benchmark
+    public JsonRepresentation encodeString() {
+        return encode(stringAdapter);
+    }
+
+    @Benchmark
+    public JsonRepresentation encodeInt() {
+        return encode(intAdapter);
+    }
+
+    @Benchmark
+    public JsonRepresentation encodeBigDecimal() {
+        return encode(bigDecimalAdapter);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.isis.core.benchmarks.dom.BenchmarkCustomer;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.adapter.oid.RootOid;
+
+/**
+ * Adapter lookups for objects already loaded into the session, cycling through all of the customers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PersistenceSessionBenchmark {
+
+    private int next;
+
+    private int next(final int size) {
+        next = (next + 1) % size;
+        return next;
+    }
+
+    @Benchmark
+    public ObjectAdapter adapterForPojo(final IsisSystemState system) {
+        final List<BenchmarkCustomer> customers = system.getCustomers();
+        return system.getPersistenceSession().adapterFor(customers.get(next(customers.size())));
+    }
+
+    @Benchmark
+    public ObjectAdapter adapterForRootOid(final IsisSystemState system) {
+        final List<RootOid> customerOids = system.getCustomerOids();
+        return system.getPersistenceSession().adapterFor(customerOids.get(next(customerOids.size())));
+    }
+
+    @Benchmark
+    public ObjectAdapter adapterForValue(final IsisSystemState system) {
+        return system.getPersistenceSession().adapterFor("Customer " + next(IsisSystemState.NUMBER_OF_CUSTOMERS));
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.isis.core.benchmarks.dom.BenchmarkCustomer;
+import org.apache.isis.core.metamodel.spec.ObjectSpecId;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+
+/**
+ * Lookups of an already-introspected specification, as performed on (almost) every interaction.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpecificationLoaderBenchmark {
+
+    private static final ObjectSpecId CUSTOMER_SPEC_ID = ObjectSpecId.of("benchmarks.BenchmarkCustomer");
+
+    @Benchmark
+    public ObjectSpecification loadSpecificationByClass(final IsisSystemState system) {
+        return system.getSpecificationLoader().loadSpecification(BenchmarkCustomer.class);
+    }
+
+    @Benchmark
+    public ObjectSpecification loadSpecificationByClassName(final IsisSystemState system) {
+        return system.getSpecificationLoader().loadSpecification(BenchmarkCustomer.class.getName());
+    }
+
+    @Benchmark
+    public ObjectSpecification lookupBySpecId(final IsisSystemState system) {
+        return system.getSpecificationLoader().lookupBySpecId(CUSTOMER_SPEC_ID);
+    }
+}
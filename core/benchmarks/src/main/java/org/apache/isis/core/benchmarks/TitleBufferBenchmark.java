@@ -0,0 +1,78 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.isis.applib.util.TitleBuffer;
+
+/**
+ * Title building as done by a typical <tt>title()</tt> method; does not need a running system.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TitleBufferBenchmark {
+
+    private String name = "Customer 42";
+    private String email = "customer42@example.com";
+    private Integer age = 42;
+    private BigDecimal creditLimit = BigDecimal.valueOf(4200, 2);
+    private String missing = null;
+
+    @Benchmark
+    public String appendStrings() {
+        return new TitleBuffer()
+                .append(name)
+                .append(",", email)
+                .toString();
+    }
+
+    @Benchmark
+    public String appendMixed() {
+        return new TitleBuffer()
+                .append(name)
+                .append(",", age)
+                .append(" - ", creditLimit)
+                .append(":", missing, "(none)")
+                .toString();
+    }
+
+    @Benchmark
+    public String concatAndTruncate() {
+        return new TitleBuffer(name)
+                .concat(" ", email)
+                .truncate(3)
+                .toString();
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.benchmarks.dom;
+
+import java.math.BigDecimal;
+
+import javax.jdo.annotations.IdGeneratorStrategy;
+import javax.jdo.annotations.IdentityType;
+import javax.jdo.annotations.VersionStrategy;
+
+import org.apache.isis.applib.annotation.DomainObject;
+import org.apache.isis.applib.annotation.Editing;
+import org.apache.isis.applib.annotation.Property;
+import org.apache.isis.applib.util.TitleBuffer;
+
+@javax.jdo.annotations.PersistenceCapable(identityType = IdentityType.DATASTORE, schema = "benchmarks")
+@javax.jdo.annotations.DatastoreIdentity(strategy = IdGeneratorStrategy.IDENTITY, column = "id")
+@javax.jdo.annotations.Version(strategy = VersionStrategy.VERSION_NUMBER, column = "version")
+@DomainObject(objectType = "benchmarks.BenchmarkCustomer")
+public class BenchmarkCustomer {
+
+    public BenchmarkCustomer(final String name, final String email, final int age, final BigDecimal creditLimit) {
+        this.name = name;
+        this.email = email;
+        this.age = age;
+        this.creditLimit = creditLimit;
+    }
+
+    public String title() {
+        return new TitleBuffer()
+                .append(getName())
+                .append(",", getEmail())
+                .toString();
+    }
+
+    @javax.jdo.annotations.Column(allowsNull = "false", length = 40)
+    @Property(editing = Editing.DISABLED)
+    private String name;
+    public String getName() { return name; }
+    public void setName(final String name) { this.name = name; }
+
+    @javax.jdo.annotations.Column(allowsNull = "true", length = 80)
+    private String email;
+    public String getEmail() { return email; }
+    public void setEmail(final String email) { this.email = email; }
+
+    @javax.jdo.annotations.Column(allowsNull = "false")
+    private int age;
+    public int getAge() { return age; }
+    public void setAge(final int age) { this.age = age; }
+
+    @javax.jdo.annotations.Column(allowsNull = "true", scale = 2)
+    private BigDecimal creditLimit;
+    public BigDecimal getCreditLimit() { return creditLimit; }
+    public void setCreditLimit(final BigDecimal creditLimit) { this.creditLimit = creditLimit; }
+
+    @javax.jdo.annotations.Column(allowsNull = "true", length = 4000)
+    private String notes;
+    public String getNotes() { return notes; }
+    public void setNotes(final String notes) { this.notes = notes; }
+
+    @Override
+    public String toString() {
+        return getName();
+    }
+}
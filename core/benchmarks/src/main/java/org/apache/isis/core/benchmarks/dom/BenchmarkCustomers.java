@@ -0,0 +1,48 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.benchmarks.dom;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.apache.isis.applib.annotation.DomainService;
+import org.apache.isis.applib.annotation.NatureOfService;
+import org.apache.isis.applib.annotation.Programmatic;
+import org.apache.isis.applib.services.repository.RepositoryService;
+
+@DomainService(
+        nature = NatureOfService.DOMAIN,
+        objectType = "benchmarks.BenchmarkCustomers"
+)
+public class BenchmarkCustomers {
+
+    @Programmatic
+    public BenchmarkCustomer create(final String name, final String email, final int age, final BigDecimal creditLimit) {
+        return repositoryService.persist(new BenchmarkCustomer(name, email, age, creditLimit));
+    }
+
+    @Programmatic
+    public List<BenchmarkCustomer> listAll() {
+        return repositoryService.allInstances(BenchmarkCustomer.class);
+    }
+
+    @javax.inject.Inject
+    RepositoryService repositoryService;
+
+}
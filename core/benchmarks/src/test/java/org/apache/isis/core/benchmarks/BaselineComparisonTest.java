@@ -0,0 +1,88 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.benchmarks;
+
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class BaselineComparisonTest {
+
+    private Map<String, BaselineComparison.Score> baseline;
+
+    @Before
+    public void setUp() throws Exception {
+        baseline = BaselineComparison.parse(results(100.0, 2.0, "ns/op"));
+    }
+
+    private static String results(final double score, final double scoreError, final String unit) {
+        return "[ { \"benchmark\" : \"a.FooBenchmark.foo\", \"mode\" : \"avgt\", "
+                + "\"primaryMetric\" : { \"score\" : " + score + ", \"scoreError\" : " + scoreError + ", "
+                + "\"scoreUnit\" : \"" + unit + "\" } } ]";
+    }
+
+    @Test
+    public void parses() throws Exception {
+        final BaselineComparison.Score score = baseline.get("a.FooBenchmark.foo");
+        assertThat(score.getScore(), is(100.0));
+        assertThat(score.getScoreError(), is(2.0));
+        assertThat(score.getScoreUnit(), is("ns/op"));
+    }
+
+    @Test
+    public void within_threshold() throws Exception {
+        final BaselineComparison comparison = new BaselineComparison(baseline, 10.0);
+        assertThat(comparison.regressions(BaselineComparison.parse(results(109.0, 2.0, "ns/op"))).isEmpty(), is(true));
+    }
+
+    @Test
+    public void faster_is_not_a_regression() throws Exception {
+        final BaselineComparison comparison = new BaselineComparison(baseline, 10.0);
+        assertThat(comparison.regressions(BaselineComparison.parse(results(50.0, 2.0, "ns/op"))).isEmpty(), is(true));
+    }
+
+    @Test
+    public void beyond_threshold() throws Exception {
+        final BaselineComparison comparison = new BaselineComparison(baseline, 10.0);
+        assertThat(comparison.regressions(BaselineComparison.parse(results(120.0, 2.0, "ns/op"))).size(), is(1));
+    }
+
+    @Test
+    public void beyond_threshold_but_within_error() throws Exception {
+        final BaselineComparison comparison = new BaselineComparison(baseline, 10.0);
+        assertThat(comparison.regressions(BaselineComparison.parse(results(120.0, 30.0, "ns/op"))).isEmpty(), is(true));
+    }
+
+    @Test
+    public void unit_changed() throws Exception {
+        final BaselineComparison comparison = new BaselineComparison(baseline, 10.0);
+        assertThat(comparison.regressions(BaselineComparison.parse(results(0.1, 0.0, "us/op"))).size(), is(1));
+    }
+
+    @Test
+    public void unknown_benchmark_is_ignored() throws Exception {
+        final BaselineComparison comparison = new BaselineComparison(
+                BaselineComparison.parse("[]"), 10.0);
+        assertThat(comparison.regressions(BaselineComparison.parse(results(120.0, 2.0, "ns/op"))).isEmpty(), is(true));
+    }
+}
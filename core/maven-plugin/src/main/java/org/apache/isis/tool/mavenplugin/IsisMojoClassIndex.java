@@ -0,0 +1,195 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.tool.mavenplugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.common.io.Files;
+
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Component;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+
+import org.apache.isis.applib.plugins.classdiscovery.ClassIndex;
+
+/**
+ * Writes a {@link ClassIndex} of the project's compiled classes, so that at runtime the class discovery plugin can
+ * read the index rather than scan the resultant jar.
+ *
+ * <p>
+ * Unlike the other goals, this does not bootstrap Isis; it need only load (but not initialize) the classes.
+ * </p>
+ */
+@Mojo(
+        name = "class-index",
+        defaultPhase = LifecyclePhase.PROCESS_CLASSES,
+        requiresProject = true,
+        requiresDependencyResolution = ResolutionScope.COMPILE,
+        requiresDependencyCollection = ResolutionScope.COMPILE
+)
+public class IsisMojoClassIndex extends AbstractMojo {
+
+    @Component
+    private MavenProject mavenProject;
+
+    /**
+     * Whether to skip generating the index, in which case the jar will be scanned at runtime.
+     */
+    @Parameter(required = false, readonly = false, property = "isis.classIndex.skip", defaultValue = "false")
+    private boolean skip;
+
+    public void execute() throws MojoExecutionException {
+
+        if(skip) {
+            getLog().info("Skipping class index");
+            return;
+        }
+
+        final File outputDir = new File(mavenProject.getBuild().getOutputDirectory());
+        if(!outputDir.isDirectory()) {
+            getLog().info("No classes to index");
+            return;
+        }
+
+        final List<ClassIndex.Entry> entries = Lists.newArrayList();
+        try (URLClassLoader classLoader = newCompileClassLoader()) {
+            for (final File file : Files.fileTreeTraverser().preOrderTraversal(outputDir)) {
+                final String className = classNameOf(outputDir, file);
+                if(className == null) {
+                    continue;
+                }
+                final ClassIndex.Entry entry = entryFor(className, classLoader);
+                if(entry != null) {
+                    entries.add(entry);
+                }
+            }
+        } catch (IOException | DependencyResolutionRequiredException e) {
+            throw new MojoExecutionException("Unable to index classes in " + outputDir, e);
+        }
+
+        entries.sort(Comparator.comparing(ClassIndex.Entry::getClassName));
+
+        final File indexFile = new File(outputDir, ClassIndex.RESOURCE_NAME);
+        try {
+            Files.createParentDirs(indexFile);
+            try (Writer writer = Files.newWriter(indexFile, Charsets.UTF_8)) {
+                ClassIndex.write(entries, writer);
+            }
+        } catch (IOException e) {
+            throw new MojoExecutionException("Unable to write " + indexFile, e);
+        }
+
+        getLog().info("Indexed " + entries.size() + " classes to " + indexFile);
+    }
+
+    private URLClassLoader newCompileClassLoader() throws DependencyResolutionRequiredException, MalformedURLException {
+        @SuppressWarnings("unchecked")
+        final List<String> classpathElements = mavenProject.getCompileClasspathElements();
+        final List<URL> urls = Lists.newArrayList();
+        for (final String classpathElement : classpathElements) {
+            urls.add(new File(classpathElement).toURI().toURL());
+        }
+        // isolate from the plugin's own dependencies
+        return new URLClassLoader(urls.toArray(new URL[0]), ClassLoader.getSystemClassLoader().getParent());
+    }
+
+    private static String classNameOf(final File outputDir, final File file) {
+        final String fileName = file.getName();
+        if(!file.isFile() ||
+           !fileName.endsWith(".class") ||
+           fileName.equals("package-info.class") ||
+           fileName.equals("module-info.class")) {
+            return null;
+        }
+        final String relativePath = outputDir.toURI().relativize(file.toURI()).getPath();
+        return relativePath.substring(0, relativePath.length() - ".class".length()).replace('/', '.');
+    }
+
+    private ClassIndex.Entry entryFor(final String className, final ClassLoader classLoader) {
+        final Class<?> cls;
+        try {
+            cls = Class.forName(className, false, classLoader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            // as per scanning at runtime, which ignores classes that cannot be loaded
+            getLog().warn("Unable to load " + className + "; not indexed", e);
+            return null;
+        }
+        if(cls.isAnonymousClass() || cls.isLocalClass()) {
+            return null;
+        }
+
+        final Set<Class<?>> supertypes = new LinkedHashSet<>();
+        collectSupertypes(cls, supertypes);
+
+        // as per scanning, a class is discovered as annotated if any of its supertypes is annotated
+        final Set<String> annotationNames = new LinkedHashSet<>();
+        collectAnnotationNames(cls, annotationNames);
+        for (final Class<?> supertype : supertypes) {
+            collectAnnotationNames(supertype, annotationNames);
+        }
+
+        final List<String> supertypeNames = Lists.newArrayList();
+        for (final Class<?> supertype : supertypes) {
+            supertypeNames.add(supertype.getName());
+        }
+
+        return new ClassIndex.Entry(className, annotationNames, supertypeNames);
+    }
+
+    private static void collectSupertypes(final Class<?> cls, final Set<Class<?>> supertypes) {
+        final Class<?> superclass = cls.getSuperclass();
+        if(superclass != null && superclass != Object.class && supertypes.add(superclass)) {
+            collectSupertypes(superclass, supertypes);
+        }
+        for (final Class<?> anInterface : cls.getInterfaces()) {
+            if(supertypes.add(anInterface)) {
+                collectSupertypes(anInterface, supertypes);
+            }
+        }
+    }
+
+    private static void collectAnnotationNames(final Class<?> cls, final Set<String> annotationNames) {
+        try {
+            for (final Annotation annotation : cls.getDeclaredAnnotations()) {
+                annotationNames.add(annotation.annotationType().getName());
+            }
+        } catch (LinkageError | RuntimeException e) {
+            // annotation types not on the compile classpath are simply not available; ignore
+        }
+    }
+
+}
@@ -175,7 +175,7 @@ public boolean equals(final ParentedCollectionOid other) {
 
     @Override
     public int hashCode() {
-        cacheState();
+        // parentOid and name are both final, and so cached once (in the constructor)
         return cachedHashCode;
     }
 
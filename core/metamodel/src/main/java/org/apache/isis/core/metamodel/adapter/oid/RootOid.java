@@ -266,6 +266,10 @@ public boolean equals(final Object other) {
     }
 
     public boolean equals(final RootOid other) {
+        if (cachedHashCode != other.cachedHashCode) {
+            // cheap rejection, since the hash code is derived from the same state as compared below
+            return false;
+        }
         return Objects.equal(objectSpecId, other.getObjectSpecId()) && Objects.equal(identifier, other.getIdentifier()) && Objects.equal(isTransient(), other.isTransient());
     }
 
@@ -0,0 +1,161 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.metamodel.facets;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+
+/**
+ * Instantiates domain events of a particular type, as used by {@link DomainEventHelper}.
+ *
+ * <p>
+ *     The type's public constructors are looked up only once per type.  If the type has a public no-arg constructor
+ *     (the usual case) then a factory is compiled for it, using {@link LambdaMetafactory} where the type is visible
+ *     to this class' class loader, otherwise using a {@link MethodHandle}; either way avoiding reflective
+ *     {@link Constructor#newInstance(Object...)} calls.
+ * </p>
+ *
+ * <p>
+ *     The event facets {@link #forType(Class) resolve} their event type when they are created, ie while the
+ *     metamodel is being built.
+ * </p>
+ */
+public final class DomainEventFactory {
+
+    /**
+     * Implemented by the compiled factory for the no-arg constructor.
+     */
+    interface Instantiator {
+        Object newInstance() throws Throwable;
+    }
+
+    private static final ClassValue<DomainEventFactory> FACTORY_BY_TYPE = new ClassValue<DomainEventFactory>() {
+        @Override
+        protected DomainEventFactory computeValue(final Class<?> type) {
+            return new DomainEventFactory(type);
+        }
+    };
+
+    public static DomainEventFactory forType(final Class<?> type) {
+        return FACTORY_BY_TYPE.get(type);
+    }
+
+    private final Constructor<?>[] constructors;
+    private final Instantiator noArgInstantiator;
+
+    private DomainEventFactory(final Class<?> type) {
+        this.constructors = type.getConstructors();
+        this.noArgInstantiator = noArgInstantiatorFor(type, constructors);
+    }
+
+    /**
+     * The public constructors of the event type, for those event types that do not provide a no-arg constructor.
+     */
+    Constructor<?>[] getConstructors() {
+        return constructors;
+    }
+
+    boolean hasNoArgConstructor() {
+        return noArgInstantiator != null;
+    }
+
+    /**
+     * Instantiates using the public no-arg constructor; only to be called if {@link #hasNoArgConstructor()}.
+     */
+    Object newInstance() throws InvocationTargetException {
+        try {
+            return noArgInstantiator.newInstance();
+        } catch (Throwable throwable) {
+            // as per Constructor#newInstance
+            throw new InvocationTargetException(throwable);
+        }
+    }
+
+    private static Instantiator noArgInstantiatorFor(final Class<?> type, final Constructor<?>[] constructors) {
+        if(Modifier.isAbstract(type.getModifiers())) {
+            return null;
+        }
+        for (final Constructor<?> constructor : constructors) {
+            if(constructor.getParameterTypes().length == 0) {
+                return compile(type, constructor);
+            }
+        }
+        return null;
+    }
+
+    private static Instantiator compile(final Class<?> type, final Constructor<?> constructor) {
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        final MethodHandle handle;
+        try {
+            handle = lookup.unreflectConstructor(constructor);
+        } catch (IllegalAccessException e) {
+            // eg a public nested class of a non-public class
+            return new Instantiator() {
+                @Override
+                public Object newInstance() throws Throwable {
+                    try {
+                        return constructor.newInstance();
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }
+            };
+        }
+        if(isVisible(type)) {
+            try {
+                final CallSite callSite = LambdaMetafactory.metafactory(
+                        lookup,
+                        "newInstance",
+                        MethodType.methodType(Instantiator.class),
+                        MethodType.methodType(Object.class),
+                        handle,
+                        MethodType.methodType(type));
+                return (Instantiator) callSite.getTarget().invoke();
+            } catch (Throwable ignore) {
+                // fall through
+            }
+        }
+        final MethodHandle genericHandle = handle.asType(MethodType.methodType(Object.class));
+        return new Instantiator() {
+            @Override
+            public Object newInstance() throws Throwable {
+                return genericHandle.invokeExact();
+            }
+        };
+    }
+
+    /**
+     * The class generated by the {@link LambdaMetafactory} resolves the event type through this class' class loader.
+     */
+    private static boolean isVisible(final Class<?> type) {
+        try {
+            return Class.forName(type.getName(), false, DomainEventFactory.class.getClassLoader()) == type;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+}
@@ -65,6 +65,10 @@ public ActionDomainEvent<?> postEventForAction(
             final Command command,
             final ObjectAdapter resultAdapter) {
 
+        if(hasNoSubscriber(phase, eventType)) {
+            return null;
+        }
+
         try {
             final ActionDomainEvent<?> event;
 
@@ -117,6 +121,16 @@ public ActionDomainEvent<?> postEventForAction(
         }
     }
 
+    /**
+     * Events for the hide, disable and validate phases are not created at all if there is no subscriber to receive
+     * them; the caller then treats the member as visible, usable and valid.  Events for the executing and executed
+     * phases are always created, because they are also associated with the {@link Command} and (for actions) hold
+     * the return value.
+     */
+    private boolean hasNoSubscriber(final AbstractDomainEvent.Phase phase, final Class<?> eventType) {
+        return !phase.isExecutingOrLater() && !getEventBusService().hasSubscriberFor(eventType);
+    }
+
     private static <T> List<T> immutableList(final Iterable<T> iterable) {
         return Collections.unmodifiableList(Lists.newArrayList(iterable));
     }
@@ -128,22 +142,20 @@ static <S> ActionDomainEvent<S> newActionDomainEvent(
             final S source,
             final Object... arguments) throws InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException {
 
-        final Constructor<?>[] constructors = type.getConstructors();
+        final DomainEventFactory factory = DomainEventFactory.forType(type);
 
         // no-arg constructor
-        for (final Constructor<?> constructor : constructors) {
-            final Class<?>[] parameterTypes = constructor.getParameterTypes();
-            if(parameterTypes.length == 0) {
-                final Object event = constructor.newInstance();
-                final ActionDomainEvent<S> ade = (ActionDomainEvent<S>) event;
-
-                ade.setSource(source);
-                ade.setIdentifier(identifier);
-                ade.setArguments(asList(arguments));
-                return ade;
-            }
+        if(factory.hasNoArgConstructor()) {
+            final Object event = factory.newInstance();
+            final ActionDomainEvent<S> ade = (ActionDomainEvent<S>) event;
+
+            ade.setSource(source);
+            ade.setIdentifier(identifier);
+            ade.setArguments(asList(arguments));
+            return ade;
         }
 
+        final Constructor<?>[] constructors = factory.getConstructors();
 
         for (final Constructor<?> constructor : constructors) {
             final Class<?>[] parameterTypes = constructor.getParameterTypes();
@@ -183,6 +195,10 @@ private static List<Object> asList(final Object[] arguments) {
             final Object oldValue,
             final Object newValue) {
 
+        if(hasNoSubscriber(phase, eventType)) {
+            return null;
+        }
+
         try {
             final PropertyDomainEvent<?, ?> event;
             final Object source = ObjectAdapter.Util.unwrap(targetAdapter);
@@ -220,23 +236,21 @@ static <S,T> PropertyDomainEvent<S,T> newPropertyDomainEvent(
             final T oldValue,
             final T newValue) throws NoSuchMethodException, SecurityException, InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException  {
 
-        final Constructor<?>[] constructors = type.getConstructors();
+        final DomainEventFactory factory = DomainEventFactory.forType(type);
 
         // no-arg constructor
-        for (final Constructor<?> constructor : constructors) {
-            final Class<?>[] parameterTypes = constructor.getParameterTypes();
-            if(parameterTypes.length == 0) {
-                final Object event = constructor.newInstance();
-                final PropertyDomainEvent<S, T> pde = (PropertyDomainEvent<S, T>) event;
-                pde.setSource(source);
-                pde.setIdentifier(identifier);
-                pde.setOldValue(oldValue);
-                pde.setNewValue(newValue);
-                return pde;
-            }
+        if(factory.hasNoArgConstructor()) {
+            final Object event = factory.newInstance();
+            final PropertyDomainEvent<S, T> pde = (PropertyDomainEvent<S, T>) event;
+            pde.setSource(source);
+            pde.setIdentifier(identifier);
+            pde.setOldValue(oldValue);
+            pde.setNewValue(newValue);
+            return pde;
         }
 
         // else
+        final Constructor<?>[] constructors = factory.getConstructors();
         for (final Constructor<?> constructor : constructors) {
             final Class<?>[] parameterTypes = constructor.getParameterTypes();
             if(parameterTypes.length != 4) {
@@ -272,6 +286,11 @@ static <S,T> PropertyDomainEvent<S,T> newPropertyDomainEvent(
             final ObjectAdapter targetAdapter,
             final CollectionDomainEvent.Of of,
             final Object reference) {
+
+        if(hasNoSubscriber(phase, eventType)) {
+            return null;
+        }
+
         try {
             final CollectionDomainEvent<?, ?> event;
             if (existingEvent != null && phase.isExecuted()) {
@@ -304,23 +323,21 @@ <S, T> CollectionDomainEvent<S, T> newCollectionDomainEvent(
             throws NoSuchMethodException, SecurityException, InstantiationException,
             IllegalAccessException, IllegalArgumentException, InvocationTargetException {
 
-        final Constructor<?>[] constructors = type.getConstructors();
+        final DomainEventFactory factory = DomainEventFactory.forType(type);
 
         // no-arg constructor
-        for (final Constructor<?> constructor : constructors) {
-            final Class<?>[] parameterTypes = constructor.getParameterTypes();
-            if(parameterTypes.length ==0) {
-                final Object event = constructor.newInstance();
-                final CollectionDomainEvent<S, T> cde = (CollectionDomainEvent<S, T>) event;
-
-                cde.setSource(source);
-                cde.setIdentifier(identifier);
-                cde.setOf(of);
-                cde.setValue(value);
-                return cde;
-            }
+        if(factory.hasNoArgConstructor()) {
+            final Object event = factory.newInstance();
+            final CollectionDomainEvent<S, T> cde = (CollectionDomainEvent<S, T>) event;
+
+            cde.setSource(source);
+            cde.setIdentifier(identifier);
+            cde.setOf(of);
+            cde.setValue(value);
+            return cde;
         }
 
+        final Constructor<?>[] constructors = factory.getConstructors();
         // search for constructor accepting source, identifier, type, value
         for (final Constructor<?> constructor : constructors) {
             final Class<?>[] parameterTypes = constructor.getParameterTypes();
@@ -28,6 +28,7 @@
 import org.apache.isis.applib.services.i18n.TranslationService;
 import org.apache.isis.core.metamodel.facetapi.FacetHolder;
 import org.apache.isis.core.metamodel.facetapi.IdentifiedHolder;
+import org.apache.isis.core.metamodel.facets.DomainEventFactory;
 import org.apache.isis.core.metamodel.facets.DomainEventHelper;
 import org.apache.isis.core.metamodel.facets.SingleClassValueFacetAbstract;
 import org.apache.isis.core.metamodel.interactions.CollectionAddToContext;
@@ -56,6 +57,8 @@ public CollectionDomainEventFacetAbstract(
         this.translationContext = ((IdentifiedHolder)holder).getIdentifier().toClassAndNameIdentityString();
 
         domainEventHelper = new DomainEventHelper(servicesInjector);
+        // resolve the event's factory now, while the metamodel is being built
+        DomainEventFactory.forType(eventType);
     }
 
     @Override
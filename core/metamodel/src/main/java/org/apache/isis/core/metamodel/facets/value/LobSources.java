@@ -0,0 +1,105 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.metamodel.facets.value;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import org.apache.commons.codec.binary.Base64;
+
+/**
+ * Holds the {@link org.apache.isis.applib.value.Blob.Source source}s of streaming
+ * {@link org.apache.isis.applib.value.Blob}s and {@link org.apache.isis.applib.value.Clob}s server-side, so that the
+ * encoded form of such a value (eg as held in the Wicket viewer's page state) need only carry an opaque handle to
+ * its source, rather than its content.
+ *
+ * <p>
+ * The encoded form of a lob is <tt>name:mimeType:content</tt>; for a streaming lob the mime type is prefixed with
+ * {@link #STREAMING_PREFIX} (which cannot appear in a mime type) and the content is replaced by the handle.  A
+ * handle is random, and is only ever resolved against this registry; sources are never reconstructed from the
+ * encoded form itself, because it may have come from a client.
+ * </p>
+ *
+ * <p>
+ * Sources not used for {@link #EXPIRE_AFTER_ACCESS_MINUTES a while}, or in excess of {@link #MAXIMUM_SIZE}, are
+ * evicted, after which their handles no longer resolve.
+ * </p>
+ */
+public final class LobSources {
+
+    private LobSources(){}
+
+    public static final String STREAMING_PREFIX = "@";
+
+    static final long MAXIMUM_SIZE = 10000;
+    static final long EXPIRE_AFTER_ACCESS_MINUTES = 60;
+
+    private static final int HANDLE_LENGTH = 16;
+    private static final SecureRandom random = new SecureRandom();
+
+    private static final Cache<String, Object> sourceByHandle = CacheBuilder.newBuilder()
+            .maximumSize(MAXIMUM_SIZE)
+            .expireAfterAccess(EXPIRE_AFTER_ACCESS_MINUTES, TimeUnit.MINUTES)
+            .build();
+
+    // weak keys are compared by identity, so that each source is registered only once
+    private static final Cache<Object, String> handleBySource = CacheBuilder.newBuilder()
+            .weakKeys()
+            .maximumSize(MAXIMUM_SIZE)
+            .build();
+
+    /**
+     * Registers the source (if not already), returning its handle.
+     */
+    public static String register(final Object source) {
+        if(source == null) {
+            throw new IllegalArgumentException("Source is required");
+        }
+        String handle = handleBySource.getIfPresent(source);
+        if(handle == null || sourceByHandle.getIfPresent(handle) != source) {
+            handle = newHandle();
+            sourceByHandle.put(handle, source);
+            handleBySource.put(source, handle);
+        }
+        return handle;
+    }
+
+    /**
+     * The source registered with the handle.
+     *
+     * @throws IllegalArgumentException if the handle is unknown (or has expired), or is for some other type of source.
+     */
+    public static <T> T lookup(final String handle, final Class<T> sourceType) {
+        final Object source = handle != null ? sourceByHandle.getIfPresent(handle) : null;
+        if(!sourceType.isInstance(source)) {
+            throw new IllegalArgumentException("Unknown or expired lob source '" + handle + "'");
+        }
+        return sourceType.cast(source);
+    }
+
+    private static String newHandle() {
+        final byte[] bytes = new byte[HANDLE_LENGTH];
+        random.nextBytes(bytes);
+        return Base64.encodeBase64URLSafeString(bytes);
+    }
+
+}
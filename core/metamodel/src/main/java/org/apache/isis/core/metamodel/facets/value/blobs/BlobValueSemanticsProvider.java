@@ -31,6 +31,7 @@
 import org.apache.isis.core.metamodel.facetapi.Facet;
 import org.apache.isis.core.metamodel.facetapi.FacetHolder;
 import org.apache.isis.core.metamodel.facets.object.value.vsp.ValueSemanticsProviderAndFacetAbstract;
+import org.apache.isis.core.metamodel.facets.value.LobSources;
 import org.apache.isis.core.metamodel.services.ServicesInjector;
 
 
@@ -92,6 +93,10 @@ public DefaultsProvider<Blob> getDefaultsProvider() {
     @Override
     protected String doEncode(final Object object) {
         Blob blob = (Blob)object;
+        if(blob.isStreaming()) {
+            return blob.getName() + ":" + LobSources.STREAMING_PREFIX + blob.getMimeType().getBaseType() + ":" +
+                    LobSources.register(blob.getSource());
+        }
         return blob.getName() + ":" + blob.getMimeType().getBaseType() + ":" + Base64.encodeBase64String((blob.getBytes()));
     }
 
@@ -101,6 +106,14 @@ protected Blob doRestore(final String data) {
         final String name  = data.substring(0, colonIdx);
         final int colon2Idx  = data.indexOf(":", colonIdx+1);
         final String mimeTypeBase = data.substring(colonIdx+1, colon2Idx);
+        if(mimeTypeBase.startsWith(LobSources.STREAMING_PREFIX)) {
+            final Blob.Source source = LobSources.lookup(data.substring(colon2Idx+1), Blob.Source.class);
+            try {
+                return new Blob(name, new MimeType(mimeTypeBase.substring(1)), source);
+            } catch (MimeTypeParseException e) {
+                throw new RuntimeException(e);
+            }
+        }
         final byte[] bytes = Base64.decodeBase64(data.substring(colon2Idx+1));
         try {
             return new Blob(name, new MimeType(mimeTypeBase), bytes);
@@ -29,6 +29,7 @@
 import org.apache.isis.core.metamodel.facetapi.Facet;
 import org.apache.isis.core.metamodel.facetapi.FacetHolder;
 import org.apache.isis.core.metamodel.facets.object.value.vsp.ValueSemanticsProviderAndFacetAbstract;
+import org.apache.isis.core.metamodel.facets.value.LobSources;
 import org.apache.isis.core.metamodel.services.ServicesInjector;
 
 
@@ -90,6 +91,10 @@ public DefaultsProvider<Clob> getDefaultsProvider() {
     @Override
     protected String doEncode(final Object object) {
         Clob clob = (Clob)object;
+        if(clob.isStreaming()) {
+            return clob.getName() + ":" + LobSources.STREAMING_PREFIX + clob.getMimeType().getBaseType() + ":" +
+                    LobSources.register(clob.getSource());
+        }
         return clob.getName() + ":" + clob.getMimeType().getBaseType() + ":" + clob.getChars();
     }
 
@@ -99,6 +104,14 @@ protected Clob doRestore(final String data) {
         final String name  = data.substring(0, colonIdx);
         final int colon2Idx  = data.indexOf(":", colonIdx+1);
         final String mimeTypeBase = data.substring(colonIdx+1, colon2Idx);
+        if(mimeTypeBase.startsWith(LobSources.STREAMING_PREFIX)) {
+            final Clob.Source source = LobSources.lookup(data.substring(colon2Idx+1), Clob.Source.class);
+            try {
+                return new Clob(name, new MimeType(mimeTypeBase.substring(1)), source);
+            } catch (MimeTypeParseException e) {
+                throw new RuntimeException(e);
+            }
+        }
         final CharSequence chars = data.substring(colon2Idx+1);
         try {
             return new Clob(name, new MimeType(mimeTypeBase), chars);
@@ -44,6 +44,14 @@ public static InteractionResult isVisibleResult(final FacetHolder facetHolder, f
         return result;
     }
 
+    /**
+     * Whether there are any facets that might hide the holder, ie that are consulted by
+     * {@link #isVisibleResult(FacetHolder, VisibilityContext)}.
+     */
+    public static boolean hasHidingAdvisors(final FacetHolder facetHolder) {
+        return !facetHolder.getFacets(isA(HidingInteractionAdvisor.class)).isEmpty();
+    }
+
     public static InteractionResult isUsableResult(final FacetHolder facetHolder, final UsabilityContext<?> context) {
         final InteractionResult result = new InteractionResult(context.createInteractionEvent());
         final List<Facet> facets = facetHolder.getFacets(isA(DisablingInteractionAdvisor.class));
@@ -82,9 +82,13 @@ public class ServicesInjector implements ApplicationScopedComponent {
      * If no key, not yet searched for type; otherwise the corresponding value is a {@link List} of all
      * services that are assignable to the type.  It's possible that this is an empty list.
      */
-    private final Map<Class<?>, List<Object>> servicesAssignableToType = Maps.newHashMap();
+    private final Map<Class<?>, List<Object>> servicesAssignableToType = Maps.newConcurrentMap();
 
-    private final Map<Class<?>, Object> serviceByConcreteType = Maps.newHashMap();
+    /**
+     * Lazily constructed; only assigned once fully populated because it may be read concurrently (eg by
+     * specifications being introspected in parallel).
+     */
+    private volatile Map<Class<?>, Object> serviceByConcreteType;
 
     private final InjectorMethodEvaluator injectorMethodEvaluator;
     private final boolean autowireSetters;
@@ -152,17 +156,20 @@ public <T> void replaceService(final T existingService, final T replacementServi
 
         // invalidate
         servicesAssignableToType.clear();
-        serviceByConcreteType.clear();
+        serviceByConcreteType = null;
         autowire();
     }
 
     public boolean isRegisteredService(final Class<?> cls) {
         // lazily construct cache
-        if(serviceByConcreteType.isEmpty()) {
+        Map<Class<?>, Object> serviceByConcreteType = this.serviceByConcreteType;
+        if(serviceByConcreteType == null || serviceByConcreteType.isEmpty()) {
+            serviceByConcreteType = Maps.newHashMap();
             for (Object service : services) {
                 final Class<?> concreteType = service.getClass();
                 serviceByConcreteType.put(concreteType, service);
             }
+            this.serviceByConcreteType = serviceByConcreteType;
         }
         return serviceByConcreteType.containsKey(cls);
     }
@@ -0,0 +1,35 @@
+/**
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.apache.isis.core.metamodel.services.persistsession;
+
+package org.apache.isis.core.metamodel.services.metrics;
+
+import org.apache.isis.applib.annotation.Programmatic;
+
+/**
+ * Allows framework services to report metrics to the <tt>MetricsService</tt>.
+ */
+public interface MetricsServiceInternal {
+
+    /**
+     * Called by <tt>RepositoryServiceInternalDefault</tt> when the flush that would normally precede a query was
+     * skipped, because no changes pending in the transaction could affect that query's results.
+     */
+    @Programmatic
+    void queryFlushAvoided();
+
+}
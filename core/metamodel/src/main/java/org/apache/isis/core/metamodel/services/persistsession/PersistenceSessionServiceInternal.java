@@ -17,6 +17,8 @@
 package org.apache.isis.core.metamodel.services.persistsession;
 
 import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 import org.apache.isis.applib.annotation.Programmatic;
 import org.apache.isis.applib.query.Query;
@@ -162,6 +164,66 @@ public interface PersistenceSessionServiceInternal extends AdapterManager {
     @Programmatic
     <T> List<ObjectAdapter> allMatchingQuery(Query<T> query);
 
+    /**
+     * As {@link #allMatchingQuery(Query)}, but with the ordering and range evaluated by the datastore.
+     *
+     * <p>
+     * Called by <tt>RepositoryServiceInternalDefault</tt>.
+     */
+    @Programmatic
+    <T> List<ObjectAdapter> allMatchingQuery(Query<T> query, String orderBy, boolean ascending, long start, long count);
+
+    /**
+     * Provided by <tt>PersistenceSession</tt> when used by framework.
+     *
+     * <p>
+     * Called by <tt>RepositoryServiceInternalDefault</tt>.
+     */
+    @Programmatic
+    <T> long countQuery(Query<T> query);
+
+    /**
+     * Whether changes made in the current transaction, not necessarily yet flushed, could affect the results of a
+     * query for all instances of the specified type (optionally filtered by properties of that type).
+     *
+     * <p>
+     * Called by <tt>RepositoryServiceInternalDefault</tt>, to avoid flushing before such queries where not required.
+     */
+    @Programmatic
+    boolean isFlushRequiredFor(Class<?> type);
+
+    /**
+     * Streams the instances matching the query to the visitor, fetching them from the datastore in chunks of
+     * <tt>fetchSize</tt>; stops as soon as the visitor returns <tt>false</tt>.
+     *
+     * <p>
+     * Called by <tt>RepositoryServiceInternalDefault</tt>.
+     */
+    @Programmatic
+    <T> void iterateQuery(Query<T> query, int fetchSize, Predicate<ObjectAdapter> visitor);
+
+    /**
+     * Returns a (lazily-evaluated) stream over the instances matching the query, fetched from the datastore in
+     * chunks of <tt>fetchSize</tt>; adapters no longer referenced by the stream are released as it is consumed.
+     * The stream must be consumed and closed within the current transaction.
+     *
+     * <p>
+     * Called by <tt>RepositoryServiceInternalDefault</tt>.
+     */
+    @Programmatic
+    <T> Stream<ObjectAdapter> streamQuery(Query<T> query, int fetchSize);
+
+    /**
+     * Releases an object that is no longer needed (its adapter is removed and the pojo evicted from the persistence
+     * manager), unless it is new, deleted or has been modified in the current transaction.
+     *
+     * <p>
+     * Called by <tt>RepositoryServiceInternalDefault</tt>, for instances read by {@link #iterateQuery(Query, int, Predicate)}
+     * that are not to be returned.
+     */
+    @Programmatic
+    void evictIfClean(ObjectAdapter adapter);
+
     /**
      * Provided by <tt>PersistenceSession</tt> when used by framework.
      *
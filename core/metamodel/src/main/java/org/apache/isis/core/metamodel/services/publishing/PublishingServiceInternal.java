@@ -33,6 +33,19 @@ void publishAction(
     @Programmatic
     void publishProperty(final Interaction.Execution execution);
 
+    /**
+     * Called once the transaction has been committed to the datastore; only of interest if publishing is
+     * asynchronous, in which case the events held since the transaction started are handed over for delivery.
+     */
+    @Programmatic
+    void transactionCommitted();
+
+    /**
+     * Called if the transaction is aborted; any events held for the transaction are discarded.
+     */
+    @Programmatic
+    void transactionAborted();
+
 
     interface Block<T> {
         T exec();
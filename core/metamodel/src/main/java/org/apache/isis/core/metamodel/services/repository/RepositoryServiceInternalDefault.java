@@ -26,21 +26,24 @@
 import javax.annotation.PostConstruct;
 
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.isis.applib.PersistFailedException;
 import org.apache.isis.applib.RepositoryException;
 import org.apache.isis.applib.annotation.DomainService;
 import org.apache.isis.applib.annotation.NatureOfService;
 import org.apache.isis.applib.annotation.Programmatic;
-import org.apache.isis.applib.internal.base._NullSafe;
 import org.apache.isis.applib.query.Query;
 import org.apache.isis.applib.query.QueryFindAllInstances;
+import org.apache.isis.applib.query.QueryFindAllInstancesMatching;
+import org.apache.isis.applib.query.QueryPredicate;
 import org.apache.isis.applib.services.factory.FactoryService;
+import org.apache.isis.applib.services.repository.PageableQueryResults;
 import org.apache.isis.applib.services.repository.RepositoryService;
 import org.apache.isis.applib.services.wrapper.WrapperFactory;
 import org.apache.isis.applib.services.xactn.TransactionService;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.services.metrics.MetricsServiceInternal;
 import org.apache.isis.core.metamodel.services.persistsession.PersistenceSessionServiceInternal;
 
 @DomainService(
@@ -49,13 +52,31 @@
 )
 public class RepositoryServiceInternalDefault implements RepositoryService {
 
+    private static final int FETCH_SIZE_DEFAULT = 100;
+
     private boolean autoFlush;
+    private boolean smartAutoFlush;
+    private int fetchSize;
 
     @Programmatic
     @PostConstruct
     public void init(Map<String, String> properties) {
         final boolean disableAutoFlush = Boolean.parseBoolean(properties.get(KEY_DISABLE_AUTOFLUSH));
         this.autoFlush = !disableAutoFlush;
+        this.smartAutoFlush = !Boolean.parseBoolean(properties.get(KEY_DISABLE_SMART_AUTOFLUSH));
+        this.fetchSize = parseFetchSize(properties.get(KEY_FETCH_SIZE));
+    }
+
+    private static int parseFetchSize(final String value) {
+        if(value == null) {
+            return FETCH_SIZE_DEFAULT;
+        }
+        try {
+            final int fetchSize = Integer.parseInt(value.trim());
+            return fetchSize > 0 ? fetchSize : FETCH_SIZE_DEFAULT;
+        } catch (NumberFormatException e) {
+            return FETCH_SIZE_DEFAULT;
+        }
     }
 
 
@@ -149,27 +170,111 @@ public <T> List<T> allInstances(final Class<T> type, long... range) {
 
     // //////////////////////////////////////
 
+    @SuppressWarnings("unchecked")
     @Programmatic
-	@Override
-	public <T> List<T> allMatches(Class<T> ofType, final Predicate<? super T> predicate, long... range) {
-		return _NullSafe.stream(allInstances(ofType, range))
-				.filter(predicate)
-				.collect(Collectors.toCollection(ArrayList::new));
-	}
+    @Override
+    public <T> List<T> allMatches(final Class<T> ofType, final Predicate<? super T> predicate, long... range) {
+        if(predicate instanceof QueryPredicate) {
+            // evaluated entirely by the datastore
+            return allMatches(new QueryFindAllInstancesMatching<>(ofType, (QueryPredicate<? super T>) predicate, range));
+        }
+
+        final QueryFindAllInstances<T> allInstances = new QueryFindAllInstances<T>(ofType);
+        autoFlushIfRequiredFor(allInstances);
+
+        // filtered client-side, but streamed from the datastore in chunks, reading stops as soon as the requested
+        // range has been filled; instances that are not to be returned (non-matching, or before the start of the
+        // range) are released as soon as they have been tested, so that only the matches are retained.
+        final long start = range.length > 0 ? range[0] : 0;
+        final long count = range.length > 1 ? range[1] : 0;
+        final List<T> matches = new ArrayList<>();
+        final long[] skipped = { 0 };
+        persistenceSessionServiceInternal.iterateQuery(
+                allInstances, fetchSize,
+                adapter -> {
+                    final T pojo = (T) adapter.getObject();
+                    if(!predicate.test(pojo)) {
+                        persistenceSessionServiceInternal.evictIfClean(adapter);
+                        return true;
+                    }
+                    if(skipped[0] < start) {
+                        skipped[0]++;
+                        persistenceSessionServiceInternal.evictIfClean(adapter);
+                        return true;
+                    }
+                    matches.add(pojo);
+                    return count <= 0 || matches.size() < count;
+                });
+        return matches;
+    }
 
     @Programmatic
     @Override
     public <T> List<T> allMatches(final Query<T> query) {
-        if(autoFlush) {
-            transactionService.flushTransaction();
-        }
+        autoFlushIfRequiredFor(query);
         return submitQuery(query);
     }
 
+    /**
+     * Flushes the transaction (if {@link #KEY_DISABLE_AUTOFLUSH auto-flushing} is enabled).
+     *
+     * <p>
+     * The flush is skipped for {@link QueryFindAllInstances} (and {@link QueryFindAllInstancesMatching}) if none of
+     * the changes made so far in the transaction could affect its results.  Any other query (eg a named
+     * {@link org.apache.isis.applib.query.QueryDefault}) may navigate arbitrarily far, use variables or subqueries,
+     * so is always preceded by a flush.
+     * </p>
+     */
+    private void autoFlushIfRequiredFor(final Query<?> query) {
+        if(!autoFlush) {
+            return;
+        }
+        if(smartAutoFlush && query instanceof QueryFindAllInstances &&
+                !persistenceSessionServiceInternal.isFlushRequiredFor(query.getResultType())) {
+            if(metricsServiceInternal != null) {
+                metricsServiceInternal.queryFlushAvoided();
+            }
+            return;
+        }
+        transactionService.flushTransaction();
+    }
+
     <T> List<T> submitQuery(final Query<T> query) {
         final List<ObjectAdapter> allMatching = persistenceSessionServiceInternal.allMatchingQuery(query);
         return ObjectAdapter.Util.unwrapT(allMatching);
     }
+
+    @Programmatic
+    @Override
+    public <T> List<T> allMatches(
+            final Query<T> query, final String orderBy, final boolean ascending, final long start, final long count) {
+        autoFlushIfRequiredFor(query);
+        final List<ObjectAdapter> allMatching =
+                persistenceSessionServiceInternal.allMatchingQuery(query, orderBy, ascending, start, count);
+        return ObjectAdapter.Util.unwrapT(allMatching);
+    }
+
+    @Programmatic
+    @Override
+    public <T> long count(final Query<T> query) {
+        autoFlushIfRequiredFor(query);
+        return persistenceSessionServiceInternal.countQuery(query);
+    }
+
+    @Programmatic
+    @Override
+    public <T> PageableQueryResults<T> allMatchesPageable(final Query<T> query) {
+        return new PageableQueryResults<>(query, this);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Programmatic
+    @Override
+    public <T> Stream<T> stream(final Query<T> query) {
+        autoFlushIfRequiredFor(query);
+        return persistenceSessionServiceInternal.streamQuery(query, fetchSize)
+                .map(adapter -> (T) adapter.getObject());
+    }
     
 
     // //////////////////////////////////////
@@ -219,6 +324,9 @@ private Object unwrapped(Object domainObject) {
     @javax.inject.Inject
     PersistenceSessionServiceInternal persistenceSessionServiceInternal;
 
+    @javax.inject.Inject
+    MetricsServiceInternal metricsServiceInternal;
+
 
 
 }
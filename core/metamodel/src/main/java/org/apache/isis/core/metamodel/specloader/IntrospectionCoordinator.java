@@ -0,0 +1,112 @@
+/**
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.apache.isis.core.metamodel.specloader;
+
+import java.util.Map;
+
+import com.google.common.collect.Maps;
+
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+
+/**
+ * Coordinates the introspection of specifications by multiple threads, as used by {@link SpecificationLoader}
+ * when introspecting in parallel.
+ *
+ * <p>
+ * Each specification is introspected only by the thread that created it (its "owner").  Any other thread that
+ * needs that specification waits until its owner has finished introspecting it, unless doing so would deadlock
+ * (because the owner is itself, directly or indirectly, waiting on a specification owned by this thread).  In that
+ * case - just as with a cyclic dependency when introspecting on a single thread - the partially introspected
+ * specification is used.
+ * </p>
+ *
+ * <p>
+ * The monitor is only held while updating the ownership and wait-for bookkeeping, never while introspecting.
+ * </p>
+ */
+class IntrospectionCoordinator {
+
+    private final Object lock = new Object();
+
+    // guarded by lock
+    private final Map<ObjectSpecification, Thread> ownerBySpec = Maps.newIdentityHashMap();
+    // guarded by lock
+    private final Map<Thread, ObjectSpecification> awaitedSpecByThread = Maps.newHashMap();
+
+    /**
+     * Called by the creating thread, before the specification is made available to other threads.
+     */
+    void claim(final ObjectSpecification spec) {
+        synchronized (lock) {
+            ownerBySpec.put(spec, Thread.currentThread());
+        }
+    }
+
+    /**
+     * Called by the owning thread once it has finished introspecting the specification (or if it has been discarded).
+     */
+    void release(final ObjectSpecification spec) {
+        synchronized (lock) {
+            ownerBySpec.remove(spec);
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Waits until the specification has been introspected by its owner, if any; returns immediately if the calling
+     * thread is the owner, or if waiting would deadlock.
+     */
+    void awaitIntrospected(final ObjectSpecification spec) {
+        final Thread currentThread = Thread.currentThread();
+        synchronized (lock) {
+            while(true) {
+                final Thread owner = ownerBySpec.get(spec);
+                if(owner == null || owner == currentThread) {
+                    return;
+                }
+                if(wouldDeadlock(owner, currentThread)) {
+                    return;
+                }
+                awaitedSpecByThread.put(currentThread, spec);
+                try {
+                    lock.wait();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } finally {
+                    awaitedSpecByThread.remove(currentThread);
+                }
+            }
+        }
+    }
+
+    /**
+     * Follows the wait-for chain from the owner; if it leads back to the current thread then waiting would deadlock.
+     */
+    private boolean wouldDeadlock(final Thread owner, final Thread currentThread) {
+        Thread thread = owner;
+        while(thread != null) {
+            if(thread == currentThread) {
+                return true;
+            }
+            final ObjectSpecification awaitedSpec = awaitedSpecByThread.get(thread);
+            thread = awaitedSpec != null ? ownerBySpec.get(awaitedSpec) : null;
+        }
+        return false;
+    }
+
+}
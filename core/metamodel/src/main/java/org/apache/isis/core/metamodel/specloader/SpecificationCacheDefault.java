@@ -22,6 +22,7 @@
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
 
 import com.google.common.collect.Maps;
 
@@ -33,8 +34,9 @@
 
 class SpecificationCacheDefault {
     
-    private final Map<String, ObjectSpecification> specByClassName = Maps.newHashMap();
-    private Map<ObjectSpecId, String> classNameBySpecId;
+    // concurrent, because specifications may be loaded by several threads (see SpecificationLoader#init()).
+    private final ConcurrentMap<String, ObjectSpecification> specByClassName = Maps.newConcurrentMap();
+    private volatile ConcurrentMap<ObjectSpecId, String> classNameBySpecId;
 
     public ObjectSpecification get(final String className) {
         return specByClassName.get(className);
@@ -44,7 +46,22 @@ public void cache(final String className, final ObjectSpecification spec) {
         specByClassName.put(className, spec);
         recache(spec);
     }
-    
+
+    /**
+     * Caches the specification unless one has already been cached (by some other thread) for the class name.
+     *
+     * @return the specification now cached for the class name; if not the provided one then the provided
+     * one has been discarded.
+     */
+    public ObjectSpecification cacheIfAbsent(final String className, final ObjectSpecification spec) {
+        final ObjectSpecification existing = specByClassName.putIfAbsent(className, spec);
+        if(existing != null) {
+            return existing;
+        }
+        recache(spec);
+        return spec;
+    }
+
 
     public void clear() {
         specByClassName.clear();
@@ -67,14 +84,15 @@ public ObjectSpecification getByObjectType(ObjectSpecId objectSpecID) {
      * xxxallxxx most specs have been loaded.
      */
     void setCacheBySpecId(final Map<ObjectSpecId, ObjectSpecification> specById) {
-        this.classNameBySpecId = Maps.newHashMap();
+        final ConcurrentMap<ObjectSpecId, String> classNameBySpecId = Maps.newConcurrentMap();
 
         for (ObjectSpecId objectSpecId : specById.keySet()) {
             final ObjectSpecification objectSpec = specById.get(objectSpecId);
             final String className = objectSpec.getCorrespondingClass().getName();
-            this.classNameBySpecId.put(objectSpecId, className);
+            classNameBySpecId.put(objectSpecId, className);
             this.specByClassName.put(className, objectSpec);
         }
+        this.classNameBySpecId = classNameBySpecId;
     }
 
     public ObjectSpecification remove(String typeName) {
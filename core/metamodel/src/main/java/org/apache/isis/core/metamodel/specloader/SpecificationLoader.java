@@ -16,17 +16,24 @@
  */
 package org.apache.isis.core.metamodel.specloader;
 
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.ws.rs.HEAD;
 
 import com.google.common.base.Function;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -57,8 +64,10 @@
 import org.apache.isis.core.metamodel.specloader.specimpl.ObjectSpecificationAbstract;
 import org.apache.isis.core.metamodel.specloader.specimpl.dflt.ObjectSpecificationDefault;
 import org.apache.isis.core.metamodel.specloader.specimpl.standalonelist.ObjectSpecificationOnStandaloneList;
+import org.apache.isis.core.metamodel.specloader.traverser.SpecificationTraverser;
 import org.apache.isis.core.metamodel.specloader.validator.MetaModelValidator;
 import org.apache.isis.core.metamodel.specloader.validator.ValidationFailures;
+import org.apache.isis.core.runtime.threadpool.ThreadPoolSupport;
 import org.apache.isis.progmodels.dflt.ProgrammingModelFacetsJava5;
 
 /**
@@ -88,6 +97,13 @@ public class SpecificationLoader implements ApplicationScopedComponent {
 
     private final static Logger LOG = LoggerFactory.getLogger(SpecificationLoader.class);
 
+    /**
+     * If set, then the specifications of all services, mixins and entities are introspected in parallel (using the
+     * {@link ThreadPoolSupport shared thread pool}) when the metamodel is {@link #init() initialized}.
+     */
+    public static final String PARALLELIZE_KEY = "isis.reflector.introspector.parallelize";
+    public static final boolean PARALLELIZE_DEFAULT = false;
+
     // -- constructor, fields
     private final ClassSubstitutor classSubstitutor = new ClassSubstitutor();
 
@@ -151,8 +167,12 @@ public void init() {
         postProcessor.init();
         metaModelValidator.init(this);
 
-        loadSpecificationsForServices();
-        loadSpecificationsForMixins();
+        if(configuration.getBoolean(PARALLELIZE_KEY, PARALLELIZE_DEFAULT)) {
+            loadSpecificationsInParallel();
+        } else {
+            loadSpecificationsForServices();
+            loadSpecificationsForMixins();
+        }
         cacheBySpecId();
 
         initialized = true;
@@ -177,6 +197,184 @@ private void loadSpecificationsForMixins() {
         }
     }
 
+    // -- parallel introspection
+
+    /**
+     * Only set while {@link #loadSpecificationsInParallel()} is running; thereafter specifications are loaded
+     * (one at a time) by {@link #loadSpecificationForSubstitutedClassSynchronized(Class, NatureOfService)}.
+     */
+    private volatile IntrospectionCoordinator introspectionCoordinator;
+
+    /**
+     * Only set while {@link #loadSpecificationsInParallel()} is running, so that a service class is created as a
+     * service spec even if first encountered as the dependency of some other type (rather than as a service).
+     */
+    private volatile Map<Class<?>, NatureOfService> natureByServiceClass;
+
+    /**
+     * Loads the same specifications as {@link #loadSpecificationsForServices()} and
+     * {@link #loadSpecificationsForMixins()} (along with those of the entities and of all types reachable from any
+     * of these), but introspects them concurrently.
+     *
+     * <p>
+     * The graph of types is computed up front, and is then submitted in waves ordered by the depth of their class
+     * hierarchy, so that (for the most part) superclasses are introspected before any of their subclasses need them.
+     * The meta-model is only validated once all waves have completed (see {@link #validateAndAssert()}).
+     * </p>
+     */
+    private void loadSpecificationsInParallel() {
+
+        final Map<Class<?>, NatureOfService> natureByServiceClass = Maps.newHashMap();
+        final Set<Class<?>> rootTypes = Sets.newLinkedHashSet();
+        for (final Class<?> serviceClass : allServiceClasses()) {
+            final DomainService domainService = serviceClass.getAnnotation(DomainService.class);
+            final NatureOfService nature = domainService != null ? domainService.nature() : NatureOfService.DOMAIN;
+            natureByServiceClass.put(serviceClass, nature);
+            rootTypes.add(serviceClass);
+        }
+        final AppManifest.Registry registry = AppManifest.Registry.instance();
+        addAllIfAny(rootTypes, registry.getMixinTypes());
+        addAllIfAny(rootTypes, registry.getPersistenceCapableTypes());
+
+        final Set<Class<?>> types = reachableFrom(rootTypes);
+        if(LOG.isDebugEnabled()) {
+            LOG.debug("introspecting {} types (from {} services, mixins and entities) in parallel", types.size(), rootTypes.size());
+        }
+
+        this.natureByServiceClass = natureByServiceClass;
+        this.introspectionCoordinator = new IntrospectionCoordinator();
+        try {
+            final ThreadPoolSupport threadPoolSupport = ThreadPoolSupport.getInstance();
+            for (final List<Class<?>> wave : wavesByHierarchyDepth(types)) {
+                final List<Callable<ObjectSpecification>> tasks = Lists.newArrayList();
+                for (final Class<?> type : wave) {
+                    tasks.add(new Callable<ObjectSpecification>() {
+                        @Override
+                        public ObjectSpecification call() {
+                            return internalLoadSpecification(type);
+                        }
+                        @Override
+                        public String toString() {
+                            return "loadSpecification(" + type.getName() + ")";
+                        }
+                    });
+                }
+                ThreadPoolSupport.join(threadPoolSupport.invokeAll(tasks));
+            }
+        } finally {
+            this.introspectionCoordinator = null;
+            this.natureByServiceClass = null;
+        }
+    }
+
+    private static void addAllIfAny(final Set<Class<?>> types, final Set<Class<?>> typesIfAny) {
+        if(typesIfAny != null) {
+            types.addAll(typesIfAny);
+        }
+    }
+
+    /**
+     * The (substituted) root types, along with their superclasses and the types returned by any of their methods,
+     * transitively.
+     */
+    private Set<Class<?>> reachableFrom(final Set<Class<?>> rootTypes) {
+        final SpecificationTraverser traverser = new SpecificationTraverser();
+        final Set<Class<?>> types = Sets.newLinkedHashSet();
+        final Deque<Class<?>> toVisit = new ArrayDeque<>(rootTypes);
+        while(!toVisit.isEmpty()) {
+            final Class<?> type = classSubstitutor.getClass(toVisit.removeFirst());
+            if(type == null || !isIntrospectable(type) || !types.add(type)) {
+                continue;
+            }
+            final Class<?> superclass = type.getSuperclass();
+            if(superclass != null) {
+                toVisit.add(superclass);
+            }
+            final List<Class<?>> discoveredTypes = Lists.newArrayList();
+            try {
+                for (final Method method : type.getMethods()) {
+                    traverser.traverseTypes(method, discoveredTypes);
+                }
+            } catch (final NoClassDefFoundError ex) {
+                // will be discovered (or not) when introspected
+                continue;
+            }
+            toVisit.addAll(discoveredTypes);
+        }
+        return types;
+    }
+
+    private static boolean isIntrospectable(final Class<?> type) {
+        if(type.isPrimitive() || type.isArray() || type.isAnonymousClass() || type.isLocalClass() || type.isAnnotation()) {
+            return false;
+        }
+        final String typeName = type.getName();
+        return !typeName.startsWith("java.") && !typeName.startsWith("javax.");
+    }
+
+    /**
+     * Partitions the types by the number of superclasses each has, shallowest first.
+     */
+    static List<List<Class<?>>> wavesByHierarchyDepth(final Collection<Class<?>> types) {
+        final SortedMap<Integer, List<Class<?>>> typesByDepth = Maps.newTreeMap();
+        for (final Class<?> type : types) {
+            int depth = 0;
+            for (Class<?> superclass = type.getSuperclass(); superclass != null; superclass = superclass.getSuperclass()) {
+                depth++;
+            }
+            List<Class<?>> wave = typesByDepth.get(depth);
+            if(wave == null) {
+                wave = Lists.newArrayList();
+                typesByDepth.put(depth, wave);
+            }
+            wave.add(type);
+        }
+        return Lists.newArrayList(typesByDepth.values());
+    }
+
+    private ObjectSpecification loadSpecificationForSubstitutedClassConcurrently(
+            final Class<?> type,
+            final NatureOfService natureOfService,
+            final IntrospectionCoordinator coordinator) {
+
+        final String typeName = type.getName();
+        final ObjectSpecification spec = cache.get(typeName);
+        if (spec != null) {
+            awaitIntrospected(spec, coordinator);
+            return spec;
+        }
+
+        final ObjectSpecification specification = createSpecification(type, natureOfService);
+
+        // claim before publishing in the cache, so that any other thread that picks it up waits for us to
+        // finish introspecting.
+        coordinator.claim(specification);
+        final ObjectSpecification cached = cache.cacheIfAbsent(typeName, specification);
+        if(cached != specification) {
+            // lost the race; discard ours and use theirs
+            coordinator.release(specification);
+            awaitIntrospected(cached, coordinator);
+            return cached;
+        }
+
+        try {
+            introspectIfRequired(specification);
+        } finally {
+            coordinator.release(specification);
+        }
+        return specification;
+    }
+
+    private static void awaitIntrospected(
+            final ObjectSpecification spec,
+            final IntrospectionCoordinator coordinator) {
+        if(spec instanceof ObjectSpecificationAbstract &&
+           ((ObjectSpecificationAbstract) spec).getIntrospectionState() == ObjectSpecificationAbstract.IntrospectionState.INTROSPECTED) {
+            return;
+        }
+        coordinator.awaitIntrospected(spec);
+    }
+
     private void cacheBySpecId() {
         final Map<ObjectSpecId, ObjectSpecification> specById = Maps.newHashMap();
         for (final ObjectSpecification objSpec : allCachedSpecifications()) {
@@ -213,6 +411,21 @@ public void shutdown() {
 
     // -- invalidateCache
 
+    private final AtomicLong invalidationCount = new AtomicLong();
+
+    /**
+     * The number of times that any specification has been {@link #invalidateCache(Class) invalidated}.
+     *
+     * <p>
+     * Allows caches of anything derived from the metamodel (eg rendered representations) to detect that they
+     * may be stale.
+     * </p>
+     */
+    @Programmatic
+    public long getInvalidationCount() {
+        return invalidationCount.get();
+    }
+
     @Programmatic
     public void invalidateCache(final Class<?> cls) {
 
@@ -238,6 +451,7 @@ public void invalidateCache(final Class<?> cls) {
             }
             spec = spec.superclass();
         }
+        invalidationCount.incrementAndGet();
     }
 
 
@@ -325,7 +539,11 @@ private ObjectSpecification internalLoadSpecification(final Class<?> type) {
         // can be registered first prior to the "real" implementation.  As belt-n-braces, if that superclass is
         // annotated using @DomainService, then we ensure its own spec is created correctly as a service spec.
         final DomainService domainServiceIfAny = type.getAnnotation(DomainService.class);
-        final NatureOfService natureOfServiceIfAny = domainServiceIfAny != null ? domainServiceIfAny.nature() : null;
+        NatureOfService natureOfServiceIfAny = domainServiceIfAny != null ? domainServiceIfAny.nature() : null;
+        final Map<Class<?>, NatureOfService> natureByServiceClass = this.natureByServiceClass;
+        if(natureOfServiceIfAny == null && natureByServiceClass != null) {
+            natureOfServiceIfAny = natureByServiceClass.get(type);
+        }
         return internalLoadSpecification(type, natureOfServiceIfAny);
     }
 
@@ -337,6 +555,11 @@ private ObjectSpecification internalLoadSpecification(final Class<?> type, final
     private ObjectSpecification loadSpecificationForSubstitutedClass(final Class<?> type, final NatureOfService nature) {
         Assert.assertNotNull(type);
 
+        final IntrospectionCoordinator coordinator = this.introspectionCoordinator;
+        if(coordinator != null) {
+            return loadSpecificationForSubstitutedClassConcurrently(type, nature, coordinator);
+        }
+
         final String typeName = type.getName();
         final ObjectSpecification spec = cache.get(typeName);
         if (spec != null) {
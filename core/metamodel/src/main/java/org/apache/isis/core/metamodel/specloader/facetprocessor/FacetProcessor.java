@@ -74,7 +74,7 @@ public class FacetProcessor implements ServicesInjectorAware {
      * <p>
      * If <tt>null</tt>, indicates that the cache hasn't been built.
      */
-    private List<String> cachedMethodPrefixes;
+    private volatile List<String> cachedMethodPrefixes;
 
     /**
      * All registered {@link FacetFactory factories} that implement
@@ -86,7 +86,7 @@ public class FacetProcessor implements ServicesInjectorAware {
      * <p>
      * If <tt>null</tt>, indicates that the cache hasn't been built.
      */
-    private List<MethodFilteringFacetFactory> cachedMethodFilteringFactories;
+    private volatile List<MethodFilteringFacetFactory> cachedMethodFilteringFactories;
     
     /**
      * All registered {@link FacetFactory factories} that implement
@@ -95,7 +95,7 @@ public class FacetProcessor implements ServicesInjectorAware {
      * <p>
      * If <tt>null</tt>, indicates that the cache hasn't been built.
      */
-    private List<ContributeeMemberFacetFactory> cachedContributeeMemberFacetFactories;
+    private volatile List<ContributeeMemberFacetFactory> cachedContributeeMemberFacetFactories;
 
     /**
      * All registered {@link FacetFactory factories} that implement
@@ -107,7 +107,7 @@ public class FacetProcessor implements ServicesInjectorAware {
      * <p>
      * If <tt>null</tt>, indicates that the cache hasn't been built.
      */
-    private List<PropertyOrCollectionIdentifyingFacetFactory> cachedPropertyOrCollectionIdentifyingFactories;
+    private volatile List<PropertyOrCollectionIdentifyingFacetFactory> cachedPropertyOrCollectionIdentifyingFactories;
 
     /**
      * ObjectFeatureType => List<FacetFactory>
@@ -115,8 +115,12 @@ public class FacetProcessor implements ServicesInjectorAware {
      * <p>
      * Lazily initialized, then cached. The lists remain in the same order that
      * the factories were {@link #registerFactory(FacetFactory) registered}.
+     *
+     * <p>
+     * This and the other caches are only assigned once fully built, because specifications may be
+     * introspected concurrently.
      */
-    private Map<FeatureType, List<FacetFactory>> factoryListByFeatureType = null;
+    private volatile Map<FeatureType, List<FacetFactory>> factoryListByFeatureType = null;
 
     public FacetProcessor(final ProgrammingModel programmingModel) {
         this.programmingModel = programmingModel;
@@ -374,7 +378,7 @@ private synchronized void cacheByFeatureTypeIfRequired() {
         if (factoryListByFeatureType != null) {
             return;
         }
-        factoryListByFeatureType = Maps.newHashMap();
+        final Map<FeatureType, List<FacetFactory>> factoryListByFeatureType = Maps.newHashMap();
         for (final FacetFactory factory : factories) {
             final List<FeatureType> featureTypes = factory.getFeatureTypes();
             for (final FeatureType featureType : featureTypes) {
@@ -382,58 +386,63 @@ private synchronized void cacheByFeatureTypeIfRequired() {
                 factoryList.add(factory);
             }
         }
+        this.factoryListByFeatureType = factoryListByFeatureType;
     }
 
     private synchronized void cacheMethodPrefixesIfRequired() {
         if (cachedMethodPrefixes != null) {
             return;
         }
-        cachedMethodPrefixes = Lists.newArrayList();
+        final List<String> cachedMethodPrefixes = Lists.newArrayList();
         for (final FacetFactory facetFactory : factories) {
             if (facetFactory instanceof MethodPrefixBasedFacetFactory) {
                 final MethodPrefixBasedFacetFactory methodPrefixBasedFacetFactory = (MethodPrefixBasedFacetFactory) facetFactory;
                 ListExtensions.mergeWith(cachedMethodPrefixes, methodPrefixBasedFacetFactory.getPrefixes());
             }
         }
+        this.cachedMethodPrefixes = cachedMethodPrefixes;
     }
 
     private synchronized void cacheMethodFilteringFacetFactoriesIfRequired() {
         if (cachedMethodFilteringFactories != null) {
             return;
         }
-        cachedMethodFilteringFactories = Lists.newArrayList();
+        final List<MethodFilteringFacetFactory> cachedMethodFilteringFactories = Lists.newArrayList();
         for (final FacetFactory factory : factories) {
             if (factory instanceof MethodFilteringFacetFactory) {
                 final MethodFilteringFacetFactory methodFilteringFacetFactory = (MethodFilteringFacetFactory) factory;
                 cachedMethodFilteringFactories.add(methodFilteringFacetFactory);
             }
         }
+        this.cachedMethodFilteringFactories = cachedMethodFilteringFactories;
     }
 
     private synchronized void cacheContributeeMemberFacetFactoriesIfRequired() {
         if (cachedContributeeMemberFacetFactories != null) {
             return;
         }
-        cachedContributeeMemberFacetFactories = Lists.newArrayList();
+        final List<ContributeeMemberFacetFactory> cachedContributeeMemberFacetFactories = Lists.newArrayList();
         for (final FacetFactory factory : factories) {
             if (factory instanceof ContributeeMemberFacetFactory) {
                 final ContributeeMemberFacetFactory memberOrderingFacetFactory = (ContributeeMemberFacetFactory) factory;
                 cachedContributeeMemberFacetFactories.add(memberOrderingFacetFactory);
             }
         }
+        this.cachedContributeeMemberFacetFactories = cachedContributeeMemberFacetFactories;
     }
     
     private synchronized void cachePropertyOrCollectionIdentifyingFacetFactoriesIfRequired() {
         if (cachedPropertyOrCollectionIdentifyingFactories != null) {
             return;
         }
-        cachedPropertyOrCollectionIdentifyingFactories = Lists.newArrayList();
+        final List<PropertyOrCollectionIdentifyingFacetFactory> cachedPropertyOrCollectionIdentifyingFactories = Lists.newArrayList();
         for (FacetFactory factory : factories) {
             if (factory instanceof PropertyOrCollectionIdentifyingFacetFactory) {
                 final PropertyOrCollectionIdentifyingFacetFactory identifyingFacetFactory = (PropertyOrCollectionIdentifyingFacetFactory) factory;
                 cachedPropertyOrCollectionIdentifyingFactories.add(identifyingFacetFactory);
             }
         }
+        this.cachedPropertyOrCollectionIdentifyingFactories = cachedPropertyOrCollectionIdentifyingFactories;
     }
 
     private static <K, T> List<T> getList(final Map<K, List<T>> map, final K key) {
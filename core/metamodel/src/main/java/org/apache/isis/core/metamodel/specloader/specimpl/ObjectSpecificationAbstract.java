@@ -19,16 +19,16 @@
 
 package org.apache.isis.core.metamodel.specloader.specimpl;
 
-import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Stream;
 
 import com.google.common.base.Function;
-import com.google.common.collect.Collections2;
 import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
@@ -101,13 +101,11 @@ public abstract class ObjectSpecificationAbstract extends FacetHolderImpl implem
     private final static Logger LOG = LoggerFactory.getLogger(ObjectSpecificationAbstract.class);
 
     private static class SubclassList {
-        private final List<ObjectSpecification> classes = Lists.newArrayList();
+        // copy-on-write, since subclasses may be introspected concurrently (see SpecificationLoader#init())
+        private final CopyOnWriteArrayList<ObjectSpecification> classes = new CopyOnWriteArrayList<>();
 
         public void addSubclass(final ObjectSpecification subclass) {
-            if(classes.contains(subclass)) { 
-                return;
-            }
-            classes.add(subclass);
+            classes.addIfAbsent(subclass);
         }
 
         public boolean hasSubclasses() {
@@ -131,19 +129,14 @@ public List<ObjectSpecification> toList() {
 
     private final List<ObjectAssociation> associations = Lists.newArrayList();
     private final List<ObjectAction> objectActions = Lists.newArrayList();
-    // partitions and caches objectActions by type; updated in sortCacheAndUpdateActions()
-    private final Map<ActionType, List<ObjectAction>> objectActionsByType = createObjectActionsByType();
 
-    private static Map<ActionType, List<ObjectAction>> createObjectActionsByType() {
-        final Map<ActionType, List<ObjectAction>> map = Maps.newHashMap();
-        for (final ActionType type : ActionType.values()) {
-            map.put(type, Lists.<ObjectAction>newArrayList());
-        }
-        return map;
-    }
+    // immutable snapshots of associations and objectActions, partitioned by Contributed and hashed by id;
+    // republished by sortAndUpdateAssociations() and sortCacheAndUpdateActions() respectively
+    private volatile AssociationsIndex associationsIndex = AssociationsIndex.EMPTY;
+    private volatile ActionsIndex actionsIndex = ActionsIndex.EMPTY;
 
-    private boolean contributeeAndMixedInAssociationsAdded;
-    private boolean contributeeAndMixedInActionsAdded;
+    private volatile boolean contributeeAndMixedInAssociationsAdded;
+    private volatile boolean contributeeAndMixedInActionsAdded;
 
 
     private final List<ObjectSpecification> interfaces = Lists.newArrayList();
@@ -166,7 +159,7 @@ private static Map<ActionType, List<ObjectAction>> createObjectActionsByType() {
     private NavigableParentFacet navigableParentFacet;
     private CssClassFacet cssClassFacet;
 
-    private IntrospectionState introspected = IntrospectionState.NOT_INTROSPECTED;
+    private volatile IntrospectionState introspected = IntrospectionState.NOT_INTROSPECTED;
     
 
     // -- Constructor
@@ -325,6 +318,7 @@ protected void sortAndUpdateAssociations(final List<ObjectAssociation> associati
         synchronized (this.associations) {
             this.associations.clear();
             this.associations.addAll(orderedAssociations);
+            this.associationsIndex = new AssociationsIndex(orderedAssociations);
         }
     }
 
@@ -333,12 +327,100 @@ protected void sortCacheAndUpdateActions(final List<ObjectAction> objectActions)
         synchronized (this.objectActions){
             this.objectActions.clear();
             this.objectActions.addAll(orderedActions);
+            this.actionsIndex = new ActionsIndex(objectActions);
+        }
+    }
+
+    /**
+     * Immutable snapshot of the associations, held both as lists (pre-filtered by {@link Contributed}) and
+     * hashed by {@link ObjectAssociation#getId() id}.
+     *
+     * <p>
+     * Published through a volatile field, so can be read without locking or copying.
+     */
+    private static class AssociationsIndex {
+
+        private static final AssociationsIndex EMPTY =
+                new AssociationsIndex(Collections.<ObjectAssociation>emptyList());
+
+        private final List<ObjectAssociation> all;
+        private final List<ObjectAssociation> regular;
+        private final Map<String, ObjectAssociation> byId;
+
+        private AssociationsIndex(final List<ObjectAssociation> associations) {
+            this.all = ImmutableList.copyOf(associations);
+            this.regular = ImmutableList.copyOf(
+                    Iterables.filter(associations, ContributeeMember.Predicates.<ObjectAssociation>regular()));
+
+            final Map<String, ObjectAssociation> byId = Maps.newHashMap();
+            for (final ObjectAssociation association : associations) {
+                // first wins, as per a linear search
+                byId.putIfAbsent(association.getId(), association);
+            }
+            this.byId = Collections.unmodifiableMap(byId);
+        }
 
-            for (final ActionType type : ActionType.values()) {
-                final List<ObjectAction> objectActionForType = objectActionsByType.get(type);
-                objectActionForType.clear();
-                objectActionForType.addAll(Collections2.filter(objectActions, ObjectAction.Predicates.ofType(type)));
+        List<ObjectAssociation> associations(final Contributed contributed) {
+            return contributed.isIncluded() ? all : regular;
+        }
+
+        ObjectAssociation associationWithId(final String id) {
+            return byId.get(id);
+        }
+    }
+
+    /**
+     * Immutable snapshot of the actions, partitioned by {@link ActionType} and by {@link Contributed}, and hashed
+     * by both {@link Identifier#toNameParmsIdentityString()} and {@link Identifier#toNameIdentityString()}.
+     *
+     * <p>
+     * Published through a volatile field, so can be read without locking or copying.
+     */
+    private static class ActionsIndex {
+
+        private static final ActionsIndex EMPTY = new ActionsIndex(Collections.<ObjectAction>emptyList());
+
+        private final Map<ActionType, List<ObjectAction>> allByType = Maps.newEnumMap(ActionType.class);
+        private final Map<ActionType, List<ObjectAction>> regularByType = Maps.newEnumMap(ActionType.class);
+        private final Map<ActionType, Map<String, ObjectAction>> byIdByType = Maps.newEnumMap(ActionType.class);
+        private final Map<String, ObjectAction> byId;
+
+        private ActionsIndex(final List<ObjectAction> actions) {
+            final Map<String, ObjectAction> byId = Maps.newHashMap();
+            for (final ActionType type : ActionType.ALL) {
+                final List<ObjectAction> actionsOfType =
+                        ImmutableList.copyOf(Iterables.filter(actions, ObjectAction.Predicates.ofType(type)));
+                allByType.put(type, actionsOfType);
+                regularByType.put(type, ImmutableList.copyOf(
+                        Iterables.filter(actionsOfType, ContributeeMember.Predicates.<ObjectAction>regular())));
+
+                final Map<String, ObjectAction> byIdForType = Maps.newHashMap();
+                for (final ObjectAction action : actionsOfType) {
+                    index(action, byIdForType);
+                    index(action, byId);
+                }
+                byIdByType.put(type, Collections.unmodifiableMap(byIdForType));
             }
+            this.byId = Collections.unmodifiableMap(byId);
+        }
+
+        private static void index(final ObjectAction action, final Map<String, ObjectAction> byId) {
+            // first wins, as per a linear search
+            final Identifier identifier = action.getIdentifier();
+            byId.putIfAbsent(identifier.toNameParmsIdentityString(), action);
+            byId.putIfAbsent(identifier.toNameIdentityString(), action);
+        }
+
+        List<ObjectAction> actions(final ActionType type, final Contributed contributed) {
+            return contributed.isIncluded() ? allByType.get(type) : regularByType.get(type);
+        }
+
+        ObjectAction actionWithId(final String id) {
+            return byId.get(id);
+        }
+
+        ObjectAction actionWithId(final ActionType type, final String id) {
+            return byIdByType.get(type).get(id);
         }
     }
 
@@ -629,20 +711,24 @@ public final boolean isAbstract() {
     // -- Associations
     @Override
     public List<ObjectAssociation> getAssociations(final Contributed contributed) {
+        return Lists.newArrayList(associationsIndex(contributed).associations(contributed));
+    }
+
+    private AssociationsIndex associationsIndex(final Contributed contributed) {
         // the "contributed.isIncluded()" guard is required because we cannot do this too early;
         // there must be a session available
         if(contributed.isIncluded() && !contributeeAndMixedInAssociationsAdded) {
             synchronized (this.associations) {
-                List<ObjectAssociation> associations = Lists.newArrayList(this.associations);
-                associations.addAll(createContributeeAssociations());
-                associations.addAll(createMixedInAssociations());
-                sortAndUpdateAssociations(associations);
-                contributeeAndMixedInAssociationsAdded = true;
+                if(!contributeeAndMixedInAssociationsAdded) {
+                    List<ObjectAssociation> associations = Lists.newArrayList(this.associations);
+                    associations.addAll(createContributeeAssociations());
+                    associations.addAll(createMixedInAssociations());
+                    sortAndUpdateAssociations(associations);
+                    contributeeAndMixedInAssociationsAdded = true;
+                }
             }
         }
-        final List<ObjectAssociation> associations = Lists.newArrayList(this.associations);
-        return Lists.newArrayList(Iterables.filter(
-                associations, ContributeeMember.Predicates.regularElse(contributed)));
+        return associationsIndex;
     }
 
 
@@ -674,9 +760,6 @@ public ObjectMember getMember(final String memberId) {
      * simply returns <tt>null</tt>.
      * 
      * <p>
-     * TODO put fields into hash.
-     * 
-     * <p>
      * TODO: could this be made final? (ie does the framework ever call this
      * method for an {@link org.apache.isis.core.metamodel.specloader.specimpl.standalonelist.ObjectSpecificationOnStandaloneList})
      */
@@ -712,12 +795,7 @@ public ObjectAssociation getAssociation(final String id) {
     }
 
     private ObjectAssociation getAssociationWithId(final String id) {
-        for (final ObjectAssociation objectAssociation : getAssociations(Contributed.INCLUDED)) {
-            if (objectAssociation.getId().equals(id)) {
-                return objectAssociation;
-            }
-        }
-        return null;
+        return associationsIndex(Contributed.INCLUDED).associationWithId(id);
     }
 
     @Deprecated
@@ -759,40 +837,64 @@ public List<ObjectAction> getObjectActions(
             final Contributed contributed, 
             final Predicate<ObjectAction> predicate) {
 
+        final ActionsIndex actionsIndex = actionsIndex(contributed);
+
+        final List<ObjectAction> actions = Lists.newArrayList();
+        for (final ActionType type : types) {
+            for (final ObjectAction action : actionsIndex.actions(type, contributed)) {
+                if(predicate.apply(action)) {
+                    actions.add(action);
+                }
+            }
+        }
+        return actions;
+    }
+
+    private ActionsIndex actionsIndex(final Contributed contributed) {
         // update our list of actions if requesting for contributed actions
         // and they have not yet been added
         // the "contributed.isIncluded()" guard is required because we cannot do this too early;
         // there must be a session available
         if(contributed.isIncluded() && !contributeeAndMixedInActionsAdded) {
             synchronized (this.objectActions) {
-                final List<ObjectAction> actions = Lists.newArrayList(this.objectActions);
-                final boolean containsMixin = containsDoOpFacet(MixinFacet.class);
-                final boolean containsDomainService = containsDoOpFacet(DomainServiceFacet.class);
-                final boolean isService = isService();
-                if (containsMixin || containsDomainService || isService) {
-                    // don't contribute to mixins themselves!
-                    // don't contribute to services either
-                    // - isService() is sufficient check for internal services registered directly with ServicesInjector
-                    // - checking for DomainServiceFacet is for application services (isService() may not have been called, for these)
-                } else {
-                    actions.addAll(createContributeeActions());
-                    actions.addAll(createMixedInActions());
+                if(!contributeeAndMixedInActionsAdded) {
+                    final List<ObjectAction> actions = Lists.newArrayList(this.objectActions);
+                    final boolean containsMixin = containsDoOpFacet(MixinFacet.class);
+                    final boolean containsDomainService = containsDoOpFacet(DomainServiceFacet.class);
+                    final boolean isService = isService();
+                    if (containsMixin || containsDomainService || isService) {
+                        // don't contribute to mixins themselves!
+                        // don't contribute to services either
+                        // - isService() is sufficient check for internal services registered directly with ServicesInjector
+                        // - checking for DomainServiceFacet is for application services (isService() may not have been called, for these)
+                    } else {
+                        actions.addAll(createContributeeActions());
+                        actions.addAll(createMixedInActions());
+                    }
+                    sortCacheAndUpdateActions(actions);
+                    contributeeAndMixedInActionsAdded = true;
                 }
-                sortCacheAndUpdateActions(actions);
-                contributeeAndMixedInActionsAdded = true;
             }
         }
+        return actionsIndex;
+    }
 
-        final List<ObjectAction> actions = Lists.newArrayList();
-        for (final ActionType type : types) {
-            final Collection<ObjectAction> filterActions =
-                    Collections2.filter(objectActionsByType.get(type), (Predicate) predicate);
-            actions.addAll(filterActions);
-        }
-        return Lists.newArrayList(
-                Iterables.filter(
-                        actions,
-                        ContributeeMember.Predicates.regularElse(contributed)));
+    /**
+     * The (possibly contributed or mixed-in) action whose {@link Identifier#toNameParmsIdentityString()} or
+     * {@link Identifier#toNameIdentityString()} matches the provided id, else <tt>null</tt>.
+     *
+     * <p>
+     * Looked up from a hash, so is O(1) and does not allocate.
+     */
+    protected ObjectAction getObjectActionWithId(final String id) {
+        return actionsIndex(Contributed.INCLUDED).actionWithId(id);
+    }
+
+    /**
+     * As {@link #getObjectActionWithId(String)}, restricted to actions of the specified {@link ActionType}.
+     */
+    protected ObjectAction getObjectActionWithId(final ActionType type, final String id) {
+        return actionsIndex(Contributed.INCLUDED).actionWithId(type, id);
     }
 
     @Override
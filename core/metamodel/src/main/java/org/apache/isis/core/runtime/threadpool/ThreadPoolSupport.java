@@ -22,58 +22,270 @@
 import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 import com.google.common.collect.Lists;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.apache.isis.applib.annotation.Programmatic;
+import org.apache.isis.core.commons.config.IsisConfiguration;
+import org.apache.isis.core.commons.exceptions.IsisException;
+
+/**
+ * Shared, application-scoped executor for framework code and domain services that need to perform work in parallel.
+ *
+ * <p>
+ * The pool is configured from {@link IsisConfiguration} (see the <tt>KEY_xxx</tt> constants) when the
+ * {@link #init(IsisConfiguration) system is initialized}; until then a default configuration is used.  It is also
+ * registered as a (fallback) service, so can be <tt>@javax.inject.Inject</tt>'ed.
+ * </p>
+ *
+ * <p>
+ * Each submitted task is decorated by the current {@link TaskDecorator}; the runtime uses this to propagate the
+ * submitting thread's Isis session (and transaction and authentication) context onto the worker thread.
+ * </p>
+ */
 public final class ThreadPoolSupport {
 
     private static final Logger LOG = LoggerFactory.getLogger(ThreadPoolSupport.class);
 
-    public static ThreadGroup group;
+    public static final String KEY_CORE_POOL_SIZE = "isis.threadpool.corePoolSize";
+    public static final String KEY_MAX_POOL_SIZE = "isis.threadpool.maxPoolSize";
+    public static final String KEY_KEEP_ALIVE_SECONDS = "isis.threadpool.keepAliveSeconds";
+    public static final String KEY_QUEUE_CAPACITY = "isis.threadpool.queueCapacity";
+    /**
+     * One of <tt>abort</tt>, <tt>callerRuns</tt> (the default), <tt>discard</tt> or <tt>discardOldest</tt>.
+     *
+     * <p>
+     * A task that is discarded (or rejected once the pool has shut down) has its future cancelled, so that
+     * {@link #join(Future)} fails rather than waiting forever.
+     * </p>
+     */
+    public static final String KEY_REJECTION_POLICY = "isis.threadpool.rejectionPolicy";
+
+    private static final int KEEP_ALIVE_SECONDS_DEFAULT = 5;
+    private static final int QUEUE_CAPACITY_DEFAULT = 25;
+    private static final String REJECTION_POLICY_DEFAULT = "callerRuns";
+
+    // -- instance, init, shutdownInstance
+
+    private static ThreadPoolSupport instance;
+
+    /**
+     * The current pool, created with the default configuration if the system has not yet been
+     * {@link #init(IsisConfiguration) initialized}.
+     */
+    public static synchronized ThreadPoolSupport getInstance() {
+        if(instance == null) {
+            final int processors = Runtime.getRuntime().availableProcessors();
+            instance = new ThreadPoolSupport(
+                    processors, processors, KEEP_ALIVE_SECONDS_DEFAULT, QUEUE_CAPACITY_DEFAULT, REJECTION_POLICY_DEFAULT);
+        }
+        return instance;
+    }
+
+    /**
+     * (Re)creates the pool using the provided configuration, shutting down any previous pool.
+     */
+    public static synchronized ThreadPoolSupport init(final IsisConfiguration configuration) {
+        shutdownInstance();
+
+        final int processors = Runtime.getRuntime().availableProcessors();
+        final int corePoolSize = configuration.getInteger(KEY_CORE_POOL_SIZE, processors);
+        final int maxPoolSize = Math.max(corePoolSize, configuration.getInteger(KEY_MAX_POOL_SIZE, processors));
+
+        instance = new ThreadPoolSupport(
+                corePoolSize,
+                maxPoolSize,
+                configuration.getInteger(KEY_KEEP_ALIVE_SECONDS, KEEP_ALIVE_SECONDS_DEFAULT),
+                configuration.getInteger(KEY_QUEUE_CAPACITY, QUEUE_CAPACITY_DEFAULT),
+                configuration.getString(KEY_REJECTION_POLICY, REJECTION_POLICY_DEFAULT));
+        return instance;
+    }
+
+    public static synchronized void shutdownInstance() {
+        if(instance != null) {
+            instance.shutdown();
+            instance = null;
+        }
+    }
 
-    public static ThreadPoolExecutor executor   ;
+    // -- TaskDecorator
 
-    static {
-        group = new ThreadGroup(ThreadPoolSupport.class.getName());
+    /**
+     * Decorates each task, on the submitting thread, as it is submitted.
+     */
+    public interface TaskDecorator {
 
-        final int corePoolSize = Runtime.getRuntime().availableProcessors();
-        final int maximumPoolSize = Runtime.getRuntime().availableProcessors();
-        final int keepAliveTimeSecs = 5;
+        <T> Callable<T> decorate(Callable<T> task);
+
+        TaskDecorator NOOP = new TaskDecorator() {
+            @Override
+            public <T> Callable<T> decorate(final Callable<T> task) {
+                return task;
+            }
+        };
+    }
+
+    // -- constructor, fields
+
+    private final ThreadGroup group;
+    private final ThreadPoolExecutor executor;
+
+    private volatile TaskDecorator taskDecorator = TaskDecorator.NOOP;
+
+    private final LongAdder tasksSubmitted = new LongAdder();
+    private final LongAdder tasksCompleted = new LongAdder();
+    private final LongAdder tasksFailed = new LongAdder();
+    private final LongAdder totalQueuedMillis = new LongAdder();
+    private final LongAdder totalExecutionMillis = new LongAdder();
+
+    private ThreadPoolSupport(
+            final int corePoolSize,
+            final int maxPoolSize,
+            final int keepAliveSeconds,
+            final int queueCapacity,
+            final String rejectionPolicy) {
+
+        this.group = new ThreadGroup(ThreadPoolSupport.class.getName());
 
-        final int queueCapacity = 25;
         final BlockingQueue<Runnable> workQueue = new LinkedBlockingQueue<>(queueCapacity);
+        final AtomicInteger threadNumber = new AtomicInteger();
 
-        executor = new ThreadPoolExecutor(
+        this.executor = new ThreadPoolExecutor(
                 corePoolSize,
-                maximumPoolSize,
-                keepAliveTimeSecs, TimeUnit.SECONDS,
+                maxPoolSize,
+                keepAliveSeconds, TimeUnit.SECONDS,
                 workQueue,
                 new ThreadFactory() {
                     @Override
                     public Thread newThread(final Runnable r) {
-                        return new Thread(group, r);
+                        final Thread thread = new Thread(group, r, "isis-threadpool-" + threadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
                     }
-                });
+                },
+                rejectedExecutionHandlerFor(rejectionPolicy));
+
+        LOG.info("thread pool: corePoolSize={}, maxPoolSize={}, keepAliveSeconds={}, queueCapacity={}, rejectionPolicy={}",
+                corePoolSize, maxPoolSize, keepAliveSeconds, queueCapacity, rejectionPolicy);
+    }
+
+    private static RejectedExecutionHandler rejectedExecutionHandlerFor(final String rejectionPolicy) {
+        switch (rejectionPolicy.trim().toLowerCase()) {
+        case "abort":
+            return new ThreadPoolExecutor.AbortPolicy();
+        case "discard":
+            return (task, executor) -> cancel(task);
+        case "discardoldest":
+            return (task, executor) -> {
+                if(executor.isShutdown()) {
+                    cancel(task);
+                    return;
+                }
+                cancel(executor.getQueue().poll());
+                executor.execute(task);
+            };
+        case "callerruns":
+            return (task, executor) -> {
+                if(executor.isShutdown()) {
+                    cancel(task);
+                    return;
+                }
+                task.run();
+            };
+        default:
+            throw new IllegalArgumentException(String.format(
+                    "Unknown value '%s' for '%s'", rejectionPolicy, KEY_REJECTION_POLICY));
+        }
     }
 
-    public static List<Object> join(final List<Future<Object>> futures) {
+    /**
+     * Tasks are submitted as {@link java.util.concurrent.FutureTask}s, whose futures are held (and joined) by the
+     * caller; a task that will never run must therefore be cancelled.
+     */
+    private static void cancel(final Runnable task) {
+        if(task instanceof Future) {
+            ((Future<?>) task).cancel(false);
+        }
+    }
+
+    @Programmatic
+    public void setTaskDecorator(final TaskDecorator taskDecorator) {
+        this.taskDecorator = taskDecorator != null ? taskDecorator : TaskDecorator.NOOP;
+    }
+
+    // -- submit, invokeAll
+
+    @Programmatic
+    public <T> Future<T> submit(final Callable<T> task) {
+        return executor.submit(instrumented(taskDecorator.decorate(task)));
+    }
+
+    /**
+     * Submits all of the tasks, returning their futures (in the same order) without waiting for them to complete;
+     * use {@link #join(List)} to wait.
+     */
+    @Programmatic
+    public <T> List<Future<T>> invokeAll(final List<? extends Callable<T>> tasks) {
+        final List<Future<T>> futures = Lists.newArrayList();
+        for (final Callable<T> task : tasks) {
+            futures.add(submit(task));
+        }
+        return futures;
+    }
+
+    private <T> Callable<T> instrumented(final Callable<T> task) {
+        tasksSubmitted.increment();
+        final long submittedAt = System.currentTimeMillis();
+        return new Callable<T>() {
+            @Override
+            public T call() throws Exception {
+                final long startedAt = System.currentTimeMillis();
+                totalQueuedMillis.add(startedAt - submittedAt);
+                boolean failed = true;
+                try {
+                    final T result = task.call();
+                    failed = false;
+                    return result;
+                } finally {
+                    totalExecutionMillis.add(System.currentTimeMillis() - startedAt);
+                    tasksCompleted.increment();
+                    if(failed) {
+                        tasksFailed.increment();
+                    }
+                }
+            }
+        };
+    }
+
+    // -- join
+
+    /**
+     * Waits for all of the futures to complete, returning their results.
+     *
+     * @throws IsisException if any of the tasks failed or was discarded, or if interrupted while waiting.
+     */
+    public static <T> List<T> join(final List<Future<T>> futures) {
         if (futures == null) {
             return null;
         }
 
         final long t0 = System.currentTimeMillis();
         try{
-            final List<Object> returnValues = Lists.newArrayList();
-            for (Future<Object> future : futures) {
+            final List<T> returnValues = Lists.newArrayList();
+            for (Future<T> future : futures) {
                 returnValues.add(join(future));
             }
             return returnValues;
@@ -83,20 +295,92 @@ public static List<Object> join(final List<Future<Object>> futures) {
         }
     }
 
-    public static Object join(final Future<Object> future) {
+    /**
+     * Waits for the future to complete, returning its result.
+     *
+     * @throws IsisException if the task failed or was discarded, or if interrupted while waiting.
+     */
+    public static <T> T join(final Future<T> future) {
         try {
             return future.get();
-        } catch (InterruptedException | ExecutionException e) {
-            // ignore
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IsisException("Interrupted while waiting for task to complete", e);
+        } catch (final CancellationException e) {
+            throw new IsisException("Task was cancelled, or discarded by the thread pool", e);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if(cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IsisException(cause);
         }
-        return null;
     }
 
-    public static List<Future<Object>> invokeAll(final List<Callable<Object>> callables) {
-        try {
-            return executor.invokeAll(callables);
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+    // -- metrics
+
+    /**
+     * The number of tasks waiting to be executed.
+     */
+    @Programmatic
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * The (approximate) number of threads currently executing tasks.
+     */
+    @Programmatic
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    @Programmatic
+    public int getPoolSize() {
+        return executor.getPoolSize();
+    }
+
+    @Programmatic
+    public long getTasksSubmitted() {
+        return tasksSubmitted.sum();
+    }
+
+    @Programmatic
+    public long getTasksCompleted() {
+        return tasksCompleted.sum();
+    }
+
+    @Programmatic
+    public long getTasksFailed() {
+        return tasksFailed.sum();
     }
+
+    /**
+     * Average time that completed tasks spent waiting in the queue before being executed.
+     */
+    @Programmatic
+    public double getAverageQueuedMillis() {
+        final long completed = tasksCompleted.sum();
+        return completed == 0 ? 0.0 : (double) totalQueuedMillis.sum() / completed;
+    }
+
+    /**
+     * Average time that completed tasks spent executing.
+     */
+    @Programmatic
+    public double getAverageExecutionMillis() {
+        final long completed = tasksCompleted.sum();
+        return completed == 0 ? 0.0 : (double) totalExecutionMillis.sum() / completed;
+    }
+
+    // -- shutdown
+
+    @Programmatic
+    public void shutdown() {
+        executor.shutdown();
+        LOG.info("thread pool shut down: {} tasks submitted, {} completed ({} failed), avg queued {}ms, avg execution {}ms",
+                getTasksSubmitted(), getTasksCompleted(), getTasksFailed(),
+                getAverageQueuedMillis(), getAverageExecutionMillis());
+    }
+
 }
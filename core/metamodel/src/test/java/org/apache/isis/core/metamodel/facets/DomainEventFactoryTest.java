@@ -0,0 +1,88 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.metamodel.facets;
+
+import java.lang.reflect.InvocationTargetException;
+
+import org.junit.Test;
+
+import org.apache.isis.applib.services.eventbus.ActionDomainEvent;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class DomainEventFactoryTest {
+
+    public static class SomeDomainEvent extends ActionDomainEvent<Object> {
+        private static final long serialVersionUID = 1L;
+    }
+
+    public static class FailingDomainEvent extends ActionDomainEvent<Object> {
+        private static final long serialVersionUID = 1L;
+        public FailingDomainEvent() {
+            throw new IllegalStateException("failing");
+        }
+    }
+
+    static class NotPublic {
+        public static class NestedDomainEvent extends ActionDomainEvent<Object> {
+            private static final long serialVersionUID = 1L;
+        }
+    }
+
+    @Test
+    public void resolved_once_per_type() throws Exception {
+        assertThat(DomainEventFactory.forType(SomeDomainEvent.class),
+                is(sameInstance(DomainEventFactory.forType(SomeDomainEvent.class))));
+    }
+
+    @Test
+    public void new_instance_using_no_arg_constructor() throws Exception {
+        final DomainEventFactory factory = DomainEventFactory.forType(SomeDomainEvent.class);
+
+        assertThat(factory.hasNoArgConstructor(), is(true));
+        final Object event1 = factory.newInstance();
+        final Object event2 = factory.newInstance();
+
+        assertThat(event1, is(instanceOf(SomeDomainEvent.class)));
+        assertThat(event1, is(not(sameInstance(event2))));
+    }
+
+    @Test
+    public void new_instance_of_nested_class_of_non_public_class() throws Exception {
+        final DomainEventFactory factory = DomainEventFactory.forType(NotPublic.NestedDomainEvent.class);
+
+        assertThat(factory.newInstance(), is(instanceOf(NotPublic.NestedDomainEvent.class)));
+    }
+
+    @Test(expected = InvocationTargetException.class)
+    public void exception_thrown_by_constructor_is_wrapped() throws Exception {
+        DomainEventFactory.forType(FailingDomainEvent.class).newInstance();
+    }
+
+    @Test
+    public void abstract_type_has_no_no_arg_constructor() throws Exception {
+        assertThat(DomainEventFactory.forType(ActionDomainEvent.class).hasNoArgConstructor(), is(false));
+    }
+
+}
@@ -23,6 +23,11 @@
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+import javax.activation.MimeType;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -62,4 +67,51 @@ public void testEncode_and_decode() {
         assertThat(decoded.getBytes().length, is(4));
     }
 
+    static class InMemorySource implements Blob.Source {
+        private static final long serialVersionUID = 1L;
+        private final byte[] bytes;
+        InMemorySource(final byte[] bytes) {
+            this.bytes = bytes;
+        }
+        @Override
+        public long getLength() {
+            return bytes.length;
+        }
+        @Override
+        public InputStream openStream() {
+            return new ByteArrayInputStream(bytes);
+        }
+    }
+
+    @Test
+    public void testEncode_and_decode_whenStreaming() throws Exception {
+        final Blob streamingBlob = new Blob(
+                "myfile1.docx", new MimeType("application", "vnd.ms-word"), new InMemorySource(new byte[]{1,2,3,4}));
+
+        String encoded = value.toEncodedString(streamingBlob);
+        assertThat(encoded.startsWith("myfile1.docx:@application/vnd.ms-word:"), is(true));
+        Blob decoded = value.fromEncodedString(encoded);
+        assertThat(decoded.isStreaming(), is(true));
+        assertThat(decoded.getName(), is("myfile1.docx"));
+        assertThat(decoded.getMimeType().getBaseType(), is("application/vnd.ms-word"));
+        assertThat(decoded.getLength(), is(4L));
+        assertThat(decoded.getBytes().length, is(4));
+    }
+
+    @Test
+    public void testEncode_whenStreaming_doesNotIncludeSource() throws Exception {
+        final Blob streamingBlob = new Blob(
+                "myfile1.docx", new MimeType("application", "vnd.ms-word"), new InMemorySource(new byte[]{1,2,3,4}));
+
+        String encoded = value.toEncodedString(streamingBlob);
+        String handle = encoded.substring("myfile1.docx:@application/vnd.ms-word:".length());
+        assertThat(handle.length() < 32, is(true));
+        assertThat(value.toEncodedString(streamingBlob), is(encoded));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecode_whenStreaming_andUnknownHandle() throws Exception {
+        value.fromEncodedString("myfile1.docx:@application/vnd.ms-word:rO0ABXNyAA");
+    }
+
 }
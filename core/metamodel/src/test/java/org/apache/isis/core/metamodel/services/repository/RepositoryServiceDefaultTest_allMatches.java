@@ -19,21 +19,33 @@
 
 package org.apache.isis.core.metamodel.services.repository;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
 
+import org.hamcrest.Description;
 import org.jmock.Expectations;
+import org.jmock.api.Action;
+import org.jmock.api.Invocation;
 import org.jmock.auto.Mock;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 
 import org.apache.isis.applib.query.Query;
+import org.apache.isis.applib.query.QueryFindAllInstances;
 import org.apache.isis.applib.services.xactn.TransactionService;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.services.metrics.MetricsServiceInternal;
+import org.apache.isis.core.metamodel.services.persistsession.PersistenceSessionServiceInternal;
 import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
 import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
 
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
 public class RepositoryServiceDefaultTest_allMatches {
 
     @Rule
@@ -44,6 +56,27 @@ public class RepositoryServiceDefaultTest_allMatches {
     @Mock
     private TransactionService mockTransactionService;
 
+    @Mock
+    private PersistenceSessionServiceInternal mockPersistenceSessionServiceInternal;
+
+    @Mock
+    private MetricsServiceInternal mockMetricsServiceInternal;
+
+    @Mock
+    private Query<Customer> mockQuery;
+
+    private final Query<Customer> allInstancesQuery = new QueryFindAllInstances<>(Customer.class);
+
+    static class Customer {
+        private final String name;
+        Customer() {
+            this(null);
+        }
+        Customer(final String name) {
+            this.name = name;
+        }
+    }
+
     @Before
     public void setUp() throws Exception {
         repositoryService = new RepositoryServiceInternalDefault() {
@@ -52,6 +85,20 @@ public void setUp() throws Exception {
             }
         };
         repositoryService.transactionService = mockTransactionService;
+        repositoryService.persistenceSessionServiceInternal = mockPersistenceSessionServiceInternal;
+        repositoryService.metricsServiceInternal = mockMetricsServiceInternal;
+
+        context.checking(new Expectations() {{
+            allowing(mockQuery).getResultType();
+            will(returnValue(Customer.class));
+        }});
+    }
+
+    private void flushRequired(final boolean required) {
+        context.checking(new Expectations() {{
+            allowing(mockPersistenceSessionServiceInternal).isFlushRequiredFor(Customer.class);
+            will(returnValue(required));
+        }});
     }
 
     @Test
@@ -59,12 +106,13 @@ public void whenAutoflush() throws Exception {
         // given
         Map map = new HashMap();
         repositoryService.init(map);
+        flushRequired(true);
         // expect
         context.checking(new Expectations() {{
             oneOf(mockTransactionService).flushTransaction();
         }});
         // when
-        repositoryService.allMatches(null);
+        repositoryService.allMatches(allInstancesQuery);
     }
 
     @Test
@@ -79,7 +127,7 @@ public void whenDisableAutoflush() throws Exception {
             never(mockTransactionService).flushTransaction();
         }});
         // when
-        repositoryService.allMatches(null);
+        repositoryService.allMatches(allInstancesQuery);
     }
 
     @Test
@@ -89,12 +137,122 @@ public void whenDisableAutoflushSetToFalse() throws Exception {
             put("isis.services.container.disableAutoFlush", "false");
         }};
         repositoryService.init(map);
+        flushRequired(true);
+        // expect
+        context.checking(new Expectations() {{
+            oneOf(mockTransactionService).flushTransaction();
+        }});
+        // when
+        repositoryService.allMatches(allInstancesQuery);
+    }
+
+    @Test
+    public void whenAutoflushButNoChangesAffectingQuery() throws Exception {
+        // given
+        Map map = new HashMap();
+        repositoryService.init(map);
+        flushRequired(false);
+        // expect
+        context.checking(new Expectations() {{
+            never(mockTransactionService).flushTransaction();
+            oneOf(mockMetricsServiceInternal).queryFlushAvoided();
+        }});
+        // when
+        repositoryService.allMatches(allInstancesQuery);
+    }
+
+    @Test
+    public void whenAutoflushAndNamedQuery() throws Exception {
+        // given
+        Map map = new HashMap();
+        repositoryService.init(map);
+        // expect
+        context.checking(new Expectations() {{
+            never(mockPersistenceSessionServiceInternal).isFlushRequiredFor(Customer.class);
+            oneOf(mockTransactionService).flushTransaction();
+        }});
+        // when
+        repositoryService.allMatches(mockQuery);
+    }
+
+    @Test
+    public void whenDisableSmartAutoflush() throws Exception {
+        // given
+        Map map = new HashMap() {{
+            put("isis.services.container.disableSmartAutoFlush", "true");
+        }};
+        repositoryService.init(map);
         // expect
         context.checking(new Expectations() {{
+            never(mockPersistenceSessionServiceInternal).isFlushRequiredFor(Customer.class);
             oneOf(mockTransactionService).flushTransaction();
         }});
         // when
-        repositoryService.allMatches(null);
+        repositoryService.allMatches(allInstancesQuery);
+    }
+
+    @Test
+    public void whenClientSidePredicateThenInstancesNotReturnedAreReleased() throws Exception {
+        // given
+        repositoryService.init(new HashMap());
+        flushRequired(false);
+
+        final Customer skipped = new Customer("skipped");
+        final Customer nonMatching = new Customer("nonMatching");
+        final Customer matching = new Customer("matching");
+        final ObjectAdapter skippedAdapter = adapterFor(skipped);
+        final ObjectAdapter nonMatchingAdapter = adapterFor(nonMatching);
+        final ObjectAdapter matchingAdapter = adapterFor(matching);
+
+        // expect
+        context.checking(new Expectations() {{
+            allowing(mockMetricsServiceInternal).queryFlushAvoided();
+
+            oneOf(mockPersistenceSessionServiceInternal).iterateQuery(
+                    with(any(QueryFindAllInstances.class)), with(any(Integer.class)), with(any(Predicate.class)));
+            will(visitEach(skippedAdapter, nonMatchingAdapter, matchingAdapter));
+
+            oneOf(mockPersistenceSessionServiceInternal).evictIfClean(skippedAdapter);
+            oneOf(mockPersistenceSessionServiceInternal).evictIfClean(nonMatchingAdapter);
+            never(mockPersistenceSessionServiceInternal).evictIfClean(matchingAdapter);
+        }});
+
+        // when
+        final List<Customer> matches = repositoryService.allMatches(
+                Customer.class, customer -> !customer.name.equals("nonMatching"), 1, 10);
+
+        // then
+        assertThat(matches, is(Arrays.asList(matching)));
+    }
+
+    private ObjectAdapter adapterFor(final Customer customer) {
+        final ObjectAdapter adapter = context.mock(ObjectAdapter.class, customer.name);
+        context.checking(new Expectations() {{
+            allowing(adapter).getObject();
+            will(returnValue(customer));
+        }});
+        return adapter;
+    }
+
+    private static Action visitEach(final ObjectAdapter... adapters) {
+        return new Action() {
+            @SuppressWarnings("unchecked")
+            @Override
+            public Object invoke(final Invocation invocation) throws Throwable {
+                final Predicate<ObjectAdapter> visitor = (Predicate<ObjectAdapter>) invocation.getParameter(2);
+                for (final ObjectAdapter adapter : adapters) {
+                    if(!visitor.test(adapter)) {
+                        break;
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public void describeTo(final Description description) {
+                description.appendText("visits each adapter");
+            }
+        };
     }
 
 }
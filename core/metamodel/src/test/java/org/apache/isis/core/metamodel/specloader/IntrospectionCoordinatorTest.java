@@ -0,0 +1,131 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.metamodel.specloader;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class IntrospectionCoordinatorTest {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_ONLY);
+
+    @Mock
+    private ObjectSpecification customerSpec;
+    @Mock
+    private ObjectSpecification orderSpec;
+
+    private IntrospectionCoordinator coordinator;
+
+    @Before
+    public void setUp() throws Exception {
+        coordinator = new IntrospectionCoordinator();
+    }
+
+    @Test
+    public void await_whenNotClaimed() throws Exception {
+        coordinator.awaitIntrospected(customerSpec);
+    }
+
+    @Test
+    public void await_whenClaimedByCurrentThread() throws Exception {
+        coordinator.claim(customerSpec);
+        coordinator.awaitIntrospected(customerSpec);
+    }
+
+    @Test
+    public void await_whenClaimedByOtherThread() throws Exception {
+        final CountDownLatch claimed = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Thread owner = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                coordinator.claim(customerSpec);
+                claimed.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                coordinator.release(customerSpec);
+            }
+        });
+        owner.start();
+        claimed.await();
+
+        final CountDownLatch awaited = new CountDownLatch(1);
+        final Thread waiter = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                coordinator.awaitIntrospected(customerSpec);
+                awaited.countDown();
+            }
+        });
+        waiter.start();
+
+        assertThat(awaited.await(100, TimeUnit.MILLISECONDS), is(false));
+
+        release.countDown();
+
+        assertThat(awaited.await(5, TimeUnit.SECONDS), is(true));
+    }
+
+    @Test
+    public void await_whenWouldDeadlock() throws Exception {
+        // current thread owns the customer spec
+        coordinator.claim(customerSpec);
+
+        final CountDownLatch claimed = new CountDownLatch(1);
+        final CountDownLatch awaited = new CountDownLatch(1);
+        final Thread other = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                coordinator.claim(orderSpec);
+                claimed.countDown();
+                // waits for the current thread to release the customer spec ...
+                coordinator.awaitIntrospected(customerSpec);
+                awaited.countDown();
+                coordinator.release(orderSpec);
+            }
+        });
+        other.start();
+        claimed.await();
+
+        // ... so waiting on the order spec would deadlock; hence returns immediately
+        // (give the other thread a chance to start waiting first)
+        Thread.sleep(100);
+        coordinator.awaitIntrospected(orderSpec);
+
+        coordinator.release(customerSpec);
+        assertThat(awaited.await(5, TimeUnit.SECONDS), is(true));
+    }
+
+}
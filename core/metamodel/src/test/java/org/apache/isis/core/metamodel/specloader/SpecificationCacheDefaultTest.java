@@ -89,6 +89,27 @@ public void get_whenCached() {
         assertSame(objectSpecification, customerSpec);
     }
 
+    @Test
+    public void cacheIfAbsent_whenNotCached() {
+        final String customerClassName = Customer.class.getName();
+
+        final ObjectSpecification objectSpecification = specificationCache.cacheIfAbsent(customerClassName, customerSpec);
+
+        assertSame(objectSpecification, customerSpec);
+        assertSame(specificationCache.get(customerClassName), customerSpec);
+    }
+
+    @Test
+    public void cacheIfAbsent_whenAlreadyCached() {
+        final String customerClassName = Customer.class.getName();
+        specificationCache.cache(customerClassName, customerSpec);
+
+        final ObjectSpecification objectSpecification = specificationCache.cacheIfAbsent(customerClassName, orderSpec);
+
+        assertSame(objectSpecification, customerSpec);
+        assertSame(specificationCache.get(customerClassName), customerSpec);
+    }
+
 
     @Test
     public void allSpecs_whenCached() {
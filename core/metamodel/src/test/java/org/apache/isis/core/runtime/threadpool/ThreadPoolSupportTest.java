@@ -0,0 +1,154 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.runtime.threadpool;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import org.apache.isis.core.commons.config.IsisConfigurationDefault;
+import org.apache.isis.core.commons.exceptions.IsisException;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ThreadPoolSupportTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private ThreadPoolSupport threadPoolSupport;
+
+    @Before
+    public void setUp() throws Exception {
+        final IsisConfigurationDefault configuration = new IsisConfigurationDefault();
+        configuration.add(ThreadPoolSupport.KEY_CORE_POOL_SIZE, "2");
+        configuration.add(ThreadPoolSupport.KEY_QUEUE_CAPACITY, "1");
+        threadPoolSupport = ThreadPoolSupport.init(configuration);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        ThreadPoolSupport.shutdownInstance();
+    }
+
+    @Test
+    public void invokeAll_and_join() throws Exception {
+        final List<Future<Integer>> futures = threadPoolSupport.invokeAll(Arrays.<Callable<Integer>>asList(
+                () -> 1, () -> 2, () -> 3, () -> 4, () -> 5));
+
+        assertThat(ThreadPoolSupport.join(futures), is(Arrays.asList(1, 2, 3, 4, 5)));
+        assertThat(threadPoolSupport.getTasksSubmitted(), is(5L));
+        assertThat(threadPoolSupport.getTasksCompleted(), is(5L));
+        assertThat(threadPoolSupport.getTasksFailed(), is(0L));
+    }
+
+    @Test
+    public void join_propagates_failure() throws Exception {
+        final Future<Object> future = threadPoolSupport.submit(() -> {
+            throw new IllegalStateException("boom");
+        });
+
+        expectedException.expect(IllegalStateException.class);
+        ThreadPoolSupport.join(future);
+    }
+
+    @Test
+    public void decorator_can_propagate_context_of_submitter() throws Exception {
+        final ThreadLocal<String> context = new ThreadLocal<>();
+        threadPoolSupport.setTaskDecorator(new ThreadPoolSupport.TaskDecorator() {
+            @Override
+            public <T> Callable<T> decorate(final Callable<T> task) {
+                final String submitterContext = context.get();
+                return () -> {
+                    context.set(submitterContext);
+                    try {
+                        return task.call();
+                    } finally {
+                        context.remove();
+                    }
+                };
+            }
+        });
+        context.set("submitter");
+
+        assertThat(ThreadPoolSupport.join(threadPoolSupport.submit(context::get)), is("submitter"));
+    }
+
+    @Test
+    public void discarded_task_is_cancelled_rather_than_left_pending() throws Exception {
+        final CountDownLatch latch = givenSaturatedPool("discard");
+
+        final Future<Integer> discarded = threadPoolSupport.submit(() -> 3);
+        latch.countDown();
+
+        assertThat(discarded.isCancelled(), is(true));
+        expectedException.expect(IsisException.class);
+        ThreadPoolSupport.join(discarded);
+    }
+
+    @Test
+    public void discarded_oldest_task_is_cancelled_rather_than_left_pending() throws Exception {
+        final CountDownLatch latch = givenSaturatedPool("discardOldest");
+        final Future<Integer> queued = queuedTask;
+
+        final Future<Integer> submitted = threadPoolSupport.submit(() -> 3);
+        latch.countDown();
+
+        assertThat(ThreadPoolSupport.join(submitted), is(3));
+        assertThat(queued.isCancelled(), is(true));
+        expectedException.expect(IsisException.class);
+        ThreadPoolSupport.join(queued);
+    }
+
+    private Future<Integer> queuedTask;
+
+    /**
+     * A single worker, blocked until the returned latch is released, and a full queue (of {@link #queuedTask}).
+     */
+    private CountDownLatch givenSaturatedPool(final String rejectionPolicy) throws Exception {
+        final IsisConfigurationDefault configuration = new IsisConfigurationDefault();
+        configuration.add(ThreadPoolSupport.KEY_CORE_POOL_SIZE, "1");
+        configuration.add(ThreadPoolSupport.KEY_MAX_POOL_SIZE, "1");
+        configuration.add(ThreadPoolSupport.KEY_QUEUE_CAPACITY, "1");
+        configuration.add(ThreadPoolSupport.KEY_REJECTION_POLICY, rejectionPolicy);
+        threadPoolSupport = ThreadPoolSupport.init(configuration);
+
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch latch = new CountDownLatch(1);
+        threadPoolSupport.submit(() -> {
+            started.countDown();
+            latch.await();
+            return 1;
+        });
+        started.await();
+        queuedTask = threadPoolSupport.submit(() -> 2);
+        return latch;
+    }
+
+}
@@ -1,36 +1,95 @@
 package org.apache.isis.applib.plugins.classdiscovery.reflections;
 
+import java.net.URL;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.apache.isis.applib.internal.context._Context;
 import org.apache.isis.applib.plugins.classdiscovery.ClassDiscovery;
 import org.apache.isis.applib.plugins.classdiscovery.ClassDiscoveryPlugin;
+import org.apache.isis.applib.plugins.classdiscovery.ClassIndex;
 import org.reflections.scanners.SubTypesScanner;
 import org.reflections.util.ClasspathHelper;
+import org.reflections.util.FilterBuilder;
 
+/**
+ * Discovers classes using any {@link ClassIndex build-time class indexes} found on the class path, 
+ * falling back to scanning (using <a href="https://github.com/ronmamo/reflections">Reflections</a>) 
+ * for those jars and directories that have not been indexed.
+ */
 public class ClassDiscoveryUsingReflectionsPlugin implements ClassDiscoveryPlugin {
 
 	@Override
 	public ClassDiscovery discover(String packageNamePrefix) {
-		ReflectManifest.prepareDiscovery(); 	//TODO [ahuber] REVIEW why is this required?
-		return ReflectDiscovery.of(packageNamePrefix);
+		return discover(Collections.singletonList(packageNamePrefix));
 	}
 
 	@Override
 	public ClassDiscovery discover(List<String> packageNamePrefixes) {
 		ReflectManifest.prepareDiscovery();	//TODO [ahuber] REVIEW why is this required?
-		return ReflectDiscovery.of(packageNamePrefixes);
+		
+		final ClassIndexes indexes = ClassIndexes.load(_Context.getDefaultClassLoader());
+		if(indexes.isEmpty()) {
+			return ReflectDiscovery.of(packageNamePrefixes);
+		}
+		
+		final Set<URL> roots = new LinkedHashSet<>();
+		packageNamePrefixes.forEach(prefix->roots.addAll(ClasspathHelper.forPackage(prefix)));
+		
+		// nb: each Include must be added to the scan's filter individually; a nested FilterBuilder would be ignored 
+		final List<FilterBuilder.Include> includes = packageNamePrefixes.stream()
+				.map(prefix->new FilterBuilder.Include(FilterBuilder.prefix(prefix)))
+				.collect(Collectors.toList());
+		
+		return union(indexes, packageNamePrefixes, indexes.unindexed(roots), includes);
 	}
 
 	@Override
 	public ClassDiscovery discoverFullscan(String packageNamePrefix) {
 		ReflectManifest.prepareDiscovery();	//TODO [ahuber] REVIEW why is this required?
-		return ReflectDiscovery.of(
-				ClasspathHelper.forClassLoader(_Context.getDefaultClassLoader()),
-				ClasspathHelper.forClass(Object.class),
-				ClasspathHelper.forPackage(packageNamePrefix),
-				new SubTypesScanner(false)
-		);
+		
+		final ClassIndexes indexes = ClassIndexes.load(_Context.getDefaultClassLoader());
+		if(indexes.isEmpty()) {
+			return ReflectDiscovery.of(
+					ClasspathHelper.forClassLoader(_Context.getDefaultClassLoader()),
+					ClasspathHelper.forClass(Object.class),
+					ClasspathHelper.forPackage(packageNamePrefix),
+					new SubTypesScanner(false)
+			);
+		}
+		
+		final Set<URL> roots = new LinkedHashSet<>();
+		roots.addAll(ClasspathHelper.forClassLoader(_Context.getDefaultClassLoader()));
+		roots.addAll(ClasspathHelper.forClass(Object.class));
+		roots.addAll(ClasspathHelper.forPackage(packageNamePrefix));
+		
+		return union(indexes, Collections.emptyList(), indexes.unindexed(roots), new SubTypesScanner(false));
+	}
+	
+	// -- HELPER
+	
+	/**
+	 * Combines the discovery of the indexed classes with a scan of the remaining (unindexed) class path roots, if any.
+	 */
+	private static ClassDiscovery union(
+			final ClassIndexes indexes,
+			final List<String> packageNamePrefixes,
+			final Set<URL> unindexedRoots, 
+			final Object scanParam) {
+		
+		final ClassLoader classLoader = _Context.getDefaultClassLoader();
+		final ClassDiscovery indexed = IndexedDiscovery.of(indexes, packageNamePrefixes, classLoader);
+		if(unindexedRoots.isEmpty()) {
+			return indexed;
+		}
+		
+		return UnionDiscovery.of(
+				indexed, 
+				IndexedDiscovery.of(indexes, Collections.emptyList(), classLoader), 
+				ReflectDiscovery.of(unindexedRoots, scanParam));
 	}
 
 }
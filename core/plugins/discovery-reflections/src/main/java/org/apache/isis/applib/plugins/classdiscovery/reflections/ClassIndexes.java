@@ -0,0 +1,108 @@
+package org.apache.isis.applib.plugins.classdiscovery.reflections;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.apache.isis.applib.plugins.classdiscovery.ClassIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 
+ * package private utility class
+ * <p>
+ * The {@link ClassIndex build-time class indexes} available on the class path, keyed by the class path root 
+ * (jar or classes directory) that each was found in.
+ * </p>
+ */
+class ClassIndexes {
+	
+	private static final Logger LOG = LoggerFactory.getLogger(ClassIndexes.class);
+	
+	private final Map<String, List<ClassIndex.Entry>> entriesByRoot;
+	
+	// -- CONSTRUCTORS
+	
+	public static ClassIndexes load(ClassLoader classLoader) {
+		final Map<String, List<ClassIndex.Entry>> entriesByRoot = new LinkedHashMap<>();
+		try {
+			final Enumeration<URL> indexUrls = classLoader.getResources(ClassIndex.RESOURCE_NAME);
+			while(indexUrls.hasMoreElements()) {
+				final URL indexUrl = indexUrls.nextElement();
+				try(InputStream in = indexUrl.openStream()) {
+					entriesByRoot.put(rootKeyOf(indexUrl), ClassIndex.read(in));
+				} catch (IOException e) {
+					// that root will be scanned instead
+					LOG.warn("Unable to read class index {}", indexUrl, e);
+				}
+			}
+		} catch (IOException e) {
+			LOG.warn("Unable to locate class indexes", e);
+		}
+		return new ClassIndexes(entriesByRoot);
+	}
+	
+	// -- HIDDEN CONSTRUCTOR
+	
+	private ClassIndexes(Map<String, List<ClassIndex.Entry>> entriesByRoot) {
+		this.entriesByRoot = entriesByRoot;
+	}
+	
+	// -- ACCESSORS
+	
+	public boolean isEmpty() {
+		return entriesByRoot.isEmpty();
+	}
+	
+	public Stream<ClassIndex.Entry> streamEntries() {
+		return entriesByRoot.values().stream().flatMap(List::stream);
+	}
+	
+	/**
+	 * Those of the provided class path roots that have no index, and so still need to be scanned.
+	 */
+	public Set<URL> unindexed(Collection<URL> roots) {
+		final Set<URL> unindexed = new LinkedHashSet<>();
+		for (URL root : roots) {
+			if(!entriesByRoot.containsKey(keyOf(root.toExternalForm()))) {
+				unindexed.add(root);
+			}
+		}
+		return unindexed;
+	}
+	
+	// -- HELPER
+	
+	private static String rootKeyOf(URL indexUrl) {
+		final String externalForm = indexUrl.toExternalForm();
+		return keyOf(externalForm.substring(0, externalForm.length() - ClassIndex.RESOURCE_NAME.length()));
+	}
+	
+	/**
+	 * Class path roots are variously represented as (eg) <tt>jar:file:/x.jar!/</tt> or <tt>file:/x.jar</tt>, 
+	 * and <tt>file:/classes/</tt> or <tt>file:/classes</tt>.
+	 */
+	static String keyOf(String root) {
+		String key = root;
+		if(key.startsWith("jar:")) {
+			key = key.substring("jar:".length());
+		}
+		if(key.endsWith("!/")) {
+			key = key.substring(0, key.length() - "!/".length());
+		}
+		if(key.endsWith("/")) {
+			key = key.substring(0, key.length() - 1);
+		}
+		return key;
+	}
+	
+}
@@ -0,0 +1,100 @@
+package org.apache.isis.applib.plugins.classdiscovery.reflections;
+
+import java.lang.annotation.Annotation;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.validation.constraints.NotNull;
+
+import org.apache.isis.applib.internal.base._Casts;
+import org.apache.isis.applib.internal.base._NullSafe;
+import org.apache.isis.applib.plugins.classdiscovery.ClassDiscovery;
+import org.apache.isis.applib.plugins.classdiscovery.ClassIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 
+ * package private utility class
+ * <p>
+ * Discovers classes by way of the {@link ClassIndex build-time class indexes} found on the class path, 
+ * rather than by scanning.
+ * </p>
+ */
+class IndexedDiscovery implements ClassDiscovery {
+	
+	private static final Logger LOG = LoggerFactory.getLogger(IndexedDiscovery.class);
+	
+	private final List<ClassIndex.Entry> entries;
+	private final ClassLoader classLoader;
+	
+	// -- CONSTRUCTORS
+	
+	/**
+	 * @param packagePrefixes - if empty, then all indexed classes are discoverable
+	 */
+	public static IndexedDiscovery of(ClassIndexes indexes, List<String> packagePrefixes, ClassLoader classLoader) {
+		final List<ClassIndex.Entry> entries = indexes.streamEntries()
+				.filter(entry->packagePrefixes.isEmpty() || 
+						packagePrefixes.stream().anyMatch(entry.getClassName()::startsWith))
+				.collect(Collectors.toList());
+		return new IndexedDiscovery(entries, classLoader);
+	}
+	
+	// -- HIDDEN CONSTRUCTOR
+	
+	private IndexedDiscovery(List<ClassIndex.Entry> entries, ClassLoader classLoader) {
+		this.entries = entries;
+		this.classLoader = classLoader;
+	}
+	
+	// -- IMPLEMENTATION
+
+	@Override @NotNull
+	public Set<Class<?>> getTypesAnnotatedWith(Class<? extends Annotation> annotation) {
+		
+		Objects.requireNonNull(annotation);
+		
+		// ensure unique entries
+		return streamClassesOf(entry->entry.getAnnotationNames().contains(annotation.getName()))
+				.collect(Collectors.toCollection(HashSet::new));
+	}
+
+	@Override @NotNull
+	public <T> Set<Class<? extends T>> getSubTypesOf(Class<T> type) {
+		
+		Objects.requireNonNull(type);
+		
+		// ensure unique entries
+		return streamClassesOf(entry->entry.getSupertypeNames().contains(type.getName()))
+				.map(cls->_Casts.<Class<? extends T>>uncheckedCast(cls))
+				.collect(Collectors.toCollection(HashSet::new));
+	}
+	
+	// -- HELPER
+	
+	private Stream<Class<?>> streamClassesOf(Predicate<ClassIndex.Entry> filter) {
+		
+		// ensure non-null elements
+		return entries.stream()
+				.filter(filter)
+				.<Class<?>>map(entry->load(entry.getClassName()))
+				.filter(_NullSafe::isPresent);
+	}
+
+	private Class<?> load(String className) {
+		try {
+			return Class.forName(className, false, classLoader);
+		} catch (ClassNotFoundException | LinkageError e) {
+			// as per scanning, which ignores classes that cannot be loaded
+			LOG.warn("Unable to load indexed class {}", className, e);
+			return null;
+		}
+	}
+	
+}
@@ -0,0 +1,81 @@
+package org.apache.isis.applib.plugins.classdiscovery.reflections;
+
+import java.lang.annotation.Annotation;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+import javax.validation.constraints.NotNull;
+
+import org.apache.isis.applib.plugins.classdiscovery.ClassDiscovery;
+
+/**
+ * 
+ * package private utility class
+ * <p>
+ * Combines the discovery of indexed classes with a scan of the class path roots that have no index.
+ * </p>
+ * <p>
+ * The scan only records the supertypes of the scanned classes themselves, so a scanned class <tt>C</tt> whose 
+ * superclass <tt>B</tt> is indexed is not found as a subtype of <tt>B</tt>'s own supertypes, nor as annotated by
+ * the annotations it inherits from them. The scanned results are therefore closed over the indexed types: 
+ * the scanned subtypes of every indexed (sub)type matching the query are included too. (Indexed entries already 
+ * hold all of their supertypes and inherited annotations, so no such closure is needed the other way round.)
+ * </p>
+ */
+class UnionDiscovery implements ClassDiscovery {
+	
+	private final ClassDiscovery indexed;
+	private final ClassDiscovery allIndexed;
+	private final ClassDiscovery scanned;
+	
+	// -- CONSTRUCTORS
+	
+	/**
+	 * @param indexed - the indexed classes that are discoverable (ie within the requested packages)
+	 * @param allIndexed - all indexed classes, used to relate the scanned classes to indexed supertypes
+	 * @param scanned - the classes of the class path roots that have no index
+	 */
+	public static UnionDiscovery of(ClassDiscovery indexed, ClassDiscovery allIndexed, ClassDiscovery scanned) {
+		return new UnionDiscovery(indexed, allIndexed, scanned);
+	}
+	
+	// -- HIDDEN CONSTRUCTOR
+	
+	private UnionDiscovery(ClassDiscovery indexed, ClassDiscovery allIndexed, ClassDiscovery scanned) {
+		this.indexed = indexed;
+		this.allIndexed = allIndexed;
+		this.scanned = scanned;
+	}
+	
+	// -- IMPLEMENTATION
+
+	@Override @NotNull
+	public Set<Class<?>> getTypesAnnotatedWith(Class<? extends Annotation> annotation) {
+		
+		Objects.requireNonNull(annotation);
+		
+		final Set<Class<?>> types = new HashSet<>(indexed.getTypesAnnotatedWith(annotation));
+		types.addAll(scanned.getTypesAnnotatedWith(annotation));
+		// indexed entries include inherited annotations
+		for (Class<?> annotatedType : allIndexed.getTypesAnnotatedWith(annotation)) {
+			types.addAll(scanned.getSubTypesOf(annotatedType));
+		}
+		return types;
+	}
+
+	@Override @NotNull
+	public <T> Set<Class<? extends T>> getSubTypesOf(Class<T> type) {
+		
+		Objects.requireNonNull(type);
+		
+		final Set<Class<? extends T>> types = new HashSet<>(indexed.getSubTypesOf(type));
+		types.addAll(scanned.getSubTypesOf(type));
+		// indexed entries include all (transitive) supertypes
+		for (Class<? extends T> subType : allIndexed.getSubTypesOf(type)) {
+			types.addAll(scanned.getSubTypesOf(subType));
+		}
+		return types;
+	}
+	
+}
@@ -0,0 +1,107 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.applib.plugins.classdiscovery.reflections;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.Writer;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+
+import org.apache.isis.applib.plugins.classdiscovery.ClassIndex;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ClassIndexesTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void keyOf_jar() throws Exception {
+		assertThat(ClassIndexes.keyOf("jar:file:/x/y.jar!/"), is("file:/x/y.jar"));
+		assertThat(ClassIndexes.keyOf("file:/x/y.jar"), is("file:/x/y.jar"));
+	}
+
+	@Test
+	public void keyOf_directory() throws Exception {
+		assertThat(ClassIndexes.keyOf("file:/x/classes/"), is("file:/x/classes"));
+		assertThat(ClassIndexes.keyOf("file:/x/classes"), is("file:/x/classes"));
+	}
+
+	@Test
+	public void unindexed() throws Exception {
+		final File indexedDir = temporaryFolder.newFolder("indexed");
+		final File unindexedDir = temporaryFolder.newFolder("unindexed");
+		writeIndex(indexedDir, new ClassIndex.Entry("a.Customer", Collections.emptyList(), Collections.emptyList()));
+
+		final ClassIndexes indexes = load(indexedDir, unindexedDir);
+
+		assertThat(indexes.isEmpty(), is(false));
+		assertThat(indexes.streamEntries().count(), is(1L));
+
+		final URL indexedRoot = indexedDir.toURI().toURL();
+		final URL unindexedRoot = unindexedDir.toURI().toURL();
+		final Set<URL> unindexed = indexes.unindexed(Arrays.asList(indexedRoot, unindexedRoot));
+
+		assertThat(unindexed.size(), is(1));
+		assertThat(unindexed.contains(unindexedRoot), is(true));
+	}
+
+	@Test
+	public void unindexed_whenNoIndexes() throws Exception {
+		final File unindexedDir = temporaryFolder.newFolder("unindexed");
+
+		final ClassIndexes indexes = load(unindexedDir);
+
+		assertThat(indexes.isEmpty(), is(true));
+		assertThat(indexes.unindexed(Collections.singletonList(unindexedDir.toURI().toURL())).size(), is(1));
+	}
+
+	// -- HELPER
+
+	static void writeIndex(File root, ClassIndex.Entry... entries) throws Exception {
+		final File indexFile = new File(root, ClassIndex.RESOURCE_NAME);
+		indexFile.getParentFile().mkdirs();
+		try(Writer writer = Files.newBufferedWriter(indexFile.toPath(), StandardCharsets.UTF_8)) {
+			ClassIndex.write(Arrays.asList(entries), writer);
+		}
+	}
+
+	static ClassIndexes load(File... roots) throws Exception {
+		final URL[] urls = new URL[roots.length];
+		for (int i = 0; i < roots.length; i++) {
+			urls[i] = roots[i].toURI().toURL();
+		}
+		// no parent, so as not to pick up any indexes on the test class path
+		try(URLClassLoader classLoader = new URLClassLoader(urls, null)) {
+			return ClassIndexes.load(classLoader);
+		}
+	}
+
+}
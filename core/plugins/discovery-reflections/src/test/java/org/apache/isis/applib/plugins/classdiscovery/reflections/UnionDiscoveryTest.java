@@ -0,0 +1,119 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.applib.plugins.classdiscovery.reflections;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.isis.applib.internal.base._Casts;
+import org.apache.isis.applib.plugins.classdiscovery.ClassDiscovery;
+import org.apache.isis.applib.plugins.classdiscovery.ClassIndex;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class UnionDiscoveryTest {
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@interface Marker {}
+
+	// indexed
+	@Marker
+	static class A {}
+
+	// indexed
+	static class B extends A {}
+
+	// scanned (C extends B extends A)
+	static class C extends B {}
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private ClassDiscovery union;
+
+	@Before
+	public void setUp() throws Exception {
+		final File indexedDir = temporaryFolder.newFolder("indexed");
+		ClassIndexesTest.writeIndex(indexedDir,
+				new ClassIndex.Entry(A.class.getName(), 
+						Collections.singletonList(Marker.class.getName()), 
+						Collections.emptyList()),
+				new ClassIndex.Entry(B.class.getName(), 
+						Collections.singletonList(Marker.class.getName()), 
+						Collections.singletonList(A.class.getName())));
+		final ClassIndexes indexes = ClassIndexesTest.load(indexedDir);
+		final ClassLoader classLoader = getClass().getClassLoader();
+
+		union = UnionDiscovery.of(
+				IndexedDiscovery.of(indexes, Collections.emptyList(), classLoader),
+				IndexedDiscovery.of(indexes, Collections.emptyList(), classLoader),
+				new ScannedDiscovery());
+	}
+
+	@Test
+	public void getSubTypesOf_includesScannedSubTypesOfIndexedSubTypes() throws Exception {
+		assertThat(union.getSubTypesOf(A.class), is(setOf(B.class, C.class)));
+		assertThat(union.getSubTypesOf(B.class), is(setOf(C.class)));
+	}
+
+	@Test
+	public void getTypesAnnotatedWith_includesScannedTypesInheritingTheAnnotation() throws Exception {
+		assertThat(union.getTypesAnnotatedWith(Marker.class), is(setOf(A.class, B.class, C.class)));
+	}
+
+	// -- HELPER
+
+	@SafeVarargs
+	private static <T> Set<T> setOf(T... elements) {
+		return new HashSet<>(Arrays.asList(elements));
+	}
+
+	/**
+	 * As would be discovered by scanning only the unindexed class <tt>C</tt>: 
+	 * only its direct supertype is known.
+	 */
+	private static class ScannedDiscovery implements ClassDiscovery {
+
+		@Override
+		public Set<Class<?>> getTypesAnnotatedWith(Class<? extends Annotation> annotation) {
+			return Collections.emptySet();
+		}
+
+		@Override
+		public <T> Set<Class<? extends T>> getSubTypesOf(Class<T> type) {
+			if(type == B.class) {
+				return setOf(_Casts.<Class<? extends T>>uncheckedCast(C.class));
+			}
+			return Collections.emptySet();
+		}
+	}
+
+}
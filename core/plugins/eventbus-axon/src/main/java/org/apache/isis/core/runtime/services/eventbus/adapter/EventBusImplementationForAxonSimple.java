@@ -16,6 +16,7 @@
  */
 package org.apache.isis.core.runtime.services.eventbus.adapter;
 
+import java.lang.annotation.Annotation;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -25,6 +26,7 @@
 import org.axonframework.domain.GenericEventMessage;
 import org.axonframework.eventhandling.SimpleEventBus;
 import org.axonframework.eventhandling.annotation.AnnotationEventListenerAdapter;
+import org.axonframework.eventhandling.annotation.EventHandler;
 
 /**
  * A wrapper for an Axon {@link org.axonframework.eventhandling.SimpleEventBus},
@@ -91,6 +93,11 @@ private AbstractDomainEvent<?> asDomainEventIfPossible(final Object event) {
             return null;
     }
 
+    @Override
+    public Class<? extends Annotation> getSubscriberAnnotationType() {
+        return EventHandler.class;
+    }
+
     class AxonEventListenerAdapter extends AnnotationEventListenerAdapter {
 
         public AxonEventListenerAdapter(final Object annotatedEventListener) {
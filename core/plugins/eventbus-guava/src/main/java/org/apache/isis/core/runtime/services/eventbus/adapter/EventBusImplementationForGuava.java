@@ -16,6 +16,9 @@
  */
 package org.apache.isis.core.runtime.services.eventbus.adapter;
 
+import java.lang.annotation.Annotation;
+
+import com.google.common.eventbus.Subscribe;
 import com.google.common.eventbus.SubscriberExceptionContext;
 import com.google.common.eventbus.SubscriberExceptionHandler;
 
@@ -65,5 +68,10 @@ protected AbstractDomainEvent<?> asDomainEvent(final Object event) {
                 : null;
     }
 
+    @Override
+    public Class<? extends Annotation> getSubscriberAnnotationType() {
+        return Subscribe.class;
+    }
+
 
 }
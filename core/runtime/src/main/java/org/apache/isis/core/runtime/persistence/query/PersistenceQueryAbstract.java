@@ -63,6 +63,47 @@ public ObjectSpecification getSpecification() {
         return specification;
     }
 
+    // -- ordering and range, pushed down to the datastore
+
+    private String orderBy;
+    private boolean ascending = true;
+    private long pageStart;
+    private long pageCount;
+
+    /**
+     * Requests that the datastore orders the results by the specified property (if not <tt>null</tt>) and,
+     * if <tt>pageCount</tt> is non-zero, returns only that range of the results; overrides any range of the
+     * originating query.
+     */
+    public void pageBy(final String orderBy, final boolean ascending, final long pageStart, final long pageCount) {
+        this.orderBy = orderBy;
+        this.ascending = ascending;
+        this.pageStart = pageStart;
+        this.pageCount = pageCount;
+    }
+
+    /**
+     * The id of the property by which to order the results, if any.
+     */
+    public String getOrderBy() {
+        return orderBy;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    public long getPageStart() {
+        return pageStart;
+    }
+
+    /**
+     * The number of items to return, starting at {@link #getPageStart()}; zero if not paged.
+     */
+    public long getPageCount() {
+        return pageCount;
+    }
+
     // -- equals, hashCode
     @Override
     public boolean equals(final Object obj) {
@@ -20,6 +20,8 @@
 package org.apache.isis.core.runtime.persistence.query;
 
 import org.apache.isis.applib.query.QueryFindAllInstances;
+import org.apache.isis.applib.query.QueryFindAllInstancesMatching;
+import org.apache.isis.applib.query.QueryPredicate;
 import org.apache.isis.core.commons.util.ToString;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
 import org.apache.isis.core.metamodel.spec.ObjectSpecification;
@@ -32,14 +34,31 @@ public class PersistenceQueryFindAllInstances extends PersistenceQueryAbstract
     protected long index;
     protected long countedSoFar;
 
+    private final QueryPredicate<?> predicate;
+
     public PersistenceQueryFindAllInstances(
             final ObjectSpecification specification,
             final long... range) {
+        this(specification, null, range);
+    }
+
+    public PersistenceQueryFindAllInstances(
+            final ObjectSpecification specification,
+            final QueryPredicate<?> predicate,
+            final long... range) {
         super(specification, range);
+        this.predicate = predicate;
         index=0;
         countedSoFar=0;
     }
 
+    /**
+     * The predicate (if any) that the instances must satisfy, as per {@link QueryFindAllInstancesMatching}.
+     */
+    public QueryPredicate<?> getPredicate() {
+        return predicate;
+    }
+
 
     public boolean matches(final ObjectAdapter object) {
 
@@ -59,6 +78,9 @@ public boolean matches(final ObjectAdapter object) {
     public String toString() {
         final ToString str = ToString.createAnonymous(this);
         str.append("spec", getSpecification().getShortIdentifier());
+        if(predicate != null) {
+            str.append("predicate", predicate.toString());
+        }
         return str.toString();
     }
 }
@@ -19,8 +19,6 @@
 package org.apache.isis.core.runtime.services.auditing;
 
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
 
 import org.apache.isis.applib.annotation.DomainService;
@@ -36,9 +34,8 @@
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
 import org.apache.isis.core.metamodel.facets.actions.action.invocation.CommandUtil;
 import org.apache.isis.core.metamodel.facets.object.audit.AuditableFacet;
-import org.apache.isis.core.runtime.services.changes.AdapterAndProperty;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
 import org.apache.isis.core.runtime.services.changes.ChangedObjectsServiceInternal;
-import org.apache.isis.core.runtime.services.changes.PreAndPostValues;
 
 /**
  * Wrapper around {@link org.apache.isis.applib.services.audit.AuditerService}.
@@ -72,50 +69,51 @@ public void audit() {
         if(!canAudit()) {
             return;
         }
-        final Set<Map.Entry<AdapterAndProperty, PreAndPostValues>> changedObjectProperties =
-                changedObjectsServiceInternal.getChangedObjectProperties();
 
         final String currentUser = userService.getUser().getName();
         final java.sql.Timestamp currentTime = clockService.nowAsJavaSqlTimestamp();
 
-        for (Map.Entry<AdapterAndProperty, PreAndPostValues> auditEntry : changedObjectProperties) {
-            auditChangedProperty(currentTime, currentUser, auditEntry);
-        }
-    }
-
-    private void auditChangedProperty(
-            final java.sql.Timestamp timestamp,
-            final String user,
-            final Map.Entry<AdapterAndProperty, PreAndPostValues> auditEntry) {
-
-        final AdapterAndProperty aap = auditEntry.getKey();
-        final ObjectAdapter adapter = aap.getAdapter();
-
-        final AuditableFacet auditableFacet = adapter.getSpecification().getFacet(AuditableFacet.class);
-        if(auditableFacet == null || auditableFacet.isDisabled()) {
-            return;
-        }
-
-        final Bookmark target = aap.getBookmark();
-        final String propertyId = aap.getPropertyId();
-        final String memberId = aap.getMemberId();
-
-        final PreAndPostValues papv = auditEntry.getValue();
-        final String preValue = papv.getPreString();
-        final String postValue = papv.getPostString();
-
-        final String targetClass = CommandUtil.targetClassNameFor(adapter);
-
-        Transaction transaction = transactionService.currentTransaction();
+        final Transaction transaction = transactionService.currentTransaction();
         final UUID transactionId = transaction.getTransactionId();
         final int sequence = transaction.getSequence();
 
-        for (AuditerService auditerService : auditerServices) {
-            if (auditerService.isEnabled()) {
-                auditerService
-                        .audit(transactionId, sequence, targetClass, target, memberId, propertyId, preValue, postValue, user, timestamp);
+        changedObjectsServiceInternal.forEachChangedObjectProperty(
+                new ChangedObjectsServiceInternal.ChangedPropertyVisitor() {
+
+            // the changes of each object are visited together, so only need to look these up once per object
+            private ObjectAdapter currentAdapter;
+            private boolean auditable;
+            private String targetClass;
+
+            @Override
+            public void visit(
+                    final ObjectAdapter adapter,
+                    final Bookmark target,
+                    final ObjectAssociation property,
+                    final Object pre, final String preValue,
+                    final Object post, final String postValue) {
+
+                if(adapter != currentAdapter) {
+                    currentAdapter = adapter;
+                    final AuditableFacet auditableFacet = adapter.getSpecification().getFacet(AuditableFacet.class);
+                    auditable = auditableFacet != null && !auditableFacet.isDisabled();
+                    targetClass = auditable ? CommandUtil.targetClassNameFor(adapter) : null;
+                }
+                if(!auditable) {
+                    return;
+                }
+
+                final String propertyId = property.getId();
+                final String memberId = property.getIdentifier().toClassAndNameIdentityString();
+
+                for (AuditerService auditerService : auditerServices) {
+                    if (auditerService.isEnabled()) {
+                        auditerService
+                                .audit(transactionId, sequence, targetClass, target, memberId, propertyId, preValue, postValue, currentUser, currentTime);
+                    }
+                }
             }
-        }
+        });
     }
 
     @javax.inject.Inject
@@ -16,9 +16,20 @@
  */
 package org.apache.isis.core.runtime.services.background;
 
+import java.sql.Timestamp;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+import javax.jdo.PersistenceManager;
+import javax.jdo.Query;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import org.datanucleus.enhancement.Persistable;
 
 import org.apache.isis.applib.services.bookmark.Bookmark;
 import org.apache.isis.applib.services.bookmark.BookmarkService;
@@ -42,9 +53,12 @@
 
 import org.apache.isis.applib.services.command.CommandExecutorService;
 import org.apache.isis.applib.services.command.CommandWithDto;
+import org.apache.isis.core.commons.authentication.AuthenticationSession;
+import org.apache.isis.core.commons.config.IsisConfiguration;
 import org.apache.isis.core.runtime.system.persistence.PersistenceSession;
 import org.apache.isis.core.runtime.system.transaction.IsisTransactionManager;
 import org.apache.isis.core.runtime.system.transaction.TransactionalClosure;
+import org.apache.isis.core.runtime.threadpool.ThreadPoolSupport;
 
 /**
  * Intended to be used as a base class for executing queued up {@link Command background action}s.
@@ -52,11 +66,40 @@
  * <p>
  * This implementation uses the {@link #findBackgroundCommandsToExecute() hook method} so that it is
  * independent of the location where the actions have actually been persisted to.
+ *
+ * <p>
+ * By default the commands are executed sequentially, in the order returned by the hook method.  If more than one
+ * worker is configured (either through the constructor or using
+ * <tt>isis.services.BackgroundCommandExecution.numberOfWorkers</tt>) then they are instead partitioned by their
+ * {@link Command#getTarget() target} and executed in parallel, each worker having its own session.  Commands
+ * against the same target are always allocated to the same worker, and so are still executed in order.  The
+ * workers are run by the shared {@link ThreadPoolSupport}, so the actual parallelism is also bounded by its
+ * configuration.
+ * </p>
+ *
+ * <p>
+ * In parallel mode each command is first {@link #claim(Command, Timestamp) claimed} in a short transaction, by
+ * setting its {@link Command#getStartedAt() startedAt} timestamp; this acts as a lease (of
+ * <tt>isis.services.BackgroundCommandExecution.leaseSeconds</tt>) so that several nodes can drain the same queue
+ * without executing any command twice.  Throughput and failures are accumulated in
+ * {@link BackgroundCommandExecutionMetrics}.
+ * </p>
  */
 public abstract class BackgroundCommandExecution extends CommandExecutionAbstract {
 
     private final static Logger LOG = LoggerFactory.getLogger(BackgroundCommandExecution.class);
 
+    public static final String KEY_NUMBER_OF_WORKERS = "isis.services.BackgroundCommandExecution.numberOfWorkers";
+    public static final String KEY_LEASE_SECONDS = "isis.services.BackgroundCommandExecution.leaseSeconds";
+
+    private static final int NUMBER_OF_WORKERS_DEFAULT = 1;
+    private static final int LEASE_SECONDS_DEFAULT = 300;
+
+    /**
+     * As specified in the constructor; if zero then is read from configuration.
+     */
+    private final int numberOfWorkers;
+
     /**
      * Defaults to the historical defaults * for running background commands.
      */
@@ -65,7 +108,22 @@ public BackgroundCommandExecution() {
     }
 
     public BackgroundCommandExecution(final CommandExecutorService.SudoPolicy sudoPolicy) {
+        this(sudoPolicy, 0);
+    }
+
+    /**
+     * @param numberOfWorkers - the number of commands to execute concurrently; if zero then is read from
+     *                        <tt>isis.services.BackgroundCommandExecution.numberOfWorkers</tt> (defaulting to 1,
+     *                        ie sequential execution).
+     */
+    public BackgroundCommandExecution(
+            final CommandExecutorService.SudoPolicy sudoPolicy,
+            final int numberOfWorkers) {
         super(sudoPolicy);
+        if(numberOfWorkers < 0) {
+            throw new IllegalArgumentException("numberOfWorkers cannot be negative");
+        }
+        this.numberOfWorkers = numberOfWorkers;
     }
 
     // //////////////////////////////////////
@@ -74,16 +132,222 @@ protected void doExecute(Object context) {
 
         final PersistenceSession persistenceSession = getPersistenceSession();
         final IsisTransactionManager transactionManager = getTransactionManager(persistenceSession);
+        final boolean parallel = getNumberOfWorkers() > 1;
         final List<Command> commands = Lists.newArrayList();
         transactionManager.executeWithinTransaction(() -> {
             commands.addAll(findBackgroundCommandsToExecute());
+            if(parallel) {
+                // commands claimed by a worker (here or on another node) that never completed them
+                final Timestamp leaseExpiredBefore = new Timestamp(
+                        clockService.nowAsJavaSqlTimestamp().getTime() - getLeaseSeconds() * 1000L);
+                for (final Command command : findBackgroundCommandsWithExpiredLease(leaseExpiredBefore)) {
+                    if(!commands.contains(command)) {
+                        commands.add(command);
+                    }
+                }
+            }
         });
 
         LOG.debug("Found {} to execute", commands.size());
 
-        for (final Command command : commands) {
+        final int numberOfWorkers = Math.min(getNumberOfWorkers(), commands.size());
+        final long startedAt = System.currentTimeMillis();
+
+        if(numberOfWorkers <= 1) {
+            for (final Command command : commands) {
+                final long commandStartedAt = System.currentTimeMillis();
+                execute(transactionManager, (CommandWithDto) command);
+                commandExecuted(command, commandStartedAt);
+            }
+        } else {
+            executeInParallel(transactionManager, commands, numberOfWorkers);
+        }
+
+        final long runMillis = System.currentTimeMillis() - startedAt;
+        if(metrics != null) {
+            metrics.runCompleted(runMillis);
+        }
+        LOG.debug("Executed {} commands in {}ms using {} worker(s)", commands.size(), runMillis, numberOfWorkers);
+    }
+
+    private void executeInParallel(
+            final IsisTransactionManager transactionManager,
+            final List<Command> commands,
+            final int numberOfWorkers) {
+
+        // the commands are only attached to this (the coordinator's) session, so hand over their bookmarks instead
+        final List<Bookmark> bookmarks = Lists.newArrayList();
+        final List<Bookmark> targets = Lists.newArrayList();
+        transactionManager.executeWithinTransaction(() -> {
+            for (final Command command : commands) {
+                final Bookmark bookmark = bookmarkService.bookmarkFor(command);
+                bookmarks.add(bookmark);
+                targets.add(command.getTarget() != null ? command.getTarget() : bookmark);
+            }
+        });
+        final List<List<Bookmark>> partitions = partition(bookmarks, targets, numberOfWorkers);
+
+        final AuthenticationSession authenticationSession =
+                getIsisSessionFactory().getCurrentSession().getAuthenticationSession();
+        final long leaseMillis = getLeaseSeconds() * 1000L;
+
+        final List<Callable<Void>> workers = Lists.newArrayList();
+        for (final List<Bookmark> partition : partitions) {
+            workers.add(() -> {
+                // reuses the worker's session if already opened for it by the thread pool
+                getIsisSessionFactory().doInSession(
+                        () -> executePartition(partition, leaseMillis), authenticationSession);
+                return null;
+            });
+        }
+        final List<Future<Void>> futures = ThreadPoolSupport.getInstance().invokeAll(workers);
+        for (final Future<Void> future : futures) {
+            try {
+                ThreadPoolSupport.join(future);
+            } catch (final RuntimeException ex) {
+                if(Thread.currentThread().isInterrupted()) {
+                    for (final Future<Void> eachFuture : futures) {
+                        eachFuture.cancel(true);
+                    }
+                    return;
+                }
+                // any commands in this worker's partition not yet executed will be picked up by the next run
+                LOG.error("Worker failed to execute background commands", ex);
+            }
+        }
+    }
+
+    /**
+     * Runs in its own thread and session.
+     */
+    private void executePartition(final List<Bookmark> partition, final long leaseMillis) {
+        final IsisTransactionManager transactionManager = getTransactionManager(getPersistenceSession());
+        for (final Bookmark bookmark : partition) {
+            final Command[] claimed = new Command[1];
+            transactionManager.executeWithinTransaction(() -> {
+                final Command command = (Command) bookmarkService.lookup(bookmark);
+                if(command != null && claim(command, clockService.nowAsJavaSqlTimestamp(), leaseMillis)) {
+                    claimed[0] = command;
+                }
+            });
+            final Command command = claimed[0];
+            if(command == null) {
+                LOG.debug("Skipping {}; already completed or leased elsewhere", bookmark);
+                if(metrics != null) {
+                    metrics.commandSkipped();
+                }
+                continue;
+            }
+            final long commandStartedAt = System.currentTimeMillis();
             execute(transactionManager, (CommandWithDto) command);
+            commandExecuted(command, commandStartedAt);
+        }
+    }
+
+    /**
+     * Claims the command for execution by this worker, returning <tt>false</tt> if it has already completed or is
+     * currently leased by some other worker (ie was started less than the lease duration ago).
+     *
+     * <p>
+     * Called within its own transaction, so that the claim is committed (and visible to other nodes) before the
+     * command is executed.  For a command persisted by JDO, the claim is made atomic by a conditional update of
+     * its {@link Command#getStartedAt() startedAt} (see {@link #claimJdoql(String)}), so that of any concurrent
+     * claims exactly one succeeds; this assumes that the command's persistent fields are named after its
+     * properties, otherwise this method should be overridden.  Any other command is claimed by checking and
+     * then setting its <tt>startedAt</tt>, which is not atomic.
+     * </p>
+     */
+    protected boolean claim(final Command command, final Timestamp now, final long leaseMillis) {
+        if(command.getCompletedAt() != null) {
+            return false;
+        }
+        final Timestamp leaseExpiredBefore = new Timestamp(now.getTime() - leaseMillis);
+        if(command instanceof Persistable) {
+            return claimUsingConditionalUpdate(command, now, leaseExpiredBefore);
+        }
+        final Timestamp startedAt = command.getStartedAt();
+        if(startedAt != null && startedAt.after(leaseExpiredBefore)) {
+            return false;
+        }
+        command.setStartedAt(now);
+        return true;
+    }
+
+    private boolean claimUsingConditionalUpdate(
+            final Command command,
+            final Timestamp now,
+            final Timestamp leaseExpiredBefore) {
+        final PersistenceManager persistenceManager = getPersistenceSession().getPersistenceManager();
+        final Query jdoQuery = persistenceManager.newQuery(claimJdoql(command.getClass().getName()));
+        // bulk updates must be enabled explicitly
+        jdoQuery.addExtension("datanucleus.query.jdoql.allowAll", "true");
+
+        final Map<String, Object> argumentsByParameterName = Maps.newHashMap();
+        argumentsByParameterName.put("objectId", persistenceManager.getObjectId(command));
+        argumentsByParameterName.put("now", now);
+        argumentsByParameterName.put("leaseExpiredBefore", leaseExpiredBefore);
+        try {
+            final Object numberUpdated = jdoQuery.executeWithMap(argumentsByParameterName);
+            if(!(numberUpdated instanceof Number) || ((Number) numberUpdated).longValue() != 1L) {
+                return false;
+            }
+        } finally {
+            jdoQuery.closeAll();
+        }
+        // the update bypassed the (already loaded) instance
+        persistenceManager.refresh(command);
+        return true;
+    }
+
+    /**
+     * The JDOQL to set the <tt>startedAt</tt> of a command only if it has not completed and is not currently leased.
+     */
+    static String claimJdoql(final String commandClassName) {
+        return "UPDATE " + commandClassName
+                + " SET this.startedAt = :now"
+                + " WHERE JDOHelper.getObjectId(this) == :objectId"
+                + " && this.completedAt == null"
+                + " && (this.startedAt == null || this.startedAt <= :leaseExpiredBefore)";
+    }
+
+    private void commandExecuted(final Command command, final long commandStartedAt) {
+        if(metrics != null) {
+            metrics.commandExecuted(
+                    System.currentTimeMillis() - commandStartedAt, command.getException() != null);
+        }
+    }
+
+    /**
+     * Allocates each bookmark to a partition according to its corresponding target, preserving the original order
+     * within each partition.
+     */
+    static <T> List<List<T>> partition(
+            final List<T> items,
+            final List<?> keys,
+            final int numberOfPartitions) {
+        final List<List<T>> partitions = Lists.newArrayList();
+        for (int i = 0; i < numberOfPartitions; i++) {
+            partitions.add(Lists.<T>newArrayList());
+        }
+        for (int i = 0; i < items.size(); i++) {
+            final int partition = (keys.get(i).hashCode() & Integer.MAX_VALUE) % numberOfPartitions;
+            partitions.get(partition).add(items.get(i));
         }
+        return partitions;
+    }
+
+    protected int getNumberOfWorkers() {
+        return numberOfWorkers != 0
+                ? numberOfWorkers
+                : getConfiguration().getInteger(KEY_NUMBER_OF_WORKERS, NUMBER_OF_WORKERS_DEFAULT);
+    }
+
+    protected int getLeaseSeconds() {
+        return getConfiguration().getInteger(KEY_LEASE_SECONDS, LEASE_SECONDS_DEFAULT);
+    }
+
+    private IsisConfiguration getConfiguration() {
+        return getIsisSessionFactory().getConfiguration();
     }
 
     /**
@@ -91,4 +355,29 @@ protected void doExecute(Object context) {
      */
     protected abstract List<? extends Command> findBackgroundCommandsToExecute();
 
+    /**
+     * Optional hook method, only used when executing in parallel: the commands that were
+     * {@link #claim(Command, Timestamp, long) claimed} (ie have a {@link Command#getStartedAt() startedAt}) before
+     * the specified time but have not {@link Command#getCompletedAt() completed}, eg because the node executing them
+     * failed.  These are re-executed along with those returned by {@link #findBackgroundCommandsToExecute()}.
+     *
+     * <p>
+     * The default implementation returns none, in which case such commands are never re-executed.
+     * </p>
+     */
+    protected List<? extends Command> findBackgroundCommandsWithExpiredLease(final Timestamp leaseExpiredBefore) {
+        return Collections.emptyList();
+    }
+
+    // //////////////////////////////////////
+
+    @javax.inject.Inject
+    BookmarkService bookmarkService;
+
+    @javax.inject.Inject
+    ClockService clockService;
+
+    @javax.inject.Inject
+    BackgroundCommandExecutionMetrics metrics;
+
 }
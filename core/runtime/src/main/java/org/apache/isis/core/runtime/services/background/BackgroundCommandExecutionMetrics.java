@@ -0,0 +1,113 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtime.services.background;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.isis.applib.annotation.DomainService;
+import org.apache.isis.applib.annotation.NatureOfService;
+import org.apache.isis.applib.annotation.Programmatic;
+
+/**
+ * Accumulates throughput and failure counts across all runs of {@link BackgroundCommandExecution}, so that they
+ * can be surfaced (eg on an admin dashboard or through a health check).
+ *
+ * <p>
+ * Counts are held in memory, per node, since the application was started.
+ * </p>
+ */
+@DomainService(
+        nature = NatureOfService.DOMAIN,
+        menuOrder = "" + Integer.MAX_VALUE
+)
+public class BackgroundCommandExecutionMetrics {
+
+    private final AtomicLong numberRuns = new AtomicLong();
+    private final AtomicLong numberExecuted = new AtomicLong();
+    private final AtomicLong numberFailed = new AtomicLong();
+    private final AtomicLong numberSkipped = new AtomicLong();
+    private final AtomicLong totalExecutionMillis = new AtomicLong();
+    private final AtomicLong totalRunMillis = new AtomicLong();
+
+    @Programmatic
+    public void runCompleted(final long runMillis) {
+        numberRuns.incrementAndGet();
+        totalRunMillis.addAndGet(runMillis);
+    }
+
+    @Programmatic
+    public void commandExecuted(final long executionMillis, final boolean failed) {
+        numberExecuted.incrementAndGet();
+        totalExecutionMillis.addAndGet(executionMillis);
+        if(failed) {
+            numberFailed.incrementAndGet();
+        }
+    }
+
+    @Programmatic
+    public void commandSkipped() {
+        numberSkipped.incrementAndGet();
+    }
+
+    @Programmatic
+    public long getNumberRuns() {
+        return numberRuns.get();
+    }
+
+    /**
+     * Number of commands executed, including those that failed.
+     */
+    @Programmatic
+    public long getNumberExecuted() {
+        return numberExecuted.get();
+    }
+
+    /**
+     * Number of commands that threw an exception when executed.
+     */
+    @Programmatic
+    public long getNumberFailed() {
+        return numberFailed.get();
+    }
+
+    /**
+     * Number of commands not executed because they had already been completed, or because they are currently
+     * leased by some other worker (possibly on some other node).
+     */
+    @Programmatic
+    public long getNumberSkipped() {
+        return numberSkipped.get();
+    }
+
+    @Programmatic
+    public long getAverageExecutionMillis() {
+        final long executed = numberExecuted.get();
+        return executed != 0 ? totalExecutionMillis.get() / executed : 0L;
+    }
+
+    /**
+     * Commands executed per second of elapsed (wall-clock) run time.
+     */
+    @Programmatic
+    public double getThroughputPerSecond() {
+        final long runMillis = totalRunMillis.get();
+        return runMillis != 0 ? numberExecuted.get() * 1000.0 / runMillis : 0.0;
+    }
+
+}
@@ -0,0 +1,267 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtime.services.changes;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Maps;
+
+import org.apache.isis.applib.services.bookmark.Bookmark;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.adapter.oid.RootOid;
+import org.apache.isis.core.metamodel.consent.InteractionInitiatedBy;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.feature.Contributed;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
+import org.apache.isis.core.runtime.system.transaction.IsisTransaction;
+
+/**
+ * The pre- and post- values of the persisted properties of every object enlisted in a transaction, held
+ * column-wise in parallel arrays rather than as an entry (and its key and value objects) per property.
+ *
+ * <p>
+ * Each enlisted object has a row, which is keyed by its {@link Bookmark} and which owns a contiguous range of
+ * slots, one per persisted property.  The post- values are captured (once) by {@link #capturePostValues()}, which
+ * also flags the slots whose value actually changed; only those are then visited by {@link #forEachChanged(ChangedObjectsServiceInternal.ChangedPropertyVisitor)}.
+ * </p>
+ *
+ * <p>
+ * Not thread-safe; owned by the (request-scoped) {@link ChangedObjectsServiceInternal}.
+ * </p>
+ */
+class ChangeJournal {
+
+    private static final int INITIAL_ROWS = 16;
+    private static final int INITIAL_SLOTS = 128;
+    /**
+     * Beyond which the arrays are discarded rather than cleared for the next transaction.
+     */
+    private static final int RETAINED_SLOTS_MAX = 4096;
+
+    private static final ObjectAssociation[] NO_PROPERTIES = new ObjectAssociation[0];
+
+    /**
+     * The persisted properties of each specification, computed once rather than filtered on every enlistment.
+     */
+    private final Map<ObjectSpecification, ObjectAssociation[]> propertiesBySpec = new IdentityHashMap<>();
+
+    private final Map<Bookmark, Integer> rowByBookmark = Maps.newHashMap();
+
+    // -- rows
+    private int rowCount;
+    private ObjectAdapter[] adapters;
+    private Bookmark[] bookmarks;
+    private int[] firstSlots;
+
+    // -- slots
+    private int slotCount;
+    private ObjectAssociation[] properties;
+    private Object[] pres;
+    private String[] preStrings;
+    private Object[] posts;
+    private String[] postStrings;
+    private boolean[] changed;
+
+    /**
+     * Rows before this have had their post- values captured.
+     */
+    private int capturedRowCount;
+    private int changedCount;
+
+    ChangeJournal() {
+        allocate();
+    }
+
+    private void allocate() {
+        adapters = new ObjectAdapter[INITIAL_ROWS];
+        bookmarks = new Bookmark[INITIAL_ROWS];
+        firstSlots = new int[INITIAL_ROWS + 1];
+        properties = new ObjectAssociation[INITIAL_SLOTS];
+        pres = new Object[INITIAL_SLOTS];
+        preStrings = new String[INITIAL_SLOTS];
+        posts = new Object[INITIAL_SLOTS];
+        postStrings = new String[INITIAL_SLOTS];
+        changed = new boolean[INITIAL_SLOTS];
+    }
+
+    // -- enlist
+
+    /**
+     * Captures the pre- value of each of the adapter's persisted properties, unless already enlisted.
+     *
+     * @param preValueIfAny - the pre- value to use for all properties (eg {@link IsisTransaction.Placeholder#NEW}),
+     *                      or <tt>null</tt> to read the current values.
+     */
+    void enlist(final ObjectAdapter adapter, final Object preValueIfAny) {
+        final Bookmark bookmark = bookmarkFor(adapter);
+        if(rowByBookmark.containsKey(bookmark)) {
+            return;
+        }
+        final ObjectAssociation[] adapterProperties = persistedPropertiesOf(adapter.getSpecification());
+
+        ensureRowCapacity(rowCount + 1);
+        ensureSlotCapacity(slotCount + adapterProperties.length);
+
+        rowByBookmark.put(bookmark, rowCount);
+        adapters[rowCount] = adapter;
+        bookmarks[rowCount] = bookmark;
+        firstSlots[rowCount] = slotCount;
+
+        for (final ObjectAssociation property : adapterProperties) {
+            final Object pre = preValueIfAny != null ? preValueIfAny : valueOf(adapter, property);
+            properties[slotCount] = property;
+            pres[slotCount] = pre;
+            // eagerly, because the referenced object could end up being deleted by the time that the xactn completes
+            preStrings[slotCount] = ChangedObjectsServiceInternal.asString(pre);
+            slotCount++;
+        }
+
+        rowCount++;
+        firstSlots[rowCount] = slotCount;
+    }
+
+    private ObjectAssociation[] persistedPropertiesOf(final ObjectSpecification spec) {
+        ObjectAssociation[] specProperties = propertiesBySpec.get(spec);
+        if(specProperties == null) {
+            final List<ObjectAssociation> associations =
+                    spec.getAssociations(Contributed.EXCLUDED, ObjectAssociation.Predicates.PROPERTIES);
+            int count = 0;
+            specProperties = new ObjectAssociation[associations.size()];
+            for (final ObjectAssociation association : associations) {
+                if(!association.isNotPersisted()) {
+                    specProperties[count++] = association;
+                }
+            }
+            specProperties = count == 0 ? NO_PROPERTIES : Arrays.copyOf(specProperties, count);
+            propertiesBySpec.put(spec, specProperties);
+        }
+        return specProperties;
+    }
+
+    private static Bookmark bookmarkFor(final ObjectAdapter adapter) {
+        final RootOid oid = (RootOid) adapter.getOid();
+        return new Bookmark(oid.getObjectSpecId().asString(), oid.getIdentifier());
+    }
+
+    private static Object valueOf(final ObjectAdapter adapter, final ObjectAssociation property) {
+        final ObjectAdapter referencedAdapter = property.get(adapter, InteractionInitiatedBy.FRAMEWORK);
+        return referencedAdapter == null ? null : referencedAdapter.getObject();
+    }
+
+    private void ensureRowCapacity(final int required) {
+        if(required < adapters.length) {
+            return;
+        }
+        final int newLength = Math.max(required + 1, adapters.length * 2);
+        adapters = Arrays.copyOf(adapters, newLength);
+        bookmarks = Arrays.copyOf(bookmarks, newLength);
+        firstSlots = Arrays.copyOf(firstSlots, newLength + 1);
+    }
+
+    private void ensureSlotCapacity(final int required) {
+        if(required <= properties.length) {
+            return;
+        }
+        final int newLength = Math.max(required, properties.length * 2);
+        properties = Arrays.copyOf(properties, newLength);
+        pres = Arrays.copyOf(pres, newLength);
+        preStrings = Arrays.copyOf(preStrings, newLength);
+        posts = Arrays.copyOf(posts, newLength);
+        postStrings = Arrays.copyOf(postStrings, newLength);
+        changed = Arrays.copyOf(changed, newLength);
+    }
+
+    // -- capture
+
+    /**
+     * Captures the post- values of all rows enlisted since the last call, including any enlisted while doing so.
+     *
+     * <p>
+     * The string form of a post- value is only computed if it differs from the pre- value.
+     * </p>
+     */
+    void capturePostValues() {
+        // rowCount is re-read on each iteration, since reading the values may (in principle) enlist further objects
+        for (; capturedRowCount < rowCount; capturedRowCount++) {
+            final ObjectAdapter adapter = adapters[capturedRowCount];
+            // don't touch a deleted object!!!  JDO, for example, will complain otherwise...
+            final boolean destroyed = adapter.isDestroyed();
+            final int lastSlot = firstSlots[capturedRowCount + 1];
+            for (int slot = firstSlots[capturedRowCount]; slot < lastSlot; slot++) {
+                final Object post = destroyed
+                        ? IsisTransaction.Placeholder.DELETED
+                        : valueOf(adapter, properties[slot]);
+                posts[slot] = post;
+                if(PreAndPostValues.shouldAudit(pres[slot], post)) {
+                    postStrings[slot] = ChangedObjectsServiceInternal.asString(post);
+                    changed[slot] = true;
+                    changedCount++;
+                }
+            }
+        }
+    }
+
+    /**
+     * The number of properties whose value changed, as of the last {@link #capturePostValues()}.
+     */
+    int numberChanged() {
+        return changedCount;
+    }
+
+    /**
+     * Visits each property whose value changed (as of the last {@link #capturePostValues()}), in enlistment order.
+     */
+    void forEachChanged(final ChangedObjectsServiceInternal.ChangedPropertyVisitor visitor) {
+        for (int row = 0; row < capturedRowCount; row++) {
+            final int lastSlot = firstSlots[row + 1];
+            for (int slot = firstSlots[row]; slot < lastSlot; slot++) {
+                if(changed[slot]) {
+                    visitor.visit(
+                            adapters[row], bookmarks[row], properties[slot],
+                            pres[slot], preStrings[slot], posts[slot], postStrings[slot]);
+                }
+            }
+        }
+    }
+
+    // -- clear
+
+    void clear() {
+        rowByBookmark.clear();
+        if(slotCount > RETAINED_SLOTS_MAX) {
+            allocate();
+        } else {
+            Arrays.fill(adapters, 0, rowCount, null);
+            Arrays.fill(bookmarks, 0, rowCount, null);
+            Arrays.fill(properties, 0, slotCount, null);
+            Arrays.fill(pres, 0, slotCount, null);
+            Arrays.fill(preStrings, 0, slotCount, null);
+            Arrays.fill(posts, 0, slotCount, null);
+            Arrays.fill(postStrings, 0, slotCount, null);
+            Arrays.fill(changed, 0, slotCount, false);
+        }
+        rowCount = 0;
+        slotCount = 0;
+        capturedRowCount = 0;
+        changedCount = 0;
+    }
+}
@@ -21,7 +21,6 @@
 import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.Callable;
 
 import javax.enterprise.context.RequestScoped;
 
@@ -34,10 +33,11 @@
 import org.apache.isis.applib.annotation.PublishingChangeKind;
 import org.apache.isis.applib.services.HasTransactionId;
 import org.apache.isis.applib.services.WithTransactionScope;
+import org.apache.isis.applib.services.bookmark.Bookmark;
+import org.apache.isis.applib.services.queryresultscache.QueryResultsCacheShared;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
 import org.apache.isis.core.metamodel.adapter.mgr.AdapterManager;
 import org.apache.isis.core.metamodel.spec.ObjectSpecification;
-import org.apache.isis.core.metamodel.spec.feature.Contributed;
 import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
 import org.apache.isis.core.runtime.system.transaction.IsisTransaction;
 
@@ -49,28 +49,39 @@
 public class ChangedObjectsServiceInternal implements WithTransactionScope {
 
     /**
-     * Used for auditing: this contains the pre- values of every property of every object enlisted.
-     *
-     * <p>
-     *     When {@link #getChangedObjectProperties()} is called, then this is cleared out and {@link #changedObjectProperties} is non-null, containing
-     *     the actual differences.
-     * </p>
+     * Receives each property that was changed in the transaction, see
+     * {@link #forEachChangedObjectProperty(ChangedPropertyVisitor)}.
      */
-    private final Map<AdapterAndProperty, PreAndPostValues> enlistedObjectProperties = Maps.newLinkedHashMap();
+    public interface ChangedPropertyVisitor {
+        void visit(
+                ObjectAdapter adapter,
+                Bookmark target,
+                ObjectAssociation property,
+                Object pre, String preString,
+                Object post, String postString);
+    }
 
     /**
-     * Used for auditing; contains the pre- and post- values of every property of every object that actually changed.
-     *
-     * <p>
-     *  Will be null until {@link #getChangedObjectProperties()} is called, thereafter contains the actual changes.
-     * </p>
+     * Used for auditing: the pre- values of every property of every object enlisted, and (once
+     * {@link #capturePostValues() captured}) the post- values of those that actually changed.
      */
-    private Set<Map.Entry<AdapterAndProperty, PreAndPostValues>> changedObjectProperties;
+    private final ChangeJournal changeJournal = new ChangeJournal();
+
+    /**
+     * Whether the post- values have been captured since the last enlistment.
+     */
+    private boolean postValuesCaptured;
 
 
     // used for publishing
     private final Map<ObjectAdapter,PublishingChangeKind> changeKindByEnlistedAdapter = Maps.newLinkedHashMap();
 
+    // used for invalidating the shared tier of the query results cache
+    private final Set<Class<?>> enlistedTypes = Sets.newLinkedHashSet();
+
+    // used for deciding whether a query needs to be preceded by a flush; unlike enlistedTypes, includes ignored types
+    private final Set<Class<?>> changedTypes = Sets.newLinkedHashSet();
+
     @Programmatic
     public boolean isEnlisted(ObjectAdapter adapter) {
         return changeKindByEnlistedAdapter.containsKey(adapter);
@@ -90,24 +101,15 @@ public boolean isEnlisted(ObjectAdapter adapter) {
     @Programmatic
     public void enlistCreated(final ObjectAdapter adapter) {
 
+        changedTypes.add(adapter.getSpecification().getCorrespondingClass());
         if(shouldIgnore(adapter)) {
             return;
         }
 
         enlistForPublishing(adapter, PublishingChangeKind.CREATE);
+        enlistType(adapter);
 
-        for (ObjectAssociation property : adapter.getSpecification().getAssociations(Contributed.EXCLUDED, ObjectAssociation.Predicates.PROPERTIES)) {
-            final AdapterAndProperty aap = AdapterAndProperty.of(adapter, property);
-            if(property.isNotPersisted()) {
-                continue;
-            }
-            if(enlistedObjectProperties.containsKey(aap)) {
-                // already enlisted, so ignore
-                return;
-            }
-            PreAndPostValues papv = PreAndPostValues.pre(IsisTransaction.Placeholder.NEW);
-            enlistedObjectProperties.put(aap, papv);
-        }
+        enlistProperties(adapter, IsisTransaction.Placeholder.NEW);
     }
 
 
@@ -124,24 +126,15 @@ public void enlistCreated(final ObjectAdapter adapter) {
     @Programmatic
     public void enlistUpdating(final ObjectAdapter adapter) {
 
+        changedTypes.add(adapter.getSpecification().getCorrespondingClass());
         if(shouldIgnore(adapter)) {
             return;
         }
 
         enlistForPublishing(adapter, PublishingChangeKind.UPDATE);
+        enlistType(adapter);
 
-        for (ObjectAssociation property : adapter.getSpecification().getAssociations(Contributed.EXCLUDED, ObjectAssociation.Predicates.PROPERTIES)) {
-            final AdapterAndProperty aap = AdapterAndProperty.of(adapter, property);
-            if(property.isNotPersisted()) {
-                continue;
-            }
-            if(enlistedObjectProperties.containsKey(aap)) {
-                // already enlisted, so ignore
-                continue;
-            }
-            PreAndPostValues papv = PreAndPostValues.pre(aap.getPropertyValue());
-            enlistedObjectProperties.put(aap, papv);
-        }
+        enlistProperties(adapter, null);
     }
 
     /**
@@ -158,6 +151,7 @@ public void enlistUpdating(final ObjectAdapter adapter) {
     @Programmatic
     public void enlistDeleting(final ObjectAdapter adapter) {
 
+        changedTypes.add(adapter.getSpecification().getCorrespondingClass());
         if(shouldIgnore(adapter)) {
             return;
         }
@@ -166,21 +160,51 @@ public void enlistDeleting(final ObjectAdapter adapter) {
         if(!enlisted) {
             return;
         }
+        enlistType(adapter);
 
-        for (ObjectAssociation property : adapter.getSpecification().getAssociations(Contributed.EXCLUDED, ObjectAssociation.Predicates.PROPERTIES)) {
-            final AdapterAndProperty aap = AdapterAndProperty.of(adapter, property);
-            if(property.isNotPersisted()) {
-                continue;
-            }
-            if(enlistedObjectProperties.containsKey(aap)) {
-                // already enlisted, so ignore
-                return;
-            }
-            PreAndPostValues papv = PreAndPostValues.pre(aap.getPropertyValue());
-            enlistedObjectProperties.put(aap, papv);
+        enlistProperties(adapter, null);
+    }
+
+    /**
+     * Captures the pre- values of the adapter's persisted properties (ignored if already enlisted).
+     */
+    private void enlistProperties(final ObjectAdapter adapter, final Object preValueIfAny) {
+        changeJournal.enlist(adapter, preValueIfAny);
+        postValuesCaptured = false;
+    }
+
+
+    /**
+     * Invalidates any results in the shared tier of the query results cache that depend upon the type, the first
+     * time that an instance of that type is enlisted in this transaction.
+     */
+    private void enlistType(final ObjectAdapter adapter) {
+        final Class<?> type = adapter.getSpecification().getCorrespondingClass();
+        if(enlistedTypes.add(type) && queryResultsCacheShared != null) {
+            queryResultsCacheShared.invalidate(type);
         }
     }
 
+    /**
+     * The types of all objects enlisted (created, updated or deleted) so far in this transaction.
+     */
+    @Programmatic
+    public Set<Class<?>> getEnlistedTypes() {
+        return Collections.unmodifiableSet(enlistedTypes);
+    }
+
+    /**
+     * The types of all objects created, updated or deleted so far in this transaction, including those that are
+     * otherwise ignored (eg commands and audit entries).
+     *
+     * <p>
+     * Unlike pending persistence commands, these are retained once flushed: the datastore only notifies the
+     * first modification of an object within a transaction, so later modifications can't otherwise be detected.
+     */
+    @Programmatic
+    public Set<Class<?>> getChangedTypes() {
+        return Collections.unmodifiableSet(changedTypes);
+    }
 
     /**
      * @return <code>true</code> if successfully enlisted, <code>false</code> if was already enlisted
@@ -218,45 +242,53 @@ private boolean enlistForPublishing(final ObjectAdapter adapter, final Publishin
     }
 
     /**
-     * Intended to be called at the end of the transaction.  Use {@link #resetForNextTransaction()} once fully read.
+     * Intended to be called at the end of the transaction: visits each property whose value changed, without
+     * materializing any intermediate collections.  Use {@link #resetForNextTransaction()} once fully read.
      */
     @Programmatic
-    public Set<Map.Entry<AdapterAndProperty, PreAndPostValues>> getChangedObjectProperties() {
-        return changedObjectProperties != null
-                    ? changedObjectProperties
-                    : (changedObjectProperties = capturePostValuesAndDrain(enlistedObjectProperties));
+    public void forEachChangedObjectProperty(final ChangedPropertyVisitor visitor) {
+        capturePostValues();
+        changeJournal.forEachChanged(visitor);
     }
 
-    private Set<Map.Entry<AdapterAndProperty, PreAndPostValues>> capturePostValuesAndDrain(final Map<AdapterAndProperty, PreAndPostValues> changedObjectProperties) {
-        return AdapterManager.ConcurrencyChecking.executeWithConcurrencyCheckingDisabled(new Callable<Set<Map.Entry<AdapterAndProperty, PreAndPostValues>>>() {
+    /**
+     * As {@link #forEachChangedObjectProperty(ChangedPropertyVisitor)}, but materialized as a set of entries.
+     *
+     * <p>
+     *     Prefer {@link #forEachChangedObjectProperty(ChangedPropertyVisitor)}, which has a much smaller footprint
+     *     for large transactions.
+     * </p>
+     */
+    @Programmatic
+    public Set<Map.Entry<AdapterAndProperty, PreAndPostValues>> getChangedObjectProperties() {
+        final Map<AdapterAndProperty, PreAndPostValues> changedObjectProperties = Maps.newLinkedHashMap();
+        forEachChangedObjectProperty(new ChangedPropertyVisitor() {
             @Override
-            public Set<Map.Entry<AdapterAndProperty, PreAndPostValues>> call() {
-                final Map<AdapterAndProperty, PreAndPostValues> processedObjectProperties = Maps.newLinkedHashMap();
-
-                while(!changedObjectProperties.isEmpty()) {
-
-                    final Set<AdapterAndProperty> keys = Sets.newLinkedHashSet(changedObjectProperties.keySet());
-                    for (final AdapterAndProperty aap : keys) {
-
-                        final PreAndPostValues papv = changedObjectProperties.remove(aap);
-
-                        final ObjectAdapter adapter = aap.getAdapter();
-                        if(adapter.isDestroyed()) {
-                            // don't touch the object!!!
-                            // JDO, for example, will complain otherwise...
-                            papv.setPost(IsisTransaction.Placeholder.DELETED);
-                        } else {
-                            papv.setPost(aap.getPropertyValue());
-                        }
-
-                        // if we encounter the same objectProperty again, this will simply overwrite it
-                        processedObjectProperties.put(aap, papv);
-                    }
-                }
+            public void visit(
+                    final ObjectAdapter adapter,
+                    final Bookmark target,
+                    final ObjectAssociation property,
+                    final Object pre, final String preString,
+                    final Object post, final String postString) {
+                changedObjectProperties.put(
+                        AdapterAndProperty.of(adapter, property),
+                        PreAndPostValues.of(pre, preString, post, postString));
+            }
+        });
+        return Collections.unmodifiableSet(changedObjectProperties.entrySet());
+    }
 
-                return Collections.unmodifiableSet(
-                        Sets.filter(processedObjectProperties.entrySet(), PreAndPostValues.Predicates.SHOULD_AUDIT));            }
+    private void capturePostValues() {
+        if(postValuesCaptured) {
+            return;
+        }
+        AdapterManager.ConcurrencyChecking.executeWithConcurrencyCheckingDisabled(new Runnable() {
+            @Override
+            public void run() {
+                changeJournal.capturePostValues();
+            }
         });
+        postValuesCaptured = true;
     }
 
     protected boolean shouldIgnore(final ObjectAdapter adapter) {
@@ -278,11 +310,9 @@ public int numberObjectsDirtied() {
 
     @Programmatic
     public int numberObjectPropertiesModified() {
-        if(changedObjectProperties == null) {
-            // normally done during auditing, but in case none of the objects in this xactn are audited...
-            getChangedObjectProperties();
-        }
-        return changedObjectProperties.size();
+        // normally done during auditing, but in case none of the objects in this xactn are audited...
+        capturePostValues();
+        return changeJournal.numberChanged();
     }
 
     /**
@@ -292,8 +322,17 @@ public int numberObjectPropertiesModified() {
     @Override
     @Programmatic
     public void resetForNextTransaction() {
-        enlistedObjectProperties.clear();
-        changedObjectProperties = null;
+        changeJournal.clear();
+        postValuesCaptured = false;
+
+        if(queryResultsCacheShared != null) {
+            // invalidate again, in case other interactions have re-cached the results since the types were enlisted
+            for (final Class<?> type : enlistedTypes) {
+                queryResultsCacheShared.invalidate(type);
+            }
+        }
+        enlistedTypes.clear();
+        changedTypes.clear();
     }
 
 
@@ -302,4 +341,11 @@ static String asString(Object object) {
     }
 
 
+    /**
+     * Optional; if not available then query results are only cached within an interaction.
+     */
+    @javax.inject.Inject
+    QueryResultsCacheShared queryResultsCacheShared;
+
+
 }
@@ -56,12 +56,23 @@ public static PreAndPostValues pre(Object preValue) {
         return new PreAndPostValues(preValue, null);
     }
 
+    static PreAndPostValues of(Object pre, String preString, Object post, String postString) {
+        return new PreAndPostValues(pre, preString, post, postString);
+    }
+
     private PreAndPostValues(Object pre, Object post) {
         this.pre = pre;
         this.post = post;
         this.preString = ChangedObjectsServiceInternal.asString(pre);
     }
 
+    private PreAndPostValues(Object pre, String preString, Object post, String postString) {
+        this.pre = pre;
+        this.preString = preString;
+        this.post = post;
+        this.postString = postString;
+    }
+
     /**
      * The object that was referenced before this object was changed
      * <p/>
@@ -96,15 +107,19 @@ public String toString() {
     }
 
     public boolean shouldAudit() {
+        return shouldAudit(getPre(), getPost());
+    }
+
+    static boolean shouldAudit(final Object pre, final Object post) {
         // don't audit objects that were created and then immediately deleted within the same xactn
-        if (getPre() == IsisTransaction.Placeholder.NEW && getPost() == IsisTransaction.Placeholder.DELETED) {
+        if (pre == IsisTransaction.Placeholder.NEW && post == IsisTransaction.Placeholder.DELETED) {
             return false;
         }
         // but do always audit objects that have just been created or deleted
-        if (getPre() == IsisTransaction.Placeholder.NEW || getPost() == IsisTransaction.Placeholder.DELETED) {
+        if (pre == IsisTransaction.Placeholder.NEW || post == IsisTransaction.Placeholder.DELETED) {
             return true;
         }
         // else - for updated objects - audit only if the property value has changed
-        return !Objects.equal(getPre(), getPost());
+        return !Objects.equal(pre, post);
     }
 }
@@ -16,6 +16,8 @@
  */
 package org.apache.isis.core.runtime.services.eventbus;
 
+import java.lang.annotation.Annotation;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -85,6 +87,19 @@ private void abort(final Throwable exception, final AbstractDomainEvent.Phase ph
      */
     protected abstract AbstractDomainEvent<?> asDomainEvent(final Object event);
 
+    /**
+     * Optional hook, returning the annotation that identifies subscriber methods (whose first parameter is the type
+     * of event subscribed to).
+     *
+     * <p>
+     *     Used to index the event types that have subscribers, so that events with no subscriber need not be created;
+     *     if <tt>null</tt> (the default) then every event type is assumed to have a subscriber.
+     * </p>
+     */
+    public Class<? extends Annotation> getSubscriberAnnotationType() {
+        return null;
+    }
+
 
     private void abortTransaction(final Throwable exception) {
         getTransactionManager().getCurrentTransaction().setAbortCause(new IsisApplicationException(exception));
@@ -16,7 +16,9 @@
  */
 package org.apache.isis.core.runtime.services.eventbus;
 
+import java.lang.annotation.Annotation;
 import java.util.Map;
+import java.util.Set;
 
 import javax.annotation.PostConstruct;
 import javax.enterprise.context.RequestScoped;
@@ -32,6 +34,7 @@
 import org.apache.isis.core.runtime.services.RequestScopedService;
 
 import com.google.common.base.Strings;
+import com.google.common.collect.Sets;
 
 /**
  * Holds common runtime logic for EventBusService implementations.
@@ -73,6 +76,52 @@ public void register(final Object domainService) {
             }
         }
         super.register(domainService);
+        synchronized (subscriberIndexLock) {
+            if(subscriberClasses.add(domainService.getClass()) && subscriberIndex != null) {
+                subscriberIndex.add(domainService.getClass());
+            }
+        }
+    }
+
+    // -- hasSubscriberFor
+
+    private final Object subscriberIndexLock = new Object();
+    private final Set<Class<?>> subscriberClasses = Sets.newConcurrentHashSet();
+    private volatile EventBusSubscriberIndex subscriberIndex;
+
+    /**
+     * {@inheritDoc}
+     *
+     * This service overrides the method to consult an index of the parameter types of the subscribers' methods
+     * (for event bus implementations that provide the
+     * {@link EventBusImplementationAbstract#getSubscriberAnnotationType() annotation} identifying those methods).
+     */
+    @Programmatic
+    @Override
+    public boolean hasSubscriberFor(final Class<?> eventType) {
+        EventBusSubscriberIndex index = subscriberIndex;
+        if(index == null) {
+            index = newSubscriberIndex();
+        }
+        return index.hasSubscriberFor(eventType);
+    }
+
+    private EventBusSubscriberIndex newSubscriberIndex() {
+        final EventBusImplementation eventBusImplementation = getEventBusImplementation();
+        final Class<? extends Annotation> subscriberAnnotationType =
+                eventBusImplementation instanceof EventBusImplementationAbstract
+                        ? ((EventBusImplementationAbstract) eventBusImplementation).getSubscriberAnnotationType()
+                        : null;
+        synchronized (subscriberIndexLock) {
+            if(subscriberIndex == null) {
+                final EventBusSubscriberIndex index = new EventBusSubscriberIndex(subscriberAnnotationType);
+                for (final Class<?> subscriberClass : subscriberClasses) {
+                    index.add(subscriberClass);
+                }
+                subscriberIndex = index;
+            }
+            return subscriberIndex;
+        }
     }
 
     
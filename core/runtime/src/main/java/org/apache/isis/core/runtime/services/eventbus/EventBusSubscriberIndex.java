@@ -0,0 +1,116 @@
+/**
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.apache.isis.core.runtime.services.eventbus;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+/**
+ * Index of the event types handled by the subscribers registered with an {@link EventBusServiceDefault}, used to
+ * answer {@link EventBusServiceDefault#hasSubscriberFor(Class)}.
+ *
+ * <p>
+ *     Subscriber methods are identified by the annotation used by the event bus implementation (eg Guava's
+ *     <tt>@Subscribe</tt>); an event type has a subscriber if the (first) parameter type of any subscriber method
+ *     is assignable from it.  If the annotation is not known then every event type is assumed to have a subscriber.
+ * </p>
+ */
+class EventBusSubscriberIndex {
+
+    private final Class<? extends Annotation> subscriberAnnotationType;
+
+    private final Set<Class<?>> subscriberClasses = Sets.newConcurrentHashSet();
+    private final List<Class<?>> subscribedEventTypes = new CopyOnWriteArrayList<>();
+
+    /**
+     * Replaced (rather than cleared) whenever a subscriber is added, so that a lookup that raced with the addition
+     * cannot leave a stale entry behind.
+     */
+    private volatile ConcurrentMap<Class<?>, Boolean> hasSubscriberByEventType = Maps.newConcurrentMap();
+
+    EventBusSubscriberIndex(final Class<? extends Annotation> subscriberAnnotationType) {
+        this.subscriberAnnotationType = subscriberAnnotationType;
+    }
+
+    void add(final Class<?> subscriberClass) {
+        if(subscriberAnnotationType == null || !subscriberClasses.add(subscriberClass)) {
+            return;
+        }
+        subscribedEventTypes.addAll(eventTypesSubscribedBy(subscriberClass));
+        hasSubscriberByEventType = Maps.newConcurrentMap();
+    }
+
+    boolean hasSubscriberFor(final Class<?> eventType) {
+        if(subscriberAnnotationType == null) {
+            return true;
+        }
+        final ConcurrentMap<Class<?>, Boolean> cache = hasSubscriberByEventType;
+        Boolean hasSubscriber = cache.get(eventType);
+        if(hasSubscriber == null) {
+            hasSubscriber = anySubscribedTo(eventType);
+            cache.put(eventType, hasSubscriber);
+        }
+        return hasSubscriber;
+    }
+
+    private boolean anySubscribedTo(final Class<?> eventType) {
+        for (final Class<?> subscribedEventType : subscribedEventTypes) {
+            if(subscribedEventType.isAssignableFrom(eventType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Searches the class hierarchy (including interfaces) because subscriber methods may be inherited; request-scoped
+     * services in particular register a proxy subclass.
+     */
+    private List<Class<?>> eventTypesSubscribedBy(final Class<?> subscriberClass) {
+        final List<Class<?>> eventTypes = Lists.newArrayList();
+        final Set<Class<?>> visited = Sets.newHashSet();
+        collectEventTypes(subscriberClass, visited, eventTypes);
+        return eventTypes;
+    }
+
+    private void collectEventTypes(final Class<?> cls, final Set<Class<?>> visited, final List<Class<?>> eventTypes) {
+        if(cls == null || cls == Object.class || !visited.add(cls)) {
+            return;
+        }
+        for (final Method method : cls.getDeclaredMethods()) {
+            if(method.isBridge() || method.getParameterTypes().length == 0) {
+                continue;
+            }
+            if(method.getAnnotation(subscriberAnnotationType) != null) {
+                eventTypes.add(method.getParameterTypes()[0]);
+            }
+        }
+        collectEventTypes(cls.getSuperclass(), visited, eventTypes);
+        for (final Class<?> interfaceType : cls.getInterfaces()) {
+            collectEventTypes(interfaceType, visited, eventTypes);
+        }
+    }
+
+}
@@ -0,0 +1,358 @@
+/**
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.apache.isis.core.runtime.services.memento;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import org.dom4j.Document;
+import org.dom4j.Element;
+
+import org.apache.isis.applib.annotation.DomainService;
+import org.apache.isis.applib.annotation.NatureOfService;
+import org.apache.isis.applib.annotation.Programmatic;
+import org.apache.isis.applib.internal.base._Bytes;
+import org.apache.isis.applib.services.memento.MementoService;
+import org.apache.isis.applib.services.urlencoding.UrlEncodingService;
+import org.apache.isis.core.commons.exceptions.IsisException;
+
+/**
+ * Implementation of {@link MementoService} that encodes mementos using a compact binary key/value format rather
+ * than as XML, and which caches the values decoded from recently parsed mementos.
+ *
+ * <p>
+ * The string returned by {@link Memento#asString()} is a marker prefix followed by the URL-safe base-64 encoding
+ * of the binary form, optionally compressed (see {@link #KEY_COMPRESS}).  Strings without the prefix are assumed
+ * to have been created by {@link MementoServiceDefault}, and are parsed as XML; links and bookmarks created before
+ * this service was introduced therefore still work.
+ * </p>
+ *
+ * <p>
+ * Because mementos are immutable once rendered as a string, the values decoded for each string are held in a
+ * bounded cache (see {@link #KEY_CACHE_SIZE}); repeatedly rehydrating the same view model then involves no decoding
+ * at all.
+ * </p>
+ *
+ * <p>
+ * This service takes precedence over {@link MementoServiceDefault}, which is still used internally.
+ * </p>
+ */
+@DomainService(
+        nature = NatureOfService.DOMAIN,
+        menuOrder = "" + (Integer.MAX_VALUE - 1)
+)
+public class MementoServiceCompact implements MementoService {
+
+    public static final String KEY_COMPRESS = "isis.services.MementoService.compress";
+    public static final String KEY_CACHE_SIZE = "isis.services.MementoService.cacheSize";
+
+    private static final boolean COMPRESS_DEFAULT = true;
+    private static final int CACHE_SIZE_DEFAULT = 1000;
+
+    /**
+     * Prefixes the encoded form; not part of the URL-safe base-64 alphabet, so never the first character of a
+     * memento created by {@link MementoServiceDefault}.
+     */
+    static final String PREFIX_PLAIN = "~p";
+    static final String PREFIX_COMPRESSED = "~z";
+
+    private static final int FORMAT_VERSION = 1;
+
+    static class MementoCompact implements Memento {
+
+        private final Map<String, String> valueByName;
+        private final MementoServiceCompact mementoService;
+
+        MementoCompact(final Map<String, String> valueByName, final MementoServiceCompact mementoService) {
+            this.valueByName = valueByName;
+            this.mementoService = mementoService;
+        }
+
+        @Override
+        public Memento set(final String name, final Object value) {
+            valueByName.put(name, value != null ? Dom4jUtil.Parseable.format(value) : null);
+            return this;
+        }
+
+        @Override
+        public <T> T get(final String name, final Class<T> cls) {
+            Dom4jUtil.Parseable.assertSupported(cls);
+            final String str = valueByName.get(name);
+            if(str == null) {
+                return null;
+            }
+            return Dom4jUtil.Parseable.parse(str, cls);
+        }
+
+        @Override
+        public String asString() {
+            return mementoService.encode(valueByName);
+        }
+
+        @Override
+        public Set<String> keySet() {
+            return Sets.newLinkedHashSet(valueByName.keySet());
+        }
+
+        @Override
+        public String toString() {
+            return valueByName.toString();
+        }
+    }
+
+    // -- init
+
+    private boolean compress = COMPRESS_DEFAULT;
+    private Cache<String, Map<String, String>> cache = newCache(CACHE_SIZE_DEFAULT);
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @Programmatic
+    @PostConstruct
+    public void init(final Map<String, String> properties) {
+        final String compressStr = properties.get(KEY_COMPRESS);
+        this.compress = compressStr != null ? Boolean.parseBoolean(compressStr.trim()) : COMPRESS_DEFAULT;
+        this.cache = newCache(parseInt(properties.get(KEY_CACHE_SIZE), CACHE_SIZE_DEFAULT));
+    }
+
+    private static Cache<String, Map<String, String>> newCache(final int maxSize) {
+        return CacheBuilder.newBuilder().maximumSize(Math.max(maxSize, 0)).build();
+    }
+
+    private static int parseInt(final String str, final int defaultValue) {
+        if(str == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(str.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    // -- API
+
+    @Programmatic
+    @Override
+    public Memento create() {
+        return new MementoCompact(Maps.<String, String>newLinkedHashMap(), this);
+    }
+
+    @Programmatic
+    @Override
+    public Memento parse(final String str) {
+        Map<String, String> valueByName = cache.getIfPresent(str);
+        if(valueByName != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            valueByName = Collections.unmodifiableMap(decode(str));
+            cache.put(str, valueByName);
+        }
+        // defensive copy, as the memento may subsequently be modified
+        return new MementoCompact(Maps.newLinkedHashMap(valueByName), this);
+    }
+
+    @Programmatic
+    @Override
+    public boolean canSet(final Object input) {
+        return input == null || Dom4jUtil.isSupportedClass(input.getClass());
+    }
+
+    /**
+     * The number of {@link #parse(String) parse}s satisfied from the cache.
+     */
+    @Programmatic
+    public long getCacheHits() {
+        return hits.get();
+    }
+
+    /**
+     * The number of {@link #parse(String) parse}s that required the memento to be decoded.
+     */
+    @Programmatic
+    public long getCacheMisses() {
+        return misses.get();
+    }
+
+    // -- encoding
+
+    String encode(final Map<String, String> valueByName) {
+        final byte[] bytes = toBytes(valueByName);
+        return compress
+                ? PREFIX_COMPRESSED + asString(_Bytes.asCompressedUrlBase64.apply(bytes))
+                : PREFIX_PLAIN + asString(_Bytes.asUrlBase64.apply(bytes));
+    }
+
+    Map<String, String> decode(final String str) {
+        if(str.startsWith(PREFIX_COMPRESSED)) {
+            return fromBytes(bytesOf(str.substring(PREFIX_COMPRESSED.length()), _Bytes.ofCompressedUrlBase64));
+        }
+        if(str.startsWith(PREFIX_PLAIN)) {
+            return fromBytes(bytesOf(str.substring(PREFIX_PLAIN.length()), _Bytes.ofUrlBase64));
+        }
+        return fromXml(urlEncodingService.decode(str));
+    }
+
+    private static byte[] bytesOf(final String str, final _Bytes.BytesOperator decoder) {
+        try {
+            return decoder.apply(asBytes(str));
+        } catch (IllegalArgumentException e) {
+            throw new MalformedMementoException("Memento is not validly encoded", e);
+        }
+    }
+
+    /**
+     * Format is: version, number of entries, then for each entry its name, whether it holds a value and (if so)
+     * the value's string form.  Lengths are written as variable-length ints.
+     */
+    static byte[] toBytes(final Map<String, String> valueByName) {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (final DataOutputStream out = new DataOutputStream(baos)) {
+            writeVarInt(out, FORMAT_VERSION);
+            writeVarInt(out, valueByName.size());
+            for (final Map.Entry<String, String> entry : valueByName.entrySet()) {
+                writeString(out, entry.getKey());
+                final String value = entry.getValue();
+                out.writeBoolean(value != null);
+                if(value != null) {
+                    writeString(out, value);
+                }
+            }
+        } catch (IOException e) {
+            throw new IsisException(e);
+        }
+        return baos.toByteArray();
+    }
+
+    /**
+     * Inverse of {@link #toBytes(Map)}.
+     *
+     * <p>
+     * The bytes may have come from a client, so every count and length is checked against the number of bytes
+     * remaining before anything is allocated.
+     * </p>
+     *
+     * @throws MalformedMementoException if the bytes are not in the expected format.
+     */
+    static Map<String, String> fromBytes(final byte[] bytes) {
+        try (final DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            final int version = readVarInt(in);
+            if(version != FORMAT_VERSION) {
+                throw new MalformedMementoException("Unsupported memento format version: " + version);
+            }
+            final int size = readVarInt(in);
+            // each entry takes at least two bytes (the length of its name, and whether it holds a value)
+            if(size < 0 || size > in.available() / 2) {
+                throw new MalformedMementoException("Invalid number of memento entries: " + size);
+            }
+            final Map<String, String> valueByName = Maps.newLinkedHashMap();
+            for (int i = 0; i < size; i++) {
+                final String name = readString(in);
+                final String value = in.readBoolean() ? readString(in) : null;
+                valueByName.put(name, value);
+            }
+            if(in.available() > 0) {
+                throw new MalformedMementoException("Unexpected trailing bytes in memento");
+            }
+            return valueByName;
+        } catch (IOException e) {
+            // eg EOFException, if truncated
+            throw new MalformedMementoException("Memento is truncated or malformed", e);
+        }
+    }
+
+    private Map<String, String> fromXml(final String xmlStr) {
+        final Document doc = Dom4jUtil.parse(xmlStr);
+        final Element root = doc.getRootElement();
+        final Map<String, String> valueByName = Maps.newLinkedHashMap();
+        @SuppressWarnings("unchecked")
+        final List<Element> elements = root.elements();
+        for (final Element element : elements) {
+            final String name = element.getName();
+            valueByName.put(name, Dom4jUtil.getChild(root, name, String.class));
+        }
+        return valueByName;
+    }
+
+    private static void writeString(final DataOutputStream out, final String str) throws IOException {
+        final byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(final DataInputStream in) throws IOException {
+        final int length = readVarInt(in);
+        if(length < 0 || length > in.available()) {
+            throw new MalformedMementoException("Invalid length of memento string: " + length);
+        }
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarInt(final DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(final DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            final int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length int");
+    }
+
+    private static String asString(final byte[] bytes) {
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] asBytes(final String str) {
+        return str.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    // -- injected services
+
+    @javax.inject.Inject
+    UrlEncodingService urlEncodingService;
+
+}
@@ -30,16 +30,20 @@
 import org.apache.isis.applib.annotation.Programmatic;
 import org.apache.isis.applib.services.WithTransactionScope;
 import org.apache.isis.applib.services.metrics.MetricsService;
+import org.apache.isis.applib.services.queryresultscache.QueryResultsCacheShared;
+import org.apache.isis.core.metamodel.services.metrics.MetricsServiceInternal;
 import org.apache.isis.core.runtime.services.changes.ChangedObjectsServiceInternal;
+import org.apache.isis.core.runtime.services.publish.PublishingDispatcherAsync;
 
 @RequestScoped
 @DomainService(
         nature = NatureOfService.DOMAIN,
         menuOrder = "" + Integer.MAX_VALUE
 )
-public class MetricsServiceDefault implements MetricsService, InstanceLifecycleListener, LoadLifecycleListener, WithTransactionScope {
+public class MetricsServiceDefault implements MetricsService, MetricsServiceInternal, InstanceLifecycleListener, LoadLifecycleListener, WithTransactionScope {
 
     private AtomicInteger numberLoaded = new AtomicInteger(0);
+    private AtomicInteger numberQueryFlushesAvoided = new AtomicInteger(0);
 
     @Override
     public int numberObjectsLoaded() {
@@ -51,6 +55,47 @@ public int numberObjectsDirtied() {
         return changedObjectsServiceInternal.numberObjectsDirtied();
     }
 
+    @Override
+    public long numberSharedQueryResultsCacheHits() {
+        return queryResultsCacheShared != null ? queryResultsCacheShared.numberOfHits() : 0L;
+    }
+
+    @Override
+    public long numberSharedQueryResultsCacheMisses() {
+        return queryResultsCacheShared != null ? queryResultsCacheShared.numberOfMisses() : 0L;
+    }
+
+    @Override
+    public long numberSharedQueryResultsCacheEvictions() {
+        return queryResultsCacheShared != null ? queryResultsCacheShared.numberOfEvictions() : 0L;
+    }
+
+    @Override
+    public int publishingQueueDepth() {
+        return publishingDispatcherAsync != null ? publishingDispatcherAsync.getQueueDepth() : 0;
+    }
+
+    @Override
+    public long numberPublishedEventsDiscarded() {
+        return publishingDispatcherAsync != null ? publishingDispatcherAsync.getNumberDiscarded() : 0L;
+    }
+
+    @Override
+    public long publishingDeliveryLagMillis() {
+        return publishingDispatcherAsync != null ? publishingDispatcherAsync.getAverageDeliveryLagMillis() : 0L;
+    }
+
+    @Override
+    public int numberQueryFlushesAvoided() {
+        return numberQueryFlushesAvoided.get();
+    }
+
+    @Programmatic
+    @Override
+    public void queryFlushAvoided() {
+        numberQueryFlushesAvoided.incrementAndGet();
+    }
+
     @Programmatic
     @Override
     public void postLoad(final InstanceLifecycleEvent event) {
@@ -65,9 +110,16 @@ public void postLoad(final InstanceLifecycleEvent event) {
     @Override
     public void resetForNextTransaction() {
         numberLoaded.set(0);
+        numberQueryFlushesAvoided.set(0);
     }
 
     @javax.inject.Inject
     ChangedObjectsServiceInternal changedObjectsServiceInternal;
 
+    @javax.inject.Inject
+    QueryResultsCacheShared queryResultsCacheShared;
+
+    @javax.inject.Inject
+    PublishingDispatcherAsync publishingDispatcherAsync;
+
 }
@@ -19,6 +19,8 @@
 package org.apache.isis.core.runtime.services.persistsession;
 
 import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 import org.apache.isis.applib.annotation.DomainService;
 import org.apache.isis.applib.annotation.NatureOfService;
@@ -182,6 +184,38 @@ public <T> List<ObjectAdapter> allMatchingQuery(final Query<T> query) {
         return getPersistenceSession().allMatchingQuery(query);
     }
 
+    @Override
+    public <T> List<ObjectAdapter> allMatchingQuery(
+            final Query<T> query, final String orderBy, final boolean ascending, final long start, final long count) {
+        return getPersistenceSession().allMatchingQuery(query, orderBy, ascending, start, count);
+    }
+
+    @Override
+    public <T> long countQuery(final Query<T> query) {
+        return getPersistenceSession().countQuery(query);
+    }
+
+    @Override
+    public boolean isFlushRequiredFor(final Class<?> type) {
+        return getPersistenceSession().isFlushRequiredFor(type);
+    }
+
+    @Override
+    public <T> void iterateQuery(
+            final Query<T> query, final int fetchSize, final Predicate<ObjectAdapter> visitor) {
+        getPersistenceSession().iterateQuery(query, fetchSize, visitor);
+    }
+
+    @Override
+    public <T> Stream<ObjectAdapter> streamQuery(final Query<T> query, final int fetchSize) {
+        return getPersistenceSession().streamQuery(query, fetchSize);
+    }
+
+    @Override
+    public void evictIfClean(final ObjectAdapter adapter) {
+        getPersistenceSession().evictIfClean(adapter);
+    }
+
     @Override
     public <T> ObjectAdapter firstMatchingQuery(final Query<T> query) {
         return getPersistenceSession().firstMatchingQuery(query);
@@ -0,0 +1,491 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.runtime.services.publish;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import com.google.common.collect.Lists;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.isis.applib.annotation.DomainService;
+import org.apache.isis.applib.annotation.NatureOfService;
+import org.apache.isis.applib.annotation.Programmatic;
+import org.apache.isis.applib.services.publish.PublisherService;
+import org.apache.isis.applib.services.publish.PublisherServiceBatched;
+import org.apache.isis.core.runtime.system.session.IsisSessionFactory;
+import org.apache.isis.core.runtime.system.transaction.TransactionalClosure;
+import org.apache.isis.schema.chg.v1.ChangesDto;
+import org.apache.isis.schema.ixn.v1.InteractionDto;
+
+/**
+ * Delivers published events to the {@link PublisherServiceBatched}s on a background thread, in batches, once the
+ * transaction that produced them has committed.
+ *
+ * <p>
+ * Only enabled if <tt>isis.services.publish.async</tt> is set and there is at least one
+ * {@link PublisherServiceBatched}; otherwise {@link PublishingServiceInternalDefault} calls the publishers
+ * synchronously, as it always has (plain {@link PublisherService}s, which are passed the live execution and changed
+ * objects, are always called synchronously).  The events are enqueued as {@link InteractionDto}s and
+ * {@link ChangesDto}s, created on the committing thread, so the queue holds no references to domain objects,
+ * adapters or the interaction.  They are held in a bounded queue (<tt>isis.services.publish.async.queueCapacity</tt>)
+ * and drained in batches of up to <tt>isis.services.publish.async.batchSize</tt>, each batch delivered to each
+ * publisher in a single call.  What happens when the queue is full is determined by
+ * <tt>isis.services.publish.async.overflowPolicy</tt>:
+ * </p>
+ * <ul>
+ *     <li><tt>callerRuns</tt> (the default) - the committing thread waits while the event is delivered, which
+ *     throttles the producers to the rate at which the publishers can keep up;</li>
+ *     <li><tt>block</tt> - the committing thread waits until there is space in the queue;</li>
+ *     <li><tt>discard</tt> - the event is dropped (and counted, see {@link #getNumberDiscarded()}).</li>
+ * </ul>
+ *
+ * <p>
+ * Each batch is delivered within its own session and transaction, so that publishers can persist the events (eg
+ * to an outbox table).  This is so even for those delivered on behalf of the committing thread (whose own
+ * transaction has by then completed); these are handed to a separate thread, the committing thread waiting for
+ * the delivery to complete.  Interactions and changes are each delivered in the order that they were enqueued,
+ * though within any given batch the interactions are delivered before the changes.
+ * </p>
+ */
+@DomainService(
+        nature = NatureOfService.DOMAIN,
+        menuOrder = "" + Integer.MAX_VALUE
+)
+public class PublishingDispatcherAsync {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PublishingDispatcherAsync.class);
+
+    public static final String KEY_ASYNC = "isis.services.publish.async";
+    public static final String KEY_QUEUE_CAPACITY = "isis.services.publish.async.queueCapacity";
+    public static final String KEY_BATCH_SIZE = "isis.services.publish.async.batchSize";
+    /**
+     * One of <tt>callerRuns</tt>, <tt>block</tt> or <tt>discard</tt>.
+     */
+    public static final String KEY_OVERFLOW_POLICY = "isis.services.publish.async.overflowPolicy";
+    public static final String KEY_SHUTDOWN_TIMEOUT_SECONDS = "isis.services.publish.async.shutdownTimeoutSeconds";
+
+    private static final int QUEUE_CAPACITY_DEFAULT = 10000;
+    private static final int BATCH_SIZE_DEFAULT = 100;
+    private static final String OVERFLOW_POLICY_DEFAULT = "callerRuns";
+    private static final int SHUTDOWN_TIMEOUT_SECONDS_DEFAULT = 10;
+
+    private static final long POLL_MILLIS = 500;
+    private static final long CALLER_RUNS_KEEP_ALIVE_SECONDS = 10;
+
+    enum OverflowPolicy {
+        CALLER_RUNS,
+        BLOCK,
+        DISCARD;
+
+        static OverflowPolicy parse(final String value) {
+            switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "callerruns":
+                return CALLER_RUNS;
+            case "block":
+                return BLOCK;
+            case "discard":
+                return DISCARD;
+            default:
+                throw new IllegalArgumentException(String.format(
+                        "Unknown value '%s' for '%s'", value, KEY_OVERFLOW_POLICY));
+            }
+        }
+    }
+
+    /**
+     * An {@link InteractionDto} or {@link ChangesDto}, along with the time that it was enqueued (to measure the
+     * delivery lag).
+     */
+    static class Event {
+        private final Object payload;
+        private final long enqueuedAtNanos;
+
+        Event(final Object payload) {
+            this.payload = payload;
+            this.enqueuedAtNanos = System.nanoTime();
+        }
+    }
+
+    private boolean enabled;
+    private List<PublisherServiceBatched> batchedPublisherServices;
+    private int batchSize;
+    private int shutdownTimeoutSeconds;
+    private OverflowPolicy overflowPolicy;
+    private BlockingQueue<Event> queue;
+    private Thread dispatcherThread;
+    private ExecutorService callerRunsExecutor;
+    private volatile boolean shutdown;
+
+    private final AtomicLong numberEnqueued = new AtomicLong();
+    private final AtomicLong numberDelivered = new AtomicLong();
+    private final AtomicLong numberDeliveredByCaller = new AtomicLong();
+    private final AtomicLong numberDiscarded = new AtomicLong();
+    private final AtomicLong numberFailed = new AtomicLong();
+    private final AtomicLong totalDeliveryLagMillis = new AtomicLong();
+    private final AtomicLong maxDeliveryLagMillis = new AtomicLong();
+
+    // -- init, shutdown
+
+    @Programmatic
+    @PostConstruct
+    public void init(final Map<String, String> properties) {
+        enabled = Boolean.parseBoolean(properties.get(KEY_ASYNC));
+        if(!enabled) {
+            return;
+        }
+        batchedPublisherServices = Lists.newArrayList();
+        if(publisherServices != null) {
+            for (final PublisherService publisherService : publisherServices) {
+                if(publisherService instanceof PublisherServiceBatched) {
+                    batchedPublisherServices.add((PublisherServiceBatched) publisherService);
+                }
+            }
+        }
+        if(batchedPublisherServices.isEmpty()) {
+            LOG.info("'{}' is set but there are no PublisherServiceBatched to publish to; ignoring", KEY_ASYNC);
+            enabled = false;
+            return;
+        }
+
+        final int queueCapacity = intValueOf(properties, KEY_QUEUE_CAPACITY, QUEUE_CAPACITY_DEFAULT);
+        batchSize = intValueOf(properties, KEY_BATCH_SIZE, BATCH_SIZE_DEFAULT);
+        shutdownTimeoutSeconds =
+                intValueOf(properties, KEY_SHUTDOWN_TIMEOUT_SECONDS, SHUTDOWN_TIMEOUT_SECONDS_DEFAULT);
+        final String overflowPolicyValue = properties.get(KEY_OVERFLOW_POLICY);
+        overflowPolicy = OverflowPolicy.parse(
+                overflowPolicyValue != null ? overflowPolicyValue : OVERFLOW_POLICY_DEFAULT);
+
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        dispatcherThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                dispatch();
+            }
+        }, "isis-publishing-dispatcher");
+        dispatcherThread.setDaemon(true);
+        dispatcherThread.start();
+
+        // the thread is only started on overflow (or after shutdown), and ends again once idle
+        final ThreadPoolExecutor callerRunsExecutor = new ThreadPoolExecutor(
+                1, 1, CALLER_RUNS_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                new ThreadFactory() {
+                    @Override
+                    public Thread newThread(final Runnable runnable) {
+                        final Thread thread = new Thread(runnable, "isis-publishing-caller-runs");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+        callerRunsExecutor.allowCoreThreadTimeOut(true);
+        this.callerRunsExecutor = callerRunsExecutor;
+
+        LOG.info("asynchronous publishing: queueCapacity={}, batchSize={}, overflowPolicy={}",
+                queueCapacity, batchSize, overflowPolicy);
+    }
+
+    private static int intValueOf(final Map<String, String> properties, final String key, final int defaultValue) {
+        final String value = properties.get(key);
+        final int intValue = value != null ? Integer.parseInt(value.trim()) : defaultValue;
+        if(intValue < 1) {
+            throw new IllegalArgumentException(String.format("'%s' must be positive (was %d)", key, intValue));
+        }
+        return intValue;
+    }
+
+    /**
+     * Stops accepting events (any subsequently enqueued are delivered synchronously), and waits up to
+     * <tt>isis.services.publish.async.shutdownTimeoutSeconds</tt> for the queue to drain.
+     */
+    @Programmatic
+    @PreDestroy
+    public void shutdown() {
+        if(!enabled || shutdown) {
+            return;
+        }
+        shutdown = true;
+        try {
+            dispatcherThread.join(TimeUnit.SECONDS.toMillis(shutdownTimeoutSeconds));
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if(dispatcherThread.isAlive()) {
+            dispatcherThread.interrupt();
+            LOG.warn("publishing dispatcher did not drain within {}s; {} events not delivered",
+                    shutdownTimeoutSeconds, queue.size());
+        }
+        LOG.info("publishing dispatcher shut down: {} events enqueued, {} delivered ({} by caller, {} failed), "
+                        + "{} discarded, avg lag {}ms, max lag {}ms",
+                numberEnqueued.get(), numberDelivered.get(), numberDeliveredByCaller.get(), numberFailed.get(),
+                numberDiscarded.get(), getAverageDeliveryLagMillis(), maxDeliveryLagMillis.get());
+    }
+
+    // -- enqueue
+
+    /**
+     * Whether asynchronous publishing is configured; if not then the {@link PublisherServiceBatched}s (as well as
+     * the plain {@link PublisherService}s) should be called directly.
+     */
+    @Programmatic
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param interactionDto - for a completed execution of a committed transaction.
+     */
+    @Programmatic
+    public void enqueue(final InteractionDto interactionDto) {
+        offer(new Event(interactionDto));
+    }
+
+    /**
+     * @param changesDto - the changed objects of a committed transaction, captured before it committed.
+     */
+    @Programmatic
+    public void enqueue(final ChangesDto changesDto) {
+        offer(new Event(changesDto));
+    }
+
+    private void offer(final Event event) {
+        numberEnqueued.incrementAndGet();
+        if(shutdown) {
+            deliverByCaller(event);
+            return;
+        }
+        switch (overflowPolicy) {
+        case BLOCK:
+            try {
+                queue.put(event);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                deliverByCaller(event);
+            }
+            return;
+        case DISCARD:
+            if(!queue.offer(event)) {
+                // log the first, and every thousandth thereafter
+                if(numberDiscarded.incrementAndGet() % 1000 == 1) {
+                    LOG.warn("publishing queue is full; {} events discarded so far", numberDiscarded.get());
+                }
+            }
+            return;
+        case CALLER_RUNS:
+        default:
+            if(!queue.offer(event)) {
+                deliverByCaller(event);
+            }
+        }
+    }
+
+    /**
+     * Called by the committing thread, whose transaction has completed.  So that the publishers still run within a
+     * transaction (as they do when called by the dispatcher), the delivery is made on a separate thread with its own
+     * session and transaction; the committing thread waits for it to complete.
+     */
+    private void deliverByCaller(final Event event) {
+        numberDeliveredByCaller.incrementAndGet();
+        final List<Event> batch = Collections.singletonList(event);
+        final Future<?> future = callerRunsExecutor.submit(new Runnable() {
+            @Override
+            public void run() {
+                deliverInSession(batch);
+            }
+        });
+        try {
+            future.get();
+        } catch (final InterruptedException ex) {
+            // the event will still be delivered, just without waiting for it
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException ex) {
+            numberFailed.incrementAndGet();
+            LOG.error("failed to deliver published event", ex.getCause());
+        }
+    }
+
+    // -- dispatch
+
+    private void dispatch() {
+        final List<Event> batch = Lists.newArrayListWithCapacity(batchSize);
+        while(!shutdown || !queue.isEmpty()) {
+            final Event first;
+            try {
+                first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (final InterruptedException ex) {
+                return;
+            }
+            if(first == null) {
+                continue;
+            }
+            batch.add(first);
+            queue.drainTo(batch, batchSize - 1);
+            try {
+                deliverInSession(batch);
+            } catch (final RuntimeException ex) {
+                numberFailed.addAndGet(batch.size());
+                LOG.error("failed to deliver {} published events", batch.size(), ex);
+            }
+            batch.clear();
+        }
+    }
+
+    private void deliverInSession(final List<Event> batch) {
+        if(isisSessionFactory == null) {
+            deliver(batch);
+            return;
+        }
+        isisSessionFactory.doInSession(new Runnable() {
+            @Override
+            public void run() {
+                isisSessionFactory.getCurrentSession().getPersistenceSession().getTransactionManager()
+                        .executeWithinTransaction(new TransactionalClosure() {
+                            @Override
+                            public void execute() {
+                                deliver(batch);
+                            }
+                        });
+            }
+        });
+    }
+
+    void deliver(final List<Event> batch) {
+        final List<InteractionDto> interactionDtos = Lists.newArrayList();
+        final List<ChangesDto> changesDtos = Lists.newArrayList();
+        for (final Event event : batch) {
+            if(event.payload instanceof ChangesDto) {
+                changesDtos.add((ChangesDto) event.payload);
+            } else {
+                interactionDtos.add((InteractionDto) event.payload);
+            }
+        }
+
+        for (final PublisherServiceBatched publisherService : batchedPublisherServices) {
+            try {
+                if(!interactionDtos.isEmpty()) {
+                    publisherService.publishInteractions(Collections.unmodifiableList(interactionDtos));
+                }
+                if(!changesDtos.isEmpty()) {
+                    publisherService.publishChanges(Collections.unmodifiableList(changesDtos));
+                }
+            } catch (final RuntimeException ex) {
+                // one misbehaving publisher should not prevent delivery to the others
+                numberFailed.addAndGet(batch.size());
+                LOG.error("{} failed to publish {} events", publisherService.getClass().getName(), batch.size(), ex);
+            }
+        }
+
+        final long now = System.nanoTime();
+        for (final Event event : batch) {
+            final long lagMillis = TimeUnit.NANOSECONDS.toMillis(now - event.enqueuedAtNanos);
+            totalDeliveryLagMillis.addAndGet(lagMillis);
+            long max;
+            while(lagMillis > (max = maxDeliveryLagMillis.get())
+                    && !maxDeliveryLagMillis.compareAndSet(max, lagMillis)) {
+                // retry
+            }
+        }
+        numberDelivered.addAndGet(batch.size());
+    }
+
+    // -- metrics
+
+    /**
+     * The number of events waiting to be delivered.
+     */
+    @Programmatic
+    public int getQueueDepth() {
+        return queue != null ? queue.size() : 0;
+    }
+
+    @Programmatic
+    public long getNumberEnqueued() {
+        return numberEnqueued.get();
+    }
+
+    /**
+     * The number of events delivered (including any delivered by the caller, and those for which a publisher
+     * failed).
+     */
+    @Programmatic
+    public long getNumberDelivered() {
+        return numberDelivered.get();
+    }
+
+    /**
+     * The number of events delivered synchronously, because the queue was full or the dispatcher shut down.
+     */
+    @Programmatic
+    public long getNumberDeliveredByCaller() {
+        return numberDeliveredByCaller.get();
+    }
+
+    /**
+     * The number of events dropped because the queue was full (only if the overflow policy is <tt>discard</tt>).
+     */
+    @Programmatic
+    public long getNumberDiscarded() {
+        return numberDiscarded.get();
+    }
+
+    @Programmatic
+    public long getNumberFailed() {
+        return numberFailed.get();
+    }
+
+    /**
+     * The average time between an event being enqueued and it being delivered.
+     */
+    @Programmatic
+    public long getAverageDeliveryLagMillis() {
+        final long delivered = numberDelivered.get();
+        return delivered != 0 ? totalDeliveryLagMillis.get() / delivered : 0L;
+    }
+
+    @Programmatic
+    public long getMaxDeliveryLagMillis() {
+        return maxDeliveryLagMillis.get();
+    }
+
+    // -- injected services
+
+    @javax.inject.Inject
+    List<PublisherService> publisherServices;
+
+    @javax.inject.Inject
+    IsisSessionFactory isisSessionFactory;
+
+}
@@ -27,6 +27,7 @@
 import javax.enterprise.context.RequestScoped;
 
 import com.google.common.base.Predicate;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
 import org.apache.isis.applib.annotation.DomainService;
@@ -41,14 +42,25 @@
 import org.apache.isis.applib.services.metrics.MetricsService;
 import org.apache.isis.applib.services.publish.PublishedObjects;
 import org.apache.isis.applib.services.publish.PublisherService;
+import org.apache.isis.applib.services.publish.PublisherServiceBatched;
 import org.apache.isis.applib.services.user.UserService;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
 import org.apache.isis.core.metamodel.facets.object.publishedobject.PublishedObjectFacet;
 import org.apache.isis.core.metamodel.services.publishing.PublishingServiceInternal;
 import org.apache.isis.core.runtime.services.changes.ChangedObjectsServiceInternal;
+import org.apache.isis.schema.chg.v1.ChangesDto;
+import org.apache.isis.schema.ixn.v1.InteractionDto;
+import org.apache.isis.schema.utils.InteractionDtoUtils;
 
 /**
  * Wrapper around {@link PublisherService}.  Is a no-op if there is no injected service.
+ *
+ * <p>
+ * If asynchronous publishing is enabled (see {@link PublishingDispatcherAsync}), then for the
+ * {@link PublisherServiceBatched}s the executions and changed objects are instead converted to DTOs and held until
+ * the transaction has committed, and are then handed over to the dispatcher.  If the transaction is aborted then
+ * they are discarded.  Plain {@link PublisherService}s are still called synchronously.
+ * </p>
  */
 @DomainService(
         nature = NatureOfService.DOMAIN,
@@ -86,7 +98,16 @@ public void publishObjects() {
         final PublishedObjects publishedObjects = newPublishedObjects(numberLoaded, numberObjectPropertiesModified,
                 changeKindByPublishedAdapter);
 
+        final boolean async = isAsync();
+        if(async) {
+            // capture the dto while the adapters are still available; delivered once committed
+            pendingChangesDto = publishedObjects.getDto();
+        }
+
         for (PublisherService publisherService : publisherServices) {
+            if(async && publisherService instanceof PublisherServiceBatched) {
+                continue;
+            }
             publisherService.publish(publishedObjects);
         }
     }
@@ -109,7 +130,35 @@ private PublishedObjects newPublishedObjects(
         return new PublishedObjectsDefault(transactionUuid, nextEventSequence, userName, timestamp, numberLoaded, numberObjectPropertiesModified, changeKindByPublishedAdapter);
     }
 
+    @Override
+    @Programmatic
+    public void transactionCommitted() {
+        if(!isAsync()) {
+            return;
+        }
+        for (final InteractionDto interactionDto : pendingInteractionDtos) {
+            publishingDispatcherAsync.enqueue(interactionDto);
+        }
+        if(pendingChangesDto != null) {
+            publishingDispatcherAsync.enqueue(pendingChangesDto);
+        }
+        discardPending();
+    }
 
+    @Override
+    @Programmatic
+    public void transactionAborted() {
+        discardPending();
+    }
+
+    private void discardPending() {
+        pendingInteractionDtos.clear();
+        pendingChangesDto = null;
+    }
+
+    private boolean isAsync() {
+        return publishingDispatcherAsync != null && publishingDispatcherAsync.isEnabled();
+    }
 
     @Programmatic
     public void publishAction(
@@ -141,12 +190,30 @@ private void publishToPublisherServices(final Interaction.Execution<?,?> executi
             return;
         }
 
+        final boolean async = isAsync();
+        if(async) {
+            pendingInteractionDtos.add(InteractionDtoUtils.newInteractionDto(execution));
+        }
+
         for (final PublisherService publisherService : publisherServices) {
+            if(async && publisherService instanceof PublisherServiceBatched) {
+                continue;
+            }
             publisherService.publish(execution);
         }
     }
 
 
+    /**
+     * Only used if publishing is asynchronous; the executions completed in the current transaction.
+     */
+    private final List<InteractionDto> pendingInteractionDtos = Lists.newArrayList();
+
+    /**
+     * Only used if publishing is asynchronous; the objects changed by the current transaction, if any.
+     */
+    private ChangesDto pendingChangesDto;
+
     boolean suppress;
 
     @Programmatic
@@ -194,6 +261,9 @@ public boolean apply(final ObjectAdapter objectAdapter) {
     @javax.inject.Inject
     MetricsService metricsService;
 
+    @javax.inject.Inject
+    PublishingDispatcherAsync publishingDispatcherAsync;
+
     
 
 }
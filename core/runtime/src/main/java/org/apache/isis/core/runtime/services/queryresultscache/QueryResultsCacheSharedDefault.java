@@ -0,0 +1,451 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtime.services.queryresultscache;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.temporal.TemporalAccessor;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+
+import com.google.common.base.Splitter;
+import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import org.joda.time.ReadWritableInstant;
+import org.joda.time.ReadableInstant;
+import org.joda.time.ReadablePartial;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.isis.applib.annotation.DomainService;
+import org.apache.isis.applib.annotation.NatureOfService;
+import org.apache.isis.applib.annotation.Programmatic;
+import org.apache.isis.applib.internal.base._Casts;
+import org.apache.isis.applib.services.bookmark.Bookmark;
+import org.apache.isis.applib.services.bookmark.BookmarkService;
+import org.apache.isis.applib.services.queryresultscache.QueryResultCacheControl;
+import org.apache.isis.applib.services.queryresultscache.QueryResultsCache;
+import org.apache.isis.applib.services.queryresultscache.QueryResultsCacheShared;
+import org.apache.isis.applib.services.queryresultscache.SharedQueryResults;
+import org.apache.isis.core.commons.lang.ClassUtil;
+import org.apache.isis.core.metamodel.services.persistsession.PersistenceSessionServiceInternal;
+import org.apache.isis.core.runtime.services.changes.ChangedObjectsServiceInternal;
+
+/**
+ * Default implementation of {@link QueryResultsCacheShared}, holding a bounded (LRU) and concurrent cache for each
+ * calling class and method that has a sharing policy.
+ *
+ * <p>
+ * The policy for each calling class/method is read from its {@link SharedQueryResults} annotation (if any),
+ * overridden by any configuration properties of the form
+ * <tt>isis.services.queryResultsCache.shared.&lt;callingClass&gt;.&lt;methodName&gt;.&lt;attribute&gt;</tt>.
+ * </p>
+ */
+@DomainService(
+        nature = NatureOfService.DOMAIN,
+        menuOrder = "" + Integer.MAX_VALUE
+)
+public class QueryResultsCacheSharedDefault implements QueryResultsCacheShared {
+
+    private static final Logger LOG = LoggerFactory.getLogger(QueryResultsCacheSharedDefault.class);
+
+    public static final String KEY_PREFIX = "isis.services.queryResultsCache.shared.";
+    public static final String KEY_SUFFIX_TIME_TO_LIVE_SECONDS = ".timeToLiveSeconds";
+    public static final String KEY_SUFFIX_MAX_SIZE = ".maxSize";
+    public static final String KEY_SUFFIX_DEPENDS_ON = ".dependsOn";
+
+    private static final int TIME_TO_LIVE_SECONDS_DEFAULT = 300;
+    private static final int MAX_SIZE_DEFAULT = 1000;
+
+    // -- init
+
+    private Map<String, String> properties = Collections.emptyMap();
+
+    @Programmatic
+    @PostConstruct
+    public void init(final Map<String, String> properties) {
+        this.properties = properties;
+    }
+
+    // -- regions
+
+    /**
+     * Keyed by calling class and method name; empty if the method has no sharing policy.
+     */
+    private final ConcurrentMap<String, Optional<Region>> regionByName = Maps.newConcurrentMap();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    static class Region {
+
+        private final String name;
+        private final List<Class<?>> dependsOn;
+        private final Cache<QueryResultsCache.Key, SharedResult> cache;
+
+        /**
+         * Incremented on every invalidation, so that a result computed concurrently with an invalidation is not
+         * subsequently cached.
+         */
+        private final AtomicLong generation = new AtomicLong();
+
+        Region(
+                final String name,
+                final int timeToLiveSeconds,
+                final int maxSize,
+                final List<Class<?>> dependsOn,
+                final RemovalListener<QueryResultsCache.Key, SharedResult> removalListener) {
+            this.name = name;
+            this.dependsOn = dependsOn;
+            this.cache = CacheBuilder.newBuilder()
+                    .expireAfterWrite(timeToLiveSeconds, TimeUnit.SECONDS)
+                    .maximumSize(maxSize)
+                    .removalListener(removalListener)
+                    .build();
+        }
+
+        boolean dependsOn(final Class<?> changedType) {
+            for (final Class<?> type : dependsOn) {
+                if(type.isAssignableFrom(changedType)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean dependsOnAnyOf(final Set<Class<?>> changedTypes) {
+            for (final Class<?> changedType : changedTypes) {
+                if(dependsOn(changedType)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void invalidate() {
+            generation.incrementAndGet();
+            cache.invalidateAll();
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /**
+     * The form in which a result is held in the shared tier: immutable values as is, but domain objects only as
+     * {@link Bookmark}s, so that they are re-resolved in (and are owned by) the session of each caller.
+     */
+    static class SharedResult {
+
+        private static final Set<Class<?>> IMMUTABLE_VALUE_TYPES = ImmutableSet.<Class<?>>of(
+                String.class, Boolean.class, Character.class,
+                Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class,
+                BigInteger.class, BigDecimal.class,
+                Bookmark.class);
+
+        /**
+         * Distinguishes a reference to a domain object from a result element that is itself a {@link Bookmark}.
+         */
+        private static final class Reference {
+            private final Bookmark bookmark;
+            private Reference(final Bookmark bookmark) {
+                this.bookmark = bookmark;
+            }
+        }
+
+        private enum Shape {
+            SINGLE,
+            LIST,
+            SET
+        }
+
+        private final Shape shape;
+        private final List<Object> elements;
+
+        private SharedResult(final Shape shape, final List<Object> elements) {
+            this.shape = shape;
+            this.elements = elements;
+        }
+
+        /**
+         * @return <tt>null</tt> if the result (or any of its elements) cannot be shared.
+         */
+        static SharedResult of(final Object result, final PersistenceSessionServiceInternal persistenceSession) {
+            final Shape shape =
+                    result instanceof List ? Shape.LIST :
+                    result instanceof Set ? Shape.SET :
+                    result instanceof Collection ? null : Shape.SINGLE;
+            if(shape == null) {
+                return null;
+            }
+            final Collection<?> results = shape == Shape.SINGLE
+                    ? Collections.singletonList(result)
+                    : (Collection<?>) result;
+            final List<Object> elements = Lists.newArrayListWithCapacity(results.size());
+            for (final Object element : results) {
+                final Object sharedElement = sharedFormOf(element, persistenceSession);
+                if(sharedElement == null && element != null) {
+                    return null;
+                }
+                elements.add(sharedElement);
+            }
+            return new SharedResult(shape, Collections.unmodifiableList(elements));
+        }
+
+        private static Object sharedFormOf(final Object element, final PersistenceSessionServiceInternal persistenceSession) {
+            if(element == null) {
+                return null;
+            }
+            if(isImmutableValue(element)) {
+                return element;
+            }
+            final Bookmark bookmark = persistenceSession.bookmarkFor(element);
+            if(bookmark == null || bookmark.getObjectState() == Bookmark.ObjectState.TRANSIENT) {
+                return null;
+            }
+            return new Reference(bookmark);
+        }
+
+        static boolean isImmutableValue(final Object element) {
+            return IMMUTABLE_VALUE_TYPES.contains(element.getClass()) ||
+                   element instanceof Enum ||
+                   element instanceof TemporalAccessor ||
+                   element instanceof ReadablePartial ||
+                   element instanceof ReadableInstant && !(element instanceof ReadWritableInstant);
+        }
+
+        /**
+         * @return a new (unmodifiable, if a collection) result, with any domain objects resolved in the calling session.
+         */
+        Object resolve(final PersistenceSessionServiceInternal persistenceSession) {
+            final List<Object> resolved = Lists.newArrayListWithCapacity(elements.size());
+            for (final Object element : elements) {
+                resolved.add(element instanceof Reference
+                        ? persistenceSession.lookup(((Reference) element).bookmark, BookmarkService.FieldResetPolicy.DONT_RESET)
+                        : element);
+            }
+            switch (shape) {
+            case SINGLE:
+                return resolved.get(0);
+            case SET:
+                return Collections.unmodifiableSet(Sets.newLinkedHashSet(resolved));
+            default:
+                return Collections.unmodifiableList(resolved);
+            }
+        }
+    }
+
+    private Region regionFor(final QueryResultsCache.Key cacheKey) {
+        final Class<?> callingClass = cacheKey.getCallingClass();
+        final String methodName = cacheKey.getMethodName();
+        if(callingClass == null || methodName == null) {
+            return null;
+        }
+        final String name = callingClass.getName() + "." + methodName;
+        return regionByName.computeIfAbsent(name, x -> Optional.ofNullable(createRegion(name, callingClass, methodName)))
+                           .orElse(null);
+    }
+
+    private Region createRegion(final String name, final Class<?> callingClass, final String methodName) {
+        final SharedQueryResults annotation = annotationFor(callingClass, methodName);
+
+        final String timeToLiveSecondsProperty = properties.get(KEY_PREFIX + name + KEY_SUFFIX_TIME_TO_LIVE_SECONDS);
+        final String maxSizeProperty = properties.get(KEY_PREFIX + name + KEY_SUFFIX_MAX_SIZE);
+        final String dependsOnProperty = properties.get(KEY_PREFIX + name + KEY_SUFFIX_DEPENDS_ON);
+
+        if(annotation == null && timeToLiveSecondsProperty == null && maxSizeProperty == null && dependsOnProperty == null) {
+            // no sharing policy, so this method's results are only cached in the request-scoped tier
+            return null;
+        }
+
+        final int timeToLiveSeconds = parseInt(timeToLiveSecondsProperty,
+                annotation != null ? annotation.timeToLiveSeconds() : TIME_TO_LIVE_SECONDS_DEFAULT);
+        final int maxSize = parseInt(maxSizeProperty,
+                annotation != null ? annotation.maxSize() : MAX_SIZE_DEFAULT);
+
+        final List<Class<?>> dependsOn = Lists.newArrayList();
+        if(dependsOnProperty != null) {
+            for (final String className : Splitter.on(',').trimResults().omitEmptyStrings().split(dependsOnProperty)) {
+                dependsOn.add(ClassUtil.forName(className));
+            }
+        } else if(annotation != null) {
+            Collections.addAll(dependsOn, annotation.dependsOn());
+        }
+
+        LOG.info("caching results of {} in shared tier (timeToLiveSeconds: {}, maxSize: {}, dependsOn: {})",
+                name, timeToLiveSeconds, maxSize, dependsOn);
+
+        return new Region(name, timeToLiveSeconds, maxSize, Collections.unmodifiableList(dependsOn),
+                new RemovalListener<QueryResultsCache.Key, SharedResult>() {
+                    @Override
+                    public void onRemoval(final RemovalNotification<QueryResultsCache.Key, SharedResult> notification) {
+                        if(notification.wasEvicted()) {
+                            evictions.incrementAndGet();
+                        }
+                    }
+                });
+    }
+
+    private static SharedQueryResults annotationFor(final Class<?> callingClass, final String methodName) {
+        for (Class<?> cls = callingClass; cls != null; cls = cls.getSuperclass()) {
+            for (final Method method : cls.getDeclaredMethods()) {
+                if(!method.getName().equals(methodName)) {
+                    continue;
+                }
+                final SharedQueryResults annotation = method.getAnnotation(SharedQueryResults.class);
+                if(annotation != null) {
+                    return annotation;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static int parseInt(final String value, final int fallback) {
+        if(Strings.isNullOrEmpty(value)) {
+            return fallback;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch(final NumberFormatException ex) {
+            return fallback;
+        }
+    }
+
+    // -- execute
+
+    @Programmatic
+    @Override
+    public <T> T execute(final Callable<T> callable, final QueryResultsCache.Key cacheKey) throws Exception {
+        final Region region = control.isFixturesInstalling() ? null : regionFor(cacheKey);
+        if(region == null) {
+            return callable.call();
+        }
+
+        // read-your-own-writes: the shared tier only holds committed state, so is neither consulted nor populated
+        // once the current transaction has changed any type that the query depends on
+        if(region.dependsOnAnyOf(changedObjectsServiceInternal.getEnlistedTypes())) {
+            LOG.debug("SHARED BYPASS (dependent type changed in this transaction): {}", cacheKey);
+            return callable.call();
+        }
+
+        final SharedResult cacheValue = region.cache.getIfPresent(cacheKey);
+        if(cacheValue != null) {
+            hits.incrementAndGet();
+            LOG.debug("SHARED HIT: {}", cacheKey);
+            // re-resolved in the calling session, never the instances of the session that computed the result
+            return _Casts.uncheckedCast(cacheValue.resolve(persistenceSessionServiceInternal));
+        }
+        misses.incrementAndGet();
+        LOG.debug("SHARED MISS: {}", cacheKey);
+
+        final long generation = region.generation.get();
+        final T result = callable.call();
+
+        // don't share a result that might reflect changes made by the current transaction (eg flushed by the
+        // query itself), nor one computed while some other transaction invalidated this region
+        if(region.dependsOnAnyOf(changedObjectsServiceInternal.getEnlistedTypes())) {
+            return result;
+        }
+        if(region.generation.get() != generation) {
+            return result;
+        }
+        final SharedResult sharedResult = SharedResult.of(result, persistenceSessionServiceInternal);
+        if(sharedResult == null) {
+            // eg a mutable value or a transient object, so cannot safely be handed to other sessions
+            LOG.debug("SHARED NOT SHAREABLE: {}", cacheKey);
+            return result;
+        }
+        region.cache.put(cacheKey, sharedResult);
+
+        // same as would be returned by a subsequent hit
+        return _Casts.uncheckedCast(sharedResult.resolve(persistenceSessionServiceInternal));
+    }
+
+    // -- invalidate
+
+    @Programmatic
+    @Override
+    public void invalidate(final Class<?> changedType) {
+        for (final Optional<Region> regionIfAny : regionByName.values()) {
+            if(!regionIfAny.isPresent()) {
+                continue;
+            }
+            final Region region = regionIfAny.get();
+            if(region.dependsOn(changedType)) {
+                LOG.debug("invalidating {} (changed: {})", region, changedType.getName());
+                region.invalidate();
+            }
+        }
+    }
+
+    // -- metrics
+
+    @Programmatic
+    @Override
+    public long numberOfHits() {
+        return hits.get();
+    }
+
+    @Programmatic
+    @Override
+    public long numberOfMisses() {
+        return misses.get();
+    }
+
+    @Programmatic
+    @Override
+    public long numberOfEvictions() {
+        return evictions.get();
+    }
+
+    // -- dependencies
+
+    @javax.inject.Inject
+    QueryResultCacheControl control;
+
+    @javax.inject.Inject
+    ChangedObjectsServiceInternal changedObjectsServiceInternal;
+
+    @javax.inject.Inject
+    PersistenceSessionServiceInternal persistenceSessionServiceInternal;
+
+}
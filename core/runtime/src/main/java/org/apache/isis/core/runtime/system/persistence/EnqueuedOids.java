@@ -0,0 +1,148 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtime.system.persistence;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.isis.core.metamodel.adapter.oid.RootOid;
+import org.apache.isis.core.metamodel.spec.ObjectSpecId;
+
+/**
+ * The persistent oids {@link PersistenceSession#enqueueForLoading(Iterable) enqueued} for loading, grouped by the
+ * spec of the object they identify, and loaded in batches the first time that any one of them is resolved.
+ *
+ * <p>
+ * Each batch is a single datastore round-trip for at most <tt>batchSize</tt> oids of the same type: the oid being
+ * resolved, along with those enqueued after it that are not yet loaded.  Any others are left enqueued, to be loaded
+ * in a further batch once one of them is resolved; no one query therefore has an unbounded number of ids.
+ * </p>
+ */
+class EnqueuedOids {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EnqueuedOids.class);
+
+    /**
+     * Callbacks into the {@link PersistenceSession}.
+     */
+    interface Loader {
+
+        boolean isMapped(RootOid rootOid);
+
+        /**
+         * Loads the pojos in a single round-trip; a <tt>null</tt> value indicates that the pojo could not be loaded.
+         */
+        Map<RootOid, Object> load(List<RootOid> rootOids);
+
+        void map(RootOid rootOid, Object pojo);
+    }
+
+    private final int batchSize;
+    private final Loader loader;
+
+    private final Map<ObjectSpecId, Set<RootOid>> enqueuedOidsBySpecId = Maps.newLinkedHashMap();
+
+    EnqueuedOids(final int batchSize, final Loader loader) {
+        if(batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive (was " + batchSize + ")");
+        }
+        this.batchSize = batchSize;
+        this.loader = loader;
+    }
+
+    void enqueue(final RootOid rootOid) {
+        final ObjectSpecId objectSpecId = rootOid.getObjectSpecId();
+        Set<RootOid> enqueuedOids = enqueuedOidsBySpecId.get(objectSpecId);
+        if (enqueuedOids == null) {
+            enqueuedOids = Sets.newLinkedHashSet();
+            enqueuedOidsBySpecId.put(objectSpecId, enqueuedOids);
+        }
+        enqueuedOids.add(rootOid);
+    }
+
+    /**
+     * If the oid was enqueued, then loads (and maps) it along with the next batch of other enqueued oids of the
+     * same type.
+     *
+     * <p>
+     * Any that cannot be loaded are simply left unmapped; the caller then loads the requested oid individually,
+     * and so reports any failure in the usual way.
+     * </p>
+     */
+    void loadIfEnqueued(final RootOid rootOid) {
+        final ObjectSpecId objectSpecId = rootOid.getObjectSpecId();
+        final Set<RootOid> enqueuedOids = enqueuedOidsBySpecId.get(objectSpecId);
+        if (enqueuedOids == null || !enqueuedOids.remove(rootOid)) {
+            return;
+        }
+
+        final List<RootOid> batch = Lists.newArrayList(rootOid);
+        for (final Iterator<RootOid> iterator = enqueuedOids.iterator();
+             iterator.hasNext() && batch.size() < batchSize; ) {
+            final RootOid enqueuedOid = iterator.next();
+            iterator.remove();
+            if (!loader.isMapped(enqueuedOid)) {
+                batch.add(enqueuedOid);
+            }
+        }
+        if (enqueuedOids.isEmpty()) {
+            enqueuedOidsBySpecId.remove(objectSpecId);
+        }
+        if (batch.size() <= 1) {
+            // nothing to be gained
+            return;
+        }
+
+        LOG.debug("loading {} enqueued oids of type {}", batch.size(), objectSpecId);
+        final Map<RootOid, Object> pojoByOid;
+        try {
+            pojoByOid = loader.load(batch);
+        } catch (final RuntimeException ex) {
+            // ignore; the requested oid will be loaded (and any failure reported) individually.
+            LOG.debug("could not load enqueued oids of type {}", objectSpecId, ex);
+            return;
+        }
+        for (final Map.Entry<RootOid, Object> entry : pojoByOid.entrySet()) {
+            final Object pojo = entry.getValue();
+            if (pojo == null) {
+                continue;
+            }
+            try {
+                loader.map(entry.getKey(), pojo);
+            } catch (final RuntimeException ex) {
+                // ignore; will be reattempted (and reported) if this oid is resolved individually.
+                LOG.debug("could not map enqueued oid {}", entry.getKey(), ex);
+            }
+        }
+    }
+
+    void clear() {
+        enqueuedOidsBySpecId.clear();
+    }
+
+}
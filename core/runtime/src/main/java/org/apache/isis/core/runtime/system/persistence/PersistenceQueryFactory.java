@@ -25,6 +25,7 @@
 import org.apache.isis.applib.query.Query;
 import org.apache.isis.applib.query.QueryDefault;
 import org.apache.isis.applib.query.QueryFindAllInstances;
+import org.apache.isis.applib.query.QueryFindAllInstancesMatching;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
 import org.apache.isis.core.metamodel.adapter.mgr.AdapterManager;
 import org.apache.isis.core.metamodel.services.container.query.QueryCardinality;
@@ -55,7 +56,12 @@ final PersistenceQuery createPersistenceQueryFor(final Query<?> query, final Que
             LOG.debug("createPersistenceQueryFor: {}", query.getDescription());
         }
         final ObjectSpecification noSpec = specFor(query);
-        if (query instanceof QueryFindAllInstances) {
+        if (query instanceof QueryFindAllInstancesMatching) {
+            final QueryFindAllInstancesMatching<?> queryFindAllInstancesMatching = (QueryFindAllInstancesMatching<?>) query;
+            return new PersistenceQueryFindAllInstances(noSpec, queryFindAllInstancesMatching.getPredicate(),
+                    queryFindAllInstancesMatching.getStart(), queryFindAllInstancesMatching.getCount());
+
+        } else if (query instanceof QueryFindAllInstances) {
             final QueryFindAllInstances<?> queryFindAllInstances = (QueryFindAllInstances<?>) query;
             return new PersistenceQueryFindAllInstances(noSpec, queryFindAllInstances.getStart(), queryFindAllInstances.getCount());
 
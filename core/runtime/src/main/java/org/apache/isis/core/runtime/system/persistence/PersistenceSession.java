@@ -26,10 +26,15 @@
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 import javax.jdo.FetchGroup;
 import javax.jdo.FetchPlan;
+import javax.jdo.JDOHelper;
 import javax.jdo.PersistenceManager;
 import javax.jdo.PersistenceManagerFactory;
 import javax.jdo.identity.SingleFieldIdentity;
@@ -37,6 +42,7 @@
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 
 import org.datanucleus.enhancement.Persistable;
 import org.datanucleus.exceptions.NucleusObjectNotFoundException;
@@ -117,6 +123,7 @@
 import org.apache.isis.core.runtime.persistence.objectstore.transaction.DestroyObjectCommand;
 import org.apache.isis.core.runtime.persistence.objectstore.transaction.PersistenceCommand;
 import org.apache.isis.core.runtime.persistence.objectstore.transaction.TransactionalResource;
+import org.apache.isis.core.runtime.persistence.query.PersistenceQueryAbstract;
 import org.apache.isis.core.runtime.persistence.query.PersistenceQueryFindAllInstances;
 import org.apache.isis.core.runtime.persistence.query.PersistenceQueryFindUsingApplibQueryDefault;
 import org.apache.isis.core.runtime.runner.opts.OptionHandlerFixtureAbstract;
@@ -169,6 +176,20 @@ public class PersistenceSession implements
 
     public static final String SERVICE_IDENTIFIER = "1";
 
+    /**
+     * Whether the adapter maps should only weakly reference the adapters, so that adapters no longer referenced
+     * elsewhere (eg when iterating over a large number of objects in a read-only batch) can be garbage collected
+     * within a long-running session.
+     */
+    public static final String ADAPTER_MAPS_WEAK_KEY = "isis.persistor.adapterMaps.weak";
+    public static final boolean ADAPTER_MAPS_WEAK_DEFAULT = false;
+
+    /**
+     * The maximum number of {@link #enqueueForLoading(Iterable) enqueued} oids loaded in a single round-trip.
+     */
+    public static final String ENQUEUED_LOADING_BATCH_SIZE_KEY = "isis.persistor.enqueuedLoading.batchSize";
+    public static final int ENQUEUED_LOADING_BATCH_SIZE_DEFAULT = 100;
+
     
 
     // -- constructor, fields, finalize()
@@ -261,6 +282,28 @@ public PersistenceSession(
                 this.configuration.getBoolean("isis.persistor.disableConcurrencyChecking", false);
         this.concurrencyCheckingGloballyEnabled = !concurrencyCheckingGloballyDisabled;
 
+        final boolean weakAdapterMaps = this.configuration.getBoolean(ADAPTER_MAPS_WEAK_KEY, ADAPTER_MAPS_WEAK_DEFAULT);
+        this.pojoAdapterMap = new PojoAdapterHashMap(PojoAdapterHashMap.DEFAULT_POJO_ADAPTER_MAP_SIZE, weakAdapterMaps);
+        this.oidAdapterMap = new OidAdapterHashMap(OidAdapterHashMap.DEFAULT_OID_ADAPTER_MAP_SIZE, weakAdapterMaps);
+
+        this.enqueuedOids = new EnqueuedOids(
+                this.configuration.getInteger(ENQUEUED_LOADING_BATCH_SIZE_KEY, ENQUEUED_LOADING_BATCH_SIZE_DEFAULT),
+                new EnqueuedOids.Loader() {
+                    @Override
+                    public boolean isMapped(final RootOid rootOid) {
+                        return getAdapterFor(rootOid) != null;
+                    }
+
+                    @Override
+                    public Map<RootOid, Object> load(final List<RootOid> rootOids) {
+                        return loadPersistentPojos(rootOids);
+                    }
+
+                    @Override
+                    public void map(final RootOid rootOid, final Object pojo) {
+                        mapRecreatedPojo(rootOid, pojo);
+                    }
+                });
     }
 
     @Override
@@ -408,6 +451,8 @@ public void close() {
         completeCommandFromInteractionAndClearDomainEvents();
         transactionManager.flushTransaction();
 
+        enqueuedOids.clear();
+
         try {
             final IsisTransaction currentTransaction = transactionManager.getCurrentTransaction();
             if (currentTransaction != null && !currentTransaction.getState().isComplete()) {
@@ -528,6 +573,119 @@ public <T> ObjectAdapter firstMatchingQuery(final Query<T> query) {
         return list.size() > 0 ? list.get(0) : null;
     }
 
+    /**
+     * As {@link #allMatchingQuery(Query)}, but with the results ordered by the specified (persisted) property and
+     * restricted to the specified range, both evaluated by the datastore.
+     */
+    public <T> List<ObjectAdapter> allMatchingQuery(
+            final Query<T> query,
+            final String orderBy,
+            final boolean ascending,
+            final long start,
+            final long count) {
+        final PersistenceQuery persistenceQuery = createPersistenceQueryFor(query, QueryCardinality.MULTIPLE);
+        if(orderBy != null) {
+            ensureOrderable(persistenceQuery.getSpecification(), orderBy);
+        }
+        if(persistenceQuery instanceof PersistenceQueryAbstract) {
+            ((PersistenceQueryAbstract) persistenceQuery).pageBy(orderBy, ascending, start, count);
+        }
+
+        final PersistenceQueryProcessor<? extends PersistenceQuery> processor = lookupProcessorFor(persistenceQuery);
+        return transactionManager.executeWithinTransaction(
+                new TransactionalClosureWithReturn<List<ObjectAdapter>>() {
+                    @Override
+                    public List<ObjectAdapter> execute() {
+                        return processPersistenceQuery(processor, persistenceQuery);
+                    }
+                });
+    }
+
+    /**
+     * The number of instances matching the query (ignoring any range), as counted by the datastore.
+     */
+    public <T> long countQuery(final Query<T> query) {
+        final PersistenceQuery persistenceQuery = createPersistenceQueryFor(query, QueryCardinality.MULTIPLE);
+        final PersistenceQueryProcessor<? extends PersistenceQuery> processor = lookupProcessorFor(persistenceQuery);
+        return transactionManager.executeWithinTransaction(
+                new TransactionalClosureWithReturn<Long>() {
+                    @Override
+                    public Long execute() {
+                        return countPersistenceQuery(processor, persistenceQuery);
+                    }
+                });
+    }
+
+    /**
+     * Streams the instances matching the query to the visitor, reading them from the datastore in chunks of
+     * <tt>fetchSize</tt>, until either there are no more instances or the visitor returns <tt>false</tt>.
+     */
+    public <T> void iterateQuery(
+            final Query<T> query,
+            final int fetchSize,
+            final Predicate<ObjectAdapter> visitor) {
+        final PersistenceQuery persistenceQuery = createPersistenceQueryFor(query, QueryCardinality.MULTIPLE);
+        final PersistenceQueryProcessor<? extends PersistenceQuery> processor = lookupProcessorFor(persistenceQuery);
+        transactionManager.executeWithinTransaction(
+                new TransactionalClosureWithReturn<Void>() {
+                    @Override
+                    public Void execute() {
+                        iteratePersistenceQuery(processor, persistenceQuery, fetchSize, visitor);
+                        return null;
+                    }
+                });
+    }
+
+    /**
+     * Returns a stream over the instances matching the query, read from the datastore in chunks of
+     * <tt>fetchSize</tt> as the stream is consumed; objects loaded by the stream are
+     * {@link #evictIfClean(ObjectAdapter) released} once it has moved past them.
+     *
+     * <p>
+     * Because the stream reads from an open cursor, it must be consumed (and closed) within the current transaction.
+     * </p>
+     */
+    public <T> Stream<ObjectAdapter> streamQuery(final Query<T> query, final int fetchSize) {
+        if(!transactionManager.inTransaction()) {
+            throw new IllegalStateException("Streaming query results requires a transaction to be in progress");
+        }
+        final PersistenceQuery persistenceQuery = createPersistenceQueryFor(query, QueryCardinality.MULTIPLE);
+        final PersistenceQueryProcessor<? extends PersistenceQuery> processor = lookupProcessorFor(persistenceQuery);
+        return streamPersistenceQuery(processor, persistenceQuery, fetchSize);
+    }
+
+    /**
+     * Whether any changes made in the current transaction (or pending persistence commands) could affect the results
+     * of a query for instances of the specified type, in which case the transaction should be flushed before that
+     * query is submitted.
+     *
+     * @see QueryFlushPolicy
+     */
+    public boolean isFlushRequiredFor(final Class<?> type) {
+        final Set<Class<?>> changedTypes = Sets.newLinkedHashSet(changedObjectsServiceInternal.getChangedTypes());
+        final IsisTransaction transaction = transactionManager.getCurrentTransaction();
+        if(transaction != null) {
+            changedTypes.addAll(transaction.getTypesWithPendingCommands());
+        }
+        if(changedTypes.isEmpty()) {
+            return false;
+        }
+        final List<ObjectSpecification> changedSpecs = Lists.newArrayList();
+        for (final Class<?> changedType : changedTypes) {
+            changedSpecs.add(specificationLoader.loadSpecification(changedType));
+        }
+        return QueryFlushPolicy.isFlushRequired(specificationLoader.loadSpecification(type), changedSpecs);
+    }
+
+    private static void ensureOrderable(final ObjectSpecification specification, final String propertyId) {
+        final ObjectAssociation association = specification.getAssociation(propertyId);
+        if(association == null || !association.isOneToOneAssociation() || association.isNotPersisted()) {
+            throw new UnsupportedFindException(MessageFormat.format(
+                    "Cannot order by ''{0}'', not a persisted property of {1}",
+                    propertyId, specification.getFullIdentifier()));
+        }
+    }
+
     /**
      * Finds and returns instances that match the specified query.
      *
@@ -597,6 +755,30 @@ private <Q extends PersistenceQuery> List<ObjectAdapter> processPersistenceQuery
         return persistenceQueryProcessor.process((Q) persistenceQuery);
     }
 
+    @SuppressWarnings("unchecked")
+    private <Q extends PersistenceQuery> void iteratePersistenceQuery(
+            final PersistenceQueryProcessor<Q> persistenceQueryProcessor,
+            final PersistenceQuery persistenceQuery,
+            final int fetchSize,
+            final Predicate<ObjectAdapter> visitor) {
+        persistenceQueryProcessor.iterate((Q) persistenceQuery, fetchSize, visitor);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <Q extends PersistenceQuery> Stream<ObjectAdapter> streamPersistenceQuery(
+            final PersistenceQueryProcessor<Q> persistenceQueryProcessor,
+            final PersistenceQuery persistenceQuery,
+            final int fetchSize) {
+        return persistenceQueryProcessor.stream((Q) persistenceQuery, fetchSize);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <Q extends PersistenceQuery> long countPersistenceQuery(
+            final PersistenceQueryProcessor<Q> persistenceQueryProcessor,
+            final PersistenceQuery persistenceQuery) {
+        return persistenceQueryProcessor.count((Q) persistenceQuery);
+    }
+
     public IsisConfiguration getConfiguration() {
         return configuration;
     }
@@ -921,6 +1103,12 @@ public ObjectAdapter loadObjectInTransaction(final RootOid oid) {
                     public ObjectAdapter execute() {
                         LOG.debug("getObject; oid={}", oid);
 
+                        enqueuedOids.loadIfEnqueued(oid);
+                        final ObjectAdapter enqueuedAdapter = getAdapterFor(oid);
+                        if (enqueuedAdapter != null) {
+                            return enqueuedAdapter;
+                        }
+
                         final Object pojo = loadPersistentPojo(oid);
                         return mapRecreatedPojo(oid, pojo);
                     }
@@ -930,6 +1118,39 @@ public ObjectAdapter execute() {
 
     
 
+    // -- enqueueForLoading
+
+    private final EnqueuedOids enqueuedOids;
+
+    /**
+     * Hints that the objects identified by these oids are about to be resolved (typically one at a time, eg when
+     * rehydrating the mementos of a list).
+     *
+     * <p>
+     * The oids are not loaded immediately.  Instead, the first time that any one of them is resolved (through
+     * {@link #adapterFor(RootOid)}, {@link #adapterForAny(RootOid)} or {@link #loadObjectInTransaction(RootOid)}),
+     * it is loaded together with the other enqueued oids of the same type in a single
+     * {@link PersistenceManager#getObjectsById(Collection, boolean) batch} (of at most
+     * {@link #ENQUEUED_LOADING_BATCH_SIZE_KEY batchSize} oids), and mapped, so that the subsequent lookups for the
+     * others are satisfied from the adapter map.
+     * </p>
+     *
+     * <p>
+     * Transient and view model oids, and those already mapped, are ignored.
+     * </p>
+     */
+    public void enqueueForLoading(final Iterable<RootOid> rootOids) {
+        for (final RootOid rootOid : rootOids) {
+            if (rootOid == null || rootOid.isTransient() || rootOid.isViewModel()) {
+                continue;
+            }
+            if (getAdapterFor(rootOid) != null) {
+                continue;
+            }
+            enqueuedOids.enqueue(rootOid);
+        }
+    }
+
     // -- loadPersistentPojo
 
     private Object loadPersistentPojo(final RootOid rootOid) {
@@ -964,8 +1185,40 @@ private Object loadPersistentPojo(final RootOid rootOid) {
         return result;
     }
 
+    /**
+     * Loads the pojos in batches, one {@link PersistenceManager#getObjectsById(Collection, boolean)} per type.
+     *
+     * @return the pojos, in the same order as the oids; a <tt>null</tt> value indicates that the pojo could not
+     * be loaded.
+     */
     private Map<RootOid,Object> loadPersistentPojos(final List<RootOid> rootOids) {
 
+        final Map<ObjectSpecId, List<RootOid>> rootOidsBySpecId = Maps.newLinkedHashMap();
+        for (final RootOid rootOid : rootOids) {
+            final ObjectSpecId objectSpecId = rootOid.getObjectSpecId();
+            List<RootOid> rootOidsForSpecId = rootOidsBySpecId.get(objectSpecId);
+            if(rootOidsForSpecId == null) {
+                rootOidsForSpecId = Lists.newArrayList();
+                rootOidsBySpecId.put(objectSpecId, rootOidsForSpecId);
+            }
+            rootOidsForSpecId.add(rootOid);
+        }
+        if(rootOidsBySpecId.size() <= 1) {
+            return loadPersistentPojosOfSameType(rootOids);
+        }
+
+        final Map<RootOid, Object> pojoByOid = Maps.newLinkedHashMap();
+        for (final RootOid rootOid : rootOids) {
+            pojoByOid.put(rootOid, null);
+        }
+        for (final List<RootOid> rootOidsForSpecId : rootOidsBySpecId.values()) {
+            pojoByOid.putAll(loadPersistentPojosOfSameType(rootOidsForSpecId));
+        }
+        return pojoByOid;
+    }
+
+    private Map<RootOid,Object> loadPersistentPojosOfSameType(final List<RootOid> rootOids) {
+
         if(rootOids.isEmpty()) {
             return zip(rootOids, Collections.emptyList());
         }
@@ -1385,8 +1638,16 @@ public javax.jdo.Query newJdoQuery (Class<?> cls, String filter) {
 
     // -- AdapterManager implementation
 
-    private final PojoAdapterHashMap pojoAdapterMap = new PojoAdapterHashMap();
-    private final OidAdapterHashMap oidAdapterMap = new OidAdapterHashMap();
+    private final PojoAdapterHashMap pojoAdapterMap;
+    private final OidAdapterHashMap oidAdapterMap;
+
+    /**
+     * Hint that (up to) this many more adapters are about to be mapped, eg for the results of a query.
+     */
+    public void ensureAdapterMapCapacity(final int additional) {
+        pojoAdapterMap.ensureAdditionalCapacity(additional);
+        oidAdapterMap.ensureAdditionalCapacity(additional);
+    }
 
     @Override
     public ObjectAdapter getAdapterFor(final Object pojo) {
@@ -1578,6 +1839,7 @@ public Map<RootOid,ObjectAdapter> adaptersFor(
         }
 
         // recreate, in bulk, all those not yet loaded
+        ensureAdapterMapCapacity(notYetLoadedOids.size());
         final Map<RootOid, Object> pojoByOid = loadPersistentPojos(notYetLoadedOids);
         for (Map.Entry<RootOid, Object> entry : pojoByOid.entrySet()) {
             final RootOid rootOid = entry.getKey();
@@ -1652,13 +1914,17 @@ public ObjectAdapter adapterFor(
         if (adapter == null) {
             // else recreate
             try {
-                final Object pojo;
                 if(rootOid.isTransient() || rootOid.isViewModel()) {
-                    pojo = recreatePojoTransientOrViewModel(rootOid);
+                    final Object pojo = recreatePojoTransientOrViewModel(rootOid);
+                    adapter = mapRecreatedPojo(rootOid, pojo);
                 } else {
-                    pojo = loadPersistentPojo(rootOid);
+                    enqueuedOids.loadIfEnqueued(rootOid);
+                    adapter = getAdapterFor(rootOid);
+                    if(adapter == null) {
+                        final Object pojo = loadPersistentPojo(rootOid);
+                        adapter = mapRecreatedPojo(rootOid, pojo);
+                    }
                 }
-                adapter = mapRecreatedPojo(rootOid, pojo);
             } catch(ObjectNotFoundException ex) {
                 throw ex; // just rethrow
             } catch(RuntimeException ex) {
@@ -1984,6 +2250,29 @@ public void removeAdapter(final ObjectAdapter adapter) {
         unmap(adapter);
     }
 
+    /**
+     * Releases a persistent object that is no longer needed, eg once iterated over by a
+     * {@link #streamQuery(Query, int) streamed query}: its adapter is {@link #removeAdapter(ObjectAdapter) removed}
+     * and the pojo is evicted from the persistence manager's cache.
+     *
+     * <p>
+     * Objects that are new, deleted or have been modified in the current transaction are left alone, so that their
+     * changes are still flushed (and audited/published) as normal.
+     */
+    public void evictIfClean(final ObjectAdapter adapter) {
+        final Object pojo = adapter.getObject();
+        if(!(pojo instanceof Persistable)) {
+            return;
+        }
+        if(JDOHelper.isDirty(pojo) || JDOHelper.isNew(pojo) || JDOHelper.isDeleted(pojo)) {
+            return;
+        }
+        if(getAdapterFor(pojo) == adapter) {
+            removeAdapter(adapter);
+        }
+        persistenceManager.evict(pojo);
+    }
+
     private void unmap(final ObjectAdapter adapter) {
         ensureMapsConsistent(adapter);
 
@@ -2184,12 +2473,31 @@ public void initializeMapAndCheckConcurrency(final Persistable pojo) {
 
                 CallbackFacet.Util.callCallback(adapter, LoadedCallbackFacet.class);
                 postLifecycleEventIfRequired(adapter, LoadedLifecycleEventFacet.class);
+
+                for (final Consumer<ObjectAdapter> observer : Lists.newArrayList(loadedAdapterObservers)) {
+                    observer.accept(adapter);
+                }
             }
         }
 
         adapter.setVersion(datastoreVersion);
     }
 
+    private final List<Consumer<ObjectAdapter>> loadedAdapterObservers = Lists.newArrayList();
+
+    /**
+     * Registers an observer of each adapter newly mapped for a pojo as it is
+     * {@link #initializeMapAndCheckConcurrency(Persistable) loaded} from the datastore; pojos that were already mapped
+     * are not reported.  Used to release the objects loaded by a {@link #streamQuery(Query, int) streamed query}.
+     */
+    public void addLoadedAdapterObserver(final Consumer<ObjectAdapter> observer) {
+        loadedAdapterObservers.add(observer);
+    }
+
+    public void removeLoadedAdapterObserver(final Consumer<ObjectAdapter> observer) {
+        loadedAdapterObservers.remove(observer);
+    }
+
     // -- create...Oid (main API)
     /**
      * Create a new {@link Oid#isTransient() transient} {@link Oid} for the
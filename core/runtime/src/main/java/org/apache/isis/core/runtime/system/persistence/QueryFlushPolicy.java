@@ -0,0 +1,85 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtime.system.persistence;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import org.apache.isis.core.metamodel.spec.Hierarchical;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.feature.Contributed;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
+
+/**
+ * Decides whether changes not yet flushed to the datastore could affect the results of a query, and therefore
+ * whether the transaction needs to be flushed before the query is submitted.
+ *
+ * <p>
+ * A changed type is considered to affect a query if:
+ * <ul>
+ *     <li>it is the query's candidate type or one of its subclasses;</li>
+ *     <li>it is (a subtype of) the type of a property or collection of the candidate type (or one of its
+ *     subclasses), since a JDOQL filter may navigate to it; or</li>
+ *     <li>it has a property or collection whose type is in the candidate type's hierarchy, since instances of the
+ *     candidate type may be pending persistence by reachability.</li>
+ * </ul>
+ * Changes to types more than one association away from the candidate type are not detected, so this policy is only
+ * applied to queries for all instances of a type (optionally filtered by its own properties).
+ * </p>
+ */
+final class QueryFlushPolicy {
+
+    private QueryFlushPolicy() {
+    }
+
+    static boolean isFlushRequired(
+            final ObjectSpecification querySpec,
+            final Collection<ObjectSpecification> changedSpecs) {
+
+        if(changedSpecs.isEmpty()) {
+            return false;
+        }
+
+        final List<ObjectSpecification> candidateSpecs = Lists.newArrayList(querySpec);
+        candidateSpecs.addAll(querySpec.subclasses(Hierarchical.Depth.TRANSITIVE));
+
+        for (final ObjectSpecification changedSpec : changedSpecs) {
+            if(candidateSpecs.contains(changedSpec)) {
+                return true;
+            }
+            for (final ObjectSpecification candidateSpec : candidateSpecs) {
+                for (final ObjectAssociation association : candidateSpec.getAssociations(Contributed.EXCLUDED)) {
+                    if(changedSpec.isOfType(association.getSpecification())) {
+                        return true;
+                    }
+                }
+            }
+            for (final ObjectAssociation association : changedSpec.getAssociations(Contributed.EXCLUDED)) {
+                final ObjectSpecification associatedSpec = association.getSpecification();
+                if(querySpec.isOfType(associatedSpec) || associatedSpec.isOfType(querySpec)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+}
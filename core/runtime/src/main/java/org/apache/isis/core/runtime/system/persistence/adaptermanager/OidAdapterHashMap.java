@@ -22,6 +22,7 @@
 import java.util.Iterator;
 import java.util.Map;
 
+import com.google.common.collect.MapMaker;
 import com.google.common.collect.Maps;
 
 import org.slf4j.Logger;
@@ -33,13 +34,42 @@
 
 /**
  * A map of the objects' identities and the adapters' of the objects.
+ *
+ * <p>
+ * Oids cache their hash codes, so lookups are cheap; what matters for large sessions is avoiding repeated
+ * rehashing as the map grows, hence {@link #ensureAdditionalCapacity(int)}.  If created as
+ * {@link #OidAdapterHashMap(int, boolean) weak}, then the adapters are only weakly referenced, so that those no
+ * longer referenced elsewhere (eg during a read-only bulk iteration) can be garbage collected.
+ * </p>
  */
 public class OidAdapterHashMap implements Iterable<Oid>, SessionScopedComponent {
 
     private static final Logger LOG = LoggerFactory.getLogger(OidAdapterHashMap.class);
     public static final int DEFAULT_OID_ADAPTER_MAP_SIZE = 100;
 
-    private final Map<Oid, ObjectAdapter> adapterByOidMap = Maps.newHashMapWithExpectedSize(DEFAULT_OID_ADAPTER_MAP_SIZE);
+    private final boolean weak;
+    private int capacity;
+    private Map<Oid, ObjectAdapter> adapterByOidMap;
+
+    public OidAdapterHashMap() {
+        this(DEFAULT_OID_ADAPTER_MAP_SIZE);
+    }
+
+    public OidAdapterHashMap(final int capacity) {
+        this(capacity, false);
+    }
+
+    public OidAdapterHashMap(final int capacity, final boolean weak) {
+        this.weak = weak;
+        this.capacity = capacity;
+        this.adapterByOidMap = newMap(capacity, weak);
+    }
+
+    private static Map<Oid, ObjectAdapter> newMap(final int capacity, final boolean weak) {
+        return weak
+                ? new MapMaker().initialCapacity(capacity).weakValues().<Oid, ObjectAdapter>makeMap()
+                : Maps.<Oid, ObjectAdapter>newHashMapWithExpectedSize(capacity);
+    }
 
     // -- open, close
 
@@ -56,6 +86,34 @@ public void close() {
 
     
 
+    // -- ensureCapacity
+
+    /**
+     * Hint that this many more adapters are about to be added (eg the size of a query's results), so that the
+     * map is resized at most once rather than repeatedly as it grows.
+     */
+    public void ensureAdditionalCapacity(final int additional) {
+        final int required = adapterByOidMap.size() + additional;
+        if(required <= capacity) {
+            return;
+        }
+        final int grown = grownCapacity(required);
+        final Map<Oid, ObjectAdapter> resized = newMap(grown, weak);
+        resized.putAll(adapterByOidMap);
+        adapterByOidMap = resized;
+        capacity = grown;
+    }
+
+    /**
+     * Grows geometrically (as does the underlying map itself), so that the cost of copying is amortized over the
+     * session rather than paid on every query.
+     */
+    private int grownCapacity(final int required) {
+        return Math.max(required, capacity * 2);
+    }
+
+    
+
     // -- add, remove
     /**
      * Add an adapter for a given oid
@@ -63,6 +121,10 @@ public void close() {
     public void add(final Oid oid, final ObjectAdapter adapter) {
 
         adapterByOidMap.put(oid, adapter);
+        if(adapterByOidMap.size() > capacity) {
+            // the map will have resized itself
+            capacity = grownCapacity(adapterByOidMap.size());
+        }
         // log at end so that if toString needs adapters they're in maps.
         if (LOG.isDebugEnabled()) {
             // do not call toString() on adapter because would call hashCode on
@@ -90,7 +152,7 @@ public boolean remove(final Oid oid) {
      * Get the adapter identified by the specified OID.
      */
     public ObjectAdapter getAdapter(final Oid oid) {
-        return adapterByOidMap.get(oid);
+        return oid != null ? adapterByOidMap.get(oid) : null;
     }
 
     @Override
@@ -19,10 +19,11 @@
 
 package org.apache.isis.core.runtime.system.persistence.adaptermanager;
 
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.Map;
 
-import com.google.common.collect.Maps;
+import com.google.common.collect.MapMaker;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,30 +31,23 @@
 import org.apache.isis.core.commons.components.SessionScopedComponent;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
 
+/**
+ * A map of the pojos and their adapters, keyed on the identity of the pojo.
+ *
+ * <p>
+ * Uses an {@link IdentityHashMap} so that no key wrapper is allocated per lookup, or (if created as
+ * {@link #PojoAdapterHashMap(int, boolean) weak}) a map with weak keys and values (also compared by identity),
+ * so that adapters no longer referenced elsewhere can be garbage collected.
+ * </p>
+ */
 public class PojoAdapterHashMap implements Iterable<ObjectAdapter>, SessionScopedComponent {
 
-    private static class IdentityHashKey {
-        private final Object pojo;
-
-        public IdentityHashKey(final Object pojo) {
-            this.pojo = pojo;
-        }
-
-        @Override
-        public int hashCode() {
-            return System.identityHashCode(pojo);
-        }
-
-        @Override
-        public boolean equals(final Object obj) {
-            return obj == this || (obj instanceof IdentityHashKey && ((IdentityHashKey) obj).pojo == pojo);
-        }
-    }
-
     private static final Logger LOG = LoggerFactory.getLogger(PojoAdapterHashMap.class);
     public static final int DEFAULT_POJO_ADAPTER_MAP_SIZE = OidAdapterHashMap.DEFAULT_OID_ADAPTER_MAP_SIZE;
 
-    protected final Map<Object, ObjectAdapter> adapterByPojoMap;
+    private final boolean weak;
+    private int capacity;
+    protected Map<Object, ObjectAdapter> adapterByPojoMap;
 
     // -- Constructors, finalize
     public PojoAdapterHashMap() {
@@ -61,7 +55,19 @@ public PojoAdapterHashMap() {
     }
 
     public PojoAdapterHashMap(final int capacity) {
-        adapterByPojoMap = Maps.newHashMapWithExpectedSize(capacity);
+        this(capacity, false);
+    }
+
+    public PojoAdapterHashMap(final int capacity, final boolean weak) {
+        this.weak = weak;
+        this.capacity = capacity;
+        this.adapterByPojoMap = newMap(capacity, weak);
+    }
+
+    private static Map<Object, ObjectAdapter> newMap(final int capacity, final boolean weak) {
+        return weak
+                ? new MapMaker().initialCapacity(capacity).weakKeys().weakValues().<Object, ObjectAdapter>makeMap()
+                : new IdentityHashMap<Object, ObjectAdapter>(capacity);
     }
 
     @Override
@@ -88,20 +94,59 @@ public void close() {
 
     
 
+    // -- ensureCapacity
+
+    /**
+     * Hint that this many more adapters are about to be added (eg the size of a query's results), so that the
+     * map is resized at most once rather than repeatedly as it grows.
+     */
+    public void ensureAdditionalCapacity(final int additional) {
+        final int required = adapterByPojoMap.size() + additional;
+        if(required <= capacity) {
+            return;
+        }
+        final int grown = grownCapacity(required);
+        final Map<Object, ObjectAdapter> resized = newMap(grown, weak);
+        resized.putAll(adapterByPojoMap);
+        adapterByPojoMap = resized;
+        capacity = grown;
+    }
+
+    /**
+     * Grows geometrically (as does the underlying map itself), so that the cost of copying is amortized over the
+     * session rather than paid on every query.
+     */
+    private int grownCapacity(final int required) {
+        return Math.max(required, capacity * 2);
+    }
+
+    /**
+     * For testing.
+     */
+    int getCapacity() {
+        return capacity;
+    }
+
+    
+
     // -- add, remove
 
     public void add(final Object pojo, final ObjectAdapter adapter) {
-        adapterByPojoMap.put(key(pojo), adapter);
+        adapterByPojoMap.put(pojo, adapter);
+        if(adapterByPojoMap.size() > capacity) {
+            // the map will have resized itself
+            capacity = grownCapacity(adapterByPojoMap.size());
+        }
 
         if(LOG.isDebugEnabled()) {
-            LOG.debug("add adapter: #{} -> #{}", key(pojo), Long.toHexString(adapter.hashCode()));
+            LOG.debug("add adapter: #{} -> #{}", Long.toHexString(System.identityHashCode(pojo)), Long.toHexString(adapter.hashCode()));
 
         }
     }
 
     public void remove(final ObjectAdapter object) {
         LOG.debug("remove adapter: {}", object);
-        adapterByPojoMap.remove(key(object.getObject()));
+        adapterByPojoMap.remove(object.getObject());
     }
 
     
@@ -109,25 +154,21 @@ public void remove(final ObjectAdapter object) {
     // -- getAdapter, containsPojo
 
     public boolean containsPojo(final Object pojo) {
-        return adapterByPojoMap.containsKey(key(pojo));
+        return pojo != null && adapterByPojoMap.containsKey(pojo);
     }
 
     public ObjectAdapter getAdapter(final Object pojo) {
-        return adapterByPojoMap.get(key(pojo));
+        return pojo != null ? adapterByPojoMap.get(pojo) : null;
     }
 
     
 
-    // -- iterator, key
+    // -- iterator
     @Override
     public Iterator<ObjectAdapter> iterator() {
         return adapterByPojoMap.values().iterator();
     }
 
-    private Object key(final Object pojo) {
-        return new IdentityHashKey(pojo);
-    }
-
     
 
 
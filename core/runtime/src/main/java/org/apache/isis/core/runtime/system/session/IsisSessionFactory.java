@@ -53,6 +53,7 @@
 import org.apache.isis.core.runtime.system.persistence.PersistenceSessionFactory;
 import org.apache.isis.core.runtime.system.transaction.IsisTransactionManager;
 import org.apache.isis.core.runtime.system.transaction.IsisTransactionManagerException;
+import org.apache.isis.core.runtime.threadpool.ThreadPoolSupport;
 
 /**
  * Is the factory of {@link IsisSession}s, also holding a reference to the current session using
@@ -228,6 +229,7 @@ private void shutdown() {
         persistenceSessionFactory.shutdown();
         authenticationManager.shutdown();
         specificationLoader.shutdown();
+        ThreadPoolSupport.shutdownInstance();
     }
 
     
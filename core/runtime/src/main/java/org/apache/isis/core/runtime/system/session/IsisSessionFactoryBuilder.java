@@ -52,6 +52,7 @@
 import org.apache.isis.core.runtime.system.persistence.PersistenceSessionFactoryMetamodelRefiner;
 import org.apache.isis.core.runtime.systemusinginstallers.IsisComponentProvider;
 import org.apache.isis.core.runtime.systemusinginstallers.IsisComponentProviderDefault2;
+import org.apache.isis.core.runtime.threadpool.ThreadPoolSupport;
 
 public class IsisSessionFactoryBuilder {
 
@@ -147,6 +148,10 @@ public IsisSessionFactory buildSessionFactory() {
             final AuthorizationManager authorizationManager = componentProvider.provideAuthorizationManager();
             servicesInjector.addFallbackIfRequired(AuthorizationManager.class, authorizationManager);
 
+            // threadPoolSupport
+            final ThreadPoolSupport threadPoolSupport = ThreadPoolSupport.init(configuration);
+            servicesInjector.addFallbackIfRequired(ThreadPoolSupport.class, threadPoolSupport);
+
             // specificationLoader
             final Collection<MetaModelRefiner> metaModelRefiners = refiners(
                     authenticationManager, authorizationManager, new PersistenceSessionFactoryMetamodelRefiner());
@@ -169,6 +174,9 @@ public IsisSessionFactory buildSessionFactory() {
             // into any internal domain services
             servicesInjector.addFallbackIfRequired(IsisSessionFactory.class, isisSessionFactory);
 
+            // threadPoolSupport, propagating the session (if any) of the submitting thread to the worker threads
+            threadPoolSupport.setTaskDecorator(new IsisSessionPropagatingTaskDecorator(isisSessionFactory));
+
 
 
             // finally, wire up components and components into services...
@@ -0,0 +1,88 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtime.system.session;
+
+import java.util.concurrent.Callable;
+
+import org.apache.isis.core.commons.authentication.AuthenticationSession;
+import org.apache.isis.core.runtime.system.transaction.IsisTransactionManager;
+import org.apache.isis.core.runtime.system.transaction.TransactionalClosureWithReturn;
+import org.apache.isis.core.runtime.threadpool.ThreadPoolSupport;
+
+/**
+ * Propagates the submitting thread's Isis context onto the {@link ThreadPoolSupport} worker threads.
+ *
+ * <p>
+ * If the task is submitted from within an {@link IsisSession}, then the worker opens its own session for the same
+ * {@link AuthenticationSession}; and if the submitter was also within a transaction, then the task is run within
+ * a transaction of its own (a JDO transaction cannot be shared across threads).  Tasks submitted outside of a
+ * session, or that end up running on the submitting thread itself, are run as is.
+ * </p>
+ */
+class IsisSessionPropagatingTaskDecorator implements ThreadPoolSupport.TaskDecorator {
+
+    private final IsisSessionFactory isisSessionFactory;
+
+    IsisSessionPropagatingTaskDecorator(final IsisSessionFactory isisSessionFactory) {
+        this.isisSessionFactory = isisSessionFactory;
+    }
+
+    @Override
+    public <T> Callable<T> decorate(final Callable<T> task) {
+        if(!isisSessionFactory.inSession()) {
+            return task;
+        }
+        final AuthenticationSession authenticationSession =
+                isisSessionFactory.getCurrentSession().getAuthenticationSession();
+        final boolean inTransaction = isisSessionFactory.inTransaction();
+
+        return new Callable<T>() {
+            @Override
+            public T call() throws Exception {
+                if(isisSessionFactory.inSession()) {
+                    // eg the 'callerRuns' rejection policy
+                    return task.call();
+                }
+                return isisSessionFactory.doInSession(new Callable<T>() {
+                    @Override
+                    public T call() throws Exception {
+                        return inTransaction ? callWithinTransaction(task) : task.call();
+                    }
+                }, authenticationSession);
+            }
+        };
+    }
+
+    private <T> T callWithinTransaction(final Callable<T> task) {
+        final IsisTransactionManager transactionManager =
+                isisSessionFactory.getCurrentSession().getPersistenceSession().getTransactionManager();
+        return transactionManager.executeWithinTransaction(new TransactionalClosureWithReturn<T>() {
+            @Override
+            public T execute() {
+                try {
+                    return task.call();
+                } catch (final RuntimeException ex) {
+                    throw ex;
+                } catch (final Exception ex) {
+                    throw new RuntimeException(ex);
+                }
+            }
+        });
+    }
+}
@@ -20,9 +20,11 @@
 package org.apache.isis.core.runtime.system.transaction;
 
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -288,6 +290,17 @@ public void addCommand(final PersistenceCommand command) {
         persistenceCommands.add(command);
     }
 
+    /**
+     * The types of the objects to be created or destroyed by the commands not yet executed (flushed).
+     */
+    public Set<Class<?>> getTypesWithPendingCommands() {
+        final Set<Class<?>> types = Sets.newLinkedHashSet();
+        for (final PersistenceCommand command : persistenceCommands) {
+            types.add(command.onAdapter().getSpecification().getCorrespondingClass());
+        }
+        return types;
+    }
+
     private boolean alreadyHasCommand(final Class<?> commandClass, final ObjectAdapter onObject) {
         return getCommand(commandClass, onObject) != null;
     }
@@ -444,6 +457,8 @@ void commit() {
         }
 
         setState(State.COMMITTED);
+
+        publishingServiceInternal.transactionCommitted();
     }
 
 
@@ -459,6 +474,8 @@ final void markAsAborted() {
 
         LOG.info("abort transaction {}", this);
         setState(State.ABORTED);
+
+        publishingServiceInternal.transactionAborted();
     }
 
 
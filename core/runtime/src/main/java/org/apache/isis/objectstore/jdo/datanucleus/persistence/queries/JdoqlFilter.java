@@ -0,0 +1,154 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.objectstore.jdo.datanucleus.persistence.queries;
+
+import java.text.MessageFormat;
+import java.util.Collections;
+import java.util.Map;
+
+import com.google.common.collect.Maps;
+
+import org.apache.isis.applib.query.QueryPredicate;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
+import org.apache.isis.core.runtime.persistence.UnsupportedFindException;
+
+/**
+ * A JDOQL filter, translated from a {@link QueryPredicate}, with its values held as (implicit) parameters.
+ */
+final class JdoqlFilter {
+
+    private final String filter;
+    private final Map<String, Object> argumentsByParameterName;
+
+    private JdoqlFilter(final String filter, final Map<String, Object> argumentsByParameterName) {
+        this.filter = filter;
+        this.argumentsByParameterName = Collections.unmodifiableMap(argumentsByParameterName);
+    }
+
+    /**
+     * @throws UnsupportedFindException - if the predicate refers to anything other than a persisted property of the
+     * specification.
+     */
+    static JdoqlFilter of(final QueryPredicate<?> predicate, final ObjectSpecification specification) {
+        final StringBuilder buf = new StringBuilder();
+        final Map<String, Object> argumentsByParameterName = Maps.newLinkedHashMap();
+        append(buf, argumentsByParameterName, predicate, specification);
+        return new JdoqlFilter(buf.toString(), argumentsByParameterName);
+    }
+
+    String getFilter() {
+        return filter;
+    }
+
+    Map<String, Object> getArgumentsByParameterName() {
+        return argumentsByParameterName;
+    }
+
+    private static void append(
+            final StringBuilder buf,
+            final Map<String, Object> argumentsByParameterName,
+            final QueryPredicate<?> predicate,
+            final ObjectSpecification specification) {
+
+        if(predicate instanceof QueryPredicate.Comparison) {
+            final QueryPredicate.Comparison<?> comparison = (QueryPredicate.Comparison<?>) predicate;
+            final String property = ensureFilterable(specification, comparison.getProperty());
+            final Object value = comparison.getValue();
+            if(value == null) {
+                buf.append(property).append(comparison.getOperator() == QueryPredicate.Operator.EQ ? " == null" : " != null");
+                return;
+            }
+            final String parameterName = "p" + argumentsByParameterName.size();
+            argumentsByParameterName.put(parameterName, value);
+            final String parameter = ":" + parameterName;
+            switch (comparison.getOperator()) {
+            case STARTS_WITH:
+                buf.append(property).append(".startsWith(").append(parameter).append(")");
+                return;
+            default:
+                buf.append(property).append(' ').append(operatorFor(comparison.getOperator())).append(' ').append(parameter);
+                return;
+            }
+        }
+
+        if(predicate instanceof QueryPredicate.Junction) {
+            final QueryPredicate.Junction<?> junction = (QueryPredicate.Junction<?>) predicate;
+            if(junction.getPredicates().isEmpty()) {
+                buf.append(junction.getKind() == QueryPredicate.Junction.Kind.AND ? "true" : "false");
+                return;
+            }
+            final String separator = junction.getKind() == QueryPredicate.Junction.Kind.AND ? " && " : " || ";
+            buf.append('(');
+            boolean first = true;
+            for (final QueryPredicate<?> each : junction.getPredicates()) {
+                if(!first) {
+                    buf.append(separator);
+                }
+                append(buf, argumentsByParameterName, each, specification);
+                first = false;
+            }
+            buf.append(')');
+            return;
+        }
+
+        if(predicate instanceof QueryPredicate.Negation) {
+            buf.append("!(");
+            append(buf, argumentsByParameterName, ((QueryPredicate.Negation<?>) predicate).getPredicate(), specification);
+            buf.append(')');
+            return;
+        }
+
+        throw new UnsupportedFindException("Unsupported predicate: " + predicate);
+    }
+
+    private static String operatorFor(final QueryPredicate.Operator operator) {
+        switch (operator) {
+        case EQ:
+            return "==";
+        case NE:
+            return "!=";
+        case LT:
+            return "<";
+        case LE:
+            return "<=";
+        case GT:
+            return ">";
+        case GE:
+            return ">=";
+        default:
+            throw new IllegalArgumentException("No JDOQL operator for " + operator);
+        }
+    }
+
+    private static String ensureFilterable(final ObjectSpecification specification, final String propertyId) {
+        final ObjectAssociation association = specification.getAssociation(propertyId);
+        if(association == null || !association.isOneToOneAssociation() || association.isNotPersisted()) {
+            throw new UnsupportedFindException(MessageFormat.format(
+                    "Cannot filter by ''{0}'', not a persisted property of {1}",
+                    propertyId, specification.getFullIdentifier()));
+        }
+        return propertyId;
+    }
+
+    @Override
+    public String toString() {
+        return filter + " " + argumentsByParameterName;
+    }
+}
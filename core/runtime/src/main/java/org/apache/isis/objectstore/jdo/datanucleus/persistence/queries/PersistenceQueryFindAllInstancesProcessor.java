@@ -18,13 +18,18 @@
  */
 package org.apache.isis.objectstore.jdo.datanucleus.persistence.queries;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 import javax.jdo.Query;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.apache.isis.applib.query.QueryPredicate;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
 import org.apache.isis.core.metamodel.spec.ObjectSpecification;
 import org.apache.isis.core.runtime.persistence.query.PersistenceQueryFindAllInstances;
@@ -41,22 +46,104 @@ public PersistenceQueryFindAllInstancesProcessor(final PersistenceSession persis
     public List<ObjectAdapter> process(final PersistenceQueryFindAllInstances persistenceQuery) {
 
         final ObjectSpecification specification = persistenceQuery.getSpecification();
-        
-        Class<?> cls = specification.getCorrespondingClass();
-        final Query jdoQuery = persistenceSession.newJdoQuery(cls);
-        
-        // http://www.datanucleus.org/servlet/jira/browse/NUCCORE-1103
-        jdoQuery.addExtension("datanucleus.multivaluedFetch", "none");
+        final JdoqlFilter filter = filterFor(persistenceQuery);
+        final Query jdoQuery = newJdoQuery(persistenceQuery, filter);
+
+        if(persistenceQuery.getCount() > 0) {
+            final long start = persistenceQuery.getStart();
+            jdoQuery.setRange(start, start + persistenceQuery.getCount());
+        }
+        applyOrderingAndRange(jdoQuery, persistenceQuery);
         
         if (LOG.isDebugEnabled()) {
-            LOG.debug("allInstances(): class={}", specification.getFullIdentifier());
+            LOG.debug("allInstances(): class={}, filter={}", specification.getFullIdentifier(), filter);
         }
 
         try {
-            final List<?> pojos = (List<?>) jdoQuery.execute();
+            final List<?> pojos = (List<?>) jdoQuery.executeWithMap(argumentsFor(filter));
             return loadAdapters(pojos);
         } finally {
             jdoQuery.closeAll();
         }
     }
+
+    public long count(final PersistenceQueryFindAllInstances persistenceQuery) {
+
+        final ObjectSpecification specification = persistenceQuery.getSpecification();
+        final JdoqlFilter filter = filterFor(persistenceQuery);
+        final Query jdoQuery = newJdoQuery(persistenceQuery, filter);
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("count(): class={}, filter={}", specification.getFullIdentifier(), filter);
+        }
+
+        return executeCount(jdoQuery, argumentsFor(filter));
+    }
+
+    public void iterate(
+            final PersistenceQueryFindAllInstances persistenceQuery,
+            final int fetchSize,
+            final Predicate<ObjectAdapter> visitor) {
+
+        final ObjectSpecification specification = persistenceQuery.getSpecification();
+        final JdoqlFilter filter = filterFor(persistenceQuery);
+        final Query jdoQuery = newJdoQuery(persistenceQuery, filter);
+
+        if(persistenceQuery.getCount() > 0) {
+            final long start = persistenceQuery.getStart();
+            jdoQuery.setRange(start, start + persistenceQuery.getCount());
+        }
+        applyOrderingAndRange(jdoQuery, persistenceQuery);
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("iterate(): class={}, filter={}, fetchSize={}", specification.getFullIdentifier(), filter, fetchSize);
+        }
+
+        iterateAdapters(jdoQuery, argumentsFor(filter), fetchSize, visitor);
+    }
+
+    public Stream<ObjectAdapter> stream(
+            final PersistenceQueryFindAllInstances persistenceQuery,
+            final int fetchSize) {
+
+        final ObjectSpecification specification = persistenceQuery.getSpecification();
+        final JdoqlFilter filter = filterFor(persistenceQuery);
+        final Query jdoQuery = newJdoQuery(persistenceQuery, filter);
+
+        if(persistenceQuery.getCount() > 0) {
+            final long start = persistenceQuery.getStart();
+            jdoQuery.setRange(start, start + persistenceQuery.getCount());
+        }
+        applyOrderingAndRange(jdoQuery, persistenceQuery);
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("stream(): class={}, filter={}, fetchSize={}", specification.getFullIdentifier(), filter, fetchSize);
+        }
+
+        return streamAdapters(jdoQuery, argumentsFor(filter), fetchSize);
+    }
+
+    private Query newJdoQuery(final PersistenceQueryFindAllInstances persistenceQuery, final JdoqlFilter filter) {
+        final Class<?> cls = persistenceQuery.getSpecification().getCorrespondingClass();
+        final Query jdoQuery = filter != null
+                ? persistenceSession.newJdoQuery(cls, filter.getFilter())
+                : persistenceSession.newJdoQuery(cls);
+
+        // http://www.datanucleus.org/servlet/jira/browse/NUCCORE-1103
+        jdoQuery.addExtension("datanucleus.multivaluedFetch", "none");
+        return jdoQuery;
+    }
+
+    private static JdoqlFilter filterFor(final PersistenceQueryFindAllInstances persistenceQuery) {
+        final QueryPredicate<?> predicate = persistenceQuery.getPredicate();
+        return predicate != null
+                ? JdoqlFilter.of(predicate, persistenceQuery.getSpecification())
+                : null;
+    }
+
+    private static Map<String, Object> argumentsFor(final JdoqlFilter filter) {
+        return filter != null
+                ? filter.getArgumentsByParameterName()
+                : Collections.<String, Object>emptyMap();
+    }
 }
@@ -21,6 +21,8 @@
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 import javax.jdo.Query;
 
@@ -60,6 +62,26 @@ public List<ObjectAdapter> process(final PersistenceQueryFindUsingApplibQueryDef
         return loadAdapters(results);
     }
 
+    public long count(final PersistenceQueryFindUsingApplibQueryDefault persistenceQuery) {
+        final String queryName = persistenceQuery.getQueryName();
+        final ObjectSpecification objectSpec = persistenceQuery.getSpecification();
+
+        if((objectSpec.getFullIdentifier() + "#pk").equals(queryName)) {
+            return getResultsPk(persistenceQuery).size();
+        }
+
+        final Map<String, Object> argumentsByParameterName = unwrap(
+                persistenceQuery.getArgumentsAdaptersByParameterName());
+        final Class<?> cls = objectSpec.getCorrespondingClass();
+        final Query jdoQuery = persistenceSession.newJdoNamedQuery(cls, queryName);
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("count {} # {} ( {} )", cls.getName(), queryName, argumentsByParameterName);
+        }
+
+        return executeCount(jdoQuery, argumentsByParameterName);
+    }
+
     // special case handling
     private List<?> getResultsPk(final PersistenceQueryFindUsingApplibQueryDefault persistenceQuery) {
 
@@ -91,27 +113,58 @@ private List<?> getResultsPk(final PersistenceQueryFindUsingApplibQueryDefault p
         }
     }
 
-    private List<?> getResults(final PersistenceQueryFindUsingApplibQueryDefault persistenceQuery) {
-        
+    public void iterate(
+            final PersistenceQueryFindUsingApplibQueryDefault persistenceQuery,
+            final int fetchSize,
+            final Predicate<ObjectAdapter> visitor) {
         final String queryName = persistenceQuery.getQueryName();
+        final ObjectSpecification objectSpec = persistenceQuery.getSpecification();
+
+        if((objectSpec.getFullIdentifier() + "#pk").equals(queryName)) {
+            // at most one instance
+            for (final ObjectAdapter adapter : loadAdapters(getResultsPk(persistenceQuery))) {
+                if(!visitor.test(adapter)) {
+                    return;
+                }
+            }
+            return;
+        }
+
         final Map<String, Object> argumentsByParameterName = unwrap(
                 persistenceQuery.getArgumentsAdaptersByParameterName());
-        final QueryCardinality cardinality = persistenceQuery.getCardinality();
+        final Query jdoQuery = newJdoQuery(persistenceQuery, argumentsByParameterName);
+        if(persistenceQuery.getCardinality() != QueryCardinality.MULTIPLE) {
+            jdoQuery.setRange(0, 1);
+        }
+        iterateAdapters(jdoQuery, argumentsByParameterName, fetchSize, visitor);
+    }
+
+    public Stream<ObjectAdapter> stream(
+            final PersistenceQueryFindUsingApplibQueryDefault persistenceQuery,
+            final int fetchSize) {
+        final String queryName = persistenceQuery.getQueryName();
         final ObjectSpecification objectSpec = persistenceQuery.getSpecification();
 
-        final Class<?> cls = objectSpec.getCorrespondingClass();
-        final Query jdoQuery = persistenceSession.newJdoNamedQuery(cls, queryName);
-        
-        // http://www.datanucleus.org/servlet/jira/browse/NUCCORE-1103
-        jdoQuery.addExtension("datanucleus.multivaluedFetch", "none");
-        
-        if(persistenceQuery.hasRange()) {
-            jdoQuery.setRange(persistenceQuery.getStart(), persistenceQuery.getEnd());
+        if((objectSpec.getFullIdentifier() + "#pk").equals(queryName)) {
+            // at most one instance
+            return loadAdapters(getResultsPk(persistenceQuery)).stream();
         }
-        
-        if (LOG.isDebugEnabled()) {
-            LOG.debug("{} # {} ( {} )", cls.getName(), queryName, argumentsByParameterName);
+
+        final Map<String, Object> argumentsByParameterName = unwrap(
+                persistenceQuery.getArgumentsAdaptersByParameterName());
+        final Query jdoQuery = newJdoQuery(persistenceQuery, argumentsByParameterName);
+        if(persistenceQuery.getCardinality() != QueryCardinality.MULTIPLE) {
+            jdoQuery.setRange(0, 1);
         }
+        return streamAdapters(jdoQuery, argumentsByParameterName, fetchSize);
+    }
+
+    private List<?> getResults(final PersistenceQueryFindUsingApplibQueryDefault persistenceQuery) {
+        
+        final Map<String, Object> argumentsByParameterName = unwrap(
+                persistenceQuery.getArgumentsAdaptersByParameterName());
+        final QueryCardinality cardinality = persistenceQuery.getCardinality();
+        final Query jdoQuery = newJdoQuery(persistenceQuery, argumentsByParameterName);
         
         try {
             final List<?> results = (List<?>) jdoQuery.executeWithMap(argumentsByParameterName);
@@ -128,6 +181,30 @@ private List<?> getResults(final PersistenceQueryFindUsingApplibQueryDefault per
         }
     }
 
+    private Query newJdoQuery(
+            final PersistenceQueryFindUsingApplibQueryDefault persistenceQuery,
+            final Map<String, Object> argumentsByParameterName) {
+
+        final String queryName = persistenceQuery.getQueryName();
+        final ObjectSpecification objectSpec = persistenceQuery.getSpecification();
+
+        final Class<?> cls = objectSpec.getCorrespondingClass();
+        final Query jdoQuery = persistenceSession.newJdoNamedQuery(cls, queryName);
+
+        // http://www.datanucleus.org/servlet/jira/browse/NUCCORE-1103
+        jdoQuery.addExtension("datanucleus.multivaluedFetch", "none");
+
+        if(persistenceQuery.hasRange()) {
+            jdoQuery.setRange(persistenceQuery.getStart(), persistenceQuery.getEnd());
+        }
+        applyOrderingAndRange(jdoQuery, persistenceQuery);
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("{} # {} ( {} )", cls.getName(), queryName, argumentsByParameterName);
+        }
+        return jdoQuery;
+    }
+
     private List<?> firstIfAnyOf(final List<?> results) {
         return results.isEmpty()
                 ? Collections.emptyList()
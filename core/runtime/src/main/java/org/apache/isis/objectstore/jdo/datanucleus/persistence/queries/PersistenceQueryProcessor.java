@@ -19,12 +19,32 @@
 package org.apache.isis.objectstore.jdo.datanucleus.persistence.queries;
 
 import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
 import org.apache.isis.core.runtime.system.persistence.PersistenceQuery;
 
 public interface PersistenceQueryProcessor<T extends PersistenceQuery> {
 	List<ObjectAdapter> process(T query);
+
+	/**
+	 * The number of instances matching the query (ignoring any range), as counted by the datastore.
+	 */
+	long count(T query);
+
+	/**
+	 * Passes each instance matching the query to the visitor (which returns <tt>false</tt> to stop), reading them
+	 * from the datastore in batches of <tt>fetchSize</tt> rather than loading them all up-front.
+	 */
+	void iterate(T query, int fetchSize, Predicate<ObjectAdapter> visitor);
+
+	/**
+	 * As {@link #iterate(PersistenceQuery, int, Predicate)}, but pulled by the caller; adapters are created as the
+	 * stream is consumed and released again once it has moved past them.  The stream must be closed (and consumed
+	 * within the current transaction).
+	 */
+	Stream<ObjectAdapter> stream(T query, int fetchSize);
 }
 
 // Copyright (c) Naked Objects Group Ltd.
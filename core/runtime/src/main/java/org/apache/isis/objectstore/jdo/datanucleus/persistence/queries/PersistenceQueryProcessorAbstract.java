@@ -18,16 +18,31 @@
  */
 package org.apache.isis.objectstore.jdo.datanucleus.persistence.queries;
 
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import javax.jdo.Query;
 import javax.jdo.listener.InstanceLifecycleEvent;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 
 import org.datanucleus.enhancement.Persistable;
 
 import org.apache.isis.core.commons.ensure.Assert;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.runtime.persistence.query.PersistenceQueryAbstract;
 import org.apache.isis.core.runtime.system.persistence.PersistenceQuery;
 import org.apache.isis.core.runtime.system.persistence.PersistenceSession;
 import org.apache.isis.objectstore.jdo.datanucleus.persistence.IsisLifecycleListener;
@@ -49,24 +64,209 @@ protected PersistenceQueryProcessorAbstract(final PersistenceSession persistence
      * to be called.
      */
     protected List<ObjectAdapter> loadAdapters(final List<?> pojos) {
+        if(pojos instanceof RandomAccess) {
+            // (lazily loaded query results would otherwise be forced to load or to count just to find their size)
+            persistenceSession.ensureAdapterMapCapacity(pojos.size());
+        }
         final List<ObjectAdapter> adapters = Lists.newArrayList();
         for (final Object pojo : pojos) {
-        	// ought not to be necessary, however for some queries it seems that the 
-        	// lifecycle listener is not called
-            ObjectAdapter adapter;
-            if(pojo instanceof Persistable) {
-                // an entity
-                persistenceSession.initializeMapAndCheckConcurrency((Persistable) pojo);
-                adapter = persistenceSession.getAdapterFor(pojo);
-            } else {
-                // a value type
-                adapter = persistenceSession.adapterFor(pojo);
-            }
-            Assert.assertNotNull(adapter);
-            adapters.add(adapter);
+            adapters.add(adapterFor(pojo));
         }
         return adapters;
     }
 
+    private ObjectAdapter adapterFor(final Object pojo) {
+        // ought not to be necessary, however for some queries it seems that the
+        // lifecycle listener is not called
+        ObjectAdapter adapter;
+        if(pojo instanceof Persistable) {
+            // an entity
+            persistenceSession.initializeMapAndCheckConcurrency((Persistable) pojo);
+            adapter = persistenceSession.getAdapterFor(pojo);
+        } else {
+            // a value type
+            adapter = persistenceSession.adapterFor(pojo);
+        }
+        Assert.assertNotNull(adapter);
+        return adapter;
+    }
+
+    /**
+     * Executes the query, passing each result (as an adapter) to the visitor until it returns <tt>false</tt>.
+     *
+     * <p>
+     * The results are read from the datastore's cursor in batches of <tt>fetchSize</tt>, and are not retained by
+     * the query result; the query is always closed on completion.
+     * </p>
+     */
+    protected void iterateAdapters(
+            final Query jdoQuery,
+            final Map<String, Object> argumentsByParameterName,
+            final int fetchSize,
+            final Predicate<ObjectAdapter> visitor) {
+        jdoQuery.getFetchPlan().setFetchSize(fetchSize);
+        jdoQuery.addExtension("datanucleus.query.resultCacheType", "none");
+        try {
+            final Collection<?> pojos = (Collection<?>) jdoQuery.executeWithMap(argumentsByParameterName);
+            if(pojos == null) {
+                return;
+            }
+            for (final Object pojo : pojos) {
+                if(!visitor.test(adapterFor(pojo))) {
+                    return;
+                }
+            }
+        } finally {
+            jdoQuery.closeAll();
+        }
+    }
+
+    /**
+     * Executes the query, returning a stream over its results (as adapters) that reads from the datastore's cursor
+     * in batches of <tt>fetchSize</tt>.
+     *
+     * <p>
+     * To keep memory constant however many results there are, each object first loaded by the stream is released
+     * again (see {@link PersistenceSession#evictIfClean(ObjectAdapter)}) once the stream has moved past it.  Closing
+     * the stream closes the query.
+     * </p>
+     *
+     * <p>
+     * The elements must therefore not be retained (eg collected, or sorted) beyond the processing of each one;
+     * a retained (and released) object is still usable, but is loaded and mapped again when next accessed.
+     * </p>
+     */
+    protected Stream<ObjectAdapter> streamAdapters(
+            final Query jdoQuery,
+            final Map<String, Object> argumentsByParameterName,
+            final int fetchSize) {
+        jdoQuery.getFetchPlan().setFetchSize(fetchSize);
+        jdoQuery.addExtension("datanucleus.query.resultCacheType", "none");
+
+        final Collection<?> pojos;
+        try {
+            pojos = (Collection<?>) jdoQuery.executeWithMap(argumentsByParameterName);
+        } catch (final RuntimeException ex) {
+            jdoQuery.closeAll();
+            throw ex;
+        }
+        if(pojos == null) {
+            jdoQuery.closeAll();
+            return Stream.empty();
+        }
+
+        final EvictingIterator adapters = new EvictingIterator(pojos.iterator());
+        return StreamSupport.stream(
+                    Spliterators.spliteratorUnknownSize(adapters, Spliterator.ORDERED | Spliterator.NONNULL),
+                    false)
+                .onClose(() -> {
+                    try {
+                        adapters.close();
+                    } finally {
+                        jdoQuery.closeAll();
+                    }
+                });
+    }
+
+    /**
+     * Hands out an adapter for each pojo, {@link PersistenceSession#evictIfClean(ObjectAdapter) releasing} the objects
+     * loaded in doing so (the pojo itself, and any other objects loaded along with it) when it moves on to the next
+     * pojo, when exhausted, or when closed.
+     *
+     * <p>
+     * Loaded objects are tracked as their adapters are mapped (see
+     * {@link PersistenceSession#addLoadedAdapterObserver(Consumer)}), rather than by checking each pojo once it has
+     * been returned by the cursor, because by then it has already been loaded and mapped.  Objects that were already
+     * mapped before the iterator loaded them are left alone.
+     * </p>
+     */
+    class EvictingIterator implements Iterator<ObjectAdapter>, AutoCloseable {
+
+        private final Iterator<?> pojos;
+
+        /**
+         * The adapters mapped for objects loaded since the previous pojo was handed out (or released).
+         */
+        private final Set<ObjectAdapter> loaded = Sets.newIdentityHashSet();
+        private final Consumer<ObjectAdapter> observer = loaded::add;
+        private boolean closed;
+
+        EvictingIterator(final Iterator<?> pojos) {
+            this.pojos = pojos;
+            persistenceSession.addLoadedAdapterObserver(observer);
+        }
+
+        @Override
+        public boolean hasNext() {
+            final boolean hasNext = !closed && pojos.hasNext();
+            if(!hasNext) {
+                close();
+            }
+            return hasNext;
+        }
+
+        @Override
+        public ObjectAdapter next() {
+            if(closed) {
+                throw new NoSuchElementException();
+            }
+            release();
+            return adapterFor(pojos.next());
+        }
+
+        private void release() {
+            for (final ObjectAdapter adapter : Lists.newArrayList(loaded)) {
+                persistenceSession.evictIfClean(adapter);
+            }
+            loaded.clear();
+        }
+
+        @Override
+        public void close() {
+            if(closed) {
+                return;
+            }
+            closed = true;
+            try {
+                release();
+            } finally {
+                persistenceSession.removeLoadedAdapterObserver(observer);
+            }
+        }
+    }
+
+    /**
+     * Applies the ordering and range (if any) pushed down by way of
+     * {@link PersistenceQueryAbstract#pageBy(String, boolean, long, long)}.
+     */
+    protected static void applyOrderingAndRange(final Query jdoQuery, final PersistenceQuery persistenceQuery) {
+        if(!(persistenceQuery instanceof PersistenceQueryAbstract)) {
+            return;
+        }
+        final PersistenceQueryAbstract pagedQuery = (PersistenceQueryAbstract) persistenceQuery;
+        final String orderBy = pagedQuery.getOrderBy();
+        if(orderBy != null) {
+            jdoQuery.setOrdering(orderBy + (pagedQuery.isAscending() ? " ascending" : " descending"));
+        }
+        if(pagedQuery.getPageCount() > 0) {
+            final long pageStart = pagedQuery.getPageStart();
+            jdoQuery.setRange(pageStart, pageStart + pagedQuery.getPageCount());
+        }
+    }
+
+    /**
+     * Replaces the result clause of the query with a <tt>count(this)</tt>, and executes it.
+     */
+    protected static long executeCount(final Query jdoQuery, final Map<String, Object> argumentsByParameterName) {
+        jdoQuery.setResult("count(this)");
+        jdoQuery.setOrdering(null);
+        jdoQuery.setUnique(true);
+        try {
+            final Object count = jdoQuery.executeWithMap(argumentsByParameterName);
+            return count != null ? ((Number) count).longValue() : 0L;
+        } finally {
+            jdoQuery.closeAll();
+        }
+    }
 
 }
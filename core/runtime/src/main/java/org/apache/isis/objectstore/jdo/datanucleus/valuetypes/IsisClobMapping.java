@@ -18,20 +18,37 @@
  */
 package org.apache.isis.objectstore.jdo.datanucleus.valuetypes;
 
+import java.io.Serializable;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import javax.activation.MimeType;
+import javax.activation.MimeTypeParseException;
 
 import org.datanucleus.ClassLoaderResolver;
 import org.datanucleus.ClassNameConstants;
 import org.datanucleus.ExecutionContext;
 import org.datanucleus.NucleusContext;
 import org.datanucleus.metadata.AbstractMemberMetaData;
+import org.datanucleus.state.ObjectProvider;
 import org.datanucleus.store.rdbms.RDBMSStoreManager;
 import org.datanucleus.store.rdbms.mapping.java.SingleFieldMultiMapping;
 import org.datanucleus.store.rdbms.table.Table;
 
 import org.apache.isis.applib.value.Clob;
 
+/**
+ * Maps {@link Clob} onto three columns: name, mime type and content.
+ *
+ * <p>
+ * If the property is annotated with <tt>@Extension(vendorName="datanucleus", key="isis-streaming", value="true")</tt>
+ * and the JDBC driver supports lob locators for the content column, then the content is not read when the object
+ * is loaded; instead the clob returned is {@link Clob#isStreaming() streaming}, its content being read from the column
+ * only when requested (see {@link JdbcLobSource}).  Otherwise (eg for PostgreSQL's <tt>bytea</tt>) the content is
+ * read eagerly, as before.
+ * </p>
+ */
 public class IsisClobMapping extends SingleFieldMultiMapping {
 
     public IsisClobMapping() {
@@ -86,6 +103,54 @@ public void setObject(ExecutionContext ec, PreparedStatement preparedStmt, int[]
         }
     }
     
+    /**
+     * Lazily initialized, if streaming; whether the SQL to read the content has been
+     * {@link JdbcLobSource#register(org.datanucleus.store.rdbms.mapping.java.JavaTypeMapping, int) registered}.
+     */
+    private Boolean streamable;
+
+    @Override
+    public Object getObject(
+            ExecutionContext ec, ResultSet resultSet, int[] exprIndex, ObjectProvider ownerOP, int ownerFieldNumber)
+    {
+        if(!JdbcLobSource.isStreaming(getMemberMetaData())) {
+            return getObject(ec, resultSet, exprIndex);
+        }
+        final Serializable key = JdbcLobSource.keyFor(ownerOP);
+        if(key == null || !isStreamable()) {
+            return getObject(ec, resultSet, exprIndex);
+        }
+
+        final String name = getDatastoreMapping(0).getString(resultSet, exprIndex[0]);
+        final String mimeTypeBase = getDatastoreMapping(1).getString(resultSet, exprIndex[1]);
+        if(name == null || mimeTypeBase == null) {
+            return null;
+        }
+        final long length;
+        try {
+            final java.sql.Clob locator = resultSet.getClob(exprIndex[2]);
+            if(locator == null) {
+                return null;
+            }
+            length = locator.length();
+        } catch (SQLException | RuntimeException e) {
+            // the driver doesn't support lob locators for this column, so read eagerly instead
+            return getObject(ec, resultSet, exprIndex);
+        }
+        try {
+            return new Clob(name, new MimeType(mimeTypeBase), new JdbcLobSource.ForClob(getMemberMetaData().getFullFieldName(), key, length));
+        } catch (MimeTypeParseException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private boolean isStreamable() {
+        if(streamable == null) {
+            streamable = JdbcLobSource.register(this, 2);
+        }
+        return streamable;
+    }
+
     public Object getObject(ExecutionContext ec, ResultSet resultSet, int[] exprIndex)
     {
         try
@@ -0,0 +1,288 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.objectstore.jdo.datanucleus.valuetypes;
+
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import javax.jdo.datastore.JDOConnection;
+
+import com.google.common.collect.Maps;
+
+import org.datanucleus.identity.IdentityUtils;
+import org.datanucleus.metadata.AbstractMemberMetaData;
+import org.datanucleus.state.ObjectProvider;
+import org.datanucleus.store.rdbms.identifier.DatastoreIdentifier;
+import org.datanucleus.store.rdbms.mapping.java.JavaTypeMapping;
+import org.datanucleus.store.rdbms.table.DatastoreClass;
+import org.datanucleus.store.rdbms.table.Table;
+
+import org.apache.isis.applib.value.Blob;
+import org.apache.isis.applib.value.Clob;
+import org.apache.isis.core.runtime.system.context.IsisContext;
+
+/**
+ * Reads the content of a single lob column (for a single row) on demand, using the connection of the current
+ * session's <tt>PersistenceManager</tt>.
+ *
+ * <p>
+ * Used by {@link IsisBlobMapping} and {@link IsisClobMapping} for properties annotated with
+ * <tt>@Extension(vendorName="datanucleus", key="isis-streaming", value="true")</tt>.  Only holds the name of the
+ * member and the row's key, so is cheap to serialize.  The SQL to read the column is
+ * {@link #register(JavaTypeMapping, int) registered} by the mapping itself, built from the (validated) identifiers
+ * of the table and columns, and is looked up by member name; it is never held by the source.
+ * </p>
+ */
+abstract class JdbcLobSource implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    static final String EXTENSION_STREAMING = "isis-streaming";
+
+    static boolean isStreaming(final AbstractMemberMetaData mmd) {
+        return mmd != null && "true".equalsIgnoreCase(mmd.getValueForExtension(EXTENSION_STREAMING));
+    }
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_$]*");
+
+    private static final Map<String, String> selectSqlByMember = Maps.newConcurrentMap();
+
+    /**
+     * Registers the SQL to read the lob column of the mapping's member, returning <tt>false</tt> if it cannot be
+     * streamed (because the owning table is not keyed by a single column, or an identifier is not a plain name).
+     */
+    static boolean register(final JavaTypeMapping mapping, final int lobIndex) {
+        final String sql = selectSqlFor(mapping, lobIndex);
+        if(sql == null) {
+            return false;
+        }
+        selectSqlByMember.put(mapping.getMemberMetaData().getFullFieldName(), sql);
+        return true;
+    }
+
+    /**
+     * <tt>SELECT lobColumn FROM schema.table WHERE idColumn = ?</tt>, or <tt>null</tt> if the owning table
+     * is not keyed by a single column, or any of the identifiers is not a plain name.
+     */
+    static String selectSqlFor(final JavaTypeMapping mapping, final int lobIndex) {
+        final Table table = mapping.getTable();
+        if(!(table instanceof DatastoreClass)) {
+            return null;
+        }
+        final JavaTypeMapping idMapping = ((DatastoreClass) table).getIdMapping();
+        if(idMapping == null || idMapping.getNumberOfDatastoreMappings() != 1) {
+            return null;
+        }
+        final DatastoreIdentifier tableIdentifier = table.getIdentifier();
+        final String idColumn = validated(idMapping.getDatastoreMapping(0).getColumn().getIdentifier().getName());
+        final String lobColumn = validated(mapping.getDatastoreMapping(lobIndex).getColumn().getIdentifier().getName());
+        final String tableName = validated(tableIdentifier.getName());
+        final String schemaName = tableIdentifier.getSchemaName() != null
+                ? validated(tableIdentifier.getSchemaName()) : "";
+        final String catalogName = tableIdentifier.getCatalogName() != null
+                ? validated(tableIdentifier.getCatalogName()) : "";
+        if(idColumn == null || lobColumn == null || tableName == null || schemaName == null || catalogName == null) {
+            return null;
+        }
+        final StringBuilder qualifiedTableName = new StringBuilder();
+        if(!catalogName.isEmpty()) {
+            qualifiedTableName.append(catalogName).append(".");
+        }
+        if(!schemaName.isEmpty()) {
+            qualifiedTableName.append(schemaName).append(".");
+        }
+        qualifiedTableName.append(tableName);
+        return "SELECT " + lobColumn + " FROM " + qualifiedTableName + " WHERE " + idColumn + " = ?";
+    }
+
+    /**
+     * The identifier, or <tt>null</tt> if it is not a plain name (and so cannot safely be used in the SQL).
+     */
+    static String validated(final String identifier) {
+        if(identifier == null || !IDENTIFIER.matcher(identifier).matches()) {
+            return null;
+        }
+        return identifier;
+    }
+
+    /**
+     * The value of the single key column for the owning object, or <tt>null</tt> if it cannot be determined.
+     */
+    static Serializable keyFor(final ObjectProvider ownerOP) {
+        if(ownerOP == null) {
+            return null;
+        }
+        final Object id = ownerOP.getInternalObjectId();
+        final Object key;
+        if(IdentityUtils.isDatastoreIdentity(id)) {
+            key = IdentityUtils.getTargetKeyForDatastoreIdentity(id);
+        } else if(IdentityUtils.isSingleFieldIdentity(id)) {
+            key = IdentityUtils.getTargetKeyForSingleFieldIdentity(id);
+        } else {
+            key = null;
+        }
+        return key instanceof Serializable ? (Serializable) key : null;
+    }
+
+    private final String memberName;
+    private final Serializable key;
+    private final long length;
+
+    JdbcLobSource(final String memberName, final Serializable key, final long length) {
+        this.memberName = memberName;
+        this.key = key;
+        this.length = length;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * Executes the query, positioned on the row; closing releases the statement and the connection.
+     */
+    final OpenQuery openQuery() throws IOException {
+        final String sql = selectSqlByMember.get(memberName);
+        if(sql == null) {
+            throw new IOException("Not a streaming lob: '" + memberName + "'");
+        }
+        final JDOConnection jdoConnection = IsisContext.getSessionFactory().getCurrentSession()
+                .getPersistenceSession().getPersistenceManager().getDataStoreConnection();
+        final OpenQuery query = new OpenQuery(jdoConnection);
+        try {
+            final Connection connection = (Connection) jdoConnection.getNativeConnection();
+            query.statement = connection.prepareStatement(sql);
+            query.statement.setObject(1, key);
+            query.resultSet = query.statement.executeQuery();
+            if(!query.resultSet.next()) {
+                throw new IOException("No row found for key '" + key + "' using: " + sql);
+            }
+            return query;
+        } catch (SQLException | RuntimeException | IOException ex) {
+            query.close();
+            throw ex instanceof IOException ? (IOException) ex : new IOException(ex);
+        }
+    }
+
+    static class OpenQuery implements Closeable {
+        private final JDOConnection jdoConnection;
+        private PreparedStatement statement;
+        private ResultSet resultSet;
+
+        private OpenQuery(final JDOConnection jdoConnection) {
+            this.jdoConnection = jdoConnection;
+        }
+
+        ResultSet getResultSet() {
+            return resultSet;
+        }
+
+        @Override
+        public void close() {
+            try {
+                if(statement != null) {
+                    // also closes the result set
+                    statement.close();
+                }
+            } catch (SQLException e) {
+                // ignore
+            } finally {
+                jdoConnection.close();
+            }
+        }
+    }
+
+    static class ForBlob extends JdbcLobSource implements Blob.Source {
+
+        private static final long serialVersionUID = 1L;
+
+        ForBlob(final String memberName, final Serializable key, final long length) {
+            super(memberName, key, length);
+        }
+
+        @Override
+        public InputStream openStream() throws IOException {
+            final OpenQuery query = openQuery();
+            try {
+                final InputStream is = query.getResultSet().getBinaryStream(1);
+                if(is == null) {
+                    throw new IOException("Blob is null");
+                }
+                return new FilterInputStream(is) {
+                    @Override
+                    public void close() throws IOException {
+                        try {
+                            super.close();
+                        } finally {
+                            query.close();
+                        }
+                    }
+                };
+            } catch (SQLException | RuntimeException | IOException ex) {
+                query.close();
+                throw ex instanceof IOException ? (IOException) ex : new IOException(ex);
+            }
+        }
+    }
+
+    static class ForClob extends JdbcLobSource implements Clob.Source {
+
+        private static final long serialVersionUID = 1L;
+
+        ForClob(final String memberName, final Serializable key, final long length) {
+            super(memberName, key, length);
+        }
+
+        @Override
+        public Reader openReader() throws IOException {
+            final OpenQuery query = openQuery();
+            try {
+                final Reader reader = query.getResultSet().getCharacterStream(1);
+                if(reader == null) {
+                    throw new IOException("Clob is null");
+                }
+                return new FilterReader(reader) {
+                    @Override
+                    public void close() throws IOException {
+                        try {
+                            super.close();
+                        } finally {
+                            query.close();
+                        }
+                    }
+                };
+            } catch (SQLException | RuntimeException | IOException ex) {
+                query.close();
+                throw ex instanceof IOException ? (IOException) ex : new IOException(ex);
+            }
+        }
+    }
+
+}
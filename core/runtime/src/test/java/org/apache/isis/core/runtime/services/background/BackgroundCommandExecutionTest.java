@@ -0,0 +1,123 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtime.services.background;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.applib.services.command.Command;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class BackgroundCommandExecutionTest {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(JUnitRuleMockery2.Mode.INTERFACES_ONLY);
+
+    @Mock
+    private Command mockCommand;
+
+    private final BackgroundCommandExecution execution = new BackgroundCommandExecution() {
+        @Override
+        protected List<? extends Command> findBackgroundCommandsToExecute() {
+            return Collections.emptyList();
+        }
+    };
+
+    private static final long LEASE_MILLIS = 60 * 1000L;
+    private final Timestamp now = new Timestamp(1000000L);
+
+    @Test
+    public void partition_keepsSameKeyInSamePartitionAndInOrder() throws Exception {
+        final List<String> items = Arrays.asList("a1", "b1", "a2", "c1", "b2", "a3");
+        final List<String> keys = Arrays.asList("a", "b", "a", "c", "b", "a");
+
+        final List<List<String>> partitions = BackgroundCommandExecution.partition(items, keys, 2);
+
+        assertThat(partitions.size(), is(2));
+        final List<String> partitionForA = partitions.get(("a".hashCode() & Integer.MAX_VALUE) % 2);
+        assertThat(partitionForA.indexOf("a1") < partitionForA.indexOf("a2"), is(true));
+        assertThat(partitionForA.indexOf("a2") < partitionForA.indexOf("a3"), is(true));
+        assertThat(partitions.get(0).size() + partitions.get(1).size(), is(items.size()));
+    }
+
+    @Test
+    public void claim_whenNotStarted() throws Exception {
+        context.checking(new Expectations() {{
+            allowing(mockCommand).getCompletedAt(); will(returnValue(null));
+            allowing(mockCommand).getStartedAt(); will(returnValue(null));
+            oneOf(mockCommand).setStartedAt(now);
+        }});
+
+        assertThat(execution.claim(mockCommand, now, LEASE_MILLIS), is(true));
+    }
+
+    @Test
+    public void claim_whenAlreadyCompleted() throws Exception {
+        context.checking(new Expectations() {{
+            allowing(mockCommand).getCompletedAt(); will(returnValue(new Timestamp(now.getTime() - 1)));
+            never(mockCommand).setStartedAt(with(any(Timestamp.class)));
+        }});
+
+        assertThat(execution.claim(mockCommand, now, LEASE_MILLIS), is(false));
+    }
+
+    @Test
+    public void claim_whenLeasedElsewhere() throws Exception {
+        context.checking(new Expectations() {{
+            allowing(mockCommand).getCompletedAt(); will(returnValue(null));
+            allowing(mockCommand).getStartedAt(); will(returnValue(new Timestamp(now.getTime() - LEASE_MILLIS + 1)));
+            never(mockCommand).setStartedAt(with(any(Timestamp.class)));
+        }});
+
+        assertThat(execution.claim(mockCommand, now, LEASE_MILLIS), is(false));
+    }
+
+    @Test
+    public void claim_whenLeaseExpired() throws Exception {
+        context.checking(new Expectations() {{
+            allowing(mockCommand).getCompletedAt(); will(returnValue(null));
+            allowing(mockCommand).getStartedAt(); will(returnValue(new Timestamp(now.getTime() - LEASE_MILLIS)));
+            oneOf(mockCommand).setStartedAt(now);
+        }});
+
+        assertThat(execution.claim(mockCommand, now, LEASE_MILLIS), is(true));
+    }
+
+    @Test
+    public void claimJdoql_onlyUpdatesIfNotCompletedAndNotLeased() throws Exception {
+        final String jdoql = BackgroundCommandExecution.claimJdoql("com.mycompany.MyCommand");
+
+        assertThat(jdoql, is("UPDATE com.mycompany.MyCommand"
+                + " SET this.startedAt = :now"
+                + " WHERE JDOHelper.getObjectId(this) == :objectId"
+                + " && this.completedAt == null"
+                + " && (this.startedAt == null || this.startedAt <= :leaseExpiredBefore)"));
+    }
+
+}
@@ -0,0 +1,193 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtime.services.changes;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.applib.services.bookmark.Bookmark;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.adapter.oid.RootOid;
+import org.apache.isis.core.metamodel.consent.InteractionInitiatedBy;
+import org.apache.isis.core.metamodel.spec.ObjectSpecId;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.feature.Contributed;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
+import org.apache.isis.core.runtime.system.transaction.IsisTransaction;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ChangeJournalTest {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(JUnitRuleMockery2.Mode.INTERFACES_ONLY);
+
+    @Mock
+    private ObjectAdapter mockAdapter;
+    @Mock
+    private ObjectSpecification mockSpec;
+    @Mock
+    private ObjectAssociation mockNameProperty;
+    @Mock
+    private ObjectAssociation mockAgeProperty;
+    @Mock
+    private ObjectAdapter mockFredAdapter;
+    @Mock
+    private ObjectAdapter mockJoeAdapter;
+    @Mock
+    private ObjectAdapter mockAgeAdapter;
+
+    private ChangeJournal journal;
+    private List<String> visited;
+
+    @Before
+    public void setUp() throws Exception {
+        context.checking(new Expectations() {{
+            allowing(mockAdapter).getOid();
+            will(returnValue(RootOid.create(ObjectSpecId.of("CUS"), "1")));
+            allowing(mockAdapter).getSpecification();
+            will(returnValue(mockSpec));
+            allowing(mockSpec).getAssociations(Contributed.EXCLUDED, ObjectAssociation.Predicates.PROPERTIES);
+            will(returnValue(Arrays.asList(mockNameProperty, mockAgeProperty)));
+
+            allowing(mockNameProperty).isNotPersisted();
+            will(returnValue(false));
+            allowing(mockNameProperty).getId();
+            will(returnValue("name"));
+            allowing(mockAgeProperty).isNotPersisted();
+            will(returnValue(false));
+            allowing(mockAgeProperty).getId();
+            will(returnValue("age"));
+
+            allowing(mockFredAdapter).getObject();
+            will(returnValue("Fred"));
+            allowing(mockJoeAdapter).getObject();
+            will(returnValue("Joe"));
+            allowing(mockAgeAdapter).getObject();
+            will(returnValue(42));
+        }});
+
+        journal = new ChangeJournal();
+        visited = Lists.newArrayList();
+    }
+
+    private void visitChanged() {
+        journal.forEachChanged(new ChangedObjectsServiceInternal.ChangedPropertyVisitor() {
+            @Override
+            public void visit(
+                    final ObjectAdapter adapter,
+                    final Bookmark target,
+                    final ObjectAssociation property,
+                    final Object pre, final String preString,
+                    final Object post, final String postString) {
+                visited.add(target + " " + property.getId() + ": " + preString + " -> " + postString);
+            }
+        });
+    }
+
+    @Test
+    public void updated_visits_only_the_changed_properties() throws Exception {
+        context.checking(new Expectations() {{
+            allowing(mockAdapter).isDestroyed();
+            will(returnValue(false));
+            exactly(2).of(mockNameProperty).get(mockAdapter, InteractionInitiatedBy.FRAMEWORK);
+            will(onConsecutiveCalls(returnValue(mockFredAdapter), returnValue(mockJoeAdapter)));
+            exactly(2).of(mockAgeProperty).get(mockAdapter, InteractionInitiatedBy.FRAMEWORK);
+            will(returnValue(mockAgeAdapter));
+        }});
+
+        journal.enlist(mockAdapter, null);
+        // already enlisted, so the pre- values are not read again
+        journal.enlist(mockAdapter, null);
+        journal.capturePostValues();
+        visitChanged();
+
+        assertThat(journal.numberChanged(), is(1));
+        assertThat(visited, is((List<String>) Lists.newArrayList("CUS:1 name: Fred -> Joe")));
+    }
+
+    @Test
+    public void deleted_visits_all_properties() throws Exception {
+        context.checking(new Expectations() {{
+            allowing(mockAdapter).isDestroyed();
+            will(returnValue(true));
+            oneOf(mockNameProperty).get(mockAdapter, InteractionInitiatedBy.FRAMEWORK);
+            will(returnValue(mockFredAdapter));
+            oneOf(mockAgeProperty).get(mockAdapter, InteractionInitiatedBy.FRAMEWORK);
+            will(returnValue(mockAgeAdapter));
+        }});
+
+        journal.enlist(mockAdapter, null);
+        journal.capturePostValues();
+        visitChanged();
+
+        assertThat(journal.numberChanged(), is(2));
+        assertThat(visited, is((List<String>) Lists.newArrayList(
+                "CUS:1 name: Fred -> [DELETED]", "CUS:1 age: 42 -> [DELETED]")));
+    }
+
+    @Test
+    public void created_and_then_deleted_is_not_visited() throws Exception {
+        context.checking(new Expectations() {{
+            allowing(mockAdapter).isDestroyed();
+            will(returnValue(true));
+        }});
+
+        journal.enlist(mockAdapter, IsisTransaction.Placeholder.NEW);
+        journal.capturePostValues();
+        visitChanged();
+
+        assertThat(journal.numberChanged(), is(0));
+        assertThat(visited.isEmpty(), is(true));
+    }
+
+    @Test
+    public void can_enlist_again_once_cleared() throws Exception {
+        context.checking(new Expectations() {{
+            allowing(mockAdapter).isDestroyed();
+            will(returnValue(true));
+        }});
+
+        journal.enlist(mockAdapter, IsisTransaction.Placeholder.NEW);
+        journal.clear();
+        assertThat(journal.numberChanged(), is(0));
+
+        context.checking(new Expectations() {{
+            oneOf(mockNameProperty).get(mockAdapter, InteractionInitiatedBy.FRAMEWORK);
+            will(returnValue(mockFredAdapter));
+            oneOf(mockAgeProperty).get(mockAdapter, InteractionInitiatedBy.FRAMEWORK);
+            will(returnValue(mockAgeAdapter));
+        }});
+
+        journal.enlist(mockAdapter, null);
+        journal.capturePostValues();
+
+        assertThat(journal.numberChanged(), is(2));
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.apache.isis.core.runtime.services.eventbus;
+
+import com.google.common.eventbus.Subscribe;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.isis.applib.services.eventbus.ActionDomainEvent;
+import org.apache.isis.applib.services.eventbus.PropertyDomainEvent;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class EventBusSubscriberIndexTest {
+
+    public static class SomeActionDomainEvent extends ActionDomainEvent<Object> {
+        private static final long serialVersionUID = 1L;
+    }
+
+    public static class ActionSubscriber {
+        @Subscribe
+        public void on(final ActionDomainEvent<?> ev) {
+        }
+    }
+
+    /**
+     * Similar to the proxy subclass registered by a request-scoped service.
+     */
+    public static class ActionSubscriberSubclass extends ActionSubscriber {
+    }
+
+    EventBusSubscriberIndex index;
+
+    @Before
+    public void setUp() throws Exception {
+        index = new EventBusSubscriberIndex(Subscribe.class);
+    }
+
+    @Test
+    public void when_no_subscribers() throws Exception {
+        assertThat(index.hasSubscriberFor(SomeActionDomainEvent.class), is(false));
+    }
+
+    @Test
+    public void subscriber_for_supertype() throws Exception {
+        index.add(ActionSubscriber.class);
+
+        assertThat(index.hasSubscriberFor(SomeActionDomainEvent.class), is(true));
+        assertThat(index.hasSubscriberFor(PropertyDomainEvent.Default.class), is(false));
+    }
+
+    @Test
+    public void subscriber_method_inherited() throws Exception {
+        index.add(ActionSubscriberSubclass.class);
+
+        assertThat(index.hasSubscriberFor(SomeActionDomainEvent.class), is(true));
+    }
+
+    @Test
+    public void subscriber_added_after_lookup() throws Exception {
+        assertThat(index.hasSubscriberFor(SomeActionDomainEvent.class), is(false));
+
+        index.add(ActionSubscriber.class);
+
+        assertThat(index.hasSubscriberFor(SomeActionDomainEvent.class), is(true));
+    }
+
+    @Test
+    public void when_subscriber_annotation_not_known() throws Exception {
+        index = new EventBusSubscriberIndex(null);
+
+        assertThat(index.hasSubscriberFor(SomeActionDomainEvent.class), is(true));
+    }
+
+}
@@ -0,0 +1,141 @@
+/**
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.apache.isis.core.runtime.services.memento;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.isis.applib.services.bookmark.Bookmark;
+import org.apache.isis.applib.services.memento.MementoService.Memento;
+import org.apache.isis.applib.services.urlencoding.UrlEncodingServiceUsingBaseEncoding;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class MementoServiceCompactTest {
+
+    private MementoServiceCompact mementoService;
+
+    @Before
+    public void setUp() throws Exception {
+        mementoService = new MementoServiceCompact();
+        mementoService.urlEncodingService = new UrlEncodingServiceUsingBaseEncoding();
+    }
+
+    @Test
+    public void roundtrip() {
+        final Memento memento = mementoService.create();
+
+        memento.set("someString", "a  string");
+        memento.set("someInt", 123456789);
+        memento.set("someBigDecimal", new BigDecimal("123456789012345678901234567890.123456789"));
+        memento.set("someLocalDate", new LocalDate(2013,9,3));
+        memento.set("someBookmark", new Bookmark("CUS", "12345"));
+        memento.set("someNullValue", null);
+
+        final Memento memento2 = mementoService.parse(memento.asString());
+
+        assertThat(memento2.get("someString", String.class), is("a  string"));
+        assertThat(memento2.get("someInt", Integer.class), is(123456789));
+        assertThat(memento2.get("someBigDecimal", BigDecimal.class), is(new BigDecimal("123456789012345678901234567890.123456789")));
+        assertThat(memento2.get("someLocalDate", LocalDate.class), is(new LocalDate(2013,9,3)));
+        assertThat(memento2.get("someBookmark", Bookmark.class), is(new Bookmark("CUS", "12345")));
+        assertThat(memento2.get("someNullValue", Integer.class), is(nullValue()));
+        assertThat(memento2.keySet().size(), is(6));
+    }
+
+    @Test
+    public void roundtrip_when_not_compressed() {
+        mementoService.init(Collections.singletonMap(MementoServiceCompact.KEY_COMPRESS, "false"));
+
+        final Memento memento = mementoService.create();
+        memento.set("someString", "a string");
+
+        final String str = memento.asString();
+        assertThat(str.startsWith(MementoServiceCompact.PREFIX_PLAIN), is(true));
+        assertThat(mementoService.parse(str).get("someString", String.class), is("a string"));
+    }
+
+    @Test
+    public void parses_memento_created_by_default_service() {
+        final MementoServiceDefault mementoServiceDefault = new MementoServiceDefault();
+        mementoServiceDefault.urlEncodingService = mementoService.urlEncodingService;
+
+        final Memento memento = mementoServiceDefault.create();
+        memento.set("someString", "a string");
+        memento.set("someNullValue", null);
+
+        final Memento memento2 = mementoService.parse(memento.asString());
+
+        assertThat(memento2.get("someString", String.class), is("a string"));
+        assertThat(memento2.get("someNullValue", String.class), is(nullValue()));
+    }
+
+    @Test
+    public void repeated_parse_is_cached() {
+        final Memento memento = mementoService.create();
+        memento.set("someString", "a string");
+        final String str = memento.asString();
+
+        final Memento parsed1 = mementoService.parse(str);
+        parsed1.set("someString", "changed");
+        final Memento parsed2 = mementoService.parse(str);
+
+        assertThat(mementoService.getCacheMisses(), is(1L));
+        assertThat(mementoService.getCacheHits(), is(1L));
+        // changes to a parsed memento do not affect the cache
+        assertThat(parsed2.get("someString", String.class), is("a string"));
+    }
+
+    @Test(expected = MalformedMementoException.class)
+    public void fromBytes_rejects_negative_length() {
+        // version 1, one entry, name of length -1
+        MementoServiceCompact.fromBytes(new byte[]{ 1, 1, (byte)0xFF, (byte)0xFF, (byte)0xFF, (byte)0xFF, 0x0F, 0 });
+    }
+
+    @Test(expected = MalformedMementoException.class)
+    public void fromBytes_rejects_length_larger_than_remaining_bytes() {
+        // version 1, one entry, name of length 127 (but only 2 bytes follow)
+        MementoServiceCompact.fromBytes(new byte[]{ 1, 1, 0x7F, 'a', 0 });
+    }
+
+    @Test(expected = MalformedMementoException.class)
+    public void fromBytes_rejects_count_larger_than_remaining_bytes() {
+        // version 1, Integer.MAX_VALUE entries
+        MementoServiceCompact.fromBytes(new byte[]{ 1, (byte)0xFF, (byte)0xFF, (byte)0xFF, (byte)0xFF, 0x07 });
+    }
+
+    @Test(expected = MalformedMementoException.class)
+    public void fromBytes_rejects_truncated() {
+        final byte[] bytes = MementoServiceCompact.toBytes(Collections.singletonMap("someString", "a string"));
+
+        MementoServiceCompact.fromBytes(Arrays.copyOf(bytes, bytes.length - 1));
+    }
+
+    @Test(expected = MalformedMementoException.class)
+    public void parse_rejects_malformed() {
+        mementoService.init(Collections.singletonMap(MementoServiceCompact.KEY_COMPRESS, "false"));
+
+        mementoService.parse(MementoServiceCompact.PREFIX_PLAIN + "AQ");
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtime.services.publish;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.apache.isis.applib.services.iactn.Interaction;
+import org.apache.isis.applib.services.publish.PublishedObjects;
+import org.apache.isis.applib.services.publish.PublisherService;
+import org.apache.isis.applib.services.publish.PublisherServiceBatched;
+import org.apache.isis.schema.chg.v1.ChangesDto;
+import org.apache.isis.schema.ixn.v1.InteractionDto;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class PublishingDispatcherAsyncTest {
+
+    static class PlainPublisherService implements PublisherService {
+        @Override
+        public void publish(final Interaction.Execution<?, ?> execution) {
+            throw new AssertionError("plain publishers are not called by the dispatcher");
+        }
+        @Override
+        public void publish(final PublishedObjects publishedObjects) {
+            throw new AssertionError("plain publishers are not called by the dispatcher");
+        }
+    }
+
+    static class RecordingPublisherServiceBatched extends PlainPublisherService implements PublisherServiceBatched {
+        final List<Object> published = new CopyOnWriteArrayList<>();
+        final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        final List<String> threadNames = new CopyOnWriteArrayList<>();
+        @Override
+        public void publishInteractions(final List<InteractionDto> interactionDtos) {
+            record(interactionDtos);
+        }
+        @Override
+        public void publishChanges(final List<ChangesDto> changesDtos) {
+            record(changesDtos);
+        }
+        void record(final List<?> events) {
+            batchSizes.add(events.size());
+            published.addAll(events);
+            threadNames.add(Thread.currentThread().getName());
+        }
+    }
+
+    /**
+     * Blocks the dispatcher thread (only) until released, so that the queue can be filled.
+     */
+    static class BlockingPublisherService extends RecordingPublisherServiceBatched {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        @Override
+        void record(final List<?> events) {
+            if(Thread.currentThread().getName().equals("isis-publishing-dispatcher")) {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            super.record(events);
+        }
+    }
+
+    private PublishingDispatcherAsync dispatcher;
+
+    @After
+    public void tearDown() throws Exception {
+        if(dispatcher != null) {
+            dispatcher.shutdown();
+        }
+    }
+
+    private PublishingDispatcherAsync newDispatcher(
+            final Map<String, String> properties,
+            final PublisherService... publisherServices) {
+        final PublishingDispatcherAsync dispatcher = new PublishingDispatcherAsync();
+        dispatcher.publisherServices = Lists.newArrayList(publisherServices);
+        dispatcher.init(properties);
+        return dispatcher;
+    }
+
+    private static InteractionDto newInteractionDto(final String transactionId) {
+        final InteractionDto interactionDto = new InteractionDto();
+        interactionDto.setTransactionId(transactionId);
+        return interactionDto;
+    }
+
+    @Test
+    public void disabled_by_default() throws Exception {
+        dispatcher = newDispatcher(Collections.<String, String>emptyMap(), new RecordingPublisherServiceBatched());
+
+        assertThat(dispatcher.isEnabled(), is(false));
+    }
+
+    @Test
+    public void disabled_if_no_batched_publishers() throws Exception {
+        dispatcher = newDispatcher(ImmutableMap.of(PublishingDispatcherAsync.KEY_ASYNC, "true"),
+                new PlainPublisherService());
+
+        assertThat(dispatcher.isEnabled(), is(false));
+    }
+
+    @Test
+    public void delivers_dtos_to_batched_publishers_only() throws Exception {
+        final PlainPublisherService plain = new PlainPublisherService();
+        final RecordingPublisherServiceBatched batched = new RecordingPublisherServiceBatched();
+        final BlockingPublisherService blocking = new BlockingPublisherService();
+        dispatcher = newDispatcher(ImmutableMap.of(
+                PublishingDispatcherAsync.KEY_ASYNC, "true",
+                PublishingDispatcherAsync.KEY_BATCH_SIZE, "10"),
+                blocking, plain, batched);
+
+        // hold up the dispatcher so that the remaining events are all delivered in a single batch
+        final InteractionDto first = newInteractionDto("first");
+        dispatcher.enqueue(first);
+        assertThat(blocking.entered.await(5, TimeUnit.SECONDS), is(true));
+
+        final InteractionDto interactionDto1 = newInteractionDto("interaction1");
+        final InteractionDto interactionDto2 = newInteractionDto("interaction2");
+        final ChangesDto changesDto = new ChangesDto();
+        dispatcher.enqueue(interactionDto1);
+        dispatcher.enqueue(changesDto);
+        dispatcher.enqueue(interactionDto2);
+        blocking.release.countDown();
+
+        dispatcher.shutdown();
+
+        assertThat(batched.published, is((List<Object>) Lists.<Object>newArrayList(
+                first, interactionDto1, interactionDto2, changesDto)));
+        assertThat(batched.batchSizes, is((List<Integer>) Lists.newArrayList(1, 2, 1)));
+        assertThat(dispatcher.getNumberEnqueued(), is(4L));
+        assertThat(dispatcher.getNumberDelivered(), is(4L));
+        assertThat(dispatcher.getQueueDepth(), is(0));
+    }
+
+    @Test
+    public void when_full_and_caller_runs() throws Exception {
+        final BlockingPublisherService blocking = new BlockingPublisherService();
+        dispatcher = newDispatcher(ImmutableMap.of(
+                PublishingDispatcherAsync.KEY_ASYNC, "true",
+                PublishingDispatcherAsync.KEY_QUEUE_CAPACITY, "1"),
+                blocking);
+
+        dispatcher.enqueue(newInteractionDto("taken"));
+        assertThat(blocking.entered.await(5, TimeUnit.SECONDS), is(true));
+        dispatcher.enqueue(newInteractionDto("queued"));
+        dispatcher.enqueue(newInteractionDto("overflow"));
+
+        // delivered (and waited for) before enqueue returns, though not on the committing thread itself, whose
+        // transaction has completed
+        assertThat(dispatcher.getNumberDeliveredByCaller(), is(1L));
+        assertThat(blocking.threadNames, is((List<String>) Lists.newArrayList("isis-publishing-caller-runs")));
+
+        blocking.release.countDown();
+        dispatcher.shutdown();
+
+        assertThat(dispatcher.getNumberDelivered(), is(3L));
+        assertThat(dispatcher.getNumberDiscarded(), is(0L));
+    }
+
+    @Test
+    public void when_full_and_discard() throws Exception {
+        final BlockingPublisherService blocking = new BlockingPublisherService();
+        dispatcher = newDispatcher(ImmutableMap.of(
+                PublishingDispatcherAsync.KEY_ASYNC, "true",
+                PublishingDispatcherAsync.KEY_QUEUE_CAPACITY, "1",
+                PublishingDispatcherAsync.KEY_OVERFLOW_POLICY, "discard"),
+                blocking);
+
+        dispatcher.enqueue(newInteractionDto("taken"));
+        assertThat(blocking.entered.await(5, TimeUnit.SECONDS), is(true));
+        dispatcher.enqueue(newInteractionDto("queued"));
+        dispatcher.enqueue(newInteractionDto("overflow"));
+
+        blocking.release.countDown();
+        dispatcher.shutdown();
+
+        assertThat(dispatcher.getNumberDiscarded(), is(1L));
+        assertThat(dispatcher.getNumberDelivered(), is(2L));
+        assertThat(blocking.published.size(), is(2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknown_overflow_policy() throws Exception {
+        dispatcher = newDispatcher(ImmutableMap.of(
+                PublishingDispatcherAsync.KEY_ASYNC, "true",
+                PublishingDispatcherAsync.KEY_OVERFLOW_POLICY, "explode"),
+                new RecordingPublisherService());
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtime.services.queryresultscache;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Sets;
+
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.applib.services.bookmark.Bookmark;
+import org.apache.isis.applib.services.bookmark.BookmarkService;
+import org.apache.isis.applib.services.queryresultscache.QueryResultsCache;
+import org.apache.isis.applib.services.queryresultscache.SharedQueryResults;
+import org.apache.isis.core.metamodel.services.persistsession.PersistenceSessionServiceInternal;
+import org.apache.isis.core.runtime.services.changes.ChangedObjectsServiceInternal;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class QueryResultsCacheSharedDefaultTest {
+
+    static class Country {}
+    static class UkCountry extends Country {}
+    static class Region {}
+
+    static class Countries {
+        @SharedQueryResults(dependsOn = Country.class)
+        public String findByCode(final String code) { return null; }
+        public String findByName(final String name) { return null; }
+    }
+
+    static class Customer {}
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(JUnitRuleMockery2.Mode.INTERFACES_ONLY);
+
+    @Mock
+    private PersistenceSessionServiceInternal mockPersistenceSessionServiceInternal;
+
+    private QueryResultsCacheSharedDefault sharedCache;
+    private AtomicInteger calls;
+    private Set<Class<?>> enlistedTypes;
+
+    @Before
+    public void setUp() throws Exception {
+        sharedCache = new QueryResultsCacheSharedDefault();
+        sharedCache.control = () -> false;
+        enlistedTypes = Sets.newLinkedHashSet();
+        sharedCache.changedObjectsServiceInternal = new ChangedObjectsServiceInternal() {
+            @Override
+            public Set<Class<?>> getEnlistedTypes() {
+                return enlistedTypes;
+            }
+        };
+        sharedCache.persistenceSessionServiceInternal = mockPersistenceSessionServiceInternal;
+        sharedCache.init(Collections.<String,String>emptyMap());
+        calls = new AtomicInteger();
+    }
+
+    private Callable<String> callable() {
+        return () -> "result-" + calls.incrementAndGet();
+    }
+
+    @Test
+    public void caches_when_annotated() throws Exception {
+        final QueryResultsCache.Key key = new QueryResultsCache.Key(Countries.class, "findByCode", "UK");
+
+        assertThat(sharedCache.execute(callable(), key), is("result-1"));
+        assertThat(sharedCache.execute(callable(), key), is("result-1"));
+
+        assertThat(calls.get(), is(1));
+        assertThat(sharedCache.numberOfHits(), is(1L));
+        assertThat(sharedCache.numberOfMisses(), is(1L));
+    }
+
+    @Test
+    public void passes_through_when_no_policy() throws Exception {
+        final QueryResultsCache.Key key = new QueryResultsCache.Key(Countries.class, "findByName", "United Kingdom");
+
+        assertThat(sharedCache.execute(callable(), key), is("result-1"));
+        assertThat(sharedCache.execute(callable(), key), is("result-2"));
+
+        assertThat(sharedCache.numberOfHits(), is(0L));
+        assertThat(sharedCache.numberOfMisses(), is(0L));
+    }
+
+    @Test
+    public void caches_when_configured() throws Exception {
+        sharedCache.init(ImmutableMap.of(
+                QueryResultsCacheSharedDefault.KEY_PREFIX + Countries.class.getName() + ".findByName"
+                        + QueryResultsCacheSharedDefault.KEY_SUFFIX_MAX_SIZE, "10"));
+        final QueryResultsCache.Key key = new QueryResultsCache.Key(Countries.class, "findByName", "United Kingdom");
+
+        assertThat(sharedCache.execute(callable(), key), is("result-1"));
+        assertThat(sharedCache.execute(callable(), key), is("result-1"));
+    }
+
+    @Test
+    public void invalidated_by_change_to_dependent_type_or_subtype() throws Exception {
+        final QueryResultsCache.Key key = new QueryResultsCache.Key(Countries.class, "findByCode", "UK");
+        sharedCache.execute(callable(), key);
+
+        sharedCache.invalidate(Region.class);
+        assertThat(sharedCache.execute(callable(), key), is("result-1"));
+
+        sharedCache.invalidate(UkCountry.class);
+        assertThat(sharedCache.execute(callable(), key), is("result-2"));
+    }
+
+    @Test
+    public void bypassed_once_dependent_type_changed_in_current_transaction() throws Exception {
+        final QueryResultsCache.Key key = new QueryResultsCache.Key(Countries.class, "findByCode", "UK");
+        sharedCache.execute(callable(), key);
+
+        // when
+        enlistedTypes.add(UkCountry.class);
+
+        // then reads its own writes, rather than the committed result held in the shared tier...
+        assertThat(sharedCache.execute(callable(), key), is("result-2"));
+        // ... nor is the result computed within this transaction shared
+        assertThat(sharedCache.execute(callable(), key), is("result-3"));
+
+        // whereas a transaction that has changed nothing still hits
+        enlistedTypes.clear();
+        assertThat(sharedCache.execute(callable(), key), is("result-1"));
+    }
+
+    @Test
+    public void evicts_least_recently_used_when_full() throws Exception {
+        sharedCache.init(ImmutableMap.of(
+                QueryResultsCacheSharedDefault.KEY_PREFIX + Countries.class.getName() + ".findByName"
+                        + QueryResultsCacheSharedDefault.KEY_SUFFIX_MAX_SIZE, "1"));
+
+        sharedCache.execute(callable(), new QueryResultsCache.Key(Countries.class, "findByName", "France"));
+        sharedCache.execute(callable(), new QueryResultsCache.Key(Countries.class, "findByName", "Germany"));
+
+        assertThat(sharedCache.numberOfEvictions(), is(1L));
+    }
+
+    @Test
+    public void domain_objects_are_shared_as_bookmarks_and_resolved_in_the_calling_session() throws Exception {
+        final Customer computed = new Customer();
+        final Customer resolved = new Customer();
+        final Bookmark bookmark = new Bookmark("CUS", "1");
+        context.checking(new Expectations() {{
+            allowing(mockPersistenceSessionServiceInternal).bookmarkFor(computed);
+            will(returnValue(bookmark));
+            allowing(mockPersistenceSessionServiceInternal).lookup(bookmark, BookmarkService.FieldResetPolicy.DONT_RESET);
+            will(returnValue(resolved));
+        }});
+        final QueryResultsCache.Key key = new QueryResultsCache.Key(Countries.class, "findByCode", "UK");
+
+        sharedCache.execute(() -> Arrays.asList(computed), key);
+        final List<Customer> hit = sharedCache.execute(() -> Arrays.asList(new Customer()), key);
+
+        assertThat(hit.size(), is(1));
+        assertThat(hit.get(0), is(sameInstance(resolved)));
+    }
+
+    @Test
+    public void transient_objects_are_not_shared() throws Exception {
+        final Customer computed = new Customer();
+        context.checking(new Expectations() {{
+            allowing(mockPersistenceSessionServiceInternal).bookmarkFor(computed);
+            will(returnValue(new Bookmark("!CUS", "1")));
+        }});
+        final QueryResultsCache.Key key = new QueryResultsCache.Key(Countries.class, "findByCode", "UK");
+
+        sharedCache.execute(() -> computed, key);
+        final Customer second = new Customer();
+        assertThat(sharedCache.execute(() -> second, key), is(sameInstance(second)));
+    }
+
+    @Test
+    public void mutable_values_are_not_shared() throws Exception {
+        final Date first = new Date(0);
+        final Date second = new Date(0);
+        final QueryResultsCache.Key key = new QueryResultsCache.Key(Countries.class, "findByCode", "UK");
+
+        sharedCache.execute(() -> first, key);
+        assertThat(sharedCache.execute(() -> second, key), is(sameInstance(second)));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shared_lists_are_unmodifiable_copies() throws Exception {
+        final QueryResultsCache.Key key = new QueryResultsCache.Key(Countries.class, "findByCode", "UK");
+        sharedCache.execute(() -> Arrays.asList("a", "b"), key);
+
+        final List<String> hit = sharedCache.execute(() -> Arrays.asList("c"), key);
+        assertThat(hit, is(Arrays.asList("a", "b")));
+        hit.add("d");
+    }
+
+}
@@ -0,0 +1,179 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtime.system.persistence;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.isis.core.metamodel.adapter.oid.RootOid;
+import org.apache.isis.core.metamodel.spec.ObjectSpecId;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class EnqueuedOidsTest {
+
+    /**
+     * Resolves oids as the {@link PersistenceSession} does: from the adapter map if mapped, else from any enqueued
+     * batch, else individually.
+     */
+    static class RecordingLoader implements EnqueuedOids.Loader {
+
+        final Set<RootOid> mapped = Sets.newHashSet();
+        final List<List<RootOid>> batches = Lists.newArrayList();
+        final List<RootOid> loadedIndividually = Lists.newArrayList();
+
+        EnqueuedOids enqueuedOids;
+
+        @Override
+        public boolean isMapped(final RootOid rootOid) {
+            return mapped.contains(rootOid);
+        }
+
+        @Override
+        public Map<RootOid, Object> load(final List<RootOid> rootOids) {
+            batches.add(Lists.newArrayList(rootOids));
+            final Map<RootOid, Object> pojoByOid = Maps.newLinkedHashMap();
+            for (final RootOid rootOid : rootOids) {
+                pojoByOid.put(rootOid, new Object());
+            }
+            return pojoByOid;
+        }
+
+        @Override
+        public void map(final RootOid rootOid, final Object pojo) {
+            mapped.add(rootOid);
+        }
+
+        void resolve(final RootOid rootOid) {
+            if(isMapped(rootOid)) {
+                return;
+            }
+            enqueuedOids.loadIfEnqueued(rootOid);
+            if(!isMapped(rootOid)) {
+                loadedIndividually.add(rootOid);
+                mapped.add(rootOid);
+            }
+        }
+
+        List<Integer> batchSizes() {
+            final List<Integer> batchSizes = Lists.newArrayList();
+            for (final List<RootOid> batch : batches) {
+                batchSizes.add(batch.size());
+            }
+            return batchSizes;
+        }
+    }
+
+    private RecordingLoader loader;
+
+    @Before
+    public void setUp() throws Exception {
+        loader = new RecordingLoader();
+    }
+
+    private EnqueuedOids newEnqueuedOids(final int batchSize) {
+        final EnqueuedOids enqueuedOids = new EnqueuedOids(batchSize, loader);
+        loader.enqueuedOids = enqueuedOids;
+        return enqueuedOids;
+    }
+
+    private static List<RootOid> oids(final String specId, final int number) {
+        final List<RootOid> rootOids = Lists.newArrayList();
+        for (int i = 1; i <= number; i++) {
+            rootOids.add(RootOid.create(ObjectSpecId.of(specId), "" + i));
+        }
+        return rootOids;
+    }
+
+    @Test
+    public void n_lookups_are_loaded_in_a_single_batch() throws Exception {
+        final EnqueuedOids enqueuedOids = newEnqueuedOids(100);
+        final List<RootOid> customerOids = oids("CUS", 5);
+        for (final RootOid rootOid : customerOids) {
+            enqueuedOids.enqueue(rootOid);
+        }
+
+        for (final RootOid rootOid : customerOids) {
+            loader.resolve(rootOid);
+        }
+
+        assertThat(loader.batches, is(Arrays.asList(customerOids)));
+        assertThat(loader.loadedIndividually.isEmpty(), is(true));
+    }
+
+    @Test
+    public void more_than_batch_size_are_loaded_in_several_batches() throws Exception {
+        final EnqueuedOids enqueuedOids = newEnqueuedOids(3);
+        final List<RootOid> customerOids = oids("CUS", 8);
+        for (final RootOid rootOid : customerOids) {
+            enqueuedOids.enqueue(rootOid);
+        }
+
+        for (final RootOid rootOid : customerOids) {
+            loader.resolve(rootOid);
+        }
+
+        assertThat(loader.batchSizes(), is(Arrays.asList(3, 3, 2)));
+        final List<RootOid> loaded = Lists.newArrayList();
+        for (final List<RootOid> batch : loader.batches) {
+            loaded.addAll(batch);
+        }
+        assertThat(loaded, is(customerOids));
+        assertThat(loader.loadedIndividually.isEmpty(), is(true));
+    }
+
+    @Test
+    public void batch_holds_only_oids_of_the_same_type() throws Exception {
+        final EnqueuedOids enqueuedOids = newEnqueuedOids(100);
+        final List<RootOid> customerOids = oids("CUS", 2);
+        final List<RootOid> orderOids = oids("ORD", 2);
+        enqueuedOids.enqueue(customerOids.get(0));
+        enqueuedOids.enqueue(orderOids.get(0));
+        enqueuedOids.enqueue(customerOids.get(1));
+        enqueuedOids.enqueue(orderOids.get(1));
+
+        loader.resolve(customerOids.get(0));
+
+        assertThat(loader.batches, is(Arrays.asList(customerOids)));
+    }
+
+    @Test
+    public void oids_not_enqueued_are_loaded_individually() throws Exception {
+        final EnqueuedOids enqueuedOids = newEnqueuedOids(100);
+        final List<RootOid> customerOids = oids("CUS", 3);
+        enqueuedOids.enqueue(customerOids.get(0));
+        enqueuedOids.enqueue(customerOids.get(1));
+
+        loader.resolve(customerOids.get(2));
+
+        assertThat(loader.batches.isEmpty(), is(true));
+        assertThat(loader.loadedIndividually, is(Arrays.asList(customerOids.get(2))));
+    }
+
+}
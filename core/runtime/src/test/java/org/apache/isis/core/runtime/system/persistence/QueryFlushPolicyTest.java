@@ -0,0 +1,111 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtime.system.persistence;
+
+import java.util.Collections;
+
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.core.metamodel.spec.Hierarchical;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.feature.Contributed;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class QueryFlushPolicyTest {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(JUnitRuleMockery2.Mode.INTERFACES_ONLY);
+
+    @Mock
+    private ObjectSpecification mockCustomerSpec;
+    @Mock
+    private ObjectSpecification mockVipCustomerSpec;
+    @Mock
+    private ObjectSpecification mockAddressSpec;
+    @Mock
+    private ObjectSpecification mockProductSpec;
+    @Mock
+    private ObjectAssociation mockAddressProperty;
+
+    @Before
+    public void setUp() throws Exception {
+        context.checking(new Expectations() {{
+            allowing(mockCustomerSpec).subclasses(Hierarchical.Depth.TRANSITIVE);
+            will(returnValue(Collections.singletonList(mockVipCustomerSpec)));
+
+            allowing(mockCustomerSpec).getAssociations(Contributed.EXCLUDED);
+            will(returnValue(Collections.singletonList(mockAddressProperty)));
+            allowing(mockAddressProperty).getSpecification();
+            will(returnValue(mockAddressSpec));
+
+            allowing(mockVipCustomerSpec).getAssociations(Contributed.EXCLUDED);
+            will(returnValue(Collections.emptyList()));
+            allowing(mockAddressSpec).getAssociations(Contributed.EXCLUDED);
+            will(returnValue(Collections.emptyList()));
+            allowing(mockProductSpec).getAssociations(Contributed.EXCLUDED);
+            will(returnValue(Collections.emptyList()));
+
+            allowing(mockAddressSpec).isOfType(mockAddressSpec);
+            will(returnValue(true));
+        }});
+    }
+
+    @Test
+    public void when_nothing_changed() throws Exception {
+        assertThat(QueryFlushPolicy.isFlushRequired(
+                mockCustomerSpec, Collections.<ObjectSpecification>emptyList()), is(false));
+    }
+
+    @Test
+    public void when_candidate_type_changed() throws Exception {
+        assertThat(QueryFlushPolicy.isFlushRequired(
+                mockCustomerSpec, Collections.singletonList(mockCustomerSpec)), is(true));
+    }
+
+    @Test
+    public void when_subclass_of_candidate_type_changed() throws Exception {
+        assertThat(QueryFlushPolicy.isFlushRequired(
+                mockCustomerSpec, Collections.singletonList(mockVipCustomerSpec)), is(true));
+    }
+
+    @Test
+    public void when_associated_type_changed() throws Exception {
+        assertThat(QueryFlushPolicy.isFlushRequired(
+                mockCustomerSpec, Collections.singletonList(mockAddressSpec)), is(true));
+    }
+
+    @Test
+    public void when_unrelated_type_changed() throws Exception {
+        context.checking(new Expectations() {{
+            allowing(mockProductSpec).isOfType(with(any(ObjectSpecification.class)));
+            will(returnValue(false));
+        }});
+        assertThat(QueryFlushPolicy.isFlushRequired(
+                mockCustomerSpec, Collections.singletonList(mockProductSpec)), is(false));
+    }
+
+}
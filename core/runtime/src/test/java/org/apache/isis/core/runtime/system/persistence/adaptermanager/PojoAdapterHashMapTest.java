@@ -0,0 +1,135 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.core.runtime.system.persistence.adaptermanager;
+
+import org.jmock.auto.Mock;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class PojoAdapterHashMapTest {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(JUnitRuleMockery2.Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private ObjectAdapter mockAdapter1;
+    @Mock
+    private ObjectAdapter mockAdapter2;
+
+    /**
+     * Equal to every other instance, so that only identity distinguishes them.
+     */
+    static class Customer {
+        @Override
+        public boolean equals(final Object obj) {
+            return obj instanceof Customer;
+        }
+
+        @Override
+        public int hashCode() {
+            return 1;
+        }
+    }
+
+    @Test
+    public void keyedByIdentity() throws Exception {
+        final PojoAdapterHashMap map = new PojoAdapterHashMap();
+        final Customer customer1 = new Customer();
+        final Customer customer2 = new Customer();
+
+        map.add(customer1, mockAdapter1);
+
+        assertThat(map.containsPojo(customer1), is(true));
+        assertThat(map.containsPojo(customer2), is(false));
+        assertThat(map.getAdapter(customer1), is(sameInstance(mockAdapter1)));
+        assertThat(map.getAdapter(customer2), is(nullValue()));
+    }
+
+    @Test
+    public void keyedByIdentity_whenWeak() throws Exception {
+        final PojoAdapterHashMap map = new PojoAdapterHashMap(10, true);
+        final Customer customer1 = new Customer();
+        final Customer customer2 = new Customer();
+
+        map.add(customer1, mockAdapter1);
+        map.add(customer2, mockAdapter2);
+
+        assertThat(map.getAdapter(customer1), is(sameInstance(mockAdapter1)));
+        assertThat(map.getAdapter(customer2), is(sameInstance(mockAdapter2)));
+    }
+
+    @Test
+    public void ensureAdditionalCapacity_retainsEntries() throws Exception {
+        final PojoAdapterHashMap map = new PojoAdapterHashMap(1);
+        final Customer customer1 = new Customer();
+        final Customer customer2 = new Customer();
+        map.add(customer1, mockAdapter1);
+
+        map.ensureAdditionalCapacity(1000);
+        map.add(customer2, mockAdapter2);
+
+        assertThat(map.getAdapter(customer1), is(sameInstance(mockAdapter1)));
+        assertThat(map.getAdapter(customer2), is(sameInstance(mockAdapter2)));
+    }
+
+    @Test
+    public void ensureAdditionalCapacity_growsGeometrically() throws Exception {
+        final PojoAdapterHashMap map = new PojoAdapterHashMap(10);
+
+        map.ensureAdditionalCapacity(11);
+        assertThat(map.getCapacity(), is(20));
+
+        map.ensureAdditionalCapacity(20);
+        assertThat(map.getCapacity(), is(20));
+
+        map.ensureAdditionalCapacity(50);
+        assertThat(map.getCapacity(), is(50));
+    }
+
+    @Test
+    public void capacity_tracksGrowthFromAdds() throws Exception {
+        final PojoAdapterHashMap map = new PojoAdapterHashMap(2);
+        map.add(new Customer(), mockAdapter1);
+        map.add(new Customer(), mockAdapter1);
+        map.add(new Customer(), mockAdapter1);
+
+        assertThat(map.getCapacity(), is(4));
+
+        // already has room, so no copy
+        map.ensureAdditionalCapacity(1);
+        assertThat(map.getCapacity(), is(4));
+    }
+
+    @Test
+    public void getAdapter_whenNull() throws Exception {
+        final PojoAdapterHashMap map = new PojoAdapterHashMap(10, true);
+
+        assertThat(map.getAdapter(null), is(nullValue()));
+        assertThat(map.containsPojo(null), is(false));
+    }
+
+}
@@ -0,0 +1,167 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.objectstore.jdo.datanucleus.persistence.queries;
+
+import java.util.Map;
+
+import com.google.common.collect.ImmutableMap;
+
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.applib.query.QueryPredicate;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
+import org.apache.isis.core.runtime.persistence.UnsupportedFindException;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class JdoqlFilterTest {
+
+    public static class Customer {
+    }
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(JUnitRuleMockery2.Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    ObjectSpecification mockCustomerSpec;
+    @Mock
+    ObjectAssociation mockLastName;
+    @Mock
+    ObjectAssociation mockCreditLimit;
+    @Mock
+    ObjectAssociation mockFullName;
+    @Mock
+    ObjectAssociation mockOrders;
+
+    @Before
+    public void setUp() throws Exception {
+        context.checking(new Expectations() {{
+            allowing(mockCustomerSpec).getFullIdentifier();
+            will(returnValue(Customer.class.getName()));
+
+            allowing(mockCustomerSpec).getAssociation("lastName");
+            will(returnValue(mockLastName));
+            allowing(mockLastName).isOneToOneAssociation();
+            will(returnValue(true));
+            allowing(mockLastName).isNotPersisted();
+            will(returnValue(false));
+
+            allowing(mockCustomerSpec).getAssociation("creditLimit");
+            will(returnValue(mockCreditLimit));
+            allowing(mockCreditLimit).isOneToOneAssociation();
+            will(returnValue(true));
+            allowing(mockCreditLimit).isNotPersisted();
+            will(returnValue(false));
+
+            allowing(mockCustomerSpec).getAssociation("fullName");
+            will(returnValue(mockFullName));
+            allowing(mockFullName).isOneToOneAssociation();
+            will(returnValue(true));
+            allowing(mockFullName).isNotPersisted();
+            will(returnValue(true));
+
+            allowing(mockCustomerSpec).getAssociation("orders");
+            will(returnValue(mockOrders));
+            allowing(mockOrders).isOneToOneAssociation();
+            will(returnValue(false));
+            allowing(mockOrders).isNotPersisted();
+            will(returnValue(false));
+
+            allowing(mockCustomerSpec).getAssociation("firstName");
+            will(returnValue(null));
+        }});
+    }
+
+    @Test
+    public void operators() throws Exception {
+        assertFilter(QueryPredicate.eq("lastName", "Smith"), "lastName == :p0", ImmutableMap.of("p0", "Smith"));
+        assertFilter(QueryPredicate.ne("lastName", "Smith"), "lastName != :p0", ImmutableMap.of("p0", "Smith"));
+        assertFilter(QueryPredicate.lt("creditLimit", 100), "creditLimit < :p0", ImmutableMap.of("p0", 100));
+        assertFilter(QueryPredicate.le("creditLimit", 100), "creditLimit <= :p0", ImmutableMap.of("p0", 100));
+        assertFilter(QueryPredicate.gt("creditLimit", 100), "creditLimit > :p0", ImmutableMap.of("p0", 100));
+        assertFilter(QueryPredicate.ge("creditLimit", 100), "creditLimit >= :p0", ImmutableMap.of("p0", 100));
+        assertFilter(QueryPredicate.startsWith("lastName", "Sm"), "lastName.startsWith(:p0)", ImmutableMap.of("p0", "Sm"));
+    }
+
+    @Test
+    public void null_checks_have_no_parameters() throws Exception {
+        assertFilter(QueryPredicate.isNull("creditLimit"), "creditLimit == null", ImmutableMap.<String, Object>of());
+        assertFilter(QueryPredicate.isNotNull("creditLimit"), "creditLimit != null", ImmutableMap.<String, Object>of());
+    }
+
+    @Test
+    public void nested_junctions_and_negation() throws Exception {
+        final QueryPredicate<Customer> predicate = QueryPredicate.allOf(
+                QueryPredicate.<Customer>startsWith("lastName", "Sm"),
+                QueryPredicate.not(QueryPredicate.anyOf(
+                        QueryPredicate.<Customer>gt("creditLimit", 100),
+                        QueryPredicate.<Customer>isNull("creditLimit"))),
+                QueryPredicate.<Customer>ne("lastName", "Smithers"));
+
+        assertFilter(predicate,
+                "(lastName.startsWith(:p0) && !((creditLimit > :p1 || creditLimit == null)) && lastName != :p2)",
+                ImmutableMap.<String, Object>of("p0", "Sm", "p1", 100, "p2", "Smithers"));
+    }
+
+    @Test
+    public void empty_junctions() throws Exception {
+        assertFilter(QueryPredicate.<Customer>allOf(), "true", ImmutableMap.<String, Object>of());
+        assertFilter(QueryPredicate.<Customer>anyOf(), "false", ImmutableMap.<String, Object>of());
+    }
+
+    @Test(expected = UnsupportedFindException.class)
+    public void rejects_non_persisted_property() throws Exception {
+        JdoqlFilter.of(QueryPredicate.eq("fullName", "Fred Smith"), mockCustomerSpec);
+    }
+
+    @Test(expected = UnsupportedFindException.class)
+    public void rejects_collection() throws Exception {
+        JdoqlFilter.of(QueryPredicate.isNotNull("orders"), mockCustomerSpec);
+    }
+
+    @Test(expected = UnsupportedFindException.class)
+    public void rejects_unknown_property() throws Exception {
+        JdoqlFilter.of(QueryPredicate.eq("firstName", "Fred"), mockCustomerSpec);
+    }
+
+    @Test(expected = UnsupportedFindException.class)
+    public void rejects_non_persisted_property_when_nested() throws Exception {
+        JdoqlFilter.of(QueryPredicate.not(QueryPredicate.anyOf(
+                QueryPredicate.eq("lastName", "Smith"),
+                QueryPredicate.eq("fullName", "Fred Smith"))), mockCustomerSpec);
+    }
+
+    private void assertFilter(
+            final QueryPredicate<?> predicate,
+            final String expectedFilter,
+            final Map<String, ?> expectedArgumentsByParameterName) {
+        final JdoqlFilter jdoqlFilter = JdoqlFilter.of(predicate, mockCustomerSpec);
+        assertThat(jdoqlFilter.getFilter(), is(expectedFilter));
+        assertThat(jdoqlFilter.getArgumentsByParameterName(),
+                is(ImmutableMap.<String, Object>copyOf(expectedArgumentsByParameterName)));
+    }
+
+}
@@ -0,0 +1,138 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.objectstore.jdo.datanucleus.persistence.queries;
+
+import java.util.Collections;
+import java.util.List;
+
+import javax.jdo.Query;
+
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.runtime.persistence.query.PersistenceQueryFindAllInstances;
+import org.apache.isis.core.runtime.system.persistence.PersistenceSession;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class PersistenceQueryFindAllInstancesProcessorTest {
+
+    public static class Customer {
+    }
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(JUnitRuleMockery2.Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    PersistenceSession mockPersistenceSession;
+    @Mock
+    ObjectSpecification mockCustomerSpec;
+    @Mock
+    Query mockJdoQuery;
+
+    private PersistenceQueryFindAllInstancesProcessor processor;
+    private PersistenceQueryFindAllInstances persistenceQuery;
+
+    @Before
+    public void setUp() throws Exception {
+        context.checking(new Expectations() {{
+            allowing(mockCustomerSpec).getCorrespondingClass();
+            will(returnValue(Customer.class));
+            allowing(mockCustomerSpec).getFullIdentifier();
+            will(returnValue(Customer.class.getName()));
+
+            oneOf(mockPersistenceSession).newJdoQuery(Customer.class);
+            will(returnValue(mockJdoQuery));
+            allowing(mockJdoQuery).addExtension("datanucleus.multivaluedFetch", "none");
+        }});
+
+        processor = new PersistenceQueryFindAllInstancesProcessor(mockPersistenceSession);
+        persistenceQuery = new PersistenceQueryFindAllInstances(mockCustomerSpec);
+    }
+
+    @Test
+    public void count_is_evaluated_by_the_datastore() throws Exception {
+        context.checking(new Expectations() {{
+            oneOf(mockJdoQuery).setResult("count(this)");
+            oneOf(mockJdoQuery).setOrdering(null);
+            oneOf(mockJdoQuery).setUnique(true);
+            oneOf(mockJdoQuery).executeWithMap(Collections.emptyMap());
+            will(returnValue(42L));
+            oneOf(mockJdoQuery).closeAll();
+        }});
+
+        assertThat(processor.count(persistenceQuery), is(42L));
+    }
+
+    @Test
+    public void count_ignores_ordering_and_range() throws Exception {
+        persistenceQuery.pageBy("name", true, 20, 10);
+
+        context.checking(new Expectations() {{
+            oneOf(mockJdoQuery).setResult("count(this)");
+            oneOf(mockJdoQuery).setOrdering(null);
+            oneOf(mockJdoQuery).setUnique(true);
+            never(mockJdoQuery).setRange(with(any(Long.class)), with(any(Long.class)));
+            oneOf(mockJdoQuery).executeWithMap(Collections.emptyMap());
+            will(returnValue(null));
+            oneOf(mockJdoQuery).closeAll();
+        }});
+
+        assertThat(processor.count(persistenceQuery), is(0L));
+    }
+
+    @Test
+    public void ordering_and_range_are_pushed_down() throws Exception {
+        persistenceQuery.pageBy("name", false, 20, 10);
+
+        context.checking(new Expectations() {{
+            oneOf(mockJdoQuery).setOrdering("name descending");
+            oneOf(mockJdoQuery).setRange(20L, 30L);
+            oneOf(mockJdoQuery).executeWithMap(Collections.emptyMap());
+            will(returnValue(Collections.emptyList()));
+            allowing(mockPersistenceSession).ensureAdapterMapCapacity(0);
+            oneOf(mockJdoQuery).closeAll();
+        }});
+
+        final List<ObjectAdapter> adapters = processor.process(persistenceQuery);
+
+        assertThat(adapters.isEmpty(), is(true));
+    }
+
+    @Test
+    public void when_not_paged() throws Exception {
+        context.checking(new Expectations() {{
+            never(mockJdoQuery).setOrdering(with(any(String.class)));
+            never(mockJdoQuery).setRange(with(any(Long.class)), with(any(Long.class)));
+            oneOf(mockJdoQuery).executeWithMap(Collections.emptyMap());
+            will(returnValue(Collections.emptyList()));
+            allowing(mockPersistenceSession).ensureAdapterMapCapacity(0);
+            oneOf(mockJdoQuery).closeAll();
+        }});
+
+        processor.process(persistenceQuery);
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.objectstore.jdo.datanucleus.persistence.queries;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import com.google.common.collect.Lists;
+
+import org.datanucleus.enhancement.Persistable;
+import org.jmock.Expectations;
+import org.jmock.api.Invocation;
+import org.jmock.auto.Mock;
+import org.jmock.lib.action.CustomAction;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.runtime.system.persistence.PersistenceSession;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class PersistenceQueryProcessorAbstractTest_stream {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(JUnitRuleMockery2.Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    PersistenceSession mockPersistenceSession;
+
+    /**
+     * Stands in for the adapter map of the persistence session; each pojo loaded also loads a related pojo.
+     */
+    private final Map<Object, ObjectAdapter> adapterByPojo = new IdentityHashMap<>();
+    private final List<Consumer<ObjectAdapter>> observers = Lists.newArrayList();
+    private final Map<Object, Object> relatedByPojo = new IdentityHashMap<>();
+    private int maxMapped;
+
+    private PersistenceQueryFindAllInstancesProcessor processor;
+
+    @Before
+    public void setUp() throws Exception {
+        context.checking(new Expectations() {{
+            allowing(mockPersistenceSession).addLoadedAdapterObserver(with(any(Consumer.class)));
+            will(new CustomAction("add observer") {
+                @SuppressWarnings("unchecked")
+                @Override
+                public Object invoke(final Invocation invocation) {
+                    observers.add((Consumer<ObjectAdapter>) invocation.getParameter(0));
+                    return null;
+                }
+            });
+            allowing(mockPersistenceSession).removeLoadedAdapterObserver(with(any(Consumer.class)));
+            will(new CustomAction("remove observer") {
+                @Override
+                public Object invoke(final Invocation invocation) {
+                    observers.remove(invocation.getParameter(0));
+                    return null;
+                }
+            });
+            allowing(mockPersistenceSession).initializeMapAndCheckConcurrency(with(any(Persistable.class)));
+            will(new CustomAction("load") {
+                @Override
+                public Object invoke(final Invocation invocation) {
+                    final Object pojo = invocation.getParameter(0);
+                    load(pojo);
+                    load(relatedByPojo.get(pojo));
+                    return null;
+                }
+            });
+            allowing(mockPersistenceSession).getAdapterFor(with(any(Object.class)));
+            will(new CustomAction("get adapter") {
+                @Override
+                public Object invoke(final Invocation invocation) {
+                    return adapterByPojo.get(invocation.getParameter(0));
+                }
+            });
+            allowing(mockPersistenceSession).evictIfClean(with(any(ObjectAdapter.class)));
+            will(new CustomAction("evict") {
+                @Override
+                public Object invoke(final Invocation invocation) {
+                    adapterByPojo.values().remove(invocation.getParameter(0));
+                    return null;
+                }
+            });
+        }});
+
+        processor = new PersistenceQueryFindAllInstancesProcessor(mockPersistenceSession);
+    }
+
+    private void load(final Object pojo) {
+        if(pojo == null || adapterByPojo.containsKey(pojo)) {
+            return;
+        }
+        final ObjectAdapter adapter = context.mock(ObjectAdapter.class, "adapter-" + adapterByPojo.size() + "-" + pojo);
+        adapterByPojo.put(pojo, adapter);
+        maxMapped = Math.max(maxMapped, adapterByPojo.size());
+        for (final Consumer<ObjectAdapter> observer : Lists.newArrayList(observers)) {
+            observer.accept(adapter);
+        }
+    }
+
+    private List<Persistable> newPojos(final int number) {
+        final List<Persistable> pojos = Lists.newArrayList();
+        for (int i = 0; i < number; i++) {
+            final Persistable pojo = context.mock(Persistable.class, "pojo" + i);
+            relatedByPojo.put(pojo, context.mock(Persistable.class, "related" + i));
+            pojos.add(pojo);
+        }
+        return pojos;
+    }
+
+    @Test
+    public void adapter_map_stays_bounded() throws Exception {
+        final List<Persistable> pojos = newPojos(50);
+
+        final Iterator<ObjectAdapter> adapters = processor.new EvictingIterator(pojos.iterator());
+        int count = 0;
+        while (adapters.hasNext()) {
+            final ObjectAdapter adapter = adapters.next();
+            assertThat(adapter, is(sameInstance(adapterByPojo.get(pojos.get(count)))));
+            count++;
+        }
+
+        assertThat(count, is(50));
+        // the current pojo and its related pojo
+        assertThat(maxMapped, is(2));
+        // released once exhausted
+        assertThat(adapterByPojo.isEmpty(), is(true));
+        assertThat(observers.isEmpty(), is(true));
+    }
+
+    @Test
+    public void objects_mapped_before_streaming_are_not_released() throws Exception {
+        final List<Persistable> pojos = newPojos(3);
+        load(pojos.get(1));
+        final ObjectAdapter alreadyMapped = adapterByPojo.get(pojos.get(1));
+        final ObjectAdapter relatedAlreadyMapped = adapterByPojo.get(relatedByPojo.get(pojos.get(1)));
+
+        final PersistenceQueryProcessorAbstract<?>.EvictingIterator adapters =
+                processor.new EvictingIterator(pojos.iterator());
+        adapters.next();
+        adapters.next();
+        adapters.next();
+        adapters.close();
+
+        assertThat(adapterByPojo.size(), is(2));
+        assertThat(adapterByPojo.get(pojos.get(1)), is(sameInstance(alreadyMapped)));
+        assertThat(adapterByPojo.get(relatedByPojo.get(pojos.get(1))), is(sameInstance(relatedAlreadyMapped)));
+    }
+
+}
@@ -0,0 +1,45 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.objectstore.jdo.datanucleus.valuetypes;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class JdbcLobSourceTest {
+
+    @Test
+    public void validated_whenPlainName() throws Exception {
+        assertThat(JdbcLobSource.validated("CUSTOMER_DOCUMENT"), is("CUSTOMER_DOCUMENT"));
+        assertThat(JdbcLobSource.validated("content_bytes$1"), is("content_bytes$1"));
+    }
+
+    @Test
+    public void validated_whenNotPlainName() throws Exception {
+        assertThat(JdbcLobSource.validated(null), is(nullValue()));
+        assertThat(JdbcLobSource.validated(""), is(nullValue()));
+        assertThat(JdbcLobSource.validated("1COLUMN"), is(nullValue()));
+        assertThat(JdbcLobSource.validated("\"QUOTED\""), is(nullValue()));
+        assertThat(JdbcLobSource.validated("X; DROP TABLE Y"), is(nullValue()));
+        assertThat(JdbcLobSource.validated("A.B"), is(nullValue()));
+    }
+
+}
@@ -46,6 +46,7 @@
 import org.apache.shiro.subject.PrincipalCollection;
 import org.apache.shiro.util.StringUtils;
 
+import org.apache.isis.security.shiro.authorization.AuthorizationDecisionCache;
 import org.apache.isis.security.shiro.permrolemapper.PermissionToRoleMapper;
 import org.apache.isis.security.shiro.permrolemapper.PermissionToRoleMapperFromIni;
 import org.apache.isis.security.shiro.permrolemapper.PermissionToRoleMapperFromString;
@@ -402,6 +403,7 @@ public void setUniqueMemberAttributeValueTemplate(String template) {
 
     public void setRolesByGroup(Map<String, String> rolesByGroup) {
         this.rolesByGroup.putAll(rolesByGroup);
+        AuthorizationDecisionCache.invalidateAll();
     }
 
     /**
@@ -443,6 +445,7 @@ public void setResourcePath(String resourcePath) {
         }
         final Ini ini = Ini.fromResourcePath(resourcePath);
         this.permissionToRoleMapper = new PermissionToRoleMapperFromIni(ini);
+        AuthorizationDecisionCache.invalidateAll();
     }
 
     /**
@@ -464,6 +467,7 @@ public void setPermissionsByRole(String permissionsByRoleStr) {
             throw new IllegalStateException("Permissions already set, " + permissionToRoleMapper.getClass().getName());
         }
         this.permissionToRoleMapper = new PermissionToRoleMapperFromString(permissionsByRoleStr);
+        AuthorizationDecisionCache.invalidateAll();
     }
 
     public void setPermissionByUserAttribute(String permissionByUserAttr) {
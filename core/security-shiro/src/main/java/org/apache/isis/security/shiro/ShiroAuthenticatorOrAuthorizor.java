@@ -56,6 +56,7 @@
 import org.apache.isis.core.runtime.authentication.standard.SimpleSession;
 import org.apache.isis.core.runtime.authorization.AuthorizationManagerInstaller;
 import org.apache.isis.core.runtime.authorization.standard.Authorizor;
+import org.apache.isis.security.shiro.authorization.AuthorizationDecisionCache;
 import org.apache.isis.security.shiro.authorization.IsisPermission;
 
 /**
@@ -74,9 +75,17 @@ public class ShiroAuthenticatorOrAuthorizor implements Authenticator, Authorizor
     private static final String ISIS_AUTHENTICATION_SHIRO_AUTO_LOGOUT_KEY = "isis.authentication.shiro.autoLogoutIfAlreadyAuthenticated";
     private static final boolean ISIS_AUTHENTICATION_SHIRO_AUTO_LOGOUT_DEFAULT = false;
 
+    private static final String ISIS_AUTHORIZATION_SHIRO_CACHE_DECISIONS_KEY = "isis.authorization.shiro.cacheDecisions";
+    private static final boolean ISIS_AUTHORIZATION_SHIRO_CACHE_DECISIONS_DEFAULT = false;
+
+    private static final String ISIS_AUTHORIZATION_SHIRO_CACHE_DECISIONS_TIME_TO_LIVE_KEY = "isis.authorization.shiro.cacheDecisions.timeToLiveSeconds";
+    private static final int ISIS_AUTHORIZATION_SHIRO_CACHE_DECISIONS_TIME_TO_LIVE_DEFAULT = 60;
+
     // -- constructor and fields
     private final IsisConfiguration configuration;
     private final boolean autoLogout;
+    private final boolean cacheDecisions;
+    private final long cacheDecisionsTimeToLiveMillis;
 
     private DeploymentCategory deploymentCategory;
 
@@ -85,6 +94,12 @@ public ShiroAuthenticatorOrAuthorizor(final IsisConfiguration configuration) {
         autoLogout = configuration.getBoolean(
                 ISIS_AUTHENTICATION_SHIRO_AUTO_LOGOUT_KEY,
                 ISIS_AUTHENTICATION_SHIRO_AUTO_LOGOUT_DEFAULT);
+        cacheDecisions = configuration.getBoolean(
+                ISIS_AUTHORIZATION_SHIRO_CACHE_DECISIONS_KEY,
+                ISIS_AUTHORIZATION_SHIRO_CACHE_DECISIONS_DEFAULT);
+        cacheDecisionsTimeToLiveMillis = 1000L * configuration.getInteger(
+                ISIS_AUTHORIZATION_SHIRO_CACHE_DECISIONS_TIME_TO_LIVE_KEY,
+                ISIS_AUTHORIZATION_SHIRO_CACHE_DECISIONS_TIME_TO_LIVE_DEFAULT);
     }
 
     public IsisConfiguration getConfiguration() {
@@ -98,6 +113,8 @@ public IsisConfiguration getConfiguration() {
     @Override
     public void init(final DeploymentCategory deploymentCategory) {
         this.deploymentCategory = deploymentCategory;
+        // the realms may have been reconfigured
+        AuthorizationDecisionCache.invalidateAll();
     }
 
 
@@ -169,6 +186,9 @@ public AuthenticationSession authenticate(final AuthenticationRequest request, f
             return null;
         }
 
+        // in case the session is being reused by a different subject
+        AuthorizationDecisionCache.clear(currentSubject);
+
         return authenticationSessionFor(request, code, token, currentSubject);
     }
 
@@ -176,6 +196,7 @@ public AuthenticationSession authenticate(final AuthenticationRequest request, f
     public void logout(final AuthenticationSession session) {
         Subject currentSubject = SecurityUtils.getSubject();
         if(currentSubject.isAuthenticated()) {
+            AuthorizationDecisionCache.clear(currentSubject);
             currentSubject.logout();
         }
     }
@@ -239,15 +260,15 @@ private static AuthenticationToken asAuthenticationToken(final AuthenticationReq
 
     @Override
     public boolean isVisibleInAnyRole(Identifier identifier) {
-        return isPermitted(identifier, "r");
+        return isPermitted(identifier, AuthorizationDecisionCache.Qualifier.READ);
     }
 
     @Override
     public boolean isUsableInAnyRole(Identifier identifier) {
-        return isPermitted(identifier, "w");
+        return isPermitted(identifier, AuthorizationDecisionCache.Qualifier.WRITE);
     }
 
-    private boolean isPermitted(Identifier identifier, String qualifier) {
+    private boolean isPermitted(Identifier identifier, AuthorizationDecisionCache.Qualifier qualifier) {
         RealmSecurityManager securityManager = getSecurityManager();
         if(securityManager == null) {
               // since a security manager will always be present for regular web requests, presumably the user
@@ -255,15 +276,32 @@ private boolean isPermitted(Identifier identifier, String qualifier) {
             return true;
         }
 
-        String permission = asPermissionsString(identifier) + ":" + qualifier;
-
         Subject subject = SecurityUtils.getSubject();
-        
+
+        final AuthorizationDecisionCache decisionCache =
+                cacheDecisions
+                        ? AuthorizationDecisionCache.of(subject, securityManager.getRealms(), cacheDecisionsTimeToLiveMillis)
+                        : null;
+        if(decisionCache != null) {
+            final Boolean decision = decisionCache.lookup(identifier, qualifier);
+            if(decision != null) {
+                return decision;
+            }
+        }
+
+        String permission = asPermissionsString(identifier) + ":" + qualifier.getCode();
+
+        final boolean permitted;
         try {
-            return subject.isPermitted(permission);
+            permitted = subject.isPermitted(permission);
         } finally {
             IsisPermission.resetVetoedPermissions();
         }
+
+        if(decisionCache != null) {
+            decisionCache.put(identifier, qualifier, permitted);
+        }
+        return permitted;
     }
 
     private static String asPermissionsString(Identifier identifier) {
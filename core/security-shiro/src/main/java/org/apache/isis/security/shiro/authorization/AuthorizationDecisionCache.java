@@ -0,0 +1,262 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.security.shiro.authorization;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.base.Objects;
+
+import org.apache.shiro.authz.AuthorizationInfo;
+import org.apache.shiro.cache.Cache;
+import org.apache.shiro.realm.AuthorizingRealm;
+import org.apache.shiro.realm.Realm;
+import org.apache.shiro.session.Session;
+import org.apache.shiro.subject.PrincipalCollection;
+import org.apache.shiro.subject.Subject;
+
+import org.apache.isis.applib.Identifier;
+
+/**
+ * Caches the outcome of permission checks for a single {@link Subject}, held as an attribute of its Shiro
+ * {@link Session}.
+ *
+ * <p>
+ *     The decisions are held in a trie keyed by (fully qualified) class name and then by member name, each leaf
+ *     holding the decision for both the {@link Qualifier#READ read} and {@link Qualifier#WRITE write} qualifiers.
+ *     A cache hit therefore requires neither a permission string to be built nor an {@link IsisPermission} to be
+ *     parsed and evaluated against the subject's roles.
+ * </p>
+ *
+ * <p>
+ *     The cache is discarded:
+ * </p>
+ * <ul>
+ *     <li>if the subject's principals change;</li>
+ *     <li>once its time-to-live has elapsed (if one is set);</li>
+ *     <li>if any {@link AuthorizingRealm} now holds a different {@link AuthorizationInfo} for the subject in its
+ *     authorization cache than it did when the decisions started to be cached, eg because the realm's
+ *     {@link AuthorizingRealm#clearCachedAuthorizationInfo(PrincipalCollection) cached authorization info} was
+ *     cleared or has expired;</li>
+ *     <li>if {@link #invalidateAll()} has been called since it was created: by the
+ *     {@link org.apache.isis.security.shiro.IsisLdapRealm} when its role or permission definitions are
+ *     (re)loaded, and whenever the authorizor is (re)initialized.</li>
+ * </ul>
+ *
+ * <p>
+ *     Realms that do not cache their authorization info offer no way to detect that a subject's permissions have
+ *     changed; for these only the time-to-live bounds how long a revoked permission continues to be granted.
+ * </p>
+ */
+public class AuthorizationDecisionCache implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    static final String SESSION_ATTRIBUTE_KEY = AuthorizationDecisionCache.class.getName();
+
+    /**
+     * Seeded randomly, so that a cache restored along with its session (eg after a restart, or on another node of
+     * a cluster) is never taken to be current.
+     */
+    private static final AtomicLong GENERATION = new AtomicLong(ThreadLocalRandom.current().nextLong());
+
+    public enum Qualifier {
+        READ("r"),
+        WRITE("w");
+
+        private final String code;
+
+        Qualifier(final String code) {
+            this.code = code;
+        }
+
+        /**
+         * As used in the permission string, eg <tt>com.mycompany:Customer:firstName:r</tt>.
+         */
+        public String getCode() {
+            return code;
+        }
+    }
+
+    /**
+     * Discards the decisions cached for all subjects; to be called whenever role or permission definitions change.
+     */
+    public static void invalidateAll() {
+        GENERATION.incrementAndGet();
+    }
+
+    /**
+     * Returns the cache held in the subject's session (creating it if need be), or <tt>null</tt> if the subject has
+     * no session.
+     *
+     * @param realms - the realms of the security manager, whose cached authorization info for the subject is
+     *                 checked to determine whether the cache is still current.
+     * @param timeToLiveMillis - how long the cached decisions may be used for; zero or less means indefinitely.
+     */
+    public static AuthorizationDecisionCache of(
+            final Subject subject,
+            final Collection<Realm> realms,
+            final long timeToLiveMillis) {
+        final Session session = subject.getSession(false);
+        if(session == null) {
+            return null;
+        }
+        final PrincipalCollection principals = subject.getPrincipals();
+        final Object attribute = session.getAttribute(SESSION_ATTRIBUTE_KEY);
+        if(attribute instanceof AuthorizationDecisionCache) {
+            final AuthorizationDecisionCache cache = (AuthorizationDecisionCache) attribute;
+            if(cache.isCurrentFor(principals, realms)) {
+                return cache;
+            }
+        }
+        final AuthorizationDecisionCache cache = new AuthorizationDecisionCache(principals, realms, timeToLiveMillis);
+        session.setAttribute(SESSION_ATTRIBUTE_KEY, cache);
+        return cache;
+    }
+
+    /**
+     * Discards the decisions cached for the subject (if any).
+     */
+    public static void clear(final Subject subject) {
+        final Session session = subject.getSession(false);
+        if(session != null) {
+            session.removeAttribute(SESSION_ATTRIBUTE_KEY);
+        }
+    }
+
+    private final long generation;
+    private final PrincipalCollection principals;
+    private final long expiresAt;
+    /**
+     * Not serialized, so a restored cache is never taken to be current (as for {@link #generation}).
+     */
+    private final transient Object[] authorizationInfos;
+
+    private final ConcurrentMap<String, ConcurrentMap<String, Decisions>> decisionsByMemberByClass =
+            new ConcurrentHashMap<>();
+
+    AuthorizationDecisionCache(final PrincipalCollection principals) {
+        this(principals, Collections.<Realm>emptyList(), 0L);
+    }
+
+    AuthorizationDecisionCache(
+            final PrincipalCollection principals,
+            final Collection<Realm> realms,
+            final long timeToLiveMillis) {
+        this.generation = GENERATION.get();
+        this.principals = principals;
+        this.expiresAt = timeToLiveMillis > 0 ? System.currentTimeMillis() + timeToLiveMillis : Long.MAX_VALUE;
+        this.authorizationInfos = authorizationInfosFor(principals, realms);
+    }
+
+    boolean isCurrentFor(final PrincipalCollection principals) {
+        return isCurrentFor(principals, Collections.<Realm>emptyList());
+    }
+
+    boolean isCurrentFor(final PrincipalCollection principals, final Collection<Realm> realms) {
+        return generation == GENERATION.get() &&
+               Objects.equal(this.principals, principals) &&
+               System.currentTimeMillis() < expiresAt &&
+               sameInstances(authorizationInfos, authorizationInfosFor(principals, realms));
+    }
+
+    /**
+     * The {@link AuthorizationInfo} (if any) that each {@link AuthorizingRealm} currently holds for the principals
+     * in its authorization cache.
+     */
+    private static Object[] authorizationInfosFor(
+            final PrincipalCollection principals,
+            final Collection<Realm> realms) {
+        final Object[] authorizationInfos = new Object[realms != null ? realms.size() : 0];
+        if(principals == null || authorizationInfos.length == 0) {
+            return authorizationInfos;
+        }
+        int i = 0;
+        for (final Realm realm : realms) {
+            if(realm instanceof AuthorizingRealm) {
+                final Cache<Object, AuthorizationInfo> authorizationCache =
+                        ((AuthorizingRealm) realm).getAuthorizationCache();
+                if(authorizationCache != null) {
+                    // AuthorizingRealm keys its cache on the principals unless getAuthorizationCacheKey is overridden
+                    authorizationInfos[i] = authorizationCache.get(principals);
+                }
+            }
+            i++;
+        }
+        return authorizationInfos;
+    }
+
+    private static boolean sameInstances(final Object[] some, final Object[] others) {
+        if(some == null || some.length != others.length) {
+            return false;
+        }
+        for (int i = 0; i < some.length; i++) {
+            if(some[i] != others[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The cached decision, or <tt>null</tt> if none.
+     */
+    public Boolean lookup(final Identifier identifier, final Qualifier qualifier) {
+        final ConcurrentMap<String, Decisions> decisionsByMember =
+                decisionsByMemberByClass.get(identifier.getClassName());
+        if(decisionsByMember == null) {
+            return null;
+        }
+        final Decisions decisions = decisionsByMember.get(identifier.getMemberName());
+        return decisions != null ? decisions.get(qualifier) : null;
+    }
+
+    public void put(final Identifier identifier, final Qualifier qualifier, final boolean permitted) {
+        decisionsByMemberByClass
+                .computeIfAbsent(identifier.getClassName(), className -> new ConcurrentHashMap<>())
+                .computeIfAbsent(identifier.getMemberName(), memberName -> new Decisions())
+                .set(qualifier, permitted);
+    }
+
+    private static class Decisions implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private volatile Boolean read;
+        private volatile Boolean write;
+
+        Boolean get(final Qualifier qualifier) {
+            return qualifier == Qualifier.READ ? read : write;
+        }
+
+        void set(final Qualifier qualifier, final boolean permitted) {
+            if(qualifier == Qualifier.READ) {
+                read = permitted;
+            } else {
+                write = permitted;
+            }
+        }
+    }
+
+}
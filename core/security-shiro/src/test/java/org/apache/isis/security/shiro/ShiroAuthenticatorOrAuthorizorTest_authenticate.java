@@ -60,6 +60,12 @@ public void setUp() throws Exception {
     	context.checking(new Expectations() {{
             allowing(mockConfiguration).getBoolean("isis.authentication.shiro.autoLogoutIfAlreadyAuthenticated", false);
             will(returnValue(false));
+
+            allowing(mockConfiguration).getBoolean("isis.authorization.shiro.cacheDecisions", false);
+            will(returnValue(true));
+
+            allowing(mockConfiguration).getInteger("isis.authorization.shiro.cacheDecisions.timeToLiveSeconds", 60);
+            will(returnValue(60));
         }});
     	
    		authOrAuth = new ShiroAuthenticatorOrAuthorizor(mockConfiguration);
@@ -20,6 +20,7 @@
 
 import org.apache.shiro.SecurityUtils;
 import org.apache.shiro.config.IniSecurityManagerFactory;
+import org.apache.shiro.mgt.RealmSecurityManager;
 import org.apache.shiro.mgt.SecurityManager;
 import org.apache.shiro.subject.Subject;
 import org.apache.shiro.util.Factory;
@@ -38,8 +39,10 @@
 import org.apache.isis.core.runtime.authentication.AuthenticationRequestPassword;
 import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
 import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+import org.apache.isis.security.shiro.authorization.AuthorizationDecisionCache;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
 
 public class ShiroAuthenticatorOrAuthorizorTest_isVisibleInAnyRole {
@@ -58,6 +61,12 @@ public void setUp() throws Exception {
     	context.checking(new Expectations() {{
             allowing(mockConfiguration).getBoolean("isis.authentication.shiro.autoLogoutIfAlreadyAuthenticated", false);
             will(returnValue(false));
+
+            allowing(mockConfiguration).getBoolean("isis.authorization.shiro.cacheDecisions", false);
+            will(returnValue(true));
+
+            allowing(mockConfiguration).getInteger("isis.authorization.shiro.cacheDecisions.timeToLiveSeconds", 60);
+            will(returnValue(60));
         }});
     	
         authOrAuth = new ShiroAuthenticatorOrAuthorizor(mockConfiguration);
@@ -105,5 +114,28 @@ public void vetoingOverridden() throws Exception {
         assertThat(authOrAuth.isVisibleInAnyRole(removeCustomerIdentifier), is(true));
     }
 
+    @Test
+    public void decisionIsCachedInSession() throws Exception {
+        // given
+        Factory<SecurityManager> factory = new IniSecurityManagerFactory("classpath:shiro.ini");
+        SecurityManager securityManager = factory.getInstance();
+        SecurityUtils.setSecurityManager(securityManager);
+
+        AuthenticationRequest ar = new AuthenticationRequestPassword("darkhelmet", "ludicrousspeed");
+        authOrAuth.authenticate(ar, null);
+
+        Identifier changeAddressIdentifier = Identifier.actionIdentifier("com.mycompany.myapp.Customer", "changeAddress", String.class, String.class);
+        final AuthorizationDecisionCache decisionCache = AuthorizationDecisionCache.of(
+                SecurityUtils.getSubject(), ((RealmSecurityManager) securityManager).getRealms(), 60000L);
+        assertThat(decisionCache.lookup(changeAddressIdentifier, AuthorizationDecisionCache.Qualifier.READ), is(nullValue()));
+
+        // when
+        final boolean visible = authOrAuth.isVisibleInAnyRole(changeAddressIdentifier);
+
+        // then
+        assertThat(decisionCache.lookup(changeAddressIdentifier, AuthorizationDecisionCache.Qualifier.READ), is(visible));
+        assertThat(authOrAuth.isVisibleInAnyRole(changeAddressIdentifier), is(visible));
+    }
+
 
 }
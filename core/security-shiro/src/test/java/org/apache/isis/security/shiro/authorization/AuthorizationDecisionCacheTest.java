@@ -0,0 +1,132 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.security.shiro.authorization;
+
+import java.util.Collection;
+import java.util.Collections;
+
+import org.apache.shiro.authc.AuthenticationInfo;
+import org.apache.shiro.authc.AuthenticationToken;
+import org.apache.shiro.authz.AuthorizationInfo;
+import org.apache.shiro.authz.SimpleAuthorizationInfo;
+import org.apache.shiro.cache.MemoryConstrainedCacheManager;
+import org.apache.shiro.realm.AuthorizingRealm;
+import org.apache.shiro.realm.Realm;
+import org.apache.shiro.subject.PrincipalCollection;
+import org.apache.shiro.subject.SimplePrincipalCollection;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.isis.applib.Identifier;
+import org.apache.isis.security.shiro.IsisLdapRealm;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class AuthorizationDecisionCacheTest {
+
+    private SimplePrincipalCollection principals;
+    private AuthorizationDecisionCache cache;
+
+    private final Identifier firstName = Identifier.propertyOrCollectionIdentifier("com.mycompany.Customer", "firstName");
+    private final Identifier lastName = Identifier.propertyOrCollectionIdentifier("com.mycompany.Customer", "lastName");
+
+    @Before
+    public void setUp() throws Exception {
+        principals = new SimplePrincipalCollection("joe", "iniRealm");
+        cache = new AuthorizationDecisionCache(principals);
+    }
+
+    @Test
+    public void decisions_are_per_member_and_qualifier() throws Exception {
+        cache.put(firstName, AuthorizationDecisionCache.Qualifier.READ, true);
+        cache.put(firstName, AuthorizationDecisionCache.Qualifier.WRITE, false);
+
+        assertThat(cache.lookup(firstName, AuthorizationDecisionCache.Qualifier.READ), is(true));
+        assertThat(cache.lookup(firstName, AuthorizationDecisionCache.Qualifier.WRITE), is(false));
+        assertThat(cache.lookup(lastName, AuthorizationDecisionCache.Qualifier.READ), is(nullValue()));
+    }
+
+    @Test
+    public void not_current_for_other_principals() throws Exception {
+        assertThat(cache.isCurrentFor(new SimplePrincipalCollection("joe", "iniRealm")), is(true));
+        assertThat(cache.isCurrentFor(new SimplePrincipalCollection("bill", "iniRealm")), is(false));
+    }
+
+    @Test
+    public void not_current_once_invalidated() throws Exception {
+        AuthorizationDecisionCache.invalidateAll();
+
+        assertThat(cache.isCurrentFor(principals), is(false));
+    }
+
+    @Test
+    public void not_current_once_time_to_live_elapsed() throws Exception {
+        final Collection<Realm> noRealms = Collections.emptyList();
+        cache = new AuthorizationDecisionCache(principals, noRealms, 1L);
+
+        Thread.sleep(10L);
+
+        assertThat(cache.isCurrentFor(principals, noRealms), is(false));
+    }
+
+    @Test
+    public void not_current_once_realm_cached_authorization_info_cleared() throws Exception {
+        final CachingRealm realm = new CachingRealm();
+        final Collection<Realm> realms = Collections.<Realm>singletonList(realm);
+        realm.hasRole(principals, "user_role");
+
+        cache = new AuthorizationDecisionCache(principals, realms, 0L);
+        realm.hasRole(principals, "user_role");
+        assertThat(cache.isCurrentFor(principals, realms), is(true));
+
+        realm.clear(principals);
+        assertThat(cache.isCurrentFor(principals, realms), is(false));
+    }
+
+    @Test
+    public void not_current_once_realm_permissions_reloaded() throws Exception {
+        new IsisLdapRealm().setPermissionsByRole("user_role = *:Customer:*:*");
+
+        assertThat(cache.isCurrentFor(principals), is(false));
+    }
+
+    private static class CachingRealm extends AuthorizingRealm {
+
+        CachingRealm() {
+            setCacheManager(new MemoryConstrainedCacheManager());
+        }
+
+        @Override
+        protected AuthorizationInfo doGetAuthorizationInfo(final PrincipalCollection principals) {
+            return new SimpleAuthorizationInfo(Collections.singleton("user_role"));
+        }
+
+        @Override
+        protected AuthenticationInfo doGetAuthenticationInfo(final AuthenticationToken token) {
+            return null;
+        }
+
+        void clear(final PrincipalCollection principals) {
+            clearCachedAuthorizationInfo(principals);
+        }
+    }
+
+}
@@ -19,6 +19,7 @@
 package org.apache.isis.viewer.restfulobjects.applib.util;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import javax.ws.rs.core.Response;
@@ -76,6 +77,8 @@ private static ObjectMapper createObjectMapper(PrettyPrinting prettyPrinting) {
                 objectMapper.configure(SerializationFeature.INDENT_OUTPUT, true);
             }
             objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+            // the caller owns any stream written to (eg the servlet response's)
+            objectMapper.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
             return objectMapper;
         }
 
@@ -127,4 +130,16 @@ public String write(final Object object) throws JsonGenerationException, JsonMap
         return objectMapper.writeValueAsString(object);
     }
 
+    /**
+     * Writes the object directly to the provided stream (as UTF-8), rather than first to a <tt>String</tt>.
+     *
+     * <p>
+     * The stream is flushed but not closed.
+     * </p>
+     */
+    public void write(final Object object, final OutputStream outputStream) throws JsonGenerationException, JsonMappingException, IOException {
+        objectMapper.writeValue(outputStream, object);
+        outputStream.flush();
+    }
+
 }
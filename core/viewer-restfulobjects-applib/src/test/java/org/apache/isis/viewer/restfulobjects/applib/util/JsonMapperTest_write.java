@@ -0,0 +1,59 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.viewer.restfulobjects.applib.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+
+import org.junit.Test;
+
+import org.apache.isis.viewer.restfulobjects.applib.JsonRepresentation;
+
+public class JsonMapperTest_write {
+
+    @Test
+    public void toStream_sameAsToString() throws Exception {
+        final JsonRepresentation repr = JsonRepresentation.newMap();
+        repr.mapPut("name", "Fred \u00e9");
+        repr.mapPut("age", 42);
+
+        final JsonMapper jsonMapper = JsonMapper.instance(JsonMapper.PrettyPrinting.DISABLE);
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        jsonMapper.write(repr, baos);
+
+        assertThat(baos.toString("UTF-8"), is(jsonMapper.write(repr)));
+    }
+
+    @Test
+    public void toStream_doesNotClose() throws Exception {
+        final ClosingAwareOutputStream os = new ClosingAwareOutputStream();
+        JsonMapper.instance().write(JsonRepresentation.newMap(), os);
+        assertThat(os.closed, is(false));
+    }
+
+    private static class ClosingAwareOutputStream extends ByteArrayOutputStream {
+        boolean closed;
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -22,6 +22,7 @@
 import java.util.TimeZone;
 
 import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
@@ -31,12 +32,21 @@
 import org.apache.isis.applib.services.clock.ClockService;
 import org.apache.isis.core.metamodel.adapter.version.Version;
 import org.apache.isis.core.runtime.system.context.IsisContext;
+import org.apache.isis.core.runtime.system.session.IsisSessionFactory;
 import org.apache.isis.viewer.restfulobjects.applib.JsonRepresentation;
 import org.apache.isis.viewer.restfulobjects.applib.client.RestfulResponse;
+import org.apache.isis.viewer.restfulobjects.rendering.service.cache.DomainTypeRepresentationCache;
 import org.apache.isis.viewer.restfulobjects.rendering.util.JsonWriterUtil;
 
 public final class Responses {
 
+    /**
+     * Whether the JSON of (OK) responses is written directly to the response's stream, rather than first
+     * being built up as a <tt>String</tt>.
+     */
+    public static final String KEY_STREAMING = "isis.viewer.restfulobjects.streaming";
+    public static final boolean KEY_STREAMING_DEFAULT = true;
+
     private Responses(){}
 
     public static Response.ResponseBuilder ofNoContent() {
@@ -87,18 +97,47 @@ public static Response.ResponseBuilder ofOk(
 
         final MediaType mediaType = renderer.getMediaType();
 
-        final Date now = IsisContext.getSessionFactory().getServicesInjector()
+        final IsisSessionFactory isisSessionFactory = IsisContext.getSessionFactory();
+        final Response.ResponseBuilder response =
+                ofOk(mediaType, caching, isisSessionFactory)
+                    .entity(entityFor(entityRepresentation, isisSessionFactory));
+        return addLastModifiedAndETagIfAvailable(response, version);
+    }
+
+    /**
+     * For a representation that has already been rendered and serialized, eg as held by the
+     * {@link DomainTypeRepresentationCache}.
+     */
+    public static Response.ResponseBuilder ofOk(
+            final DomainTypeRepresentationCache.Entry entry,
+            final Caching caching) {
+        return ofOk(entry.getMediaType(), caching, IsisContext.getSessionFactory())
+                .entity(entry.getBytes())
+                .tag(entry.getEntityTag());
+    }
+
+    private static Response.ResponseBuilder ofOk(
+            final MediaType mediaType,
+            final Caching caching,
+            final IsisSessionFactory isisSessionFactory) {
+        final Date now = isisSessionFactory.getServicesInjector()
                 .lookupService(ClockService.class).nowAsDateTime().toDate();
         SimpleDateFormat dateFormat = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss z", Locale.US);
         dateFormat.setTimeZone(TimeZone.getTimeZone("GMT"));
 
-        final Response.ResponseBuilder response =
-                of(RestfulResponse.HttpStatusCode.OK)
+        return of(RestfulResponse.HttpStatusCode.OK)
                     .header("Date", dateFormat.format(now))
                     .type(mediaType)
-                    .cacheControl(caching.getCacheControl())
-                    .entity(JsonWriterUtil.jsonFor(entityRepresentation));
-        return addLastModifiedAndETagIfAvailable(response, version);
+                    .cacheControl(caching.getCacheControl());
+    }
+
+    private static Object entityFor(
+            final JsonRepresentation entityRepresentation,
+            final IsisSessionFactory isisSessionFactory) {
+        final boolean streaming = isisSessionFactory.getConfiguration().getBoolean(KEY_STREAMING, KEY_STREAMING_DEFAULT);
+        return streaming
+                ? JsonWriterUtil.streamingOutputFor(entityRepresentation)
+                : JsonWriterUtil.jsonFor(entityRepresentation);
     }
 
     protected static Response.ResponseBuilder of(final RestfulResponse.HttpStatusCode httpStatusCode) {
@@ -123,6 +162,59 @@ public static Response.ResponseBuilder addLastModifiedAndETagIfAvailable(
         return responseBuilder;
     }
 
+    /**
+     * Sets the (strong) <tt>ETag</tt> and, if the version records a time, the <tt>Last-Modified</tt> headers for a
+     * representation of a domain object (or of one of its members), derived from the object's {@link Version}.
+     *
+     * <p>
+     * These are the validators evaluated for a conditional GET, see {@link #entityTagFor(Version)} and
+     * {@link #lastModifiedFor(Version)}.
+     * </p>
+     */
+    public static Response.ResponseBuilder addEntityTagAndLastModifiedIfAvailable(
+            final Response.ResponseBuilder responseBuilder,
+            final Version version) {
+        final EntityTag entityTag = entityTagFor(version);
+        if (entityTag != null) {
+            responseBuilder.tag(entityTag);
+            final Date lastModified = lastModifiedFor(version);
+            if (lastModified != null) {
+                responseBuilder.lastModified(lastModified);
+            }
+            responseBuilder.header(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        return responseBuilder;
+    }
+
+    /**
+     * @return the strong entity tag for the {@link Version} of a domain object, or <tt>null</tt> if the object
+     *         is not versioned.
+     *
+     * <p>
+     * The tag is derived from the version's {@link Version#getSequence() sequence}, which changes on every update;
+     * the time of the version (not recorded for JDO entities) is appended only if present.
+     * </p>
+     */
+    public static EntityTag entityTagFor(final Version version) {
+        if (version == null) {
+            return null;
+        }
+        final Long time = version.getUtcTimestamp();
+        return new EntityTag(version.getSequence() + (time != null ? "-" + time : ""));
+    }
+
+    /**
+     * @return the time of the {@link Version} of a domain object, truncated to the second (the precision of an
+     *         HTTP date), or <tt>null</tt> if the object is not versioned or its version records no time.
+     */
+    public static Date lastModifiedFor(final Version version) {
+        if (version == null || version.getTime() == null) {
+            return null;
+        }
+        final long time = version.getTime().getTime();
+        return new Date(time - time % 1000L);
+    }
+
     private static EntityTag asETag(final Date time) {
         final String utcTime = ISODateTimeFormat.basicDateTime().print(new DateTime(time));
         return new EntityTag(utcTime, true);
@@ -21,6 +21,7 @@
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.List;
 import java.util.Map;
 import com.fasterxml.jackson.databind.node.NullNode;
@@ -34,6 +35,8 @@
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
 import org.joda.time.format.ISODateTimeFormat;
+import org.apache.isis.applib.value.Blob;
+import org.apache.isis.applib.value.Clob;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
 import org.apache.isis.core.metamodel.adapter.mgr.AdapterManager;
 import org.apache.isis.core.metamodel.facets.object.encodeable.EncodableFacet;
@@ -727,6 +730,45 @@ public Object appendValueAndFormat(ObjectAdapter objectAdapter, String format, J
                 return obj;
             }
         });
+
+        // a streaming blob or clob is otherwise encoded as a reference to its source; represent its content instead
+        putConverter(new JsonValueConverter("string", "string", Blob.class){
+            @Override
+            public ObjectAdapter asAdapter(JsonRepresentation repr, String format) {
+                return null;
+            }
+            @Override
+            public Object appendValueAndFormat(ObjectAdapter objectAdapter, String format, JsonRepresentation repr, boolean suppressExtensions) {
+                final Object value = objectAdapter != null ? asObject(objectAdapter, format) : NullNode.getInstance();
+                repr.mapPut("value", value);
+                appendFormats(repr, this.format, this.xIsisFormat, suppressExtensions);
+                return value;
+            }
+            @Override
+            public Object asObject(ObjectAdapter objectAdapter, String format) {
+                final Blob blob = (Blob) objectAdapter.getObject();
+                return blob.getName() + ":" + blob.getMimeType().getBaseType() + ":" + Base64.getEncoder().encodeToString(blob.getBytes());
+            }
+        });
+
+        putConverter(new JsonValueConverter("string", "string", Clob.class){
+            @Override
+            public ObjectAdapter asAdapter(JsonRepresentation repr, String format) {
+                return null;
+            }
+            @Override
+            public Object appendValueAndFormat(ObjectAdapter objectAdapter, String format, JsonRepresentation repr, boolean suppressExtensions) {
+                final Object value = objectAdapter != null ? asObject(objectAdapter, format) : NullNode.getInstance();
+                repr.mapPut("value", value);
+                appendFormats(repr, this.format, this.xIsisFormat, suppressExtensions);
+                return value;
+            }
+            @Override
+            public Object asObject(ObjectAdapter objectAdapter, String format) {
+                final Clob clob = (Clob) objectAdapter.getObject();
+                return clob.getName() + ":" + clob.getMimeType().getBaseType() + ":" + clob.getChars();
+            }
+        });
     }
 
 
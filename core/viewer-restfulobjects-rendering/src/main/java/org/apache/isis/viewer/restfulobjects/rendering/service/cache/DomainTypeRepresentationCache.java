@@ -0,0 +1,164 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.viewer.restfulobjects.rendering.service.cache;
+
+import java.util.Map;
+
+import javax.annotation.PostConstruct;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.MediaType;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import org.apache.isis.applib.annotation.DomainService;
+import org.apache.isis.applib.annotation.NatureOfService;
+import org.apache.isis.applib.annotation.Programmatic;
+import org.apache.isis.core.metamodel.specloader.SpecificationLoader;
+import org.apache.isis.viewer.restfulobjects.applib.JsonRepresentation;
+import org.apache.isis.viewer.restfulobjects.rendering.ReprRenderer;
+import org.apache.isis.viewer.restfulobjects.rendering.util.JsonWriterUtil;
+
+/**
+ * Application-scoped cache of the serialized representations of domain types and of their member descriptions,
+ * which are derived only from the metamodel.
+ *
+ * <p>
+ * Entries are keyed by the request URI (which identifies the domain type and member, as well as the base URI used
+ * for links), and each carries its media type and (strong) entity tag.  The cache is cleared whenever the
+ * {@link SpecificationLoader#invalidateCache(Class) metamodel is invalidated}.
+ * </p>
+ */
+@DomainService(
+        nature = NatureOfService.DOMAIN,
+        menuOrder = "" + Integer.MAX_VALUE
+)
+public class DomainTypeRepresentationCache {
+
+    public static final String KEY_ENABLED = "isis.services." + DomainTypeRepresentationCache.class.getSimpleName() + ".enabled";
+    public static final String KEY_MAX_SIZE = "isis.services." + DomainTypeRepresentationCache.class.getSimpleName() + ".maxSize";
+
+    private static final int MAX_SIZE_DEFAULT = 10000;
+
+    public static class Entry {
+        private final byte[] bytes;
+        private final MediaType mediaType;
+        private final EntityTag entityTag;
+
+        public Entry(final byte[] bytes, final MediaType mediaType, final EntityTag entityTag) {
+            this.bytes = bytes;
+            this.mediaType = mediaType;
+            this.entityTag = entityTag;
+        }
+
+        public byte[] getBytes() {
+            return bytes;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        public EntityTag getEntityTag() {
+            return entityTag;
+        }
+    }
+
+    private boolean enabled;
+    private Cache<String, Entry> entryByKey;
+
+    /**
+     * The {@link SpecificationLoader#getInvalidationCount() invalidation count} of the metamodel from which the
+     * current entries were rendered.
+     */
+    private volatile long invalidationCount;
+
+    @PostConstruct
+    public void init(final Map<String, String> properties) {
+        final String enabledStr = properties.get(KEY_ENABLED);
+        enabled = enabledStr == null || Boolean.parseBoolean(enabledStr);
+
+        final String maxSizeStr = properties.get(KEY_MAX_SIZE);
+        final int maxSize = maxSizeStr != null ? Integer.parseInt(maxSizeStr) : MAX_SIZE_DEFAULT;
+        entryByKey = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+    }
+
+    @Programmatic
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return the cached entry, or <tt>null</tt> if there is none (or if the metamodel has since been invalidated).
+     */
+    @Programmatic
+    public Entry lookup(final String key) {
+        if(!enabled) {
+            return null;
+        }
+        clearIfInvalidated();
+        return entryByKey.getIfPresent(key);
+    }
+
+    /**
+     * Renders the representation, caching its serialized form under the provided key.
+     *
+     * <p>
+     * The entry is not cached if the metamodel is invalidated while rendering.
+     * </p>
+     */
+    @Programmatic
+    public Entry render(final String key, final ReprRenderer<?, ?> renderer, final EntityTag entityTag) {
+        final long invalidationCountBefore = specificationLoader.getInvalidationCount();
+
+        final JsonRepresentation representation = renderer.render();
+        final Entry entry = new Entry(serialize(representation), renderer.getMediaType(), entityTag);
+
+        if(enabled && invalidationCountBefore == specificationLoader.getInvalidationCount()) {
+            clearIfInvalidated();
+            entryByKey.put(key, entry);
+        }
+        return entry;
+    }
+
+    byte[] serialize(final JsonRepresentation representation) {
+        return JsonWriterUtil.bytesFor(representation);
+    }
+
+    private void clearIfInvalidated() {
+        final long currentInvalidationCount = specificationLoader.getInvalidationCount();
+        if(currentInvalidationCount == invalidationCount) {
+            return;
+        }
+        synchronized (this) {
+            if(currentInvalidationCount != invalidationCount) {
+                entryByKey.invalidateAll();
+                invalidationCount = currentInvalidationCount;
+            }
+        }
+    }
+
+    @Programmatic
+    public void clear() {
+        entryByKey.invalidateAll();
+    }
+
+    @javax.inject.Inject
+    SpecificationLoader specificationLoader;
+}
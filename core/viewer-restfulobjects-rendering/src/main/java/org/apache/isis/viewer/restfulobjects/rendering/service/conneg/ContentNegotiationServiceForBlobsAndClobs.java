@@ -0,0 +1,131 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.viewer.restfulobjects.rendering.service.conneg;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+
+import org.apache.isis.applib.annotation.DomainService;
+import org.apache.isis.applib.annotation.NatureOfService;
+import org.apache.isis.applib.value.Blob;
+import org.apache.isis.applib.value.Clob;
+import org.apache.isis.applib.value.NamedWithMimeType;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.consent.InteractionInitiatedBy;
+import org.apache.isis.viewer.restfulobjects.rendering.domainobjects.ObjectAndActionInvocation;
+import org.apache.isis.viewer.restfulobjects.rendering.domainobjects.ObjectAndProperty;
+import org.apache.isis.viewer.restfulobjects.rendering.service.RepresentationService;
+
+/**
+ * Handles content negotiation for a property whose value, or an action whose result, is a {@link Blob} or
+ * {@link Clob}, where the accept header explicitly requests the lob's own media type (eg <code>application/pdf</code>).
+ *
+ * <p>
+ *     Rather than being base64-encoded within a JSON representation, the content is streamed directly as the
+ *     response body, in chunks; a {@link Blob#isStreaming() streaming} lob is read from its source as it is written.
+ *     Clobs are encoded as UTF-8.
+ * </p>
+ */
+@DomainService(
+        nature = NatureOfService.DOMAIN,
+        // in effect, is the relative priority (lower numbers have higher priority)
+        menuOrder = "" + (Integer.MAX_VALUE - 30)
+)
+public class ContentNegotiationServiceForBlobsAndClobs extends ContentNegotiationServiceAbstract {
+
+    @Override
+    public Response.ResponseBuilder buildResponse(
+            final RepresentationService.Context2 renderContext2,
+            final ObjectAndProperty objectAndProperty) {
+
+        final ObjectAdapter valueAdapter = objectAndProperty.getMember()
+                .get(objectAndProperty.getObjectAdapter(), InteractionInitiatedBy.USER);
+        return buildResponse(renderContext2, valueAdapter);
+    }
+
+    @Override
+    public Response.ResponseBuilder buildResponse(
+            final RepresentationService.Context2 renderContext2,
+            final ObjectAndActionInvocation objectAndActionInvocation) {
+
+        return buildResponse(renderContext2, objectAndActionInvocation.getReturnedAdapter());
+    }
+
+    protected Response.ResponseBuilder buildResponse(
+            final RepresentationService.Context2 renderContext2,
+            final ObjectAdapter valueAdapter) {
+
+        final Object value = valueAdapter != null ? objectOf(valueAdapter) : null;
+        if(!(value instanceof Blob || value instanceof Clob)) {
+            return null;
+        }
+        final NamedWithMimeType lob = (NamedWithMimeType) value;
+        final MediaType mediaType = MediaType.valueOf(lob.getMimeType().getBaseType());
+        if(!isExplicitlyAccepted(renderContext2.getAcceptableMediaTypes(), mediaType)) {
+            return null;
+        }
+
+        final Response.ResponseBuilder responseBuilder;
+        if(value instanceof Blob) {
+            final Blob blob = (Blob) value;
+            responseBuilder = Response.ok(new StreamingOutput() {
+                @Override
+                public void write(final OutputStream output) throws IOException {
+                    blob.writeBytesTo(output);
+                }
+            }, mediaType);
+            if(blob.getLength() >= 0) {
+                responseBuilder.header("Content-Length", blob.getLength());
+            }
+        } else {
+            final Clob clob = (Clob) value;
+            responseBuilder = Response.ok(new StreamingOutput() {
+                @Override
+                public void write(final OutputStream output) throws IOException {
+                    final Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+                    clob.writeCharsTo(writer);
+                    writer.flush();
+                }
+            }, mediaType.withCharset(StandardCharsets.UTF_8.name()));
+        }
+        return responseBuilder.header("Content-Disposition", "attachment; filename=\"" + lob.getName() + "\"");
+    }
+
+    /**
+     * Wildcards (eg <code>*&#47;*</code>) are not enough; the client must have asked for the lob's media type.
+     */
+    private static boolean isExplicitlyAccepted(final List<MediaType> acceptableMediaTypes, final MediaType mediaType) {
+        for (final MediaType acceptableMediaType : acceptableMediaTypes) {
+            if(!acceptableMediaType.isWildcardType() && !acceptableMediaType.isWildcardSubtype() &&
+                    acceptableMediaType.isCompatible(mediaType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
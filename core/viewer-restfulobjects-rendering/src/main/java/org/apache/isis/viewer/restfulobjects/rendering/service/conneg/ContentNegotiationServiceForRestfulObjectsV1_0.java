@@ -16,8 +16,6 @@
  */
 package org.apache.isis.viewer.restfulobjects.rendering.service.conneg;
 
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -32,7 +30,6 @@
 import org.apache.isis.applib.annotation.NatureOfService;
 import org.apache.isis.applib.domain.DomainObjectList;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
-import org.apache.isis.core.metamodel.adapter.version.Version;
 import org.apache.isis.core.metamodel.facets.actcoll.typeof.TypeOfFacet;
 import org.apache.isis.core.metamodel.facets.collections.modify.CollectionFacet;
 import org.apache.isis.core.metamodel.spec.ObjectSpecification;
@@ -112,15 +109,7 @@ ResponseBuilder buildResponseTo(
             }
         }
 
-        final Version version = objectAdapter.getVersion();
-        if (version != null && version.getTime() != null) {
-            responseBuilder.tag(etagFormat().format(version.getTime()));
-        }
-        return responseBuilder;
-    }
-
-    private DateFormat etagFormat() {
-        return new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSZ");
+        return Responses.addEntityTagAndLastModifiedIfAvailable(responseBuilder, objectAdapter.getVersion());
     }
 
     @Override
@@ -143,7 +132,8 @@ public ResponseBuilder buildResponse(
         }
 
         final ResponseBuilder responseBuilder = Responses.ofOk(renderer, Caching.NONE);
-        return responseBuilder;
+        return Responses.addEntityTagAndLastModifiedIfAvailable(
+                responseBuilder, objectAndProperty.getObjectAdapter().getVersion());
     }
 
     @Override
@@ -179,7 +169,9 @@ ResponseBuilder buildResponseTo(
             renderer.withMemberMode(objectAndCollection2.getMemberReprMode());
         }
 
-        return Responses.ofOk(renderer, Caching.NONE, rootRepresentation);
+        final ResponseBuilder responseBuilder = Responses.ofOk(renderer, Caching.NONE, rootRepresentation);
+        return Responses.addEntityTagAndLastModifiedIfAvailable(
+                responseBuilder, objectAndCollection.getObjectAdapter().getVersion());
     }
 
     @Override
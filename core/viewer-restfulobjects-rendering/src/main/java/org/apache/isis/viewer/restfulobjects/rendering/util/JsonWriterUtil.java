@@ -18,7 +18,12 @@
  */
 package org.apache.isis.viewer.restfulobjects.rendering.util;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.StreamingOutput;
 
 import org.apache.isis.core.metamodel.deployment.DeploymentCategory;
 import org.apache.isis.core.runtime.system.context.IsisContext;
@@ -30,8 +35,7 @@ public final class JsonWriterUtil {
     private JsonWriterUtil(){}
 
     public static String jsonFor(final Object object) {
-        final DeploymentCategory deploymentCategory = getIsisSessionFactory().getDeploymentCategory();
-        final JsonMapper.PrettyPrinting prettyPrinting = inferPrettyPrinting(deploymentCategory);
+        final JsonMapper.PrettyPrinting prettyPrinting = inferPrettyPrinting();
         try {
             return JsonMapper.instance(prettyPrinting).write(object);
         } catch (final IOException e) {
@@ -39,11 +43,44 @@ public static String jsonFor(final Object object) {
         }
     }
 
+    /**
+     * As {@link #jsonFor(Object)}, but rather than building up the JSON as a (potentially very large)
+     * <tt>String</tt>, returns a {@link StreamingOutput} that writes it directly to the response's stream.
+     *
+     * <p>
+     * The pretty-printing is inferred immediately; the returned {@link StreamingOutput} does not require an
+     * Isis session.
+     * </p>
+     */
+    public static StreamingOutput streamingOutputFor(final Object object) {
+        final JsonMapper jsonMapper = JsonMapper.instance(inferPrettyPrinting());
+        return new StreamingOutput() {
+            @Override
+            public void write(final OutputStream output) throws IOException, WebApplicationException {
+                jsonMapper.write(object, output);
+            }
+        };
+    }
+
+    /**
+     * As {@link #jsonFor(Object)}, but as UTF-8 encoded bytes.
+     */
+    public static byte[] bytesFor(final Object object) {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try {
+            JsonMapper.instance(inferPrettyPrinting()).write(object, baos);
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+        return baos.toByteArray();
+    }
+
     static IsisSessionFactory getIsisSessionFactory() {
         return IsisContext.getSessionFactory();
     }
 
-    private static JsonMapper.PrettyPrinting inferPrettyPrinting(final DeploymentCategory deploymentCategory) {
+    private static JsonMapper.PrettyPrinting inferPrettyPrinting() {
+        final DeploymentCategory deploymentCategory = getIsisSessionFactory().getDeploymentCategory();
         return deploymentCategory.isProduction() ? JsonMapper.PrettyPrinting.DISABLE : JsonMapper.PrettyPrinting.ENABLE;
     }
 }
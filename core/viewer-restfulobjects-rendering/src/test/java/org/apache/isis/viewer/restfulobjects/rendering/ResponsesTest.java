@@ -0,0 +1,67 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.viewer.restfulobjects.rendering;
+
+import java.util.Date;
+
+import org.junit.Test;
+
+import org.apache.isis.core.metamodel.adapter.version.Version;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class ResponsesTest {
+
+    @Test
+    public void entityTag_whenNoVersion() throws Exception {
+        assertThat(Responses.entityTagFor(null), is(nullValue()));
+    }
+
+    @Test
+    public void entityTag_whenVersionHasNoTime() throws Exception {
+        // as created for JDO entities
+        final Version version = Version.create(1L, "sven", (Date) null);
+        assertThat(Responses.entityTagFor(version).isWeak(), is(false));
+        assertThat(Responses.entityTagFor(version), is(Responses.entityTagFor(Version.create(1L, "fred", (Date) null))));
+        assertThat(Responses.entityTagFor(version), is(not(Responses.entityTagFor(Version.create(2L, "sven", (Date) null)))));
+    }
+
+    @Test
+    public void entityTag_isStrong_andDependsOnSequenceAndTime() throws Exception {
+        final Version version = Version.create(1L, "sven", new Date(1234567890123L));
+        assertThat(Responses.entityTagFor(version).isWeak(), is(false));
+        assertThat(Responses.entityTagFor(version), is(Responses.entityTagFor(Version.create(1L, "fred", new Date(1234567890123L)))));
+        assertThat(Responses.entityTagFor(version), is(not(Responses.entityTagFor(Version.create(2L, "sven", new Date(1234567890123L))))));
+        assertThat(Responses.entityTagFor(version), is(not(Responses.entityTagFor(Version.create(1L, "sven", new Date(1234567890124L))))));
+    }
+
+    @Test
+    public void lastModified_isTruncatedToTheSecond() throws Exception {
+        final Version version = Version.create(1L, "sven", new Date(1234567890123L));
+        assertThat(Responses.lastModifiedFor(version), is(new Date(1234567890000L)));
+    }
+
+    @Test
+    public void lastModified_whenVersionHasNoTime() throws Exception {
+        assertThat(Responses.lastModifiedFor(Version.create(1L, "sven", (Date) null)), is(nullValue()));
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.viewer.restfulobjects.rendering.service.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.MediaType;
+
+import org.jmock.Expectations;
+import org.jmock.api.Invocation;
+import org.jmock.auto.Mock;
+import org.jmock.lib.action.CustomAction;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.core.metamodel.specloader.SpecificationLoader;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+import org.apache.isis.viewer.restfulobjects.applib.JsonRepresentation;
+import org.apache.isis.viewer.restfulobjects.rendering.ReprRenderer;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class DomainTypeRepresentationCacheTest {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private ReprRenderer<?, ?> mockRenderer;
+
+    private SpecificationLoader mockSpecificationLoader;
+
+    private DomainTypeRepresentationCache cache;
+    private long invalidationCount;
+
+    private final EntityTag entityTag = new EntityTag("abc");
+
+    @Before
+    public void setUp() throws Exception {
+        mockSpecificationLoader = context.mock(SpecificationLoader.class);
+        context.checking(new Expectations() {{
+            allowing(mockSpecificationLoader).getInvalidationCount();
+            will(new CustomAction("invalidationCount") {
+                @Override
+                public Object invoke(final Invocation invocation) {
+                    return invalidationCount;
+                }
+            });
+
+            allowing(mockRenderer).render();
+            will(returnValue(JsonRepresentation.newMap()));
+
+            allowing(mockRenderer).getMediaType();
+            will(returnValue(MediaType.APPLICATION_JSON_TYPE));
+        }});
+
+        cache = new DomainTypeRepresentationCache() {
+            @Override
+            byte[] serialize(final JsonRepresentation representation) {
+                return "{}".getBytes(StandardCharsets.UTF_8);
+            }
+        };
+        cache.specificationLoader = mockSpecificationLoader;
+        cache.init(Collections.<String, String>emptyMap());
+    }
+
+    @Test
+    public void renders_and_caches() throws Exception {
+        assertThat(cache.lookup("foo"), is(nullValue()));
+
+        final DomainTypeRepresentationCache.Entry entry = cache.render("foo", mockRenderer, entityTag);
+        assertThat(entry.getEntityTag(), is(entityTag));
+        assertThat(entry.getMediaType(), is(MediaType.APPLICATION_JSON_TYPE));
+        assertThat(new String(entry.getBytes(), StandardCharsets.UTF_8), is("{}"));
+
+        assertThat(cache.lookup("foo"), is(sameInstance(entry)));
+        assertThat(cache.lookup("bar"), is(nullValue()));
+    }
+
+    @Test
+    public void cleared_when_metamodel_invalidated() throws Exception {
+        cache.render("foo", mockRenderer, entityTag);
+
+        invalidationCount++;
+
+        assertThat(cache.lookup("foo"), is(nullValue()));
+    }
+
+    @Test
+    public void not_cached_if_disabled() throws Exception {
+        cache.init(Collections.singletonMap(DomainTypeRepresentationCache.KEY_ENABLED, "false"));
+
+        final DomainTypeRepresentationCache.Entry entry = cache.render("foo", mockRenderer, entityTag);
+        assertThat(entry.getEntityTag(), is(entityTag));
+
+        assertThat(cache.lookup("foo"), is(nullValue()));
+    }
+}
@@ -339,6 +339,7 @@ public boolean canEagerlyRender(ObjectAdapter objectAdapter) {
     private static final boolean SUPPRESS_MEMBER_LINKS_DEFAULT = false;
     private static final boolean SUPPRESS_MEMBER_EXTENSIONS_DEFAULT = false;
     private static final boolean SUPPRESS_MEMBER_DISABLED_REASON_DEFAULT = false;
+    private static final boolean CONDITIONAL_GET_DEFAULT = false;
 
     @Override
     public boolean honorUiHints() {
@@ -379,6 +380,20 @@ public boolean suppressMemberExtensions() {
     public boolean suppressMemberDisabledReason() {
         return getConfiguration().getBoolean("isis.viewer.restfulobjects.suppressMemberDisabledReason", SUPPRESS_MEMBER_DISABLED_REASON_DEFAULT);
     }
+
+    /**
+     * Whether a GET of a domain object (or of one of its properties or collections) is evaluated against the
+     * client's <tt>If-None-Match</tt>/<tt>If-Modified-Since</tt> headers, returning <tt>304 Not Modified</tt>
+     * if the object's version is unchanged.
+     *
+     * <p>
+     * Disabled by default, because the version of an object does not change if only its derived properties
+     * (or the contents of a collection mapped by the referenced objects) change.
+     * </p>
+     */
+    public boolean conditionalGet() {
+        return getConfiguration().getBoolean("isis.viewer.restfulobjects.conditionalGet", CONDITIONAL_GET_DEFAULT);
+    }
     
 
 
@@ -135,6 +135,11 @@ public Response object(@PathParam("domainType") String domainType, @PathParam("i
 
         final ObjectAdapter objectAdapter = getObjectAdapterElseThrowNotFound(domainType, instanceId);
 
+        final Response notModified = notModifiedIfCurrent(objectAdapter);
+        if(notModified != null) {
+            return notModified;
+        }
+
         return newDomainResourceHelper(objectAdapter).objectRepresentation();
     }
 
@@ -301,6 +306,12 @@ public Response propertyDetails(@PathParam("domainType") String domainType, @Pat
         init(RepresentationType.OBJECT_PROPERTY, Where.OBJECT_FORMS, RepresentationService.Intent.NOT_APPLICABLE);
 
         final ObjectAdapter objectAdapter = getObjectAdapterElseThrowNotFound(domainType, instanceId);
+
+        final Response notModified = notModifiedIfCurrent(objectAdapter);
+        if(notModified != null) {
+            return notModified;
+        }
+
         final DomainResourceHelper helper = newDomainResourceHelper(objectAdapter);
 
         return helper.propertyDetails(
@@ -404,6 +415,11 @@ public Response accessCollection(@PathParam("domainType") String domainType, @Pa
 
         final ObjectAdapter objectAdapter = getObjectAdapterElseThrowNotFound(domainType, instanceId);
 
+        final Response notModified = notModifiedIfCurrent(objectAdapter);
+        if(notModified != null) {
+            return notModified;
+        }
+
         return newDomainResourceHelper(objectAdapter).collectionDetails(collectionId, MemberReprMode.READ);
     }
 
@@ -25,6 +25,8 @@
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
@@ -49,6 +51,7 @@
 import org.apache.isis.viewer.restfulobjects.applib.util.UrlEncodingUtils;
 import org.apache.isis.viewer.restfulobjects.rendering.Caching;
 import org.apache.isis.viewer.restfulobjects.rendering.LinkBuilder;
+import org.apache.isis.viewer.restfulobjects.rendering.ReprRenderer;
 import org.apache.isis.viewer.restfulobjects.rendering.Responses;
 import org.apache.isis.viewer.restfulobjects.rendering.RestfulObjectsApplicationException;
 import org.apache.isis.viewer.restfulobjects.rendering.domaintypes.ActionDescriptionReprRenderer;
@@ -63,8 +66,10 @@
 import org.apache.isis.viewer.restfulobjects.rendering.domaintypes.TypeActionResultReprRenderer;
 import org.apache.isis.viewer.restfulobjects.rendering.domaintypes.TypeListReprRenderer;
 import org.apache.isis.viewer.restfulobjects.rendering.service.RepresentationService;
+import org.apache.isis.viewer.restfulobjects.rendering.service.cache.DomainTypeRepresentationCache;
 import org.apache.isis.viewer.restfulobjects.rendering.util.Util;
 import org.apache.isis.viewer.restfulobjects.server.resources.serialization.SerializationStrategy;
+import org.apache.isis.viewer.restfulobjects.server.util.EntityTagUtils;
 import org.apache.isis.viewer.restfulobjects.server.util.UrlParserUtils;
 
 /**
@@ -85,10 +90,23 @@ public Response domainTypes() {
 
         final Collection<ObjectSpecification> allSpecifications = getSpecificationLoader().allSpecifications();
 
+        // specifications may still be loaded lazily, in which case the list of types grows
+        final String cacheKey = cacheKey() + "#" + allSpecifications.size();
+        final DomainTypeRepresentationCache.Entry cachedEntry = cachedEntryIfAny(cacheKey);
+        if(cachedEntry != null) {
+            return responseFor(cachedEntry);
+        }
+
+        final EntityTag entityTag = variantOf(EntityTagUtils.entityTagForTypeList(allSpecifications));
+        final Response notModified = notModifiedIfCurrent(entityTag);
+        if(notModified != null) {
+            return notModified;
+        }
+
         final TypeListReprRenderer renderer = new TypeListReprRenderer(getResourceContext(), null, JsonRepresentation.newMap());
         renderer.with(allSpecifications).includesSelf();
 
-        return Responses.ofOk(renderer, Caching.ONE_DAY).build();
+        return responseFor(cacheKey, renderer, entityTag);
     }
 
     @Override
@@ -99,12 +117,24 @@ public Response domainType(@PathParam("domainType") final String domainType) {
 
         init(RepresentationType.DOMAIN_TYPE, Where.ANYWHERE, RepresentationService.Intent.NOT_APPLICABLE);
 
+        final String cacheKey = cacheKey();
+        final DomainTypeRepresentationCache.Entry cachedEntry = cachedEntryIfAny(cacheKey);
+        if(cachedEntry != null) {
+            return responseFor(cachedEntry);
+        }
+
         final ObjectSpecification objectSpec = getSpecificationLoader().lookupBySpecId(ObjectSpecId.of(domainType));
 
+        final EntityTag entityTag = variantOf(EntityTagUtils.entityTagFor(objectSpec));
+        final Response notModified = notModifiedIfCurrent(entityTag);
+        if(notModified != null) {
+            return notModified;
+        }
+
         final DomainTypeReprRenderer renderer = new DomainTypeReprRenderer(getResourceContext(), null, JsonRepresentation.newMap());
         renderer.with(objectSpec).includesSelf();
 
-        return Responses.ofOk(renderer, Caching.ONE_DAY).build();
+        return responseFor(cacheKey, renderer, entityTag);
     }
 
     @Override
@@ -143,6 +173,12 @@ public Response typeProperty(@PathParam("domainType") final String domainType, @
         final RepresentationType representationType = RepresentationType.PROPERTY_DESCRIPTION;
         init(representationType, Where.ANYWHERE, RepresentationService.Intent.NOT_APPLICABLE);
 
+        final String cacheKey = cacheKey();
+        final DomainTypeRepresentationCache.Entry cachedEntry = cachedEntryIfAny(cacheKey);
+        if(cachedEntry != null) {
+            return responseFor(cachedEntry);
+        }
+
         final ObjectSpecification parentSpec = getSpecificationLoader().lookupBySpecId(ObjectSpecId.of(domainType));
         if (parentSpec == null) {
             throw RestfulObjectsApplicationException.create(HttpStatusCode.NOT_FOUND);
@@ -154,10 +190,16 @@ public Response typeProperty(@PathParam("domainType") final String domainType, @
         }
         final OneToOneAssociation property = (OneToOneAssociation) objectMember;
 
+        final EntityTag entityTag = variantOf(EntityTagUtils.entityTagFor(parentSpec));
+        final Response notModified = notModifiedIfCurrent(entityTag);
+        if(notModified != null) {
+            return notModified;
+        }
+
         final PropertyDescriptionReprRenderer renderer = new PropertyDescriptionReprRenderer(getResourceContext(), null, JsonRepresentation.newMap());
         renderer.with(new ParentSpecAndProperty(parentSpec, property)).includesSelf();
 
-        return Responses.ofOk(renderer, Caching.ONE_DAY).build();
+        return responseFor(cacheKey, renderer, entityTag);
     }
 
     @Override
@@ -168,6 +210,12 @@ public Response typeCollection(@PathParam("domainType") final String domainType,
         final RepresentationType representationType = RepresentationType.COLLECTION_DESCRIPTION;
         init(representationType, Where.ANYWHERE, RepresentationService.Intent.NOT_APPLICABLE);
 
+        final String cacheKey = cacheKey();
+        final DomainTypeRepresentationCache.Entry cachedEntry = cachedEntryIfAny(cacheKey);
+        if(cachedEntry != null) {
+            return responseFor(cachedEntry);
+        }
+
         final ObjectSpecification parentSpec = getSpecificationLoader().lookupBySpecId(ObjectSpecId.of(domainType));
         if (parentSpec == null) {
             throw RestfulObjectsApplicationException.create(HttpStatusCode.NOT_FOUND);
@@ -179,10 +227,16 @@ public Response typeCollection(@PathParam("domainType") final String domainType,
         }
         final OneToManyAssociation collection = (OneToManyAssociation) objectMember;
 
+        final EntityTag entityTag = variantOf(EntityTagUtils.entityTagFor(parentSpec));
+        final Response notModified = notModifiedIfCurrent(entityTag);
+        if(notModified != null) {
+            return notModified;
+        }
+
         final CollectionDescriptionReprRenderer renderer = new CollectionDescriptionReprRenderer(getResourceContext(), null, JsonRepresentation.newMap());
         renderer.with(new ParentSpecAndCollection(parentSpec, collection)).includesSelf();
 
-        return Responses.ofOk(renderer, Caching.ONE_DAY).build();
+        return responseFor(cacheKey, renderer, entityTag);
     }
 
     @Override
@@ -193,6 +247,12 @@ public Response typeAction(@PathParam("domainType") final String domainType, @Pa
         final RepresentationType representationType = RepresentationType.ACTION_DESCRIPTION;
         init(representationType, Where.ANYWHERE, RepresentationService.Intent.NOT_APPLICABLE);
 
+        final String cacheKey = cacheKey();
+        final DomainTypeRepresentationCache.Entry cachedEntry = cachedEntryIfAny(cacheKey);
+        if(cachedEntry != null) {
+            return responseFor(cachedEntry);
+        }
+
         final ObjectSpecification parentSpec = getSpecificationLoader().lookupBySpecId(ObjectSpecId.of(domainType));
         if (parentSpec == null) {
             throw RestfulObjectsApplicationException.create(HttpStatusCode.NOT_FOUND);
@@ -204,10 +264,16 @@ public Response typeAction(@PathParam("domainType") final String domainType, @Pa
         }
         final ObjectAction action = (ObjectAction) objectMember;
 
+        final EntityTag entityTag = variantOf(EntityTagUtils.entityTagFor(parentSpec));
+        final Response notModified = notModifiedIfCurrent(entityTag);
+        if(notModified != null) {
+            return notModified;
+        }
+
         final ActionDescriptionReprRenderer renderer = new ActionDescriptionReprRenderer(getResourceContext(), null, JsonRepresentation.newMap());
         renderer.with(new ParentSpecAndAction(parentSpec, action)).includesSelf();
 
-        return Responses.ofOk(renderer, Caching.ONE_DAY).build();
+        return responseFor(cacheKey, renderer, entityTag);
     }
 
     @Override
@@ -218,6 +284,12 @@ public Response typeActionParam(@PathParam("domainType") final String domainType
         final RepresentationType representationType = RepresentationType.ACTION_PARAMETER_DESCRIPTION;
         init(representationType, Where.ANYWHERE, RepresentationService.Intent.NOT_APPLICABLE);
 
+        final String cacheKey = cacheKey();
+        final DomainTypeRepresentationCache.Entry cachedEntry = cachedEntryIfAny(cacheKey);
+        if(cachedEntry != null) {
+            return responseFor(cachedEntry);
+        }
+
         final ObjectSpecification parentSpec = getSpecificationLoader().lookupBySpecId(ObjectSpecId.of(domainType));
         if (parentSpec == null) {
             throw RestfulObjectsApplicationException.create(HttpStatusCode.NOT_FOUND);
@@ -231,10 +303,16 @@ public Response typeActionParam(@PathParam("domainType") final String domainType
 
         final ObjectActionParameter actionParam = parentAction.getParameterByName(paramName);
 
+        final EntityTag entityTag = variantOf(EntityTagUtils.entityTagFor(parentSpec));
+        final Response notModified = notModifiedIfCurrent(entityTag);
+        if(notModified != null) {
+            return notModified;
+        }
+
         final ActionParameterDescriptionReprRenderer renderer = new ActionParameterDescriptionReprRenderer(getResourceContext(), null, JsonRepresentation.newMap());
         renderer.with(new ParentSpecAndActionParam(parentSpec, actionParam)).includesSelf();
 
-        return Responses.ofOk(renderer, Caching.ONE_DAY).build();
+        return responseFor(cacheKey, renderer, entityTag);
     }
 
     // //////////////////////////////////////////////////////////
@@ -252,11 +330,23 @@ public Response domainTypeIsSubtypeOf(
             ) {
         init(Where.ANYWHERE, RepresentationService.Intent.NOT_APPLICABLE);
 
+        final String cacheKey = cacheKey();
+        final DomainTypeRepresentationCache.Entry cachedEntry = cachedEntryIfAny(cacheKey);
+        if(cachedEntry != null) {
+            return responseFor(cachedEntry);
+        }
+
         final String supertype = domainTypeFor(superTypeStr, argsUrlEncoded, "supertype");
 
         final ObjectSpecification domainTypeSpec = getSpecificationLoader().lookupBySpecId(ObjectSpecId.of(domainType));
         final ObjectSpecification supertypeSpec = getSpecificationLoader().lookupBySpecId(ObjectSpecId.of(supertype));
 
+        final EntityTag entityTag = variantOf(EntityTagUtils.entityTagFor(domainTypeSpec, supertypeSpec));
+        final Response notModified = notModifiedIfCurrent(entityTag);
+        if(notModified != null) {
+            return notModified;
+        }
+
         final TypeActionResultReprRenderer renderer = new TypeActionResultReprRenderer(getResourceContext(), null, JsonRepresentation.newMap());
 
         final String url = "domain-types/" + domainType + "/type-actions/isSubtypeOf/invoke";
@@ -267,7 +357,7 @@ public Response domainTypeIsSubtypeOf(
         final boolean value = domainTypeSpec.isOfType(supertypeSpec);
         renderer.with(domainTypeSpec).withSelf(selfLink).withValue(value);
 
-        return Responses.ofOk(renderer, Caching.ONE_DAY).build();
+        return responseFor(cacheKey, renderer, entityTag);
     }
 
 
@@ -283,11 +373,23 @@ public Response domainTypeIsSupertypeOf(
 
         init(Where.ANYWHERE, RepresentationService.Intent.NOT_APPLICABLE);
 
+        final String cacheKey = cacheKey();
+        final DomainTypeRepresentationCache.Entry cachedEntry = cachedEntryIfAny(cacheKey);
+        if(cachedEntry != null) {
+            return responseFor(cachedEntry);
+        }
+
         final String subtype = domainTypeFor(subTypeStr, argsUrlEncoded, "subtype");
 
         final ObjectSpecification domainTypeSpec = getSpecificationLoader().lookupBySpecId(ObjectSpecId.of(domainType));
         final ObjectSpecification subtypeSpec = getSpecificationLoader().lookupBySpecId(ObjectSpecId.of(subtype));
 
+        final EntityTag entityTag = variantOf(EntityTagUtils.entityTagFor(domainTypeSpec, subtypeSpec));
+        final Response notModified = notModifiedIfCurrent(entityTag);
+        if(notModified != null) {
+            return notModified;
+        }
+
         final TypeActionResultReprRenderer renderer = new TypeActionResultReprRenderer(getResourceContext(), null, JsonRepresentation.newMap());
 
         final String url = "domain-types/" + domainType + "/type-actions/isSupertypeOf/invoke";
@@ -298,7 +400,66 @@ public Response domainTypeIsSupertypeOf(
         final boolean value = subtypeSpec.isOfType(domainTypeSpec);
         renderer.with(domainTypeSpec).withSelf(selfLink).withValue(value);
 
-        return Responses.ofOk(renderer, Caching.ONE_DAY).build();
+        return responseFor(cacheKey, renderer, entityTag);
+    }
+
+    // //////////////////////////////////////////////////////////
+    // caching
+    // //////////////////////////////////////////////////////////
+
+    /**
+     * The representations are translated, and (in principle) may be negotiated to different media types, so the
+     * request URI alone does not identify them.
+     */
+    private String cacheKey() {
+        return getResourceContext().getUriInfo().getRequestUri().toString() + "|" + variant();
+    }
+
+    private EntityTag variantOf(final EntityTag entityTag) {
+        return EntityTagUtils.variantOf(entityTag, variant());
+    }
+
+    private String variant() {
+        final HttpHeaders httpHeaders = getResourceContext().getHttpHeaders();
+        return httpHeaders.getAcceptableMediaTypes() + "|" + httpHeaders.getAcceptableLanguages();
+    }
+
+    @Override
+    protected Response notModifiedIfCurrent(final EntityTag entityTag) {
+        final Response notModified = super.notModifiedIfCurrent(entityTag);
+        return notModified != null ? withVary(Response.fromResponse(notModified)).build() : null;
+    }
+
+    private static Response.ResponseBuilder withVary(final Response.ResponseBuilder responseBuilder) {
+        return responseBuilder.header(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_LANGUAGE);
+    }
+
+    private DomainTypeRepresentationCache.Entry cachedEntryIfAny(final String cacheKey) {
+        final DomainTypeRepresentationCache cache = getRepresentationCache();
+        return cache != null ? cache.lookup(cacheKey) : null;
+    }
+
+    private Response responseFor(final DomainTypeRepresentationCache.Entry entry) {
+        final Response notModified = notModifiedIfCurrent(entry.getEntityTag());
+        if(notModified != null) {
+            return notModified;
+        }
+        return withVary(Responses.ofOk(entry, Caching.ONE_DAY)).build();
+    }
+
+    private Response responseFor(
+            final String cacheKey,
+            final ReprRenderer<?, ?> renderer,
+            final EntityTag entityTag) {
+        final DomainTypeRepresentationCache cache = getRepresentationCache();
+        if(cache == null || !cache.isEnabled()) {
+            return withVary(Responses.ofOk(renderer, Caching.ONE_DAY).tag(entityTag)).build();
+        }
+        return withVary(Responses.ofOk(cache.render(cacheKey, renderer, entityTag), Caching.ONE_DAY)).build();
+    }
+
+    private DomainTypeRepresentationCache getRepresentationCache() {
+        return getServicesInjector().lookupService(DomainTypeRepresentationCache.class);
     }
 
     private static String domainTypeFor(
@@ -16,8 +16,12 @@
  */
 package org.apache.isis.viewer.restfulobjects.server.resources;
 
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+
+import com.google.common.collect.Lists;
+
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
 import org.apache.isis.core.metamodel.adapter.oid.OidMarshaller;
 import org.apache.isis.core.metamodel.spec.ObjectSpecification;
@@ -138,6 +142,32 @@ public ObjectAdapter objectAdapterFor(final JsonRepresentation argRepr) {
         return objectAdapter;
     }
 
+    /**
+     * So that the objects referenced by any of the (link) arguments are loaded in bulk when the first is
+     * {@link #objectAdapterFor(JsonRepresentation) parsed}.
+     */
+    static void enqueueReferencesForLoading(
+            final RendererContext rendererContext,
+            final List<JsonRepresentation> argReprs) {
+        final List<String> oidStrs = Lists.newArrayList();
+        for (final JsonRepresentation argRepr : argReprs) {
+            if (argRepr == null || !argRepr.mapHas("value")) {
+                continue;
+            }
+            final JsonRepresentation argValueRepr = argRepr.getRepresentation("value");
+            if (argValueRepr == null || !argValueRepr.isLink()) {
+                continue;
+            }
+            final String oidFromHref = encodedOidFromLink(argValueRepr);
+            if (oidFromHref != null) {
+                oidStrs.add(oidFromHref);
+            }
+        }
+        if (oidStrs.size() > 1) {
+            OidUtils.enqueueForLoading(rendererContext, oidStrs);
+        }
+    }
+
     static String encodedOidFromLink(final JsonRepresentation link) {
         final String href = link.getString("href");
 
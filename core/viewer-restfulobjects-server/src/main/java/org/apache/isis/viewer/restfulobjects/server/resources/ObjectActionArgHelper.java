@@ -51,6 +51,7 @@ public ObjectActionArgHelper(
 
     public List<ObjectAdapter> parseAndValidateArguments(final JsonRepresentation arguments) {
         final List<JsonRepresentation> argList = argListFor(action, arguments);
+        JsonParserHelper.enqueueReferencesForLoading(rendererContext, argList);
 
         final List<ObjectAdapter> argAdapters = Lists.newArrayList();
         final List<ObjectActionParameter> parameters = action.getParameters();
@@ -19,13 +19,16 @@
 package org.apache.isis.viewer.restfulobjects.server.resources;
 
 import java.io.InputStream;
+import java.util.Date;
 import java.util.List;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
 import javax.ws.rs.core.SecurityContext;
 import javax.ws.rs.core.UriInfo;
 import javax.ws.rs.ext.Providers;
@@ -37,6 +40,7 @@
 import org.apache.isis.core.commons.config.IsisConfiguration;
 import org.apache.isis.core.commons.url.UrlDecoderUtil;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.adapter.version.Version;
 import org.apache.isis.core.metamodel.consent.InteractionInitiatedBy;
 import org.apache.isis.core.metamodel.deployment.DeploymentCategory;
 import org.apache.isis.core.metamodel.services.ServiceUtil;
@@ -48,10 +52,12 @@
 import org.apache.isis.core.runtime.system.session.IsisSessionFactory;
 import org.apache.isis.viewer.restfulobjects.applib.RepresentationType;
 import org.apache.isis.viewer.restfulobjects.applib.client.RestfulResponse.HttpStatusCode;
+import org.apache.isis.viewer.restfulobjects.rendering.Responses;
 import org.apache.isis.viewer.restfulobjects.rendering.RestfulObjectsApplicationException;
 import org.apache.isis.viewer.restfulobjects.rendering.service.RepresentationService;
 import org.apache.isis.viewer.restfulobjects.rendering.util.Util;
 import org.apache.isis.viewer.restfulobjects.server.ResourceContext;
+import org.apache.isis.viewer.restfulobjects.server.util.EntityTagUtils;
 import org.apache.isis.viewer.restfulobjects.server.util.OidUtils;
 
 public abstract class ResourceAbstract {
@@ -148,6 +154,60 @@ protected ObjectAdapter getObjectAdapterElseThrowNotFound(String domainType, fin
         return objectAdapter;
     }
 
+    /**
+     * Conditional GET of a domain object (or one of its members), if {@link ResourceContext#conditionalGet() enabled}.
+     *
+     * @return <tt>304 Not Modified</tt> if the client's copy (as per its <tt>If-None-Match</tt> or
+     *         <tt>If-Modified-Since</tt> header) is of the current version of the object, otherwise <tt>null</tt>.
+     */
+    protected Response notModifiedIfCurrent(final ObjectAdapter objectAdapter) {
+        return notModifiedIfCurrent(getResourceContext().conditionalGet(), objectAdapter.getVersion(), httpHeaders, request);
+    }
+
+    static Response notModifiedIfCurrent(
+            final boolean conditionalGet,
+            final Version version,
+            final HttpHeaders httpHeaders,
+            final Request request) {
+        if(!conditionalGet) {
+            return null;
+        }
+        final EntityTag entityTag = Responses.entityTagFor(version);
+        if(entityTag == null) {
+            return null;
+        }
+        // as per RFC 7232, If-Modified-Since is ignored if If-None-Match is present
+        final List<String> ifNoneMatch = httpHeaders.getRequestHeader(HttpHeaders.IF_NONE_MATCH);
+        final boolean notModified;
+        if(ifNoneMatch != null && !ifNoneMatch.isEmpty()) {
+            notModified = EntityTagUtils.matchesIfNoneMatch(ifNoneMatch, entityTag);
+        } else {
+            // only if the version records a real time; compared untruncated, so that a second update within the
+            // same second (as sent in Last-Modified) is never reported as not modified
+            final Date time = version.getTime();
+            notModified = time != null && request.evaluatePreconditions(time) != null;
+        }
+        return notModified
+                ? Responses.addEntityTagAndLastModifiedIfAvailable(Response.notModified(), version).build()
+                : null;
+    }
+
+    /**
+     * Conditional GET of a representation identified by the provided (strong) entity tag.
+     *
+     * @return <tt>304 Not Modified</tt> if the client's copy (as per its <tt>If-None-Match</tt> header) is current,
+     *         otherwise <tt>null</tt>.
+     */
+    protected Response notModifiedIfCurrent(final EntityTag entityTag) {
+        return notModifiedIfCurrent(entityTag, httpHeaders);
+    }
+
+    static Response notModifiedIfCurrent(final EntityTag entityTag, final HttpHeaders httpHeaders) {
+        return EntityTagUtils.matchesIfNoneMatch(httpHeaders.getRequestHeader(HttpHeaders.IF_NONE_MATCH), entityTag)
+                ? Response.notModified(entityTag).build()
+                : null;
+    }
+
     protected ObjectAdapter getObjectAdapterElseNull(String domainType, final String instanceId) {
         return OidUtils.getObjectAdapterElseNull(resourceContext, domainType, instanceId);
     }
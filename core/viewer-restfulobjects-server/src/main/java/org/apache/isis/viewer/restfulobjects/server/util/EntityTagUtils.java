@@ -0,0 +1,195 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.viewer.restfulobjects.server.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+
+import javax.ws.rs.core.EntityTag;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Ordering;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.feature.Contributed;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAction;
+import org.apache.isis.core.metamodel.spec.feature.ObjectActionParameter;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
+
+/**
+ * Strong entity tags for the representations derived only from the metamodel (ie the domain type resources),
+ * which change only when the application is redeployed.
+ *
+ * <p>
+ * The tags are a hash of those parts of the metamodel that are rendered: the identity and names of the
+ * specifications, along with the ids, names, descriptions and types of their members.  They are therefore the
+ * same across restarts (and across the nodes of a cluster) of the same application.
+ * </p>
+ */
+public final class EntityTagUtils {
+
+    private EntityTagUtils() {
+    }
+
+    public static EntityTag entityTagFor(final ObjectSpecification... specs) {
+        final Hasher hasher = Hashing.sha1().newHasher();
+        for (final ObjectSpecification spec : specs) {
+            putSpecification(hasher, spec);
+        }
+        return new EntityTag(hasher.hash().toString());
+    }
+
+    /**
+     * For the list of all domain types; the tag is a hash of their ids only.
+     */
+    public static EntityTag entityTagForTypeList(final Collection<ObjectSpecification> specs) {
+        final Hasher hasher = Hashing.sha1().newHasher();
+        for (final ObjectSpecification spec : Ordering.from(ObjectSpecification.COMPARATOR_FULLY_QUALIFIED_CLASS_NAME).sortedCopy(specs)) {
+            putSpecId(hasher, spec);
+        }
+        return new EntityTag(hasher.hash().toString());
+    }
+
+    /**
+     * The tag for a particular variant (eg media type and language) of the representation identified by the
+     * provided tag.
+     */
+    public static EntityTag variantOf(final EntityTag entityTag, final String variant) {
+        final Hasher hasher = Hashing.sha1().newHasher();
+        put(hasher, entityTag.getValue());
+        put(hasher, variant);
+        return new EntityTag(hasher.hash().toString());
+    }
+
+    /**
+     * Whether any of the entity tags of the client's <tt>If-None-Match</tt> header(s) matches the current one.
+     *
+     * <p>
+     * As required by RFC 7232 for <tt>If-None-Match</tt>, uses the weak comparison, ie ignores any <tt>W/</tt>
+     * prefix (as might be added by an intermediary that has compressed the representation).
+     * </p>
+     */
+    public static boolean matchesIfNoneMatch(final List<String> ifNoneMatchHeaders, final EntityTag current) {
+        if(ifNoneMatchHeaders == null || current == null) {
+            return false;
+        }
+        for (final String ifNoneMatchHeader : ifNoneMatchHeaders) {
+            for (final String entityTag : splitEntityTags(ifNoneMatchHeader)) {
+                if("*".equals(entityTag) || opaqueValueOf(entityTag).equals(current.getValue())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Splits a header value into its (comma-separated) entity tags, ignoring any commas within quotes.
+     */
+    static List<String> splitEntityTags(final String headerValue) {
+        final List<String> entityTags = Lists.newArrayList();
+        if(headerValue == null) {
+            return entityTags;
+        }
+        boolean quoted = false;
+        int start = 0;
+        for (int i = 0; i < headerValue.length(); i++) {
+            final char c = headerValue.charAt(i);
+            if(c == '"') {
+                quoted = !quoted;
+            } else if(c == ',' && !quoted) {
+                addIfNotEmpty(entityTags, headerValue.substring(start, i));
+                start = i + 1;
+            }
+        }
+        addIfNotEmpty(entityTags, headerValue.substring(start));
+        return entityTags;
+    }
+
+    private static void addIfNotEmpty(final List<String> entityTags, final String entityTag) {
+        final String trimmed = entityTag.trim();
+        if(!trimmed.isEmpty()) {
+            entityTags.add(trimmed);
+        }
+    }
+
+    private static String opaqueValueOf(final String entityTag) {
+        String value = entityTag;
+        if(value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        if(value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+
+    private static void putSpecification(final Hasher hasher, final ObjectSpecification spec) {
+        if(spec == null) {
+            hasher.putChar('-');
+            return;
+        }
+        putSpecId(hasher, spec);
+        put(hasher, spec.getFullIdentifier());
+        put(hasher, spec.getSingularName());
+        put(hasher, spec.getPluralName());
+        put(hasher, spec.getDescription());
+        putSpecId(hasher, spec.superclass());
+        for (final ObjectSpecification interfaceSpec : spec.interfaces()) {
+            putSpecId(hasher, interfaceSpec);
+        }
+
+        final List<ObjectAssociation> associations = spec.getAssociations(Contributed.INCLUDED);
+        for (final ObjectAssociation association : associations) {
+            put(hasher, association.getId());
+            put(hasher, association.getName());
+            put(hasher, association.getDescription());
+            hasher.putBoolean(association.isOneToManyAssociation());
+            putSpecId(hasher, association.getSpecification());
+        }
+
+        final List<ObjectAction> actions = spec.getObjectActions(Contributed.INCLUDED);
+        for (final ObjectAction action : actions) {
+            put(hasher, action.getId());
+            put(hasher, action.getName());
+            put(hasher, action.getDescription());
+            putSpecId(hasher, action.getReturnType());
+            for (final ObjectActionParameter parameter : action.getParameters()) {
+                put(hasher, parameter.getId());
+                put(hasher, parameter.getName());
+                put(hasher, parameter.getDescription());
+                putSpecId(hasher, parameter.getSpecification());
+            }
+        }
+    }
+
+    private static void putSpecId(final Hasher hasher, final ObjectSpecification spec) {
+        put(hasher, spec != null ? spec.getSpecId().asString() : null);
+    }
+
+    private static void put(final Hasher hasher, final String str) {
+        if(str != null) {
+            hasher.putString(str, StandardCharsets.UTF_8);
+        }
+        hasher.putChar('\n');
+    }
+}
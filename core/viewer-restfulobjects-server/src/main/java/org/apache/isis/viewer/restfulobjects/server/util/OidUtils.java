@@ -18,6 +18,10 @@
  */
 package org.apache.isis.viewer.restfulobjects.server.util;
 
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
 import org.apache.isis.core.metamodel.adapter.oid.OidMarshaller;
 import org.apache.isis.core.metamodel.adapter.oid.RootOid;
@@ -52,6 +56,24 @@ public static ObjectAdapter getObjectAdapterElseNull(
         return getObjectAdapter(rendererContext, oidStrUnencoded);
     }
 
+    /**
+     * Hints that the objects identified by these (encoded) oids are about to be
+     * {@link #getObjectAdapterElseNull(RendererContext, String) looked up}, so that they can be loaded in bulk.
+     */
+    public static void enqueueForLoading(
+            final RendererContext rendererContext,
+            final Iterable<String> oidStrsEncoded) {
+        final List<RootOid> rootOids = Lists.newArrayList();
+        for (final String oidStrEncoded : oidStrsEncoded) {
+            try {
+                rootOids.add(RootOid.deString(UrlDecoderUtils.urlDecode(oidStrEncoded)));
+            } catch (final RuntimeException ex) {
+                // ignore; will be reported when looked up
+            }
+        }
+        rendererContext.getPersistenceSession().enqueueForLoading(rootOids);
+    }
+
     private static ObjectAdapter getObjectAdapter(
             final RendererContext rendererContext,
             final String oidStrUnencoded) {
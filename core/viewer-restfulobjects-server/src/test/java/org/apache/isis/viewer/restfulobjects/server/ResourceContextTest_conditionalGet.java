@@ -0,0 +1,120 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.viewer.restfulobjects.server;
+
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
+
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.core.commons.authentication.AuthenticationSession;
+import org.apache.isis.core.commons.config.IsisConfiguration;
+import org.apache.isis.core.metamodel.deployment.DeploymentCategory;
+import org.apache.isis.core.metamodel.services.ServicesInjector;
+import org.apache.isis.core.metamodel.specloader.SpecificationLoader;
+import org.apache.isis.core.runtime.system.persistence.PersistenceSession;
+import org.apache.isis.core.runtime.system.session.IsisSession;
+import org.apache.isis.core.runtime.system.session.IsisSessionFactory;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+import org.apache.isis.viewer.restfulobjects.applib.RepresentationType;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ResourceContextTest_conditionalGet {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock HttpServletRequest mockHttpServletRequest;
+    @Mock ServletContext mockServletContext;
+    @Mock IsisSessionFactory mockIsisSessionFactory;
+    @Mock ServicesInjector mockServicesInjector;
+    @Mock IsisConfiguration mockConfiguration;
+    @Mock IsisSession mockIsisSession;
+    @Mock AuthenticationSession mockAuthenticationSession;
+    @Mock PersistenceSession mockPersistenceSession;
+    @Mock SpecificationLoader mockSpecificationLoader;
+
+    private ResourceContext resourceContext;
+
+    @Before
+    public void setUp() throws Exception {
+        context.checking(new Expectations() {
+            {
+                allowing(mockHttpServletRequest).getServletContext();
+                will(returnValue(mockServletContext));
+                allowing(mockServletContext).getAttribute("org.apache.isis.core.webapp.isisSessionFactory");
+                will(returnValue(mockIsisSessionFactory));
+                allowing(mockIsisSessionFactory).getServicesInjector();
+                will(returnValue(mockServicesInjector));
+                allowing(mockIsisSessionFactory).getConfiguration();
+                will(returnValue(mockConfiguration));
+                allowing(mockIsisSessionFactory).getCurrentSession();
+                will(returnValue(mockIsisSession));
+                allowing(mockIsisSession).getAuthenticationSession();
+                will(returnValue(mockAuthenticationSession));
+                allowing(mockIsisSessionFactory).getSpecificationLoader();
+                will(returnValue(mockSpecificationLoader));
+                allowing(mockIsisSessionFactory).getDeploymentCategory();
+                will(returnValue(DeploymentCategory.PRODUCTION));
+                allowing(mockIsisSession).getPersistenceSession();
+                will(returnValue(mockPersistenceSession));
+            }
+        });
+
+        resourceContext = new ResourceContext(null, null, null, null, null, null, null, null,
+                mockHttpServletRequest, null, null,
+                null) {
+            @Override
+            void init(final RepresentationType representationType) {
+                //
+            }
+        };
+    }
+
+    @Test
+    public void disabled_by_default() throws Exception {
+        context.checking(new Expectations() {
+            {
+                oneOf(mockConfiguration).getBoolean("isis.viewer.restfulobjects.conditionalGet", false);
+                will(returnValue(false));
+            }
+        });
+
+        assertThat(resourceContext.conditionalGet(), is(false));
+    }
+
+    @Test
+    public void when_enabled() throws Exception {
+        context.checking(new Expectations() {
+            {
+                oneOf(mockConfiguration).getBoolean("isis.viewer.restfulobjects.conditionalGet", false);
+                will(returnValue(true));
+            }
+        });
+
+        assertThat(resourceContext.conditionalGet(), is(true));
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.viewer.restfulobjects.server.resources;
+
+import java.util.Arrays;
+import java.util.Date;
+
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.core.metamodel.adapter.version.Version;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.viewer.restfulobjects.rendering.Responses;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class ResourceAbstractTest_notModifiedIfCurrent {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(JUnitRuleMockery2.Mode.INTERFACES_ONLY);
+
+    @Mock
+    HttpHeaders mockHttpHeaders;
+    @Mock
+    Request mockRequest;
+
+    private final Version version = Version.create(1L, "sven", new Date(1234567890123L));
+
+    /**
+     * As created for JDO entities, by <tt>Utils.getVersionIfAny</tt>.
+     */
+    private final Version versionWithoutTime = Version.create(1L, "sven", (Date) null);
+
+    private void givenIfNoneMatch(final String... values) {
+        context.checking(new Expectations() {{
+            allowing(mockHttpHeaders).getRequestHeader(HttpHeaders.IF_NONE_MATCH);
+            will(returnValue(Arrays.asList(values)));
+        }});
+    }
+
+    private String currentTag() {
+        return "\"" + Responses.entityTagFor(version).getValue() + "\"";
+    }
+
+    @Test
+    public void when_disabled_then_never_304() throws Exception {
+        context.checking(new Expectations() {{
+            never(mockHttpHeaders);
+            never(mockRequest);
+        }});
+
+        assertThat(ResourceAbstract.notModifiedIfCurrent(false, version, mockHttpHeaders, mockRequest), is(nullValue()));
+    }
+
+    @Test
+    public void when_if_none_match_is_current_then_304() throws Exception {
+        givenIfNoneMatch(currentTag());
+        context.checking(new Expectations() {{
+            never(mockRequest);
+        }});
+
+        final Response response = ResourceAbstract.notModifiedIfCurrent(true, version, mockHttpHeaders, mockRequest);
+
+        assertThat(response.getStatus(), is(304));
+        assertThat(response.getEntityTag(), is(Responses.entityTagFor(version)));
+    }
+
+    @Test
+    public void when_if_none_match_is_weak_form_of_current_then_304() throws Exception {
+        givenIfNoneMatch("W/" + currentTag());
+
+        final Response response = ResourceAbstract.notModifiedIfCurrent(true, version, mockHttpHeaders, mockRequest);
+
+        assertThat(response.getStatus(), is(304));
+    }
+
+    @Test
+    public void when_if_none_match_is_stale_then_not_304_even_if_not_modified_since() throws Exception {
+        givenIfNoneMatch("\"stale\"");
+        context.checking(new Expectations() {{
+            never(mockRequest);
+        }});
+
+        assertThat(ResourceAbstract.notModifiedIfCurrent(true, version, mockHttpHeaders, mockRequest), is(nullValue()));
+    }
+
+    @Test
+    public void when_no_if_none_match_then_uses_if_modified_since() throws Exception {
+        givenIfNoneMatch();
+        context.checking(new Expectations() {{
+            oneOf(mockRequest).evaluatePreconditions(version.getTime());
+            will(returnValue(Response.notModified()));
+        }});
+
+        final Response response = ResourceAbstract.notModifiedIfCurrent(true, version, mockHttpHeaders, mockRequest);
+
+        assertThat(response.getStatus(), is(304));
+    }
+
+    @Test
+    public void when_no_version_then_never_304() throws Exception {
+        context.checking(new Expectations() {{
+            never(mockHttpHeaders);
+            never(mockRequest);
+        }});
+
+        assertThat(ResourceAbstract.notModifiedIfCurrent(true, null, mockHttpHeaders, mockRequest), is(nullValue()));
+    }
+
+    @Test
+    public void when_version_has_no_time_and_if_none_match_is_current_then_304() throws Exception {
+        givenIfNoneMatch("\"" + Responses.entityTagFor(versionWithoutTime).getValue() + "\"");
+
+        final Response response = ResourceAbstract.notModifiedIfCurrent(true, versionWithoutTime, mockHttpHeaders, mockRequest);
+
+        assertThat(response.getStatus(), is(304));
+        assertThat(response.getEntityTag(), is(Responses.entityTagFor(versionWithoutTime)));
+        assertThat(response.getMetadata().containsKey(HttpHeaders.LAST_MODIFIED), is(false));
+    }
+
+    @Test
+    public void when_version_has_no_time_and_if_none_match_is_stale_then_not_304() throws Exception {
+        givenIfNoneMatch("\"" + Responses.entityTagFor(Version.create(2L, "sven", (Date) null)).getValue() + "\"");
+
+        assertThat(ResourceAbstract.notModifiedIfCurrent(true, versionWithoutTime, mockHttpHeaders, mockRequest), is(nullValue()));
+    }
+
+    @Test
+    public void when_version_has_no_time_then_if_modified_since_is_ignored() throws Exception {
+        givenIfNoneMatch();
+        context.checking(new Expectations() {{
+            never(mockRequest);
+        }});
+
+        assertThat(ResourceAbstract.notModifiedIfCurrent(true, versionWithoutTime, mockHttpHeaders, mockRequest), is(nullValue()));
+    }
+
+    @Test
+    public void domain_type_when_if_none_match_is_current_then_304() throws Exception {
+        final EntityTag entityTag = new EntityTag("abc");
+        givenIfNoneMatch("\"abc\"");
+
+        final Response response = ResourceAbstract.notModifiedIfCurrent(entityTag, mockHttpHeaders);
+
+        assertThat(response.getStatus(), is(304));
+        assertThat(response.getEntityTag(), is(entityTag));
+    }
+
+    @Test
+    public void domain_type_when_if_none_match_is_stale_then_not_304() throws Exception {
+        givenIfNoneMatch("\"xyz\"");
+
+        assertThat(ResourceAbstract.notModifiedIfCurrent(new EntityTag("abc"), mockHttpHeaders), is(nullValue()));
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.viewer.restfulobjects.server.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import javax.ws.rs.core.EntityTag;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class EntityTagUtilsTest {
+
+    private final EntityTag current = new EntityTag("abc");
+
+    @Test
+    public void matches_strong() throws Exception {
+        assertThat(EntityTagUtils.matchesIfNoneMatch(Collections.singletonList("\"abc\""), current), is(true));
+    }
+
+    @Test
+    public void matches_weak() throws Exception {
+        assertThat(EntityTagUtils.matchesIfNoneMatch(Collections.singletonList("W/\"abc\""), current), is(true));
+    }
+
+    @Test
+    public void matches_any() throws Exception {
+        assertThat(EntityTagUtils.matchesIfNoneMatch(Collections.singletonList("*"), current), is(true));
+    }
+
+    @Test
+    public void matches_within_list() throws Exception {
+        assertThat(EntityTagUtils.matchesIfNoneMatch(Collections.singletonList("\"x,y\", W/\"abc\""), current), is(true));
+        assertThat(EntityTagUtils.matchesIfNoneMatch(Arrays.asList("\"xyz\"", "\"abc\""), current), is(true));
+    }
+
+    @Test
+    public void does_not_match_other() throws Exception {
+        assertThat(EntityTagUtils.matchesIfNoneMatch(Collections.singletonList("\"abd\""), current), is(false));
+        assertThat(EntityTagUtils.matchesIfNoneMatch(Collections.singletonList("\"abc,def\""), current), is(false));
+    }
+
+    @Test
+    public void does_not_match_when_no_header() throws Exception {
+        assertThat(EntityTagUtils.matchesIfNoneMatch(null, current), is(false));
+        assertThat(EntityTagUtils.matchesIfNoneMatch(Collections.<String>emptyList(), current), is(false));
+    }
+
+    @Test
+    public void splitEntityTags_ignores_commas_within_quotes() throws Exception {
+        assertThat(EntityTagUtils.splitEntityTags(" \"a,b\" ,W/\"c\",, "), is(Arrays.asList("\"a,b\"", "W/\"c\"")));
+    }
+
+    @Test
+    public void variantOf_differs_by_variant() throws Exception {
+        assertThat(EntityTagUtils.variantOf(current, "en"), is(EntityTagUtils.variantOf(current, "en")));
+        assertThat(EntityTagUtils.variantOf(current, "en").equals(EntityTagUtils.variantOf(current, "fr")), is(false));
+    }
+}
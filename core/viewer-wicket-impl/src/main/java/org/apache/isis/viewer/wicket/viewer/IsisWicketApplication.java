@@ -73,6 +73,7 @@
 import org.apache.isis.viewer.wicket.viewer.integration.wicket.AuthenticatedWebSessionForIsis;
 import org.apache.isis.viewer.wicket.viewer.integration.wicket.ConverterForObjectAdapter;
 import org.apache.isis.viewer.wicket.viewer.integration.wicket.ConverterForObjectAdapterMemento;
+import org.apache.isis.viewer.wicket.viewer.integration.wicket.SerializerForIsis;
 import org.apache.isis.viewer.wicket.viewer.integration.wicket.WebRequestCycleForIsis;
 import org.apache.isis.viewer.wicket.viewer.settings.IsisResourceSettings;
 import org.apache.wicket.Application;
@@ -104,6 +105,7 @@
 import org.apache.wicket.request.cycle.PageRequestHandlerTracker;
 import org.apache.wicket.request.cycle.RequestCycleListenerCollection;
 import org.apache.wicket.request.resource.CssResourceReference;
+import org.apache.wicket.serialize.ISerializer;
 import org.apache.wicket.settings.DebugSettings;
 import org.apache.wicket.settings.RequestCycleSettings;
 import org.apache.wicket.util.IContextProvider;
@@ -172,6 +174,9 @@
     private static final String WICKET_REMEMBER_ME_COOKIE_KEY_DEFAULT = "isisWicketRememberMe";
     private static final String WICKET_REMEMBER_ME_ENCRYPTION_KEY = "isis.viewer.wicket.rememberMe.encryptionKey";
 
+    private static final String SERIALIZATION_WARN_SIZE_IN_KB_KEY = "isis.viewer.wicket.serialization.warnSizeInKb";
+    private static final int SERIALIZATION_WARN_SIZE_IN_KB_DEFAULT = 1024;
+
     /**
      * A configuration setting which value determines whether debug bar and other stuff influenced by {@link DebugSettings#isDevelopmentUtilitiesEnabled()} is enabled or not.
      *
@@ -382,6 +387,8 @@ protected void init() {
             
             this.getMarkupSettings().setStripWicketTags(determineStripWicketTags(configuration));
 
+            getFrameworkSettings().setSerializer(newSerializer(configuration));
+
             configureSecurity(configuration);
 
             getDebugSettings().setAjaxDebugModeEnabled(determineAjaxDebugModeEnabled(configuration));
@@ -436,17 +443,40 @@ protected void init() {
             LOG.info("storeSettings.maxSizePerSession        : {}", getStoreSettings().getMaxSizePerSession());
             LOG.info("storeSettings.fileStoreFolder          : {}", getStoreSettings().getFileStoreFolder());
 
+            joinBackgroundInitializationThreads(futures, null);
+
         } catch(RuntimeException ex) {
             // because Wicket's handling in its WicketFilter (that calls this method) does not log the exception.
             LOG.error("Failed to initialize", ex);
+            joinBackgroundInitializationThreads(futures, ex);
             throw ex;
-        } finally {
-            ThreadPoolSupport.join(futures);
+        }
+    }
+
+    /**
+     * Waits for the background initialization tasks to complete.  Their failures are logged (and attached to the
+     * primary exception, if any) but do not themselves abort initialization.
+     */
+    private static void joinBackgroundInitializationThreads(
+            final List<Future<Object>> futures,
+            final RuntimeException primaryExceptionIfAny) {
+        if(futures == null) {
+            return;
+        }
+        for (final Future<Object> future : futures) {
+            try {
+                ThreadPoolSupport.join(future);
+            } catch(RuntimeException ex) {
+                LOG.error("Background initialization task failed", ex);
+                if(primaryExceptionIfAny != null) {
+                    primaryExceptionIfAny.addSuppressed(ex);
+                }
+            }
         }
     }
 
     protected List<Future<Object>> startBackgroundInitializationThreads() {
-        return ThreadPoolSupport.invokeAll(Lists.newArrayList(
+        return ThreadPoolSupport.getInstance().invokeAll(Lists.<Callable<Object>>newArrayList(
                 new Callable<Object>() {
                     @Override
                     public Object call() throws Exception {
@@ -617,6 +647,15 @@ protected IRequestCycleListener newWebRequestCycleForIsis() {
         return new WebRequestCycleForIsis();
     }
 
+    /**
+     * Factored out for easy (informal) pluggability.
+     */
+    protected ISerializer newSerializer(final IsisConfiguration configuration) {
+        final int warnSizeInKb = configuration.getInteger(
+                SERIALIZATION_WARN_SIZE_IN_KB_KEY, SERIALIZATION_WARN_SIZE_IN_KB_DEFAULT);
+        return new SerializerForIsis(getApplicationKey(), warnSizeInKb);
+    }
+
     // //////////////////////////////////////
 
     /**
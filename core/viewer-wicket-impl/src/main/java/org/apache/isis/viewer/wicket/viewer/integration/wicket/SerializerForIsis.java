@@ -0,0 +1,112 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.viewer.wicket.viewer.integration.wicket;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.wicket.page.IManageablePage;
+import org.apache.wicket.serialize.java.JavaSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.isis.viewer.wicket.model.mementos.ObjectAdapterMemento;
+
+/**
+ * Extends Wicket's {@link JavaSerializer} to report the size of, and the time taken to serialize, each page written
+ * to the page store.
+ *
+ * <p>
+ *     The compact representation itself is provided by the Isis models and mementos (notably
+ *     {@link ObjectAdapterMemento}); this serializer logs each page at <tt>DEBUG</tt>, warns of any page exceeding
+ *     the configured size, and keeps running totals.
+ * </p>
+ */
+public class SerializerForIsis extends JavaSerializer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SerializerForIsis.class);
+
+    private final long warnSizeInBytes;
+
+    private final AtomicLong numberSerialized = new AtomicLong();
+    private final AtomicLong bytesSerialized = new AtomicLong();
+    private final AtomicLong nanosSerializing = new AtomicLong();
+
+    public SerializerForIsis(final String applicationKey, final int warnSizeInKb) {
+        super(applicationKey);
+        this.warnSizeInBytes = warnSizeInKb * 1024L;
+    }
+
+    @Override
+    public byte[] serialize(final Object object) {
+        final long start = System.nanoTime();
+        final byte[] bytes = super.serialize(object);
+        final long nanos = System.nanoTime() - start;
+        if(bytes == null) {
+            // failed to serialize; already logged by the superclass
+            return null;
+        }
+
+        numberSerialized.incrementAndGet();
+        bytesSerialized.addAndGet(bytes.length);
+        nanosSerializing.addAndGet(nanos);
+
+        if(bytes.length > warnSizeInBytes) {
+            LOG.warn("serialized {} as {} bytes in {} ms (exceeds {} bytes)",
+                    describe(object), bytes.length, TimeUnit.NANOSECONDS.toMillis(nanos), warnSizeInBytes);
+        } else if(LOG.isDebugEnabled()) {
+            LOG.debug("serialized {} as {} bytes in {} ms",
+                    describe(object), bytes.length, TimeUnit.NANOSECONDS.toMillis(nanos));
+        }
+        return bytes;
+    }
+
+    @Override
+    public Object deserialize(final byte[] data) {
+        final long start = System.nanoTime();
+        final Object object = super.deserialize(data);
+        if(LOG.isDebugEnabled()) {
+            LOG.debug("deserialized {} from {} bytes in {} ms",
+                    describe(object), data.length, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        return object;
+    }
+
+    private static String describe(final Object object) {
+        if(object instanceof IManageablePage) {
+            return object.getClass().getSimpleName() + "#" + ((IManageablePage) object).getPageId();
+        }
+        return object != null ? object.getClass().getSimpleName() : "null";
+    }
+
+    // -- statistics
+
+    public long getNumberSerialized() {
+        return numberSerialized.get();
+    }
+
+    public long getBytesSerialized() {
+        return bytesSerialized.get();
+    }
+
+    public long getMillisSerializing() {
+        return TimeUnit.NANOSECONDS.toMillis(nanosSerializing.get());
+    }
+
+}
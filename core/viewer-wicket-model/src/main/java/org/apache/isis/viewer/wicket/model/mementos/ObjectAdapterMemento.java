@@ -19,6 +19,10 @@
 
 package org.apache.isis.viewer.wicket.model.mementos;
 
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -48,7 +52,13 @@
 import org.apache.isis.core.runtime.persistence.ObjectNotFoundException;
 import org.apache.isis.core.runtime.system.persistence.PersistenceSession;
 
-public class ObjectAdapterMemento implements Serializable {
+/**
+ * {@link Externalizable} (rather than relying on default {@link Serializable serialization}) so that Wicket's
+ * page store holds a compact representation: spec ids are interned and written once per page, the spec id
+ * prefix of persistent {@link RootOid}s is omitted, the {@link Bookmark} is recreated from the oid rather than
+ * stored, and lists of mementos are written as packed arrays.
+ */
+public class ObjectAdapterMemento implements Externalizable {
 
     private static final long serialVersionUID = 1L;
 
@@ -133,6 +143,7 @@ public ObjectAdapter asAdapter(
                     final ObjectAdapterMemento oam,
                     final ConcurrencyChecking concurrencyChecking, final PersistenceSession persistenceSession,
                     final SpecificationLoader specificationLoader) {
+                enqueueForLoading(oam.list, persistenceSession);
                 final List<Object> listOfPojos =
                         Lists.newArrayList(
                             FluentIterable.from(oam.list)
@@ -340,8 +351,8 @@ public abstract void resetVersion(
 
 
 
-    private final Sort sort;
-    private final ObjectSpecId objectSpecId;
+    private Sort sort;
+    private ObjectSpecId objectSpecId;
 
     /**
      * Populated only if {@link #getSort() sort} is {@link Sort#SCALAR scalar}
@@ -395,6 +406,12 @@ public abstract void resetVersion(
      */
     private ArrayList<ObjectAdapterMemento> list;
 
+    /**
+     * For {@link Externalizable} only.
+     */
+    public ObjectAdapterMemento() {
+    }
+
     public ObjectAdapterMemento(final ArrayList<ObjectAdapterMemento> list, final ObjectSpecId objectSpecId) {
         this.sort = Sort.VECTOR;
         this.list = list;
@@ -561,6 +578,129 @@ public String asString() {
     }
 
 
+    //////////////////////////////////////////////////
+    // Externalizable
+    //////////////////////////////////////////////////
+
+    private static final byte OID_WITHOUT_SPEC_ID_PREFIX = 1;
+    private static final byte OID_IN_FULL = 0;
+    /**
+     * As used by {@link OidMarshaller} between the spec id and the identifier.
+     */
+    private static final String OID_SEPARATOR = ":";
+
+    @Override
+    public void writeExternal(final ObjectOutput out) throws IOException {
+        out.writeByte(sort.ordinal());
+        // interned, so that the stream writes each distinct spec id just once, thereafter as a back-reference
+        final String specId = objectSpecId.asString().intern();
+        out.writeObject(specId);
+
+        if(sort == Sort.VECTOR) {
+            writeList(out, list);
+            return;
+        }
+
+        out.writeByte(type.ordinal());
+        out.writeObject(titleHint);
+        switch (type) {
+        case ENCODEABLE:
+            out.writeObject(encodableValue);
+            break;
+        case TRANSIENT:
+            out.writeObject(transientMemento);
+            break;
+        case PERSISTENT:
+            final String specIdPrefix = specId + OID_SEPARATOR;
+            if(persistentOidStr.startsWith(specIdPrefix)) {
+                out.writeByte(OID_WITHOUT_SPEC_ID_PREFIX);
+                out.writeUTF(persistentOidStr.substring(specIdPrefix.length()));
+            } else {
+                out.writeByte(OID_IN_FULL);
+                out.writeUTF(persistentOidStr);
+            }
+            out.writeObject(hintId);
+            break;
+        }
+    }
+
+    @Override
+    public void readExternal(final ObjectInput in) throws IOException, ClassNotFoundException {
+        sort = Sort.values()[in.readByte()];
+        final String specId = ((String) in.readObject()).intern();
+        objectSpecId = ObjectSpecId.of(specId);
+
+        if(sort == Sort.VECTOR) {
+            list = readList(in);
+            return;
+        }
+
+        type = Type.values()[in.readByte()];
+        titleHint = (String) in.readObject();
+        switch (type) {
+        case ENCODEABLE:
+            encodableValue = (String) in.readObject();
+            break;
+        case TRANSIENT:
+            transientMemento = (Memento) in.readObject();
+            break;
+        case PERSISTENT:
+            final byte oidEncoding = in.readByte();
+            final String oidStr = in.readUTF();
+            persistentOidStr = oidEncoding == OID_WITHOUT_SPEC_ID_PREFIX
+                    ? specId + OID_SEPARATOR + oidStr
+                    : oidStr;
+            bookmark = OID_MARSHALLER.unmarshal(persistentOidStr, RootOid.class).asBookmark();
+            hintId = (String) in.readObject();
+            break;
+        }
+    }
+
+    /**
+     * Writes the mementos as a packed array, rather than as a serialized {@link List} of individually serialized
+     * objects.
+     *
+     * @see #readList(ObjectInput)
+     */
+    public static void writeList(
+            final ObjectOutput out,
+            final List<ObjectAdapterMemento> list) throws IOException {
+        if(list == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(list.size());
+        for (final ObjectAdapterMemento memento : list) {
+            out.writeBoolean(memento != null);
+            if(memento != null) {
+                memento.writeExternal(out);
+            }
+        }
+    }
+
+    /**
+     * @see #writeList(ObjectOutput, List)
+     */
+    public static ArrayList<ObjectAdapterMemento> readList(
+            final ObjectInput in) throws IOException, ClassNotFoundException {
+        final int size = in.readInt();
+        if(size < 0) {
+            return null;
+        }
+        final ArrayList<ObjectAdapterMemento> list = Lists.newArrayListWithCapacity(size);
+        for (int i = 0; i < size; i++) {
+            if(in.readBoolean()) {
+                final ObjectAdapterMemento memento = new ObjectAdapterMemento();
+                memento.readExternal(in);
+                list.add(memento);
+            } else {
+                list.add(null);
+            }
+        }
+        return list;
+    }
+
+
     //////////////////////////////////////////////////
     // Functions
     //////////////////////////////////////////////////
@@ -665,6 +805,23 @@ public RootOid apply(final ObjectAdapterMemento objectAdapterMemento) {
         }
     }
 
+    /**
+     * Hints to the {@link PersistenceSession} that the (persistent) objects of these mementos are about to be
+     * recreated, so that they can be {@link PersistenceSession#enqueueForLoading(Iterable) loaded in bulk}.
+     */
+    public static void enqueueForLoading(
+            final Iterable<ObjectAdapterMemento> mementos,
+            final PersistenceSession persistenceSession) {
+        final List<RootOid> rootOids = Lists.newArrayList();
+        for (final ObjectAdapterMemento memento : mementos) {
+            if(memento == null || memento.sort != Sort.SCALAR || memento.type != Type.PERSISTENT) {
+                continue;
+            }
+            rootOids.add(OID_MARSHALLER.unmarshal(memento.persistentOidStr, RootOid.class));
+        }
+        persistenceSession.enqueueForLoading(rootOids);
+    }
+
     private void ensureScalar() {
         getSort().ensure(Sort.SCALAR);
     }
@@ -0,0 +1,372 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.viewer.wicket.model.mementos;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import org.apache.isis.applib.query.Query;
+import org.apache.isis.applib.query.QueryDefault;
+import org.apache.isis.applib.query.QueryFindAllInstances;
+import org.apache.isis.applib.query.QueryFindAllInstancesMatching;
+import org.apache.isis.applib.query.QueryPredicate;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.adapter.mgr.AdapterManager.ConcurrencyChecking;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.specloader.SpecificationLoader;
+import org.apache.isis.core.runtime.system.persistence.PersistenceSession;
+
+/**
+ * {@link Serializable} representation of a {@link Query}, for a collection whose contents are obtained (a page at
+ * a time) by resubmitting the query.
+ *
+ * <p>
+ * Rather than the query itself (whose arguments may be domain objects attached to the session in which it was
+ * created), the memento holds any domain object arguments as {@link ObjectAdapterMemento}s, ie by bookmark; the
+ * query is recreated, looking up those arguments, for each request.
+ * </p>
+ *
+ * <p>
+ * Only the built-in queries ({@link QueryDefault}, {@link QueryFindAllInstances} and
+ * {@link QueryFindAllInstancesMatching}) are supported.
+ * </p>
+ */
+public abstract class QueryMemento implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Factory method
+     *
+     * @return <tt>null</tt> if the query is not of a supported type.
+     */
+    public static QueryMemento createOrNull(final Query<?> query, final PersistenceSession persistenceSession) {
+        if(query instanceof QueryDefault) {
+            final QueryDefault<?> queryDefault = (QueryDefault<?>) query;
+            final Map<String, Arg> argsByParameterName = Maps.newLinkedHashMap();
+            for (final Map.Entry<String, Object> entry : queryDefault.getArgumentsByParameterName().entrySet()) {
+                argsByParameterName.put(entry.getKey(), Arg.of(entry.getValue(), persistenceSession));
+            }
+            return new Named(
+                    queryDefault.getResultTypeName(), queryDefault.getStart(), queryDefault.getCount(),
+                    queryDefault.getQueryName(), argsByParameterName);
+        }
+        if(query instanceof QueryFindAllInstancesMatching) {
+            final QueryFindAllInstancesMatching<?> queryMatching = (QueryFindAllInstancesMatching<?>) query;
+            return new AllInstances(
+                    queryMatching.getResultTypeName(), queryMatching.getStart(), queryMatching.getCount(),
+                    PredicateMemento.of(queryMatching.getPredicate(), persistenceSession));
+        }
+        if(query instanceof QueryFindAllInstances) {
+            final QueryFindAllInstances<?> queryAll = (QueryFindAllInstances<?>) query;
+            return new AllInstances(
+                    queryAll.getResultTypeName(), queryAll.getStart(), queryAll.getCount(),
+                    null);
+        }
+        return null;
+    }
+
+    private final String resultTypeName;
+    private final long start;
+    private final long count;
+
+    QueryMemento(final String resultTypeName, final long start, final long count) {
+        this.resultTypeName = resultTypeName;
+        this.start = start;
+        this.count = count;
+    }
+
+    public String getResultTypeName() {
+        return resultTypeName;
+    }
+
+    long getStart() {
+        return start;
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    /**
+     * Recreates the query, looking up any domain objects used as arguments.
+     */
+    public abstract Query<?> asQuery(
+            final PersistenceSession persistenceSession,
+            final SpecificationLoader specificationLoader);
+
+    Class<Object> resultTypeUsing(final SpecificationLoader specificationLoader) {
+        final ObjectSpecification resultSpec = specificationLoader.loadSpecification(resultTypeName);
+        @SuppressWarnings("unchecked")
+        final Class<Object> resultType = (Class<Object>) resultSpec.getCorrespondingClass();
+        return resultType;
+    }
+
+    // -- Named
+
+    static class Named extends QueryMemento {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String queryName;
+        private final Map<String, Arg> argsByParameterName;
+
+        Named(
+                final String resultTypeName,
+                final long start,
+                final long count,
+                final String queryName,
+                final Map<String, Arg> argsByParameterName) {
+            super(resultTypeName, start, count);
+            this.queryName = queryName;
+            this.argsByParameterName = argsByParameterName;
+        }
+
+        Map<String, Arg> getArgsByParameterName() {
+            return argsByParameterName;
+        }
+
+        @Override
+        public Query<?> asQuery(
+                final PersistenceSession persistenceSession,
+                final SpecificationLoader specificationLoader) {
+            final Map<String, Object> argumentsByParameterName = Maps.newLinkedHashMap();
+            for (final Map.Entry<String, Arg> entry : argsByParameterName.entrySet()) {
+                argumentsByParameterName.put(
+                        entry.getKey(), entry.getValue().asObject(persistenceSession, specificationLoader));
+            }
+            final QueryDefault<Object> query = QueryDefault.create(
+                    resultTypeUsing(specificationLoader), queryName, argumentsByParameterName);
+            if(getStart() > 0) {
+                query.withStart(getStart());
+            }
+            if(getCount() > 0) {
+                query.withCount(getCount());
+            }
+            return query;
+        }
+    }
+
+    // -- AllInstances
+
+    static class AllInstances extends QueryMemento {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Populated only if the query was {@link QueryFindAllInstancesMatching restricted} by a predicate.
+         */
+        private final PredicateMemento predicate;
+
+        AllInstances(
+                final String resultTypeName,
+                final long start,
+                final long count,
+                final PredicateMemento predicate) {
+            super(resultTypeName, start, count);
+            this.predicate = predicate;
+        }
+
+        @Override
+        public Query<?> asQuery(
+                final PersistenceSession persistenceSession,
+                final SpecificationLoader specificationLoader) {
+            final Class<Object> resultType = resultTypeUsing(specificationLoader);
+            return predicate != null
+                    ? new QueryFindAllInstancesMatching<>(
+                            resultType, predicate.asPredicate(persistenceSession, specificationLoader),
+                            getStart(), getCount())
+                    : new QueryFindAllInstances<>(resultType, getStart(), getCount());
+        }
+    }
+
+    // -- PredicateMemento
+
+    /**
+     * Mirrors the (closed) hierarchy of {@link QueryPredicate}.
+     */
+    abstract static class PredicateMemento implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        static PredicateMemento of(
+                final QueryPredicate<?> predicate,
+                final PersistenceSession persistenceSession) {
+            if(predicate instanceof QueryPredicate.Comparison) {
+                final QueryPredicate.Comparison<?> comparison = (QueryPredicate.Comparison<?>) predicate;
+                return new ComparisonMemento(
+                        comparison.getProperty(), comparison.getOperator(),
+                        Arg.of(comparison.getValue(), persistenceSession));
+            }
+            if(predicate instanceof QueryPredicate.Junction) {
+                final QueryPredicate.Junction<?> junction = (QueryPredicate.Junction<?>) predicate;
+                final List<PredicateMemento> predicates = Lists.newArrayList();
+                for (final QueryPredicate<?> each : junction.getPredicates()) {
+                    predicates.add(of(each, persistenceSession));
+                }
+                return new JunctionMemento(junction.getKind(), predicates);
+            }
+            if(predicate instanceof QueryPredicate.Negation) {
+                final QueryPredicate.Negation<?> negation = (QueryPredicate.Negation<?>) predicate;
+                return new NegationMemento(of(negation.getPredicate(), persistenceSession));
+            }
+            throw new IllegalArgumentException("Unsupported predicate: " + predicate);
+        }
+
+        abstract QueryPredicate<Object> asPredicate(
+                final PersistenceSession persistenceSession,
+                final SpecificationLoader specificationLoader);
+    }
+
+    static class ComparisonMemento extends PredicateMemento {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String property;
+        private final QueryPredicate.Operator operator;
+        private final Arg value;
+
+        ComparisonMemento(final String property, final QueryPredicate.Operator operator, final Arg value) {
+            this.property = property;
+            this.operator = operator;
+            this.value = value;
+        }
+
+        @Override
+        QueryPredicate<Object> asPredicate(
+                final PersistenceSession persistenceSession,
+                final SpecificationLoader specificationLoader) {
+            final Object value = this.value.asObject(persistenceSession, specificationLoader);
+            switch (operator) {
+            case EQ:
+                return QueryPredicate.eq(property, value);
+            case NE:
+                return QueryPredicate.ne(property, value);
+            case LT:
+                return QueryPredicate.lt(property, (Comparable<?>) value);
+            case LE:
+                return QueryPredicate.le(property, (Comparable<?>) value);
+            case GT:
+                return QueryPredicate.gt(property, (Comparable<?>) value);
+            case GE:
+                return QueryPredicate.ge(property, (Comparable<?>) value);
+            case STARTS_WITH:
+                return QueryPredicate.startsWith(property, (String) value);
+            default:
+                throw new IllegalStateException("Unknown operator: " + operator);
+            }
+        }
+    }
+
+    static class JunctionMemento extends PredicateMemento {
+
+        private static final long serialVersionUID = 1L;
+
+        private final QueryPredicate.Junction.Kind kind;
+        private final List<PredicateMemento> predicates;
+
+        JunctionMemento(final QueryPredicate.Junction.Kind kind, final List<PredicateMemento> predicates) {
+            this.kind = kind;
+            this.predicates = predicates;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        QueryPredicate<Object> asPredicate(
+                final PersistenceSession persistenceSession,
+                final SpecificationLoader specificationLoader) {
+            final QueryPredicate<Object>[] queryPredicates = new QueryPredicate[predicates.size()];
+            for (int i = 0; i < queryPredicates.length; i++) {
+                queryPredicates[i] = predicates.get(i).asPredicate(persistenceSession, specificationLoader);
+            }
+            return kind == QueryPredicate.Junction.Kind.AND
+                    ? QueryPredicate.allOf(queryPredicates)
+                    : QueryPredicate.anyOf(queryPredicates);
+        }
+    }
+
+    static class NegationMemento extends PredicateMemento {
+
+        private static final long serialVersionUID = 1L;
+
+        private final PredicateMemento predicate;
+
+        NegationMemento(final PredicateMemento predicate) {
+            this.predicate = predicate;
+        }
+
+        @Override
+        QueryPredicate<Object> asPredicate(
+                final PersistenceSession persistenceSession,
+                final SpecificationLoader specificationLoader) {
+            return QueryPredicate.not(predicate.asPredicate(persistenceSession, specificationLoader));
+        }
+    }
+
+    // -- Arg
+
+    /**
+     * An argument of the query; either a domain object, held by way of its {@link ObjectAdapterMemento}, or a value
+     * (which, as for any query argument, is required to be {@link Serializable}).
+     */
+    static class Arg implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        static Arg of(final Object argument, final PersistenceSession persistenceSession) {
+            if(argument == null) {
+                return new Arg(null, null);
+            }
+            final ObjectAdapter adapter = persistenceSession.adapterFor(argument);
+            final ObjectSpecification specification = adapter.getSpecification();
+            if(specification.isPersistenceCapableOrViewModel()) {
+                return new Arg(ObjectAdapterMemento.createOrNull(adapter), null);
+            }
+            return new Arg(null, (Serializable) argument);
+        }
+
+        private final ObjectAdapterMemento domainObject;
+        private final Serializable value;
+
+        private Arg(final ObjectAdapterMemento domainObject, final Serializable value) {
+            this.domainObject = domainObject;
+            this.value = value;
+        }
+
+        ObjectAdapterMemento getDomainObject() {
+            return domainObject;
+        }
+
+        Object asObject(
+                final PersistenceSession persistenceSession,
+                final SpecificationLoader specificationLoader) {
+            if(domainObject == null) {
+                return value;
+            }
+            return domainObject.getObjectAdapter(
+                    ConcurrencyChecking.NO_CHECK, persistenceSession, specificationLoader).getObject();
+        }
+    }
+
+}
@@ -19,9 +19,11 @@
 
 package org.apache.isis.viewer.wicket.model.models;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -36,9 +38,9 @@
 import org.apache.wicket.request.http.handler.RedirectRequestHandler;
 import org.apache.wicket.request.mapper.parameter.PageParameters;
 import org.apache.wicket.request.resource.ContentDisposition;
-import org.apache.wicket.util.resource.AbstractResourceStream;
+import org.apache.wicket.util.lang.Bytes;
+import org.apache.wicket.util.resource.AbstractResourceStreamWriter;
 import org.apache.wicket.util.resource.IResourceStream;
-import org.apache.wicket.util.resource.ResourceStreamNotFoundException;
 import org.apache.wicket.util.resource.StringResourceStream;
 
 import org.apache.isis.applib.Identifier;
@@ -598,14 +600,18 @@ public static IRequestHandler downloadHandler(final Object value) {
         return null;
     }
     
+    /**
+     * Copies the content to the response in chunks (so that a {@link Blob#isStreaming() streaming} blob is never
+     * held in memory).
+     */
     private static IResourceStream resourceStreamFor(final Blob blob) {
-        final IResourceStream resourceStream = new AbstractResourceStream() {
+        final IResourceStream resourceStream = new AbstractResourceStreamWriter() {
 
             private static final long serialVersionUID = 1L;
 
             @Override
-            public InputStream getInputStream() throws ResourceStreamNotFoundException {
-                return new ByteArrayInputStream(blob.getBytes());
+            public void write(final OutputStream output) throws IOException {
+                blob.writeBytesTo(output);
             }
 
             @Override
@@ -614,13 +620,33 @@ public String getContentType() {
             }
 
             @Override
-            public void close() throws IOException {
+            public Bytes length() {
+                final long length = blob.getLength();
+                return length >= 0 ? Bytes.bytes(length) : null;
             }
         };
         return resourceStream;
     }
 
     private static IResourceStream resourceStreamFor(final Clob clob) {
+        if(clob.isStreaming()) {
+            return new AbstractResourceStreamWriter() {
+
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                public void write(final OutputStream output) throws IOException {
+                    final Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+                    clob.writeCharsTo(writer);
+                    writer.flush();
+                }
+
+                @Override
+                public String getContentType() {
+                    return clob.getMimeType().toString();
+                }
+            };
+        }
         final IResourceStream resourceStream = new StringResourceStream(clob.getChars(), clob.getMimeType().toString());
         return resourceStream;
     }
@@ -19,6 +19,9 @@
 
 package org.apache.isis.viewer.wicket.model.models;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.Collections;
@@ -28,6 +31,9 @@
 
 import org.apache.isis.applib.internal.base._NullSafe;
 import org.apache.isis.applib.layout.component.CollectionLayoutData;
+import org.apache.isis.applib.query.Query;
+import org.apache.isis.applib.services.repository.PageableQueryResults;
+import org.apache.isis.applib.services.repository.RepositoryService;
 import org.apache.isis.core.commons.factory.InstanceUtil;
 import org.apache.isis.core.commons.lang.ClassUtil;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
@@ -37,6 +43,8 @@
 import org.apache.isis.core.metamodel.facets.collections.sortedby.SortedByFacet;
 import org.apache.isis.core.metamodel.facets.object.paged.PagedFacet;
 import org.apache.isis.core.metamodel.facets.object.plural.PluralFacet;
+import org.apache.isis.core.metamodel.interactions.InteractionUtils;
+import org.apache.isis.core.metamodel.spec.Hierarchical;
 import org.apache.isis.core.metamodel.spec.ObjectSpecId;
 import org.apache.isis.core.metamodel.spec.ObjectSpecification;
 import org.apache.isis.core.metamodel.spec.feature.ObjectAction;
@@ -48,6 +56,7 @@
 import org.apache.isis.viewer.wicket.model.links.LinksProvider;
 import org.apache.isis.viewer.wicket.model.mementos.CollectionMemento;
 import org.apache.isis.viewer.wicket.model.mementos.ObjectAdapterMemento;
+import org.apache.isis.viewer.wicket.model.mementos.QueryMemento;
 import org.apache.wicket.Component;
 
 import com.google.common.base.Predicates;
@@ -85,6 +94,10 @@ public enum Type {
             @Override
             List<ObjectAdapter> load(final EntityCollectionModel entityCollectionModel) {
 
+                if(entityCollectionModel.isPageable()) {
+                    return entityCollectionModel.loadPage(null, true, 0, 0);
+                }
+
                 final boolean bulkLoad = entityCollectionModel.getPersistenceSession().getConfiguration()
                         .getBoolean(KEY_BULK_LOAD, false);
                 final Iterable<ObjectAdapter> values = bulkLoad
@@ -109,6 +122,7 @@ private Iterable<ObjectAdapter> loadInBulk(final EntityCollectionModel model) {
 
             private Iterable<ObjectAdapter> loadOneByOne(final EntityCollectionModel model) {
                 final List<ObjectAdapterMemento> mementoList = model.mementoList;
+                ObjectAdapterMemento.enqueueForLoading(mementoList, model.getPersistenceSession());
                 return FluentIterable.from(mementoList)
                             .transform(
                                 ObjectAdapterMemento.Functions.fromMemento(
@@ -120,6 +134,7 @@ private Iterable<ObjectAdapter> loadOneByOne(final EntityCollectionModel model)
 
             @Override
             void setObject(final EntityCollectionModel entityCollectionModel, final List<ObjectAdapter> list) {
+                entityCollectionModel.queryMemento = null;
                 entityCollectionModel.mementoList = Lists.newArrayList(
                         Iterables.filter(
                                 Iterables.transform(list, ObjectAdapterMemento.Functions.toMemento()),
@@ -139,7 +154,9 @@ public String getName(final EntityCollectionModel model) {
 
             @Override
             public int getCount(final EntityCollectionModel model) {
-                return model.mementoList.size();
+                return model.isPageable()
+                        ? (int) model.getRepositoryService().count(model.getQuery())
+                        : model.mementoList.size();
             }
 
             @Override
@@ -252,6 +269,11 @@ void searchThrough(Iterable<?> list) {
     public static EntityCollectionModel createStandalone(
             final ObjectAdapter collectionAsAdapter,
             final IsisSessionFactory sessionFactory) {
+        final QueryMemento queryMemento = queryMementoIfPageable(collectionAsAdapter.getObject(), sessionFactory);
+        if(queryMemento != null) {
+            return createPageable(queryMemento, sessionFactory);
+        }
+
         final Iterable<Object> pojos = EntityCollectionModel.asIterable(collectionAsAdapter);
 
         final List<ObjectAdapterMemento> mementoList =
@@ -285,6 +307,59 @@ public static EntityCollectionModel createStandalone(
         return new EntityCollectionModel(elementType, mementoList, pageSize);
     }
 
+    /**
+     * Factory, for an action that returned {@link PageableQueryResults}; rather than holding a memento for every
+     * result, the model holds a memento of the query and resubmits it, a page at a time.
+     */
+    private static EntityCollectionModel createPageable(
+            final QueryMemento queryMemento,
+            final IsisSessionFactory sessionFactory) {
+        final ObjectSpecification elementSpec =
+                sessionFactory.getSpecificationLoader().loadSpecification(queryMemento.getResultTypeName());
+        final int pageSize = pageSize(elementSpec.getFacet(PagedFacet.class), PAGE_SIZE_DEFAULT_FOR_STANDALONE);
+
+        final EntityCollectionModel model = new EntityCollectionModel(
+                elementSpec.getCorrespondingClass(), Lists.<ObjectAdapterMemento>newArrayList(), pageSize);
+        model.queryMemento = queryMemento;
+        return model;
+    }
+
+    /**
+     * If the collection is {@link PageableQueryResults} that can be paged by the datastore, then a memento of its
+     * query, otherwise <tt>null</tt> (in which case the results are held as a list of mementos as usual).
+     *
+     * <p>
+     * As well as the query needing to be of a supported type, the instances must not need to be filtered for
+     * visibility, as that would leave the pages short of the count.
+     * </p>
+     */
+    static QueryMemento queryMementoIfPageable(
+            final Object collection,
+            final IsisSessionFactory sessionFactory) {
+        if(!(collection instanceof PageableQueryResults)) {
+            return null;
+        }
+        final Query<?> query = ((PageableQueryResults<?>) collection).getQuery();
+        final ObjectSpecification elementSpec =
+                sessionFactory.getSpecificationLoader().loadSpecification(query.getResultType());
+        if(mayHideInstances(elementSpec)) {
+            return null;
+        }
+        return QueryMemento.createOrNull(query, sessionFactory.getCurrentSession().getPersistenceSession());
+    }
+
+    static boolean mayHideInstances(final ObjectSpecification elementSpec) {
+        if(InteractionUtils.hasHidingAdvisors(elementSpec)) {
+            return true;
+        }
+        for (final ObjectSpecification subclassSpec : elementSpec.subclasses(Hierarchical.Depth.TRANSITIVE)) {
+            if(InteractionUtils.hasHidingAdvisors(subclassSpec)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * The {@link ActionModel model} of the {@link ObjectAction action} 
      * that generated this {@link EntityCollectionModel}.
@@ -324,13 +399,23 @@ public Type getType() {
 
     /**
      * Populated only if {@link Type#STANDALONE}.
+     *
+     * <p>
+     *     Transient because written as a packed array; see {@link #writeObject(ObjectOutputStream)}.
+     * </p>
      */
-    private List<ObjectAdapterMemento> mementoList;
+    private transient List<ObjectAdapterMemento> mementoList;
+
+    /**
+     * Optionally populated only if {@link Type#STANDALONE}, if the action returned {@link PageableQueryResults};
+     * in which case the {@link #mementoList} is unused.
+     */
+    private QueryMemento queryMemento;
 
     /**
      * Populated only if {@link Type#STANDALONE}.
      */
-    private List<ObjectAdapterMemento> toggledMementosList;
+    private transient List<ObjectAdapterMemento> toggledMementosList;
 
     /**
      * Populated only if {@link Type#PARENTED}.
@@ -421,6 +506,39 @@ public boolean isStandalone() {
     public int getPageSize() {
         return pageSize;
     }
+
+    /**
+     * Whether the contents are obtained by resubmitting a query, in which case they can be paged and sorted by the
+     * datastore; see {@link #loadPage(String, boolean, long, long)}.
+     */
+    public boolean isPageable() {
+        return queryMemento != null;
+    }
+
+    /**
+     * Only if {@link #isPageable() pageable}; recreated (looking up any domain objects used as arguments) each time.
+     */
+    Query<?> getQuery() {
+        return queryMemento.asQuery(getPersistenceSession(), getSpecificationLoader());
+    }
+
+    /**
+     * Only if {@link #isPageable() pageable}; the contents ordered by the (persisted) property and (if
+     * <tt>count</tt> is non-zero) restricted to the range, both evaluated by the datastore.
+     */
+    public List<ObjectAdapter> loadPage(
+            final String orderBy,
+            final boolean ascending,
+            final long first,
+            final long count) {
+        final List<?> pojos = getRepositoryService().allMatches(getQuery(), orderBy, ascending, first, count);
+        return Lists.newArrayList(
+                Iterables.transform(pojos, ObjectAdapter.Functions.adapterForUsing(getPersistenceSession())));
+    }
+
+    private RepositoryService getRepositoryService() {
+        return getIsisSessionFactory().getServicesInjector().lookupService(RepositoryService.class);
+    }
     
     /**
      * The name of the collection (if has an entity, ie, if
@@ -469,6 +587,13 @@ public void setObject(List<ObjectAdapter> list) {
      * Not API, but to refresh the model list.
      */
     public void setObjectList(ObjectAdapter resultAdapter) {
+        final QueryMemento queryMemento = queryMementoIfPageable(resultAdapter.getObject(), getIsisSessionFactory());
+        if(queryMemento != null) {
+            this.queryMemento = queryMemento;
+            this.mementoList = Lists.newArrayList();
+            return;
+        }
+        this.queryMemento = null;
         final Iterable<Object> pojos = EntityCollectionModel.asIterable(resultAdapter);
         this.mementoList = Lists.newArrayList(
                 Iterables.transform(pojos, ObjectAdapterMemento.Functions.fromPojo(getPersistenceSession())));
@@ -535,6 +660,20 @@ public EntityCollectionModel asDummy() {
 
     // //////////////////////////////////////
 
+    private void writeObject(final ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        ObjectAdapterMemento.writeList(out, mementoList);
+        ObjectAdapterMemento.writeList(out, toggledMementosList);
+    }
+
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        this.mementoList = ObjectAdapterMemento.readList(in);
+        this.toggledMementosList = ObjectAdapterMemento.readList(in);
+    }
+
+    // //////////////////////////////////////
+
     public static final String HINT_KEY_SELECTED_ITEM = "selectedItem";
 
     /**
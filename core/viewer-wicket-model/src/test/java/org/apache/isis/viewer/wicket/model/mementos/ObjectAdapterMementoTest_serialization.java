@@ -0,0 +1,99 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.viewer.wicket.model.mementos;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import org.apache.isis.core.metamodel.adapter.oid.Oid;
+import org.apache.isis.core.metamodel.adapter.oid.RootOid;
+import org.apache.isis.core.metamodel.spec.ObjectSpecId;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class ObjectAdapterMementoTest_serialization {
+
+    private static final ObjectSpecId CUS = ObjectSpecId.of("CUS");
+
+    @Test
+    public void persistent() throws Exception {
+        final ObjectAdapterMemento memento = ObjectAdapterMemento.createPersistent(RootOid.create(CUS, "123", 4L));
+
+        final ObjectAdapterMemento roundTripped = roundTrip(memento);
+
+        assertThat(roundTripped, is(memento));
+        assertThat(roundTripped.toString(), is(memento.toString()));
+        assertThat(roundTripped.asBookmark(), is(memento.asBookmark()));
+        assertThat(roundTripped.getObjectSpecId(), is(CUS));
+    }
+
+    @Test
+    public void view_model() throws Exception {
+        final ObjectAdapterMemento memento = ObjectAdapterMemento.createPersistent(
+                new RootOid(CUS, "abc", Oid.State.VIEWMODEL));
+
+        final ObjectAdapterMemento roundTripped = roundTrip(memento);
+
+        assertThat(roundTripped, is(memento));
+        assertThat(roundTripped.asBookmark(), is(memento.asBookmark()));
+    }
+
+    @Test
+    public void list_including_nulls() throws Exception {
+        final ArrayList<ObjectAdapterMemento> list = new ArrayList<>(Arrays.asList(
+                ObjectAdapterMemento.createPersistent(RootOid.create(CUS, "1")),
+                null,
+                ObjectAdapterMemento.createPersistent(RootOid.create(CUS, "2"))));
+        final ObjectAdapterMemento memento = ObjectAdapterMemento.createForList(list, CUS);
+
+        final ObjectAdapterMemento roundTripped = roundTrip(memento);
+
+        final ArrayList<ObjectAdapterMemento> roundTrippedList = roundTripped.getList();
+        assertThat(roundTrippedList.size(), is(3));
+        assertThat(roundTrippedList.get(0), is(list.get(0)));
+        assertThat(roundTrippedList.get(1), is(nullValue()));
+        assertThat(roundTrippedList.get(2), is(list.get(2)));
+    }
+
+    private static ObjectAdapterMemento roundTrip(final ObjectAdapterMemento memento)
+            throws IOException, ClassNotFoundException {
+        final byte[] bytes = serialize(memento);
+        try (final ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (ObjectAdapterMemento) ois.readObject();
+        }
+    }
+
+    private static byte[] serialize(final Object object) throws IOException {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (final ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+            oos.writeObject(object);
+        }
+        return baos.toByteArray();
+    }
+
+}
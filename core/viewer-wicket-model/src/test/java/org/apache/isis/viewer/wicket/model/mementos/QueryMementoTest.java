@@ -0,0 +1,192 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.viewer.wicket.model.mementos;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableMap;
+
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.applib.query.Query;
+import org.apache.isis.applib.query.QueryDefault;
+import org.apache.isis.applib.query.QueryFindAllInstances;
+import org.apache.isis.applib.query.QueryFindAllInstancesMatching;
+import org.apache.isis.applib.query.QueryPredicate;
+import org.apache.isis.applib.services.bookmark.Bookmark;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.adapter.oid.RootOid;
+import org.apache.isis.core.metamodel.facets.object.encodeable.EncodableFacet;
+import org.apache.isis.core.metamodel.spec.ObjectSpecId;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.specloader.SpecificationLoader;
+import org.apache.isis.core.runtime.system.persistence.PersistenceSession;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class QueryMementoTest {
+
+    public static class Customer {
+    }
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(JUnitRuleMockery2.Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    PersistenceSession mockPersistenceSession;
+    @Mock
+    SpecificationLoader mockSpecificationLoader;
+    @Mock
+    ObjectSpecification mockCustomerSpec;
+    @Mock
+    ObjectSpecification mockValueSpec;
+    @Mock
+    ObjectAdapter mockCustomerAdapter;
+    @Mock
+    ObjectAdapter mockValueAdapter;
+
+    private final Customer customer = new Customer();
+
+    @Before
+    public void setUp() throws Exception {
+        context.checking(new Expectations() {{
+            allowing(mockSpecificationLoader).loadSpecification(Customer.class.getName());
+            will(returnValue(mockCustomerSpec));
+            allowing(mockCustomerSpec).getCorrespondingClass();
+            will(returnValue(Customer.class));
+
+            allowing(mockPersistenceSession).adapterFor(customer);
+            will(returnValue(mockCustomerAdapter));
+            allowing(mockCustomerAdapter).getObject();
+            will(returnValue(customer));
+            allowing(mockCustomerAdapter).getSpecification();
+            will(returnValue(mockCustomerSpec));
+            allowing(mockCustomerAdapter).getOid();
+            will(returnValue(RootOid.create(ObjectSpecId.of("CUS"), "123")));
+            allowing(mockCustomerSpec).getSpecId();
+            will(returnValue(ObjectSpecId.of("CUS")));
+            allowing(mockCustomerSpec).getFacet(EncodableFacet.class);
+            will(returnValue(null));
+            allowing(mockCustomerSpec).isPersistenceCapableOrViewModel();
+            will(returnValue(true));
+
+            allowing(mockPersistenceSession).adapterFor(with(any(String.class)));
+            will(returnValue(mockValueAdapter));
+            allowing(mockPersistenceSession).adapterFor(with(any(Integer.class)));
+            will(returnValue(mockValueAdapter));
+            allowing(mockValueAdapter).getSpecification();
+            will(returnValue(mockValueSpec));
+            allowing(mockValueSpec).isPersistenceCapableOrViewModel();
+            will(returnValue(false));
+        }});
+    }
+
+    @Test
+    public void named_query_with_values() throws Exception {
+        final QueryDefault<Customer> query = QueryDefault.create(
+                Customer.class, "findByName", "name", "Smith", "age", 42).withStart(10).withCount(5);
+
+        final QueryMemento memento = roundTrip(QueryMemento.createOrNull(query, mockPersistenceSession));
+        final Query<?> recreated = memento.asQuery(mockPersistenceSession, mockSpecificationLoader);
+
+        assertThat(recreated, is(instanceOf(QueryDefault.class)));
+        final QueryDefault<?> recreatedDefault = (QueryDefault<?>) recreated;
+        assertThat(recreatedDefault.getResultType().getName(), is(Customer.class.getName()));
+        assertThat(recreatedDefault.getQueryName(), is("findByName"));
+        final Map<String, Object> expectedArgs = ImmutableMap.<String, Object>of("name", "Smith", "age", 42);
+        assertThat(recreatedDefault.getArgumentsByParameterName(), is(expectedArgs));
+        assertThat(recreatedDefault.getStart(), is(10L));
+        assertThat(recreatedDefault.getCount(), is(5L));
+    }
+
+    @Test
+    public void named_query_with_domain_object_holds_bookmark() throws Exception {
+        final QueryDefault<Customer> query = QueryDefault.create(Customer.class, "findByReferrer", "referrer", customer);
+
+        final QueryMemento.Named memento =
+                (QueryMemento.Named) roundTrip(QueryMemento.createOrNull(query, mockPersistenceSession));
+
+        final QueryMemento.Arg arg = argOf(memento, "referrer");
+        assertThat(arg.getDomainObject().asBookmark(), is(new Bookmark("CUS", "123")));
+    }
+
+    @Test
+    public void all_instances() throws Exception {
+        final QueryFindAllInstances<Customer> query = new QueryFindAllInstances<>(Customer.class);
+
+        final Query<?> recreated = roundTrip(QueryMemento.createOrNull(query, mockPersistenceSession))
+                .asQuery(mockPersistenceSession, mockSpecificationLoader);
+
+        assertThat(recreated.getClass().getName(), is(QueryFindAllInstances.class.getName()));
+        assertThat(recreated.getResultType().getName(), is(Customer.class.getName()));
+    }
+
+    @Test
+    public void all_instances_matching() throws Exception {
+        final QueryPredicate<Customer> predicate = QueryPredicate.allOf(
+                QueryPredicate.<Customer>startsWith("name", "Sm"),
+                QueryPredicate.not(QueryPredicate.<Customer>gt("age", 42)),
+                QueryPredicate.anyOf(
+                        QueryPredicate.<Customer>isNull("email"),
+                        QueryPredicate.<Customer>ne("email", "x@example.com")));
+        final QueryFindAllInstancesMatching<Customer> query =
+                new QueryFindAllInstancesMatching<>(Customer.class, predicate);
+
+        final Query<?> recreated = roundTrip(QueryMemento.createOrNull(query, mockPersistenceSession))
+                .asQuery(mockPersistenceSession, mockSpecificationLoader);
+
+        assertThat(recreated, is(instanceOf(QueryFindAllInstancesMatching.class)));
+        assertThat(((QueryFindAllInstancesMatching<?>) recreated).getPredicate().toString(),
+                is(predicate.toString()));
+    }
+
+    @Test
+    public void unsupported_query() throws Exception {
+        final Query<?> customQuery = context.mock(Query.class);
+
+        assertThat(QueryMemento.createOrNull(customQuery, mockPersistenceSession), is(nullValue()));
+    }
+
+    private static QueryMemento.Arg argOf(final QueryMemento.Named memento, final String parameterName) {
+        return memento.getArgsByParameterName().get(parameterName);
+    }
+
+    private static QueryMemento roundTrip(final QueryMemento memento) throws IOException, ClassNotFoundException {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (final ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+            oos.writeObject(memento);
+        }
+        try (final ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()))) {
+            return (QueryMemento) ois.readObject();
+        }
+    }
+}
@@ -19,9 +19,11 @@
 
 package org.apache.isis.viewer.wicket.ui.components.collectioncontents.ajaxtable;
 
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
+import com.google.common.base.Function;
 import com.google.common.base.Predicate;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
@@ -47,6 +49,12 @@
 
 /**
  * Part of the {@link AjaxFallbackDefaultDataTable} API.
+ *
+ * <p>
+ *     If the {@link EntityCollectionModel#isPageable() model is pageable} then the paging and (if sorted by a
+ *     persisted value property) the sorting are pushed down to the datastore; otherwise the collection is sorted
+ *     and paged in memory.
+ * </p>
  */
 public class CollectionContentsSortableDataProvider extends SortableDataProvider<ObjectAdapter,String> {
 
@@ -65,7 +73,9 @@ public IModel<ObjectAdapter> model(final ObjectAdapter adapter) {
 
     @Override
     public long size() {
-        return model.getObject().size();
+        return model.isPageable()
+                ? model.getCount()
+                : model.getObject().size();
     }
 
     @Override
@@ -81,6 +91,18 @@ public EntityCollectionModel getEntityCollectionModel() {
     @Override
     public Iterator<ObjectAdapter> iterator(final long first, final long count) {
 
+        if(model.isPageable()) {
+            final SortParam<String> sort = getSort();
+            final ObjectAssociation sortProperty = lookupAssociationFor(sort);
+            if(sortProperty == null || isOrderableByDatastore(sortProperty)) {
+                final String orderBy = sortProperty != null ? sortProperty.getId() : null;
+                final boolean ascending = sort == null || sort.isAscending();
+                // only pageable if none of the instances can be hidden, so no need to filter (which would leave the
+                // page short of the count)
+                return model.loadPage(orderBy, ascending, first, count).iterator();
+            }
+        }
+
         final List<ObjectAdapter> adapters = model.getObject();
 
         final Iterable<ObjectAdapter> visibleAdapters =
@@ -105,6 +127,16 @@ private static List<ObjectAdapter> subList(
         return objectAdapters.subList(fromIndex, toIndex);
     }
 
+    /**
+     * Only persisted value properties are ordered by the datastore; the natural (in-memory) ordering of references
+     * need not correspond to the ordering of their foreign keys.
+     */
+    private static boolean isOrderableByDatastore(final ObjectAssociation sortProperty) {
+        return sortProperty.isOneToOneAssociation()
+                && !sortProperty.isNotPersisted()
+                && sortProperty.getSpecification().isValue();
+    }
+
     private List<ObjectAdapter> sortedCopy(
             final Iterable<ObjectAdapter> adapters,
             final SortParam<String> sort) {
@@ -114,9 +146,28 @@ private List<ObjectAdapter> sortedCopy(
             return Lists.newArrayList(adapters);
         }
 
-        final Ordering<ObjectAdapter> ordering =
-                orderingBy(sortProperty, sort.isAscending());
-        return ordering.sortedCopy(adapters);
+        // obtain each sort key just once, rather than (twice) for every comparison
+        final List<SortKeyed> sortKeyedAdapters = Lists.newArrayList();
+        for (final ObjectAdapter adapter : adapters) {
+            sortKeyedAdapters.add(new SortKeyed(adapter, sortProperty.get(adapter, InteractionInitiatedBy.FRAMEWORK)));
+        }
+        Collections.sort(sortKeyedAdapters, orderingBy(sort.isAscending()));
+
+        final List<ObjectAdapter> sortedAdapters = Lists.newArrayListWithCapacity(sortKeyedAdapters.size());
+        for (final SortKeyed sortKeyed : sortKeyedAdapters) {
+            sortedAdapters.add(sortKeyed.adapter);
+        }
+        return sortedAdapters;
+    }
+
+    private static class SortKeyed {
+        private final ObjectAdapter adapter;
+        private final ObjectAdapter sortKey;
+
+        SortKeyed(final ObjectAdapter adapter, final ObjectAdapter sortKey) {
+            this.adapter = adapter;
+            this.sortKey = sortKey;
+        }
     }
 
     private ObjectAssociation lookupAssociationFor(final SortParam<String> sort) {
@@ -153,23 +204,19 @@ private VisibilityContext<?> createVisibleInteractionContext(final ObjectAdapter
                 Where.ALL_TABLES);
     }
 
-    private static Ordering<ObjectAdapter> orderingBy(final ObjectAssociation sortProperty, final boolean ascending) {
-        final Ordering<ObjectAdapter> ordering = new Ordering<ObjectAdapter>(){
-    
+    private static Ordering<SortKeyed> orderingBy(final boolean ascending) {
+        final Ordering<ObjectAdapter> naturalOrdering;
+        if(ascending){
+            naturalOrdering = ORDERING_BY_NATURAL.nullsFirst();
+        } else {
+            naturalOrdering = ORDERING_BY_NATURAL.reverse().nullsLast();
+        }
+        return naturalOrdering.onResultOf(new Function<SortKeyed, ObjectAdapter>() {
             @Override
-            public int compare(final ObjectAdapter p, final ObjectAdapter q) {
-                final ObjectAdapter pSort = sortProperty.get(p, InteractionInitiatedBy.FRAMEWORK);
-                final ObjectAdapter qSort = sortProperty.get(q, InteractionInitiatedBy.FRAMEWORK);
-                Ordering<ObjectAdapter> naturalOrdering;
-                if(ascending){
-                    naturalOrdering = ORDERING_BY_NATURAL.nullsFirst();
-                } else {
-                    naturalOrdering = ORDERING_BY_NATURAL.reverse().nullsLast();
-                }
-                return naturalOrdering.compare(pSort, qSort);
+            public ObjectAdapter apply(final SortKeyed sortKeyed) {
+                return sortKeyed.sortKey;
             }
-        };
-        return ordering;
+        });
     }
 
     private static Ordering<ObjectAdapter> ORDERING_BY_NATURAL = new Ordering<ObjectAdapter>(){
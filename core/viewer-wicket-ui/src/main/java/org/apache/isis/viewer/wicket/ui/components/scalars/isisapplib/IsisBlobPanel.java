@@ -22,7 +22,6 @@
 
 import java.util.List;
 import org.apache.wicket.markup.html.form.upload.FileUpload;
-import org.apache.wicket.request.resource.ByteArrayResource;
 import org.apache.wicket.request.resource.IResource;
 import org.apache.isis.applib.value.Blob;
 import org.apache.isis.viewer.wicket.model.models.ScalarModel;
@@ -49,7 +48,7 @@ protected Blob getBlobOrClobFrom(final List<FileUpload> fileUploads) {
     }
 
     protected IResource newResource(final Blob blob) {
-        return new ByteArrayResource(blob.getMimeType().getBaseType(), blob.getBytes(), blob.getName());
+        return new IsisBlobResource(blob);
     }
 
 
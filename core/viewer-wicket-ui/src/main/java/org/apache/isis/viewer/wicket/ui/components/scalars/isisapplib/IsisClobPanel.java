@@ -24,7 +24,6 @@
 import java.util.List;
 import com.google.common.base.Charsets;
 import org.apache.wicket.markup.html.form.upload.FileUpload;
-import org.apache.wicket.request.resource.CharSequenceResource;
 import org.apache.wicket.request.resource.IResource;
 import org.apache.isis.applib.value.Clob;
 import org.apache.isis.viewer.wicket.model.models.ScalarModel;
@@ -56,7 +55,7 @@ protected Clob getBlobOrClobFrom(final List<FileUpload> fileUploads) {
     }
 
     protected IResource newResource(final Clob clob) {
-        return new CharSequenceResource(clob.getMimeType().getBaseType(), clob.getChars(), clob.getName());
+        return new IsisClobResource(clob);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,71 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.viewer.wicket.ui.components.scalars.isisapplib;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+
+import com.google.common.base.Charsets;
+
+import org.apache.wicket.request.resource.AbstractResource;
+import org.apache.wicket.request.resource.ContentDisposition;
+
+import org.apache.isis.applib.value.Clob;
+
+/**
+ * Downloads a {@link Clob} (encoded as UTF-8), copying its content to the response in chunks.
+ *
+ * <p>
+ * If the clob is {@link Clob#isStreaming() streaming} then its content is only read (from its source) when
+ * downloaded, and is never held in memory, nor in the page state.
+ * </p>
+ */
+public class IsisClobResource extends AbstractResource {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Charset CHARSET = Charsets.UTF_8;
+
+    private final Clob clob;
+
+    public IsisClobResource(final Clob clob) {
+        this.clob = clob;
+    }
+
+    @Override
+    protected ResourceResponse newResourceResponse(final Attributes attributes) {
+        final ResourceResponse response = new ResourceResponse();
+        response.setContentType(clob.getMimeType().getBaseType());
+        response.setTextEncoding(CHARSET.name());
+        response.setFileName(clob.getName());
+        response.setContentDisposition(ContentDisposition.ATTACHMENT);
+        response.setWriteCallback(new WriteCallback() {
+            @Override
+            public void writeData(final Attributes attributes) throws IOException {
+                final Writer writer = new OutputStreamWriter(attributes.getResponse().getOutputStream(), CHARSET);
+                clob.writeCharsTo(writer);
+                writer.flush();
+            }
+        });
+        return response;
+    }
+
+}
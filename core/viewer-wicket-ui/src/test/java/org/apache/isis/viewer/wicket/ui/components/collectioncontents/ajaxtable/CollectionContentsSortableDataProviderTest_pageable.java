@@ -0,0 +1,126 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.isis.viewer.wicket.ui.components.collectioncontents.ajaxtable;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import org.apache.wicket.extensions.markup.html.repeater.data.sort.SortOrder;
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+import org.apache.isis.viewer.wicket.model.models.EntityCollectionModel;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class CollectionContentsSortableDataProviderTest_pageable {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    EntityCollectionModel mockModel;
+    @Mock
+    ObjectSpecification mockElementSpec;
+    @Mock
+    ObjectAssociation mockNameProperty;
+    @Mock
+    ObjectSpecification mockStringSpec;
+    @Mock
+    ObjectAdapter mockAdapter1;
+    @Mock
+    ObjectAdapter mockAdapter2;
+
+    private CollectionContentsSortableDataProvider dataProvider;
+
+    @Before
+    public void setUp() throws Exception {
+        context.checking(new Expectations() {{
+            allowing(mockModel).isPageable();
+            will(returnValue(true));
+            allowing(mockModel).getTypeOfSpecification();
+            will(returnValue(mockElementSpec));
+
+            allowing(mockElementSpec).getAssociation("name");
+            will(returnValue(mockNameProperty));
+            allowing(mockNameProperty).isOneToOneAssociation();
+            will(returnValue(true));
+            allowing(mockNameProperty).isNotPersisted();
+            will(returnValue(false));
+            allowing(mockNameProperty).getSpecification();
+            will(returnValue(mockStringSpec));
+            allowing(mockStringSpec).isValue();
+            will(returnValue(true));
+        }});
+
+        dataProvider = new CollectionContentsSortableDataProvider(mockModel);
+    }
+
+    @Test
+    public void size_is_the_count() throws Exception {
+        context.checking(new Expectations() {{
+            oneOf(mockModel).getCount();
+            will(returnValue(1234));
+            never(mockModel).getObject();
+        }});
+
+        assertThat(dataProvider.size(), is(1234L));
+    }
+
+    @Test
+    public void page_is_loaded_by_datastore_without_filtering() throws Exception {
+        final List<ObjectAdapter> page = Arrays.asList(mockAdapter1, mockAdapter2);
+        context.checking(new Expectations() {{
+            oneOf(mockModel).loadPage(null, true, 20L, 2L);
+            will(returnValue(page));
+            never(mockModel).getObject();
+        }});
+
+        assertThat(toList(dataProvider.iterator(20, 2)), is(page));
+    }
+
+    @Test
+    public void ordering_by_persisted_value_property_is_pushed_down() throws Exception {
+        final List<ObjectAdapter> page = Arrays.asList(mockAdapter2, mockAdapter1);
+        context.checking(new Expectations() {{
+            oneOf(mockModel).loadPage("name", false, 0L, 2L);
+            will(returnValue(page));
+        }});
+
+        dataProvider.setSort("name", SortOrder.DESCENDING);
+
+        assertThat(toList(dataProvider.iterator(0, 2)), is(page));
+    }
+
+    private static List<ObjectAdapter> toList(final Iterator<ObjectAdapter> iterator) {
+        return Lists.newArrayList(iterator);
+    }
+}